@@ -0,0 +1,88 @@
+package com.kindred.benchmarks;
+
+import com.kindred.engine.entity.components.ColliderComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.VelocityComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.systems.CollisionSystem;
+import com.kindred.engine.level.Level;
+import com.kindred.engine.level.Tile;
+import com.kindred.engine.level.TileSet;
+import com.kindred.engine.resource.AssetLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One CollisionSystem pass over moving entities in a walled 128x128-tile level. {@code areaTiles} is
+ * the side of the square they are scattered over, so the same count is tested crowded and spread out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionSystemBenchmark {
+
+    private static final int LEVEL_TILES = 128;
+    private static final int TILE_SIZE = 32;
+
+    @Param({"100", "1000"})
+    public int entityCount;
+
+    @Param({"16", "128"})
+    public int areaTiles;
+
+    private CollisionSystem collisionSystem;
+    private List<VelocityComponent> velocities;
+
+    @Setup
+    public void createWorld() {
+        TileSet tiles = new TileSet(AssetLoader.loadImage(Tile.SHEET_PATH));
+        Level level = new Level(LEVEL_TILES, LEVEL_TILES, TILE_SIZE);
+        for (int y = 0; y < LEVEL_TILES; y++) {
+            for (int x = 0; x < LEVEL_TILES; x++) {
+                boolean edge = x == 0 || y == 0 || x == LEVEL_TILES - 1 || y == LEVEL_TILES - 1;
+                level.setTile(x, y, edge ? tiles.wall : tiles.grass);
+            }
+        }
+        EntityManager entityManager = new EntityManager();
+        Random random = new Random(42);
+        int area = areaTiles * TILE_SIZE;
+        for (int i = 0; i < entityCount; i++) {
+            int entity = entityManager.createEntity();
+            entityManager.addComponent(entity, new PositionComponent(TILE_SIZE + random.nextInt(area - 2 * TILE_SIZE),
+                    TILE_SIZE + random.nextInt(area - 2 * TILE_SIZE)));
+            entityManager.addComponent(entity, new VelocityComponent(0, 0));
+            entityManager.addComponent(entity, new ColliderComponent(20, 12, 6, 20));
+        }
+        velocities = entityManager.getEntitiesWith(VelocityComponent.class).stream()
+                .map(entity -> entityManager.getComponent(entity, VelocityComponent.class))
+                .toList();
+        collisionSystem = new CollisionSystem(entityManager, level);
+    }
+
+    @Benchmark
+    public void update() {
+        // The pass zeroes blocked velocities, so every invocation starts from the same intent
+        for (int i = 0; i < velocities.size(); i++) {
+            VelocityComponent velocity = velocities.get(i);
+            velocity.vx = (i & 1) == 0 ? 2 : -2;
+            velocity.vy = (i & 2) == 0 ? 2 : -2;
+        }
+        collisionSystem.update();
+    }
+}
@@ -0,0 +1,83 @@
+package com.kindred.benchmarks;
+
+import com.kindred.engine.entity.components.ColliderComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.TookDamageComponent;
+import com.kindred.engine.entity.components.VelocityComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The EntityManager calls every system makes each tick. The world mixes component sets the way a
+ * level does: every entity has a position, half move and a tenth collide.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityManagerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int entityCount;
+
+    private EntityManager entityManager;
+    private int next;
+
+    @Setup
+    public void createWorld() {
+        entityManager = new EntityManager();
+        for (int i = 0; i < entityCount; i++) {
+            int entity = entityManager.createEntity();
+            entityManager.addComponent(entity, new PositionComponent(i % 1000, i / 1000));
+            if (i % 2 == 0) entityManager.addComponent(entity, new VelocityComponent(1, 0));
+            if (i % 10 == 0) entityManager.addComponent(entity, new ColliderComponent(16, 16));
+        }
+    }
+
+    /** Next entity id, cycling through the world so lookups are not all cache hits. */
+    private int nextEntity() {
+        int entity = next;
+        next = entity + 1 == entityCount ? 0 : entity + 1;
+        return entity;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<Integer> getEntitiesWithOneComponent() {
+        return entityManager.getEntitiesWith(VelocityComponent.class);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<Integer> getEntitiesWithThreeComponents() {
+        return entityManager.getEntitiesWith(PositionComponent.class, VelocityComponent.class, ColliderComponent.class);
+    }
+
+    @Benchmark
+    public PositionComponent getComponent() {
+        return entityManager.getComponent(nextEntity(), PositionComponent.class);
+    }
+
+    @Benchmark
+    public boolean addAndRemoveComponent() {
+        int entity = nextEntity();
+        entityManager.addComponent(entity, new TookDamageComponent(0.2f));
+        entityManager.removeComponent(entity, TookDamageComponent.class);
+        return entityManager.hasComponent(entity, TookDamageComponent.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.kindred.benchmarks;
+
+import com.kindred.game.dialogue.DialogueContext;
+import com.kindred.game.dialogue.DialogueIntention;
+import com.kindred.game.dialogue.IntentClassification;
+import com.kindred.game.dialogue.IntentClassifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** IntentClassifier.classify over a mix of matched, ambiguous and unknown chat lines. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntentClassifierBenchmark {
+
+    private static final String[] INPUTS = {
+            "hello",
+            "Good morning!",
+            "can you help me?",
+            "I found wolf tracks near the river",
+            "what about logging",
+            "we should move the logging elsewhere",
+            "how is this connected",
+            "help logging",
+            "tell me about the moon temple",
+            "goodbye",
+    };
+
+    private final IntentClassifier classifier = IntentClassifier.createDefault();
+    private final DialogueContext context = DialogueContext.allowing(DialogueIntention.values());
+    private int next;
+
+    @Benchmark
+    public IntentClassification classify() {
+        String input = INPUTS[next];
+        next = next + 1 == INPUTS.length ? 0 : next + 1;
+        return classifier.classify(input, context);
+    }
+}
@@ -0,0 +1,82 @@
+package com.kindred.benchmarks;
+
+import com.kindred.engine.level.Level;
+import com.kindred.engine.level.Tile;
+import com.kindred.engine.level.TileSet;
+import com.kindred.engine.render.Screen;
+import com.kindred.engine.render.TextureAtlas;
+import com.kindred.engine.resource.AssetLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole frame of the level background, as GameMain draws it: beginFrame, Level.render, one
+ * character sprite in the dynamic pass, and the upload. A moving camera repaints every tile; a still
+ * one repaints only the cells the character covered last frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelRenderBenchmark {
+
+    @Param({"true", "false"})
+    public boolean atlas;
+
+    private TileSet tiles;
+    private Level level;
+    private Screen screen;
+    private int[] target;
+    private int frame;
+
+    @Setup
+    public void createLevel() {
+        tiles = new TileSet(AssetLoader.loadImage(Tile.SHEET_PATH));
+        level = new Level(128, 128, 32);
+        for (int y = 0; y < level.getHeight(); y++) {
+            for (int x = 0; x < level.getWidth(); x++) {
+                level.setTile(x, y, (x * 7 + y * 3) % 11 == 0 ? tiles.wall : (x + y) % 5 == 0 ? tiles.water : tiles.grass);
+            }
+        }
+        if (atlas) {
+            level.packTiles(new TextureAtlas(TextureAtlas.DEFAULT_PAGE_SIZE));
+        }
+        screen = new Screen(640, 360);
+        target = new int[screen.pixels.length];
+    }
+
+    @Benchmark
+    public int[] movingCamera() {
+        frame = (frame + 1) & 63;
+        screen.setOffset(512 + frame, 512);
+        return renderFrame();
+    }
+
+    @Benchmark
+    public int[] stillCamera() {
+        screen.setOffset(512, 512);
+        return renderFrame();
+    }
+
+    private int[] renderFrame() {
+        screen.beginFrame();
+        level.render(screen);
+        screen.beginDynamicPass();
+        screen.drawSpriteWithOffset(800, 700, tiles.grass.sprite);
+        screen.copyDirtyTo(target);
+        return target;
+    }
+}
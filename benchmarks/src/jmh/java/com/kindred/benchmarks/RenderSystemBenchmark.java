@@ -0,0 +1,60 @@
+package com.kindred.benchmarks;
+
+import com.kindred.engine.entity.components.DeadComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.SpriteComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.systems.RenderSystem;
+import com.kindred.engine.render.Screen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RenderSystem.render over entities in random Y order, a tenth of them corpses. Sprites are 1x1
+ * and unnamed, so the time is the render-order sort and the component lookups, not the blits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderSystemBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int entityCount;
+
+    private RenderSystem renderSystem;
+
+    @Setup
+    public void createWorld() {
+        EntityManager entityManager = new EntityManager();
+        BufferedImage pixel = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(42);
+        for (int i = 0; i < entityCount; i++) {
+            int entity = entityManager.createEntity();
+            entityManager.addComponent(entity, new PositionComponent(random.nextInt(640), random.nextInt(360)));
+            entityManager.addComponent(entity, new SpriteComponent(pixel));
+            if (i % 10 == 0) entityManager.addComponent(entity, new DeadComponent());
+        }
+        renderSystem = new RenderSystem(entityManager, new Screen(640, 360));
+    }
+
+    @Benchmark
+    public void render() {
+        renderSystem.render();
+    }
+}
@@ -0,0 +1,84 @@
+package com.kindred.benchmarks;
+
+import com.kindred.engine.render.Screen;
+import com.kindred.engine.render.TextureAtlas;
+import com.kindred.engine.ui.Const;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Screen draw calls for one 32x32 character sprite, with a quarter of its pixels transparent, and
+ * one nameplate. Each blit lands at a slightly different place so the JIT cannot hoist the clipping.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScreenBenchmark {
+
+    private static final int SPRITE_SIZE = 32;
+    private static final int TRANSPARENT = 0xffff00ff; // The engine's color key
+
+    private Screen screen;
+    private BufferedImage sprite;
+    private TextureAtlas atlas;
+    private int handle;
+    private int frame;
+
+    @Setup
+    public void createScreen() {
+        screen = new Screen(640, 360);
+        sprite = new BufferedImage(SPRITE_SIZE, SPRITE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < SPRITE_SIZE; y++) {
+            for (int x = 0; x < SPRITE_SIZE; x++) {
+                sprite.setRGB(x, y, (x + y) % 4 == 0 ? TRANSPARENT : 0xff000000 | (x * 8 << 16) | (y * 8 << 8));
+            }
+        }
+        atlas = new TextureAtlas(TextureAtlas.DEFAULT_PAGE_SIZE);
+        handle = atlas.add("benchmark", sprite);
+    }
+
+    private int nextX() {
+        frame = (frame + 1) & 255;
+        return 100 + frame;
+    }
+
+    @Benchmark
+    public int[] drawSpriteWithOffset() {
+        screen.drawSpriteWithOffset(nextX(), 120, sprite);
+        return screen.pixels;
+    }
+
+    @Benchmark
+    public int[] drawSpriteWithAlpha() {
+        screen.drawSpriteWithAlpha(nextX(), 120, sprite);
+        return screen.pixels;
+    }
+
+    @Benchmark
+    public int[] drawAtlasSprite() {
+        screen.drawAtlasSprite(nextX(), 120, atlas, handle);
+        return screen.pixels;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] drawText() {
+        screen.drawText(nextX(), 120, "Forest Wolf", Const.FONT_SANS_BOLD_8, Color.WHITE, true);
+        return screen.pixels;
+    }
+}
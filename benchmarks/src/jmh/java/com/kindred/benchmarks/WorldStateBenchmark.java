@@ -0,0 +1,98 @@
+package com.kindred.benchmarks;
+
+import com.kindred.engine.entity.components.ColliderComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.SpriteComponent;
+import com.kindred.engine.entity.components.VelocityComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.WorldState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorldState every tick, as rollback would use it: a tenth of the entities move between states,
+ * the rest are shared. Every entity has a position, sprite and health; half move, a tenth collide.
+ * The moves go through editComponent, so both the exact capture and captureChanged see them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldStateBenchmark {
+
+    @Param({"1000", "5000"})
+    public int entityCount;
+
+    private EntityManager entityManager;
+    private int[] movers;
+    private WorldState previous, before, after;
+    private boolean rolledBack;
+
+    @Setup
+    public void createWorld() {
+        entityManager = new EntityManager();
+        BufferedImage pixel = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        movers = new int[entityCount / 10];
+        for (int i = 0; i < entityCount; i++) {
+            int entity = entityManager.createEntity();
+            PositionComponent position = new PositionComponent(i % 1000, i / 1000);
+            entityManager.addComponent(entity, position);
+            entityManager.addComponent(entity, new SpriteComponent(pixel));
+            entityManager.addComponent(entity, new HealthComponent(10f));
+            if (i % 2 == 0) entityManager.addComponent(entity, new VelocityComponent(1, 0));
+            if (i % 10 == 0) {
+                entityManager.addComponent(entity, new ColliderComponent(16, 16));
+                movers[i / 10] = entity;
+            }
+        }
+        before = WorldState.capture(0, entityManager, null);
+        moveTenth();
+        after = WorldState.capture(1, entityManager, before);
+        previous = after;
+    }
+
+    private void moveTenth() {
+        for (int mover : movers) {
+            entityManager.editComponent(mover, PositionComponent.class).x++;
+        }
+    }
+
+    /** One tick's exact capture, sharing the unchanged nine tenths with the last one but reading them. */
+    @Benchmark
+    public WorldState captureEveryTick() {
+        moveTenth();
+        previous = WorldState.capture(0, entityManager, previous);
+        return previous;
+    }
+
+    /** One tick's capture of the recorded changes only: the unchanged nine tenths are not read. */
+    @Benchmark
+    public WorldState captureChangedEveryTick() {
+        moveTenth();
+        previous = WorldState.captureChanged(0, entityManager, previous);
+        return previous;
+    }
+
+    /** Rolls one tick back, then forward again on the next call. */
+    @Benchmark
+    public int rollBackOneTick() {
+        int touched = rolledBack ? after.restoreInto(entityManager, before) : before.restoreInto(entityManager, after);
+        rolledBack = !rolledBack;
+        return touched;
+    }
+}
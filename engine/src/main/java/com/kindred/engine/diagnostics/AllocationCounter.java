@@ -0,0 +1,33 @@
+package com.kindred.engine.diagnostics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by the calling thread, as counted by {@link com.sun.management.ThreadMXBean}.
+ * Reading the count does not allocate, so two reads can bracket code that must not allocate either.
+ */
+public final class AllocationCounter {
+
+    private static final com.sun.management.ThreadMXBean THREADS = find();
+
+    private AllocationCounter() {}
+
+    /** Whether this JVM counts allocated bytes per thread; if not, {@link #currentThread()} is always 0. */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /** Bytes the calling thread has allocated since it started. */
+    public static long currentThread() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean find() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+}
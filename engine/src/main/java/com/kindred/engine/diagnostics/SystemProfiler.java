@@ -0,0 +1,138 @@
+package com.kindred.engine.diagnostics;
+
+import com.kindred.engine.entity.core.System;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diagnostics mode for the update loop: measures how long each {@link System#update} takes and how many
+ * bytes it allocates (see {@link AllocationCounter}), so garbage can be traced to the system making it.
+ * Code that is not a system, such as the game's own per-tick hooks, is measured as a named section
+ * between {@link #begin} and {@link #end}.
+ * <p>
+ * A disabled profiler only calls through, so the loop can always update its systems through one.
+ * Measuring itself does not allocate once every system has been seen.
+ */
+public class SystemProfiler {
+
+    /**
+     * What one system or section did since the profiler was created or last reset.
+     * @param name The system's simple class name, or the section name.
+     */
+    public record Sample(String name, long updates, long totalNanos, long maxNanos, long allocatedBytes) {
+
+        public long nanosPerUpdate() {
+            return updates == 0 ? 0 : totalNanos / updates;
+        }
+
+        public long bytesPerUpdate() {
+            return updates == 0 ? 0 : allocatedBytes / updates;
+        }
+    }
+
+    /** Running totals for one system or section. */
+    private static final class Counters {
+        final String name;
+        long updates, totalNanos, maxNanos, allocatedBytes;
+
+        Counters(String name) {
+            this.name = name;
+        }
+
+        void add(long nanos, long bytes) {
+            updates++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) maxNanos = nanos;
+            allocatedBytes += bytes;
+        }
+    }
+
+    private final boolean enabled;
+    // Keyed by the system's class or the section name, both of which hash without allocating
+    private final Map<Object, Counters> counters = new HashMap<>();
+    private final List<Counters> order = new ArrayList<>();
+    private Counters section;
+    private long sectionStartNanos, sectionStartBytes;
+
+    /** @param enabled False to only call through, for the loop's normal runs. */
+    public SystemProfiler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Updates {@code system}, measuring the update if enabled. */
+    public void update(System system, float deltaTime) {
+        if (!enabled) {
+            system.update(deltaTime);
+            return;
+        }
+        Counters counter = counters.get(system.getClass());
+        if (counter == null) counter = track(system.getClass(), system.getClass().getSimpleName());
+        long bytes = AllocationCounter.currentThread();
+        long start = java.lang.System.nanoTime();
+        system.update(deltaTime);
+        long nanos = java.lang.System.nanoTime() - start;
+        counter.add(nanos, AllocationCounter.currentThread() - bytes);
+    }
+
+    /**
+     * Starts measuring a named section, which runs until {@link #end()}. Sections do not nest.
+     * @param name A constant; sections with the same name add up.
+     */
+    public void begin(String name) {
+        if (!enabled) return;
+        if (section != null) throw new IllegalStateException("Section " + section.name + " has not ended.");
+        Counters counter = counters.get(name);
+        section = counter != null ? counter : track(name, name);
+        sectionStartBytes = AllocationCounter.currentThread();
+        sectionStartNanos = java.lang.System.nanoTime();
+    }
+
+    /** Ends the section started by {@link #begin}. */
+    public void end() {
+        if (!enabled) return;
+        if (section == null) throw new IllegalStateException("No section has begun.");
+        long nanos = java.lang.System.nanoTime() - sectionStartNanos;
+        section.add(nanos, AllocationCounter.currentThread() - sectionStartBytes);
+        section = null;
+    }
+
+    private Counters track(Object key, String name) {
+        Counters counter = new Counters(name);
+        counters.put(key, counter);
+        order.add(counter);
+        return counter;
+    }
+
+    /** Every system and section measured, in the order each was first seen. */
+    public List<Sample> samples() {
+        List<Sample> samples = new ArrayList<>(order.size());
+        for (Counters counter : order) {
+            samples.add(new Sample(counter.name, counter.updates, counter.totalNanos, counter.maxNanos, counter.allocatedBytes));
+        }
+        return samples;
+    }
+
+    /** Zeroes every total, to start a new reporting window. */
+    public void reset() {
+        for (Counters counter : order) {
+            counter.updates = counter.totalNanos = counter.maxNanos = counter.allocatedBytes = 0;
+        }
+    }
+
+    /** The samples as a table, one line per system or section, for the log. */
+    public String format() {
+        StringBuilder table = new StringBuilder(String.format("%-26s %10s %10s %12s", "system", "µs/update", "max µs", "bytes/update"));
+        for (Sample sample : samples()) {
+            table.append(String.format("%n%-26s %10.1f %10.1f %12d", sample.name(), sample.nanosPerUpdate() / 1_000.0,
+                    sample.maxNanos() / 1_000.0, sample.bytesPerUpdate()));
+        }
+        return table.toString();
+    }
+}
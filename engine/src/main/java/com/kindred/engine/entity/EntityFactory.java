@@ -0,0 +1,218 @@
+package com.kindred.engine.entity;
+
+import com.kindred.engine.entity.components.*;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.render.SpriteHandle;
+import com.kindred.engine.render.TextureAtlas;
+import com.kindred.engine.resource.AssetLoader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Creates the characters placed by the map's spawn points: the player, villagers and enemies.
+ * Shared by the game client and the headless server so both build identical entities.
+ * Sprites are loaded through AssetLoader's cache, so every world reuses the same decoded sheets.
+ */
+@Slf4j
+public class EntityFactory {
+    public static final String PLAYER_SHEET = "/assets/sprites/player.png";
+    public static final String VILLAGER_SHEET = "/assets/sprites/blondLong.png"; // TODO: Verify path
+    public static final String DEIDARA_SHEET = "/assets/sprites/deidara.png"; // TODO: Verify path
+
+    private final EntityManager entityManager;
+    private final TextureAtlas atlas;
+
+    /**
+     * @param entityManager World to create the entities in.
+     * @param atlas Atlas to pack sprites into, or null when nothing is drawn (headless server).
+     */
+    public EntityFactory(EntityManager entityManager, TextureAtlas atlas) {
+        if (entityManager == null) throw new IllegalArgumentException("EntityManager cannot be null.");
+        this.entityManager = entityManager;
+        this.atlas = atlas;
+    }
+
+    public int createPlayer(int spawnX, int spawnY) {
+        log.debug("Creating Player at: ({}, {})", spawnX, spawnY);
+        int entityId = entityManager.createEntity();
+        String playerSheetPath = PLAYER_SHEET;
+        int numDirections = 4;
+        int framesPerDirection = 3;
+        BufferedImage[][] walkFrames = new BufferedImage[numDirections][framesPerDirection];
+        boolean playerSpritesLoaded = false;
+        int playerSpriteSize = 32;
+
+        try {
+            BufferedImage sheet = AssetLoader.loadImage(playerSheetPath);
+            if (sheet != null && sheet.getWidth() >= playerSpriteSize * numDirections && sheet.getHeight() >= playerSpriteSize * framesPerDirection) {
+                for (int frameRow = 0; frameRow < framesPerDirection; frameRow++) {
+                    for (int dirCol = 0; dirCol < numDirections; dirCol++) {
+                        int directionIndex;
+                        switch (dirCol) {
+                            case 0: directionIndex = AnimationComponent.LEFT; break;  // Col 0 -> LEFT (1)
+                            case 1: directionIndex = AnimationComponent.DOWN; break;  // Col 1 -> DOWN (0)
+                            case 2: directionIndex = AnimationComponent.UP; break;    // Col 2 -> UP (3)
+                            case 3: directionIndex = AnimationComponent.RIGHT; break; // Col 3 -> RIGHT (2)
+                            default: continue;
+                        }
+                        walkFrames[directionIndex][frameRow] = AssetLoader.getSprite(sheet, dirCol, frameRow, playerSpriteSize, playerSpriteSize);
+                        if (walkFrames[directionIndex][frameRow] == null || walkFrames[directionIndex][frameRow].getWidth() <= 1) {
+                             log.warn("Warning: Failed player sprite load (Col:{}, Row:{}) -> Dir:{}", dirCol, frameRow, directionIndex);
+                        }
+                    }
+                }
+                playerSpritesLoaded = true;
+                log.debug("Player animation frames loaded using nested loops.");
+            } else { /* Error handling */ }
+        } catch (Exception e) { log.error("Error loading player spritesheet", e); }
+
+        BufferedImage initialSprite;
+        // Use Down direction (index 0) frame 0 as default
+        if (playerSpritesLoaded && walkFrames[AnimationComponent.DOWN] != null && walkFrames[AnimationComponent.DOWN][0] != null && walkFrames[AnimationComponent.DOWN][0].getWidth() > 1) {
+            initialSprite = walkFrames[AnimationComponent.DOWN][0];
+        } else {
+            log.warn("Using placeholder for initial player sprite.");
+            initialSprite = AssetLoader.createPlaceholderImage(playerSpriteSize, playerSpriteSize);
+        }
+
+        entityManager.addComponent(entityId, new PositionComponent(spawnX, spawnY));
+        entityManager.addComponent(entityId, new VelocityComponent(0, 0));
+        entityManager.addComponent(entityId, new SpriteComponent(initialSprite, packInitialSprite(playerSheetPath, walkFrames, initialSprite)));
+        // Use FPS constructor for AnimationComponent
+        entityManager.addComponent(entityId, createWalkAnimation(playerSheetPath, walkFrames, 7f)); // Example: 7 FPS
+        entityManager.addComponent(entityId, new PlayerComponent());
+        entityManager.addComponent(entityId, new ColliderComponent(15, 14, 8, 15));
+        entityManager.addComponent(entityId, new HealthComponent(100));
+        entityManager.addComponent(entityId, new NameComponent("Lolzords"));
+        entityManager.addComponent(entityId, new AttackComponent(10f, 45f, 0.5f));
+        entityManager.addComponent(entityId, new ExperienceComponent());
+        entityManager.addComponent(entityId, new StatsComponent());
+        log.info("Player Entity Created with ID: {}", entityId);
+        return entityId;
+    }
+
+    public int createVillagerNPC(int spawnX, int spawnY) {
+        log.debug("Creating Villager NPC at: ({}, {})", spawnX, spawnY);
+        int entityId = entityManager.createEntity();
+        String sheetPath = VILLAGER_SHEET;
+        // NPC/Enemy Sheet Layout: Rows=Direction (0=D, 1=L, 2=R, 3=U), Cols=Frame (0-2)
+        int numDirections = 4;
+        int framesPerDirection = 3;
+        BufferedImage[][] walkFrames = new BufferedImage[numDirections][framesPerDirection];
+        boolean spritesLoaded = false;
+        int spriteSize = 32;
+
+        try {
+            BufferedImage sheet = AssetLoader.loadImage(sheetPath);
+            if (sheet != null && sheet.getWidth() >= spriteSize * framesPerDirection && sheet.getHeight() >= spriteSize * numDirections) {
+                // <<< Nested loop loading for NPC/Enemy Sheet Layout >>>
+                for (int dirRow = 0; dirRow < numDirections; dirRow++) {
+                    // Map sheet row to AnimationComponent direction constant
+                    int directionIndex;
+                    switch (dirRow) {
+                        case 0: directionIndex = AnimationComponent.DOWN; break;  // Row 0 -> DOWN (0)
+                        case 1: directionIndex = AnimationComponent.LEFT; break;  // Row 1 -> LEFT (1)
+                        case 2: directionIndex = AnimationComponent.RIGHT; break; // Row 2 -> RIGHT (2)
+                        case 3: directionIndex = AnimationComponent.UP; break;    // Row 3 -> UP (3)
+                        default: continue;
+                    }
+                    for (int frameCol = 0; frameCol < framesPerDirection; frameCol++) {
+                        walkFrames[directionIndex][frameCol] = AssetLoader.getSprite(sheet, frameCol, dirRow, spriteSize, spriteSize);
+                         if (walkFrames[directionIndex][frameCol] == null || walkFrames[directionIndex][frameCol].getWidth() <= 1) {
+                             log.warn("Warning: Failed villager sprite load (Col:{}, Row:{}) -> Dir:{}", frameCol, dirRow, directionIndex);
+                        }
+                    }
+                }
+                spritesLoaded = true;
+            } else { /* Error handling */ }
+        } catch (Exception e) { log.error("Error loading villager sprites", e); }
+
+        BufferedImage initialSprite;
+        if (spritesLoaded && walkFrames[AnimationComponent.DOWN][0] != null && walkFrames[AnimationComponent.DOWN][0].getWidth() > 1) {
+            initialSprite = walkFrames[AnimationComponent.DOWN][0];
+        } else { initialSprite = AssetLoader.createPlaceholderImage(spriteSize, spriteSize); }
+
+        // Components
+        entityManager.addComponent(entityId, new PositionComponent(spawnX, spawnY));
+        entityManager.addComponent(entityId, new VelocityComponent(0, 0));
+        entityManager.addComponent(entityId, new SpriteComponent(initialSprite, packInitialSprite(sheetPath, walkFrames, initialSprite)));
+        entityManager.addComponent(entityId, createWalkAnimation(sheetPath, walkFrames, 5f));
+        entityManager.addComponent(entityId, new ColliderComponent(20, 28, 6, 4));
+        entityManager.addComponent(entityId, new HealthComponent(100));
+        entityManager.addComponent(entityId, new NPCComponent());
+        entityManager.addComponent(entityId, new InteractableComponent(40f));
+        entityManager.addComponent(entityId, new NameComponent("Graze"));
+        entityManager.addComponent(entityId, new WanderAIComponent(spawnX, spawnY, 64f, 3.0f, 8.0f, 0.8f, 100f));
+        log.debug("Villager NPC Entity Created with ID: {}", entityId);
+        return entityId;
+    }
+
+    public int createEnemyDeidara(int spawnX, int spawnY) {
+        log.debug("Creating Enemy at: ({}, {})", spawnX, spawnY);
+        int entityId = entityManager.createEntity();
+        String sheetPath = DEIDARA_SHEET;
+        int numDirections = 4; int framesPerDirection = 3;
+        BufferedImage[][] walkFrames = new BufferedImage[numDirections][framesPerDirection];
+        boolean spritesLoaded = false; int spriteSize = 32;
+        try {
+            BufferedImage sheet = AssetLoader.loadImage(sheetPath);
+            if (sheet != null && sheet.getWidth() >= spriteSize * framesPerDirection && sheet.getHeight() >= spriteSize * numDirections) {
+                 // <<< Nested loop loading for NPC/Enemy Sheet Layout >>>
+                for (int dirRow = 0; dirRow < numDirections; dirRow++) {
+                    int directionIndex;
+                    switch (dirRow) { case 0: directionIndex = AnimationComponent.DOWN; break; case 1: directionIndex = AnimationComponent.LEFT; break; case 2: directionIndex = AnimationComponent.RIGHT; break; case 3: directionIndex = AnimationComponent.UP; break; default: continue; }
+                    for (int frameCol = 0; frameCol < framesPerDirection; frameCol++) {
+                        walkFrames[directionIndex][frameCol] = AssetLoader.getSprite(sheet, frameCol, dirRow, spriteSize, spriteSize);
+                        if (walkFrames[directionIndex][frameCol] == null || walkFrames[directionIndex][frameCol].getWidth() <= 1) { log.warn("Warning: Failed enemy sprite load (Col:{}, Row:{}) -> Dir:{}", frameCol, dirRow, directionIndex); }
+                    }
+                }
+                spritesLoaded = true;
+            } else { /* Error handling */ }
+        } catch (Exception e) { log.error("Error loading enemy sprites", e); }
+
+        BufferedImage initialSprite;
+        if (spritesLoaded && walkFrames[AnimationComponent.DOWN][0] != null && walkFrames[AnimationComponent.DOWN][0].getWidth() > 1) { initialSprite = walkFrames[AnimationComponent.DOWN][0]; }
+        else { initialSprite = AssetLoader.createPlaceholderImage(spriteSize, spriteSize); }
+
+        // Components
+        entityManager.addComponent(entityId, new PositionComponent(spawnX, spawnY));
+        entityManager.addComponent(entityId, new VelocityComponent(0, 0));
+        entityManager.addComponent(entityId, new SpriteComponent(initialSprite, packInitialSprite(sheetPath, walkFrames, initialSprite)));
+        entityManager.addComponent(entityId, createWalkAnimation(sheetPath, walkFrames, 12));
+        // Use frameDelay
+        entityManager.addComponent(entityId, new ColliderComponent(24, 16, 4, 16));
+        entityManager.addComponent(entityId, new HealthComponent(30));
+        entityManager.addComponent(entityId, new EnemyComponent());
+        entityManager.addComponent(entityId, new NameComponent("Deidara"));
+        entityManager.addComponent(entityId, new AttackComponent(5f, 35f, 1.5f));
+        entityManager.addComponent(entityId, new WanderAIComponent(spawnX, spawnY, 48f, 1.0f, 4.0f, 0.6f, 120f));
+        entityManager.addComponent(entityId, new XPValueComponent(15));
+        entityManager.addComponent(entityId, new ParticipantComponent());
+        entityManager.addComponent(entityId, new StatsComponent(5, 8, 2, 5));
+        log.debug("Enemy Entity Created with ID: {}", entityId);
+        return entityId;
+    }
+
+    /** Creates the walk/idle animation and packs its frames into the sprite atlas, if there is one. */
+    private AnimationComponent createWalkAnimation(String sheetPath, BufferedImage[][] walkFrames, float fps) {
+        AnimationComponent animation = new AnimationComponent(walkFrames, fps);
+        if (atlas != null) {
+            animation.frameHandles = atlas.addAll(walkKey(sheetPath), walkFrames);
+        }
+        return animation;
+    }
+
+    /** Packs the initial sprite under the key of the walk frame it was taken from, so both share one handle. */
+    private int packInitialSprite(String sheetPath, BufferedImage[][] walkFrames, BufferedImage initialSprite) {
+        if (atlas == null) return SpriteHandle.NONE;
+        String key = initialSprite == walkFrames[AnimationComponent.DOWN][0]
+                ? TextureAtlas.frameKey(walkKey(sheetPath), AnimationComponent.DOWN, 0)
+                : sheetPath + "#placeholder";
+        return atlas.add(key, initialSprite);
+    }
+
+    private static String walkKey(String sheetPath) {
+        return sheetPath + "#walk";
+    }
+}
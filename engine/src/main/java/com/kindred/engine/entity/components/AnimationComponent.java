@@ -1,6 +1,7 @@
 package com.kindred.engine.entity.components;
 
 import com.kindred.engine.entity.core.Component;
+import com.kindred.engine.render.SpriteHandle;
 import com.kindred.engine.resource.AssetLoader;
 
 import java.util.List;
@@ -18,6 +19,7 @@ public class AnimationComponent implements Component {
     // ---------------------------------
 
     public BufferedImage[][] frames; // frames[direction][frameIndex]
+    public int[][] frameHandles;     // Atlas handles in the same layout as 'frames', null if not packed
     public int direction = DOWN; // Start facing down
     public int frame = 0;
     public int tick = 0;
@@ -63,6 +65,17 @@ public class AnimationComponent implements Component {
         return (currentFrameSprite != null && currentFrameSprite.getWidth() > 1) ? currentFrameSprite : AssetLoader.createPlaceholderImage(32, 32);
     }
 
+    /**
+     * Gets the atlas handle of the current walk/idle frame.
+     * @return The handle, or SpriteHandle.NONE if the frames were not packed into an atlas.
+     */
+    public int getCurrentFrameHandle() {
+        if (frameHandles == null || direction < 0 || direction >= frameHandles.length || frameHandles[direction] == null || frameHandles[direction].length == 0) {
+            return SpriteHandle.NONE;
+        }
+        return frameHandles[direction][frame % frameHandles[direction].length];
+    }
+
     /**
      * Updates the walk/idle animation frame based on frameDelay or FPS.
      * Attack animation progression is handled in AnimationSystem using deltaTime.
@@ -1,6 +0,0 @@
-package com.kindred.engine.entity.components;
-
-import com.kindred.engine.entity.core.Component;
-
-public class AttackActionComponent implements Component {
-}
@@ -1,6 +1,8 @@
 package com.kindred.engine.entity.components;
 
 import com.kindred.engine.entity.core.Component;
+import com.kindred.engine.render.SpriteHandle;
+import com.kindred.engine.render.SpriteTrim;
 
 import java.util.List;
 import java.util.Map;
@@ -37,6 +39,11 @@ public class AttackVisualEffectComponent implements Component {
      */
     public final int direction;
 
+    /** Placement of each frame inside its untrimmed frame, when the frames were trimmed at build time. May be null. */
+    public SpriteTrim[] frameTrims;
+
+    /** Atlas handle of each frame, when the registry's frames were packed into the atlas. May be null. */
+    public int[] frameHandles;
 
     /**
      * Constructor for AttackVisualEffectComponent.
@@ -70,6 +77,28 @@ public class AttackVisualEffectComponent implements Component {
         return null; // Or a placeholder
     }
 
+    /**
+     * Gets the trim of the current visual frame.
+     * @return The SpriteTrim, or null if the frames are untrimmed.
+     */
+    public SpriteTrim getCurrentTrim() {
+        if (frameTrims != null && currentFrame >= 0 && currentFrame < frameTrims.length) {
+            return frameTrims[currentFrame];
+        }
+        return null;
+    }
+
+    /**
+     * Gets the atlas handle of the current visual frame.
+     * @return The handle, or SpriteHandle.NONE if the frames were not packed into an atlas.
+     */
+    public int getCurrentFrameHandle() {
+        if (frameHandles != null && currentFrame >= 0 && currentFrame < frameHandles.length) {
+            return frameHandles[currentFrame];
+        }
+        return SpriteHandle.NONE;
+    }
+
     /**
      * Gets the hitboxes for the current visual frame of the attack effect.
      * @return A list of Rectangle objects for the current frame's hitboxes, or null/empty list if none.
@@ -6,6 +6,12 @@ public class DeadComponent implements Component {
     /** The current visual stage of decay (0 = initial corpse, 1 = more decayed, etc.). */
     public int decayStage = 0;
 
+    /**
+     * The remaining lifetime at which the next decay stage is due; CorpseDecaySystem skips the corpse
+     * until its lifetime runs down to it. NaN until the system has first looked at the corpse.
+     */
+    public float nextStageLifetime = Float.NaN;
+
     public DeadComponent() {}
 
     public DeadComponent(int decayStage) {
@@ -0,0 +1,11 @@
+package com.kindred.engine.entity.components;
+
+import com.kindred.engine.entity.core.Component;
+
+/**
+ * Marks an entity that nobody can currently see or affect, e.g. an NPC in a region of the map with no
+ * players around. AI, movement, collision and walk animation skip dormant entities; the server adds
+ * and removes the marker as players move (see InterestGrid in the networking module).
+ */
+public class DormantComponent implements Component {
+}
@@ -1,11 +1,12 @@
 package com.kindred.engine.entity.components;
 
-import com.kindred.engine.entity.core.Component;
+import com.kindred.engine.entity.core.TrackedComponent;
 
 /**
  * Component attached to entities that can gain experience and level up (e.g., Player).
+ * Change it through EntityManager.editComponent or markChanged, so the change is recorded.
  */
-public class ExperienceComponent implements Component {
+public class ExperienceComponent extends TrackedComponent {
 
     public int currentLevel = 1;
     public long currentXP = 0;
@@ -36,7 +37,7 @@ public class ExperienceComponent implements Component {
         if (currentLevel <= 0) return 100; // Base case
         // Example: Simple exponential growth (adjust formula for desired progression curve)
         // Level 1 needs 100, Level 2 needs 150, Level 3 needs 225, etc.
-        return (long) (100 * Math.pow(1.5, currentLevel - 1));
+        return (long) (100 * StrictMath.pow(1.5, currentLevel - 1)); // StrictMath: identical on every JVM
         // Alternative: Linear growth
         // return 100 + (currentLevel - 1) * 50;
     }
@@ -1,8 +1,9 @@
 package com.kindred.engine.entity.components;
 
-import com.kindred.engine.entity.core.Component;
+import com.kindred.engine.entity.core.TrackedComponent;
 
-public class HealthComponent implements Component {
+/** Change it through EntityManager.editComponent or markChanged, so the change is recorded. */
+public class HealthComponent extends TrackedComponent {
     /** The entity's current health points. */
     public float currentHealth;
 
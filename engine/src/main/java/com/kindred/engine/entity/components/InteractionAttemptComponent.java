@@ -1,12 +0,0 @@
-package com.kindred.engine.entity.components;
-
-import com.kindred.engine.entity.core.Component;
-
-/**
- * Temporary marker component added to an entity (usually the player)
- * when they initiate an interaction attempt (e.g., by pressing a key).
- * Processed by the InteractionSystem.
- */
-public class InteractionAttemptComponent implements Component {
-    // No data needed for basic attempt
-}
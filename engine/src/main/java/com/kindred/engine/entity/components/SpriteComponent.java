@@ -1,6 +1,7 @@
 package com.kindred.engine.entity.components;
 
 import com.kindred.engine.entity.core.Component;
+import com.kindred.engine.render.SpriteHandle;
 
 import java.awt.image.BufferedImage;
 
@@ -8,10 +9,27 @@ public class SpriteComponent implements Component {
     public BufferedImage sprite;
     public int width;
     public int height;
+    /** Handle of {@link #sprite} in the shared TextureAtlas, or SpriteHandle.NONE to draw the BufferedImage. */
+    public int handle = SpriteHandle.NONE;
 
     public SpriteComponent(BufferedImage sprite) {
         this.sprite = sprite;
         this.width = sprite.getWidth();
         this.height = sprite.getHeight();
     }
+
+    public SpriteComponent(BufferedImage sprite, int handle) {
+        this(sprite);
+        this.handle = handle;
+    }
+
+    /** Swaps the sprite for one that is not packed; RenderSystem draws it from the BufferedImage. */
+    public void setSprite(BufferedImage sprite) {
+        setSprite(sprite, SpriteHandle.NONE);
+    }
+
+    public void setSprite(BufferedImage sprite, int handle) {
+        this.sprite = sprite;
+        this.handle = handle;
+    }
 }
\ No newline at end of file
@@ -3,9 +3,9 @@ package com.kindred.engine.entity.components;
 import com.kindred.engine.entity.core.Component;
 
 /**
- * A temporary marker component added to an entity when it takes damage.
- * Used by systems like VisualEffectsSystem or RenderSystem to trigger
- * visual feedback like flashing. Includes a timer for the effect duration.
+ * The hit flash of an entity that took damage: state that lasts a moment, unlike the one-shot
+ * DamageEvent that starts it. VisualEffectsSystem adds it, restarts it on further hits and removes
+ * it when the timer runs out.
  */
 public class TookDamageComponent implements Component {
 
@@ -3,6 +3,7 @@ package com.kindred.engine.entity.components;
 import com.kindred.engine.entity.core.Component;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Component holding state for simple AI behavior including wandering and attacking.
@@ -46,9 +47,6 @@ public class WanderAIComponent implements Component {
     /** The current target Y coordinate (either wander target or player position). */
     public int targetY;
 
-    // Random number generator for picking targets and idle times
-    private transient Random random = new Random(); // transient: prevent serialization if needed
-
     /**
      * Constructor for WanderAIComponent.
      *
@@ -80,20 +78,34 @@ public class WanderAIComponent implements Component {
         this.targetY = startY;
     }
 
-    /** Resets the idle timer to a random duration within the defined min/max. */
+    /**
+     * Resets the idle timer to a random duration within the defined min/max. Draws from the thread's
+     * generator rather than one of the component's own, which would be state that rollback cannot copy.
+     */
     public void resetIdleTimer() {
-         if (random == null) random = new Random(); // Re-initialize if deserialized
+         resetIdleTimer(ThreadLocalRandom.current());
+    }
+
+    /** Resets the idle timer drawing from the given generator, e.g. a deterministic world's stream. */
+    public void resetIdleTimer(Random random) {
         this.idleTimer = minIdleTime + random.nextFloat() * (maxIdleTime - minIdleTime);
     }
 
-     /** Picks a new random target position within the wander radius. */
+     /** Picks a new random target position within the wander radius, drawing from the thread's generator. */
      public void pickNewWanderTarget() {
-         if (random == null) random = new Random();
-         double angle = random.nextDouble() * 2.0 * Math.PI;
-         double distance = random.nextDouble() * wanderRadius;
-         this.targetX = startX + (int)(Math.cos(angle) * distance);
-         this.targetY = startY + (int)(Math.sin(angle) * distance);
+         pickNewWanderTarget(ThreadLocalRandom.current());
      }
 
+    /**
+     * Picks a new target drawing from the given generator. Uses StrictMath so every JVM computes
+     * the same target from the same numbers.
+     */
+    public void pickNewWanderTarget(Random random) {
+        double angle = random.nextDouble() * 2.0 * Math.PI;
+        double distance = random.nextDouble() * wanderRadius;
+        this.targetX = startX + (int)(StrictMath.cos(angle) * distance);
+        this.targetY = startY + (int)(StrictMath.sin(angle) * distance);
+    }
+
     // Note: Getters/Setters can be added if direct field access is not preferred.
 }
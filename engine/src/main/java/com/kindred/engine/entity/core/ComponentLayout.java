@@ -0,0 +1,279 @@
+package com.kindred.engine.entity.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The state {@link WorldState} copies out of one component type: its mutable primitive fields, packed
+ * into longs, and its reference fields. Final fields other than collections, maps and arrays cannot
+ * change after the component is built, so they stay with the component object. Collections, maps and
+ * arrays change in place, so they are copied: collections and maps one level deep, arrays down to their
+ * innermost elements. Every other reference (sprites, strings, enums, a {@link java.util.Random}) is kept
+ * as the object itself, so what changes inside such an object, or inside an element of a copied
+ * collection or array, is not captured and is not rolled back.
+ * A {@link TrackedComponent}'s change tick is not state: restoring is a change of its own.
+ * Found by reflection once per type; fields are then read and written through {@link VarHandle}s.
+ */
+final class ComponentLayout {
+
+    private static final ClassValue<ComponentLayout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected ComponentLayout computeValue(Class<?> type) {
+            return new ComponentLayout(type);
+        }
+    };
+
+    private static final byte INT = 0, FLOAT = 1, LONG = 2, DOUBLE = 3, BOOLEAN = 4, BYTE = 5, SHORT = 6, CHAR = 7;
+    private static final byte VALUE = 0, COLLECTION = 1, MAP = 2, ARRAY = 3;
+    private static final MethodHandle FLOAT_TO_LONG, DOUBLE_TO_LONG, BOOLEAN_TO_LONG, LONG_TO_FLOAT, LONG_TO_DOUBLE;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            FLOAT_TO_LONG = lookup.findStatic(ComponentLayout.class, "floatToLong", MethodType.methodType(long.class, float.class));
+            DOUBLE_TO_LONG = lookup.findStatic(Double.class, "doubleToRawLongBits", MethodType.methodType(long.class, double.class));
+            BOOLEAN_TO_LONG = lookup.findStatic(ComponentLayout.class, "booleanToLong", MethodType.methodType(long.class, boolean.class));
+            LONG_TO_FLOAT = lookup.findStatic(ComponentLayout.class, "longToFloat", MethodType.methodType(float.class, long.class));
+            LONG_TO_DOUBLE = lookup.findStatic(Double.class, "longBitsToDouble", MethodType.methodType(double.class, long.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final String typeName;
+    private final Field[] primitives;
+    private final byte[] primitiveKinds;
+    // (Object)long and (Object, long)void: every primitive field packed as WorldState stores it
+    private final MethodHandle[] primitiveGetters;
+    private final MethodHandle[] primitiveSetters;
+    private final Field[] references;
+    private final byte[] referenceKinds;
+    private final VarHandle[] referenceHandles;
+
+    static ComponentLayout of(Class<?> type) {
+        return LAYOUTS.get(type);
+    }
+
+    private ComponentLayout(Class<?> type) {
+        typeName = type.getSimpleName();
+        List<Field> primitiveFields = new ArrayList<>();
+        List<Field> referenceFields = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class && c != TrackedComponent.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers)) continue;
+                boolean container = Collection.class.isAssignableFrom(field.getType()) || Map.class.isAssignableFrom(field.getType())
+                        || field.getType().isArray();
+                if (Modifier.isFinal(modifiers) && !container) continue;
+                (field.getType().isPrimitive() ? primitiveFields : referenceFields).add(field);
+            }
+        }
+        primitives = primitiveFields.toArray(new Field[0]);
+        primitiveKinds = new byte[primitives.length];
+        primitiveGetters = new MethodHandle[primitives.length];
+        primitiveSetters = new MethodHandle[primitives.length];
+        for (int i = 0; i < primitives.length; i++) {
+            Class<?> t = primitives[i].getType();
+            primitiveKinds[i] = t == int.class ? INT : t == float.class ? FLOAT : t == long.class ? LONG
+                    : t == double.class ? DOUBLE : t == boolean.class ? BOOLEAN : t == byte.class ? BYTE
+                    : t == short.class ? SHORT : CHAR;
+            VarHandle handle = varHandle(primitives[i]);
+            primitiveGetters[i] = packedGetter(handle, primitiveKinds[i]);
+            primitiveSetters[i] = packedSetter(handle, primitiveKinds[i]);
+        }
+        references = referenceFields.toArray(new Field[0]);
+        referenceKinds = new byte[references.length];
+        referenceHandles = new VarHandle[references.length];
+        for (int i = 0; i < references.length; i++) {
+            Class<?> t = references[i].getType();
+            referenceKinds[i] = Map.class.isAssignableFrom(t) ? MAP : Collection.class.isAssignableFrom(t) ? COLLECTION
+                    : t.isArray() ? ARRAY : VALUE;
+            referenceHandles[i] = varHandle(references[i]);
+        }
+    }
+
+    /** A handle on the field, private or not. Read-only if the field is final; those are only ever refilled in place. */
+    private static VarHandle varHandle(Field field) {
+        try {
+            return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access " + field + ".", e);
+        }
+    }
+
+    private static MethodHandle packedGetter(VarHandle handle, byte kind) {
+        MethodHandle get = handle.toMethodHandle(VarHandle.AccessMode.GET);
+        get = switch (kind) {
+            case FLOAT -> MethodHandles.filterReturnValue(get, FLOAT_TO_LONG);
+            case DOUBLE -> MethodHandles.filterReturnValue(get, DOUBLE_TO_LONG);
+            case BOOLEAN -> MethodHandles.filterReturnValue(get, BOOLEAN_TO_LONG);
+            default -> get; // Widened to long by asType
+        };
+        return get.asType(MethodType.methodType(long.class, Object.class));
+    }
+
+    private static MethodHandle packedSetter(VarHandle handle, byte kind) {
+        MethodHandle set = handle.toMethodHandle(VarHandle.AccessMode.SET);
+        set = switch (kind) {
+            case FLOAT -> MethodHandles.filterArguments(set, 1, LONG_TO_FLOAT);
+            case DOUBLE -> MethodHandles.filterArguments(set, 1, LONG_TO_DOUBLE);
+            default -> set; // Narrowed from long by explicitCastArguments; a boolean takes the lowest bit
+        };
+        return MethodHandles.explicitCastArguments(set, MethodType.methodType(void.class, Object.class, long.class));
+    }
+
+    private static long floatToLong(float value) {
+        return Float.floatToRawIntBits(value);
+    }
+
+    private static long booleanToLong(boolean value) {
+        return value ? 1 : 0;
+    }
+
+    private static float longToFloat(long bits) {
+        return Float.intBitsToFloat((int) bits);
+    }
+
+    int primitiveCount() {
+        return primitives.length;
+    }
+
+    int referenceCount() {
+        return references.length;
+    }
+
+    String typeName() {
+        return typeName;
+    }
+
+    /** Reads the component's state; references are the live objects, see {@link #freeze}. */
+    void read(Component component, long[] values, int valueAt, Object[] refs, int refAt) {
+        try {
+            for (int i = 0; i < primitiveGetters.length; i++) {
+                values[valueAt + i] = (long) primitiveGetters[i].invokeExact((Object) component);
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot read " + typeName + ".", e); // Cannot happen, the getters only load fields
+        }
+        for (int i = 0; i < referenceHandles.length; i++) {
+            refs[refAt + i] = referenceHandles[i].get(component);
+        }
+    }
+
+    /** Whether a live reference read by {@link #read} holds what a frozen one does. */
+    boolean sameReference(int i, Object live, Object frozen) {
+        return live == frozen || (referenceKinds[i] == ARRAY ? Objects.deepEquals(live, frozen) : Objects.equals(live, frozen));
+    }
+
+    /** Turns live references read by {@link #read} into what a state keeps: collections, maps and arrays are copied. */
+    void freeze(Object[] refs, int refAt) {
+        for (int i = 0; i < references.length; i++) {
+            Object live = refs[refAt + i];
+            if (live == null) continue;
+            refs[refAt + i] = switch (referenceKinds[i]) {
+                case MAP -> Collections.unmodifiableMap(new HashMap<>((Map<?, ?>) live));
+                case COLLECTION -> live instanceof Set<?> set
+                        ? Collections.unmodifiableSet(new HashSet<>(set))
+                        : Collections.unmodifiableList(new ArrayList<>((Collection<?>) live));
+                case ARRAY -> copyArray(live);
+                default -> live;
+            };
+        }
+    }
+
+    /** Copies an array and every array nested in it; other elements are shared. */
+    private static Object copyArray(Object array) {
+        int length = Array.getLength(array);
+        Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+        java.lang.System.arraycopy(array, 0, copy, 0, length); // This package has its own System
+        if (copy instanceof Object[] elements) {
+            for (int i = 0; i < length; i++) {
+                if (elements[i] != null && elements[i].getClass().isArray()) elements[i] = copyArray(elements[i]);
+            }
+        }
+        return copy;
+    }
+
+    /** Puts state back into the component. Collections and maps are refilled in place if final, replaced if not. */
+    /**
+     * Puts state back into the component. Collections, maps and arrays are refilled in place if final
+     * (a final array gets copies of its nested arrays), replaced by copies if not.
+     */
+    @SuppressWarnings("unchecked")
+    void write(Component component, long[] values, int valueAt, Object[] refs, int refAt) {
+        try {
+            for (int i = 0; i < primitiveSetters.length; i++) {
+                primitiveSetters[i].invokeExact((Object) component, values[valueAt + i]);
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot write " + typeName + ".", e); // Cannot happen, the setters only store fields
+        }
+        for (int i = 0; i < references.length; i++) {
+            VarHandle handle = referenceHandles[i];
+            Object saved = refs[refAt + i];
+            Object live = handle.get(component);
+            if (referenceKinds[i] == VALUE) {
+                if (live != saved) handle.set(component, saved);
+            } else if (!sameReference(i, live, saved)) {
+                boolean fill = Modifier.isFinal(references[i].getModifiers()) && live != null && saved != null;
+                if (fill && referenceKinds[i] == MAP) {
+                    ((Map<Object, Object>) live).clear();
+                    ((Map<Object, Object>) live).putAll((Map<?, ?>) saved);
+                } else if (fill && referenceKinds[i] == COLLECTION) {
+                    ((Collection<Object>) live).clear();
+                    ((Collection<Object>) live).addAll((Collection<?>) saved);
+                } else if (fill) { // A final array: same object, so same length
+                    Object copy = copyArray(saved);
+                    java.lang.System.arraycopy(copy, 0, live, 0, Array.getLength(copy));
+                } else {
+                    handle.set(component, saved == null ? null : switch (referenceKinds[i]) {
+                        case MAP -> new HashMap<>((Map<?, ?>) saved);
+                        case COLLECTION -> saved instanceof Set<?> set ? new HashSet<>(set) : new ArrayList<>((Collection<?>) saved);
+                        default -> copyArray(saved);
+                    });
+                }
+            }
+        }
+    }
+
+    String primitiveName(int i) {
+        return primitives[i].getName();
+    }
+
+    String referenceName(int i) {
+        return references[i].getName();
+    }
+
+    /** A reference kept by a state as {@link WorldState#diff} shows it; arrays show their elements. */
+    static String formatReference(Object value) {
+        if (value == null || !value.getClass().isArray()) return String.valueOf(value);
+        String wrapped = Arrays.deepToString(new Object[]{value}); // Handles primitive and nested arrays alike
+        return wrapped.substring(1, wrapped.length() - 1);
+    }
+
+    /** A packed primitive as its field would show it. */
+    String format(int i, long value) {
+        return switch (primitiveKinds[i]) {
+            case FLOAT -> String.valueOf(Float.intBitsToFloat((int) value));
+            case DOUBLE -> String.valueOf(Double.longBitsToDouble(value));
+            case BOOLEAN -> String.valueOf(value != 0);
+            case CHAR -> String.valueOf((char) value);
+            default -> String.valueOf(value);
+        };
+    }
+}
@@ -4,10 +4,27 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
 
+/**
+ * Owns every entity and its components. Entities are iterated in id order, which is creation order
+ * since ids are never reused, so systems visit them in the same order on every run and every peer.
+ * {@link WorldState} copies the whole store and rolls it back. One-shot events between systems go
+ * through {@link #getEvents()} rather than through components. {@link TrackedComponent}s keep the tick of
+ * their last change, and every entity the tick it last gained, lost or had a component edited, see {@link #editComponent}.
+ */
 @Slf4j
 public class EntityManager {
     private int nextEntityId = 0;
-    private final Map<Integer, Map<Class<? extends Component>, Component>> entities = new HashMap<>();
+    // Sorted, so iteration stays in id order when a WorldState restore brings back a destroyed entity
+    private final Map<Integer, ComponentMap> entities = new TreeMap<>();
+    // The same component maps keyed by unboxed id, so lookups by id do not box it
+    private final IntObjectMap<ComponentMap> byId = new IntObjectMap<>();
+    private final EventBus events = new EventBus();
+    private long changeTick; // Advances with every recorded change; tick thread only
+
+    /** An entity's components, stamped with the change tick of the last recorded change to the entity as a whole. */
+    static final class ComponentMap extends HashMap<Class<? extends Component>, Component> {
+        long changeTick;
+    }
 
     /**
      * Creates a new entity with a unique ID.
@@ -15,7 +32,10 @@ public class EntityManager {
      */
     public int createEntity() {
         int entityId = nextEntityId++;
-        entities.put(entityId, new HashMap<>());
+        ComponentMap components = new ComponentMap();
+        components.changeTick = ++changeTick;
+        entities.put(entityId, components);
+        byId.put(entityId, components);
         log.trace("Entity created: {}", entityId);
         return entityId;
     }
@@ -26,6 +46,7 @@ public class EntityManager {
      */
     public void destroyEntity(int entityId) {
         if (entities.remove(entityId) != null) {
+            byId.remove(entityId);
             // activeEntities.remove(entityId); // If using separate set
             log.trace("Entity destroyed: {}", entityId);
         } else {
@@ -41,22 +62,26 @@ public class EntityManager {
      * @return true if the entity exists, false otherwise.
      */
     public boolean isEntityActive(int entityId) {
-        // Simply checks if the ID is a key in the main map
-        return entities.containsKey(entityId);
+        return byId.get(entityId) != null;
     }
 
     /**
      * Adds a component instance to the specified entity.
-     * Replaces existing component of the same type.
+     * Replaces existing component of the same type. The entity, and a {@link TrackedComponent}, are stamped as changed.
      * @param entityId The ID of the entity.
      * @param component The component instance to add.
      * @param <T> The type of the component.
      */
     public <T extends Component> void addComponent(int entityId, T component) {
-        Map<Class<? extends Component>, Component> entityComponents = entities.get(entityId);
+        ComponentMap entityComponents = byId.get(entityId);
         if (entityComponents != null) {
             // Use the specific class of the instance being added as the key
             entityComponents.put(component.getClass(), component);
+            entityComponents.changeTick = ++changeTick;
+            if (component instanceof TrackedComponent tracked) {
+                tracked.changeTick = changeTick;
+                tracked.owner = entityComponents;
+            }
             log.trace("Added component {} to entity {}", component.getClass().getSimpleName(), entityId);
         } else {
             log.warn("Attempted to add component {} to non-existent entity {}", component.getClass().getSimpleName(), entityId);
@@ -65,15 +90,16 @@ public class EntityManager {
 
     /**
      * Removes a component of the specified type from an entity.
-     * Needed by systems like CombatSystem to remove temporary marker components.
+     * E.g. CombatSystem takes the collider and AI off an entity that dies.
      *
      * @param entityId The ID of the entity.
      * @param componentClass The Class object representing the component type to remove.
      */
     public void removeComponent(int entityId, Class<? extends Component> componentClass) {
-        Map<Class<? extends Component>, Component> entityComponents = entities.get(entityId);
+        ComponentMap entityComponents = byId.get(entityId);
         if (entityComponents != null) {
             if (entityComponents.remove(componentClass) != null) {
+                entityComponents.changeTick = ++changeTick;
                 log.trace("Removed component {} from entity {}", componentClass.getSimpleName(), entityId);
             } else {
                 // This warning might be noisy if systems try to remove components that might not exist
@@ -92,7 +118,7 @@ public class EntityManager {
      * @return The component instance, or null if the entity or component doesn't exist.
      */
     public <T extends Component> T getComponent(int entityId, Class<T> componentClass) {
-        Map<Class<? extends Component>, Component> entityComponents = entities.get(entityId);
+        Map<Class<? extends Component>, Component> entityComponents = byId.get(entityId);
         if (entityComponents != null) {
             // Cast is safe because we store components keyed by their class
             return componentClass.cast(entityComponents.get(componentClass));
@@ -107,7 +133,7 @@ public class EntityManager {
      * @return true if the entity exists and has the component, false otherwise.
      */
     public boolean hasComponent(int entityId, Class<? extends Component> componentClass) {
-        Map<Class<? extends Component>, Component> entityComponents = entities.get(entityId);
+        Map<Class<? extends Component>, Component> entityComponents = byId.get(entityId);
         // Check both entity existence and component existence
         return entityComponents != null && entityComponents.containsKey(componentClass);
     }
@@ -117,7 +143,7 @@ public class EntityManager {
      * Note: Iterates through all entities - can be inefficient for very large entity counts.
      *
      * @param requiredComponents Varargs array of Class objects for required components.
-     * @return An unmodifiable Set containing the IDs of matching entities. Returns empty set if none found.
+     * @return An unmodifiable Set containing the IDs of matching entities, in id order. Returns empty set if none found.
      */
     public Set<Integer> getEntitiesWith(Class<? extends Component>... requiredComponents) {
         if (requiredComponents == null || requiredComponents.length == 0) {
@@ -126,9 +152,9 @@ public class EntityManager {
             return Collections.unmodifiableSet(entities.keySet()); // Return keys from map
         }
 
-        Set<Integer> result = new HashSet<>();
+        Set<Integer> result = new LinkedHashSet<>();
         // Iterate through the entity map entries
-        for (Map.Entry<Integer, Map<Class<? extends Component>, Component>> entry : entities.entrySet()) {
+        for (Map.Entry<Integer, ComponentMap> entry : entities.entrySet()) {
             int entityId = entry.getKey();
             Map<Class<? extends Component>, Component> entityComponents = entry.getValue();
             boolean hasAll = true;
@@ -148,16 +174,79 @@ public class EntityManager {
         return Collections.unmodifiableSet(result);
     }
 
+    // --- For WorldState: raw access to the store, bypassing the checks and logging above ---
+
+    Set<Map.Entry<Integer, ComponentMap>> entries() {
+        return entities.entrySet();
+    }
+
+    int entityCount() {
+        return entities.size();
+    }
+
+    /** The live component map of an entity, or null if it does not exist. Stamp it with {@link #markChanged(ComponentMap)} when changing it. */
+    ComponentMap components(int entityId) {
+        return byId.get(entityId);
+    }
+
+    void markChanged(ComponentMap components) {
+        components.changeTick = ++changeTick;
+    }
+
+    /** Brings back an entity under its old id, without components. */
+    ComponentMap recreateEntity(int entityId) {
+        ComponentMap components = new ComponentMap();
+        components.changeTick = ++changeTick;
+        entities.put(entityId, components);
+        byId.put(entityId, components);
+        return components;
+    }
+
+    int getNextEntityId() {
+        return nextEntityId;
+    }
+
+    /** Rewinds the id counter, so a rolled back world hands out the same ids again. */
+    void setNextEntityId(int nextEntityId) {
+        this.nextEntityId = nextEntityId;
+    }
+
+    /**
+     * Same query as {@link #getEntitiesWith}, but fills {@code into} (cleared first) instead of building
+     * a new set. {@link EntityQuery} keeps both arguments, so running it does not allocate.
+     *
+     * @param into Receives the matching IDs, in id order.
+     * @param requiredComponents The component types every match must have; at least one.
+     */
+    void collectEntitiesWith(List<Integer> into, Class<? extends Component>... requiredComponents) {
+        if (requiredComponents == null || requiredComponents.length == 0) {
+            throw new IllegalArgumentException("Name at least one component type to collect entities by.");
+        }
+        into.clear();
+        for (Map.Entry<Integer, ComponentMap> entry : entities.entrySet()) {
+            Map<Class<? extends Component>, Component> entityComponents = entry.getValue();
+            boolean hasAll = true;
+            for (Class<? extends Component> compClass : requiredComponents) {
+                if (!entityComponents.containsKey(compClass)) {
+                    hasAll = false;
+                    break;
+                }
+            }
+            if (hasAll) {
+                into.add(entry.getKey()); // The map's own boxed key, so nothing is boxed here
+            }
+        }
+    }
+
     /**
      * Finds the first entity ID that possesses ALL of the specified component types.
      * Useful for singleton entities like Player or Camera.
-     * Note: Iteration order is not guaranteed for HashMaps.
+     * Entities are searched in id order, so this is the oldest matching entity.
      *
      * @param requiredComponents Varargs array of Class objects for required components.
      * @return The Integer ID of the first matching entity, or null if none found.
      */
     public Integer getFirstEntityWith(Class<? extends Component>... requiredComponents) {
-        // This implementation relies on the iteration order of getEntitiesWith, which isn't guaranteed.
         // For true singletons, consider storing their IDs separately if performance is critical.
         // However, for typical use cases (finding 'the' player), this is often sufficient.
         Set<Integer> matchingEntities = getEntitiesWith(requiredComponents);
@@ -166,4 +255,54 @@ public class EntityManager {
         }
         return null; // No matching entity found
     }
+
+    /**
+     * Gets a component in order to change it. The entity is stamped as changed now, whether or not the
+     * caller ends up writing to it, and so is the component if it is a {@link TrackedComponent}; that is
+     * what {@link WorldState#captureChanged} goes by.
+     */
+    public <T extends Component> T editComponent(int entityId, Class<T> componentClass) {
+        ComponentMap entityComponents = byId.get(entityId);
+        if (entityComponents == null) return null;
+        T component = componentClass.cast(entityComponents.get(componentClass));
+        if (component != null) {
+            entityComponents.changeTick = ++changeTick;
+            if (component instanceof TrackedComponent tracked) {
+                tracked.changeTick = changeTick;
+            }
+        }
+        return component;
+    }
+
+    /** Records a change to a tracked component the caller already holds, and so to its entity. Null is ignored. */
+    public void markChanged(TrackedComponent component) {
+        if (component != null) {
+            component.changeTick = ++changeTick;
+            if (component.owner != null) component.owner.changeTick = changeTick;
+        }
+    }
+
+    /** Records a change to components of the entity that the caller already holds, as {@link #editComponent} would. */
+    public void markChanged(int entityId) {
+        ComponentMap entityComponents = byId.get(entityId);
+        if (entityComponents != null) {
+            entityComponents.changeTick = ++changeTick;
+        }
+    }
+
+    /**
+     * The last change tick handed out. It advances with every recorded change rather than once per game
+     * tick, so a reader that keeps the value it saw last time finds, with {@link TrackedComponent#changedSince}
+     * or {@link EntityQuery#changedSince}, exactly the changes made since, wherever they fall in the update order.
+     * Like the components themselves, the counter is not synchronized: record changes on the thread that
+     * runs the ticks, and queue work from input or network threads onto it.
+     */
+    public long getChangeTick() {
+        return changeTick;
+    }
+
+    /** The event channels of this world's systems; whoever runs the ticks calls {@link EventBus#endTick()}. */
+    public EventBus getEvents() {
+        return events;
+    }
 }
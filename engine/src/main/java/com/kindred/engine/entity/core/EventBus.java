@@ -0,0 +1,44 @@
+package com.kindred.engine.entity.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-shot gameplay events (an attack, a hit, a defeat, a level-up), one {@link EventChannel} per event
+ * type. Systems publish to a channel and read it through their own {@link EventReader}, instead of adding
+ * a marker component that the next system has to find with a query over the world and then remove.
+ * <p>
+ * A reader sees every event once, whether it was published earlier this tick or after the reader's
+ * system ran last tick; channels keep the events of the last two ticks and drop older ones on
+ * {@link #endTick()}. Events are not part of {@link WorldState}: they are consumed within the tick,
+ * so there are none outstanding between ticks for a rollback to miss.
+ * <p>
+ * Not thread-safe: publish and read on the tick thread.
+ */
+public final class EventBus {
+
+    private final Map<Class<?>, EventChannel<?>> channels = new HashMap<>();
+    private final List<EventChannel<?>> channelList = new ArrayList<>(); // Visited in creation order
+
+    /** The channel for one event type, created on first use. Systems look it up once and keep it. */
+    @SuppressWarnings("unchecked")
+    public <E> EventChannel<E> channel(Class<E> type) {
+        if (type == null) throw new IllegalArgumentException("Event type cannot be null.");
+        EventChannel<E> channel = (EventChannel<E>) channels.get(type);
+        if (channel == null) {
+            channel = new EventChannel<>(type);
+            channels.put(type, channel);
+            channelList.add(channel);
+        }
+        return channel;
+    }
+
+    /** Ends the tick on every channel: events from the tick before this one are dropped. Call once per tick. */
+    public void endTick() {
+        for (int i = 0; i < channelList.size(); i++) {
+            channelList.get(i).endTick();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.kindred.engine.entity.core;
+
+import java.util.Arrays;
+
+/**
+ * The events of one type, double-buffered: the ones published this tick and the ones from the tick
+ * before. Both buffers are arrays reused from tick to tick, so once they have grown to the busiest
+ * tick, publishing allocates nothing beyond the event itself.
+ * <p>
+ * Every event has a sequence number; a {@link EventReader} remembers the next one it has not seen.
+ */
+public final class EventChannel<E> {
+
+    private final Class<E> type;
+    private Object[] current = new Object[16];
+    private Object[] previous = new Object[16];
+    private int currentSize;
+    private int previousSize;
+    private long currentStart; // Sequence number of current[0]; previous[0] is currentStart - previousSize
+
+    EventChannel(Class<E> type) {
+        this.type = type;
+    }
+
+    public void publish(E event) {
+        if (event == null) throw new IllegalArgumentException("Event cannot be null.");
+        if (currentSize == current.length) current = Arrays.copyOf(current, currentSize * 2);
+        current[currentSize++] = event;
+    }
+
+    /** A reader that starts at the oldest event still kept. Each consumer takes its own. */
+    public EventReader<E> reader() {
+        return new EventReader<>(this, currentStart - previousSize);
+    }
+
+    /** Events published this tick so far. */
+    public int size() {
+        return currentSize;
+    }
+
+    public Class<E> getType() {
+        return type;
+    }
+
+    /** The reader's next event, or null if it has seen them all; events dropped before it got to them are skipped. */
+    E next(EventReader<E> reader) {
+        long oldest = currentStart - previousSize;
+        if (reader.next < oldest) reader.next = oldest; // The reader sat out two ticks
+        long sequence = reader.next;
+        if (sequence >= currentStart + currentSize) return null;
+        reader.next++;
+        Object event = sequence < currentStart ? previous[(int) (sequence - oldest)] : current[(int) (sequence - currentStart)];
+        return type.cast(event);
+    }
+
+    void endTick() {
+        Arrays.fill(previous, 0, previousSize, null); // Do not keep dropped events alive
+        Object[] swap = previous;
+        previous = current;
+        current = swap;
+        previousSize = currentSize;
+        currentStart += currentSize;
+        currentSize = 0;
+    }
+}
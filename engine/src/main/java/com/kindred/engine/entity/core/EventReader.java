@@ -0,0 +1,23 @@
+package com.kindred.engine.entity.core;
+
+/**
+ * One consumer's position in an {@link EventChannel}. Poll until null:
+ * <pre>{@code
+ * for (DamageEvent hit = hits.poll(); hit != null; hit = hits.poll()) { ... }
+ * }</pre>
+ */
+public final class EventReader<E> {
+
+    private final EventChannel<E> channel;
+    long next; // Sequence number of the next event to return
+
+    EventReader(EventChannel<E> channel, long next) {
+        this.channel = channel;
+        this.next = next;
+    }
+
+    /** The next event this reader has not seen, or null when it has seen them all. */
+    public E poll() {
+        return channel.next(this);
+    }
+}
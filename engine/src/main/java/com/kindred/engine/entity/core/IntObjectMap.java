@@ -0,0 +1,92 @@
+package com.kindred.engine.entity.core;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int keys to objects, so looking an entity up by id does not box the id.
+ * Linear probing; removal shifts the rest of the probe run back instead of leaving tombstones.
+ * Not thread-safe, like the rest of the entity store.
+ */
+final class IntObjectMap<V> {
+
+    private static final int EMPTY = -1; // Entity ids are never negative
+    private static final float MAX_LOAD = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    IntObjectMap() {
+        keys = new int[64];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[64];
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return (V) values[slot];
+        }
+        return null;
+    }
+
+    void put(int key, V value) {
+        if (key < 0) throw new IllegalArgumentException("Keys cannot be negative.");
+        if (size + 1 > keys.length * MAX_LOAD) grow();
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) size++;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    void remove(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) return;
+            slot = (slot + 1) & mask;
+        }
+        size--;
+        // Shift later entries of the run back into the hole, unless that would move one before its home slot
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[oldValues.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                @SuppressWarnings("unchecked") V value = (V) oldValues[i];
+                put(oldKeys[i], value);
+            }
+        }
+    }
+
+    /** Spreads sequential ids over the table. */
+    private static int mix(int key) {
+        return key * 0x9E3779B9;
+    }
+}
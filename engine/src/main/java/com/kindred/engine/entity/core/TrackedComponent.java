@@ -0,0 +1,24 @@
+package com.kindred.engine.entity.core;
+
+/**
+ * A component that records when it last changed, so UI and derived state can skip the unchanged
+ * ones instead of recomputing every frame. {@link EntityManager} stamps it with a new change tick when
+ * it is added and when it is fetched through {@link EntityManager#editComponent} or passed to
+ * {@link EntityManager#markChanged}. Writing its fields any other way goes unrecorded, and readers
+ * that rely on {@link #changedSince} will not see the change.
+ */
+public abstract class TrackedComponent implements Component {
+
+    long changeTick; // Left out of WorldState: a restore is itself a change, stamped as one
+    EntityManager.ComponentMap owner; // Of the entity it was last added to, stamped along with it
+
+    /** The change tick of this component's last recorded change. */
+    public final long getChangeTick() {
+        return changeTick;
+    }
+
+    /** Whether a change was recorded after {@code changeTick}, e.g. the {@link EntityManager#getChangeTick()} a reader last saw. */
+    public final boolean changedSince(long changeTick) {
+        return this.changeTick > changeTick;
+    }
+}
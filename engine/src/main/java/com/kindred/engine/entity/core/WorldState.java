@@ -0,0 +1,345 @@
+package com.kindred.engine.entity.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An exact, immutable copy of everything in an {@link EntityManager}, for rollback: prediction,
+ * replays, lockstep desync hunting and undo in level tools. Unlike the save game's WorldSnapshot
+ * it keeps every component, sprites and per-frame events included, at full precision, in memory only.
+ * <p>
+ * Every entity's state is one immutable object: the entity's component objects plus their mutable fields
+ * (see {@link ComponentLayout}, which also lists what is kept by reference and so is not rolled back).
+ * Capturing against the previous state reuses the objects of every entity that did not change, so
+ * taking one every tick costs memory only for what changed. {@link #capture} still reads every field of
+ * every entity, since components are written through their public fields without telling anyone;
+ * {@link #captureChanged} reads only the entities with a change recorded in the {@link EntityManager},
+ * for worlds that record their writes. Restoring over the state the world is known to be in compares those objects by reference
+ * and touches only the entities that differ. Component objects are put back, not copied, so code
+ * holding on to a component sees it return to its old values. Restored {@link TrackedComponent}s are
+ * stamped as changed, so readers that skip unchanged components catch up.
+ * <p>
+ * Call between ticks, on the thread that runs them.
+ */
+public final class WorldState {
+
+    /** One entity as captured; shared between states for as long as it does not change. */
+    private static final class EntityState {
+        final int id;
+        final Component[] components;
+        final ComponentLayout[] layouts; // Of each component, so capturing does not look them up again
+        final long[] values;
+        final Object[] references;
+
+        EntityState(int id, Component[] components, ComponentLayout[] layouts, long[] values, Object[] references) {
+            this.id = id;
+            this.components = components;
+            this.layouts = layouts;
+            this.values = values;
+            this.references = references;
+        }
+    }
+
+    private static final EntityState[] NONE = new EntityState[0];
+
+    private final long tick;
+    private final EntityState[] entities; // In id order
+    private final int nextEntityId;
+    private final long changeTick; // The EntityManager's when captured
+
+    private WorldState(long tick, EntityState[] entities, int nextEntityId, long changeTick) {
+        this.tick = tick;
+        this.entities = entities;
+        this.nextEntityId = nextEntityId;
+        this.changeTick = changeTick;
+    }
+
+    /**
+     * Copies the world exactly, reading every entity.
+     * @param tick The tick the world has completed.
+     * @param previous An earlier state of the same world, whose unchanged entities are shared; null for none.
+     */
+    public static WorldState capture(long tick, EntityManager entityManager, WorldState previous) {
+        return capture(tick, entityManager, previous, false);
+    }
+
+    /**
+     * Copies the world, reading only the entities created, given or stripped of components, edited through
+     * {@link EntityManager#editComponent} or marked with one of the {@link EntityManager#markChanged} methods
+     * since {@code previous}; every other entity is taken from {@code previous} unread. Exact as long as every write to a component is recorded that
+     * way; a write to a component kept from an earlier tick and not marked is missed. Costs a walk over
+     * the entity ids plus a read of what changed, so it suits taking a state every tick.
+     * @param previous A state captured from this same world; not null.
+     * @throws IllegalArgumentException If {@code previous} is null or was captured from a world further along.
+     */
+    public static WorldState captureChanged(long tick, EntityManager entityManager, WorldState previous) {
+        if (previous == null) throw new IllegalArgumentException("Previous state cannot be null.");
+        if (previous.changeTick > entityManager.getChangeTick()) {
+            throw new IllegalArgumentException("Previous state was not captured from this world.");
+        }
+        return capture(tick, entityManager, previous, true);
+    }
+
+    private static WorldState capture(long tick, EntityManager entityManager, WorldState previous, boolean recordedOnly) {
+        EntityState[] before = previous == null ? NONE : previous.entities;
+        EntityState[] states = new EntityState[entityManager.entityCount()];
+        Scratch scratch = new Scratch();
+        int count = 0, p = 0;
+        for (Map.Entry<Integer, EntityManager.ComponentMap> entity : entityManager.entries()) {
+            int id = entity.getKey();
+            while (p < before.length && before[p].id < id) p++;
+            EntityState old = p < before.length && before[p].id == id ? before[p] : null;
+            EntityManager.ComponentMap components = entity.getValue();
+            if (recordedOnly && old != null && components.changeTick <= previous.changeTick) {
+                states[count++] = old; // Nothing recorded, not even a change to its component set
+            } else {
+                states[count++] = old != null && holdsSameComponents(components, old)
+                        ? recapture(old, scratch)
+                        : capture(id, components.values(), old, scratch);
+            }
+        }
+        return new WorldState(tick, states, entityManager.getNextEntityId(), entityManager.getChangeTick());
+    }
+
+    /** Reusable buffers for reading one entity at a time. */
+    private static final class Scratch {
+        Component[] components = new Component[8];
+        ComponentLayout[] layouts = new ComponentLayout[8];
+        long[] values = new long[32];
+        Object[] references = new Object[8];
+    }
+
+    /** Whether an entity still has exactly the component objects it had; cheaper than walking its map. */
+    private static boolean holdsSameComponents(Map<Class<? extends Component>, Component> components, EntityState old) {
+        if (components.size() != old.components.length) return false;
+        for (Component component : old.components) {
+            if (components.get(component.getClass()) != component) return false;
+        }
+        return true;
+    }
+
+    /** Reads an entity that kept its components; returns {@code old} itself if no field changed either. */
+    private static EntityState recapture(EntityState old, Scratch scratch) {
+        if (scratch.values.length < old.values.length) scratch.values = new long[old.values.length * 2];
+        if (scratch.references.length < old.references.length) scratch.references = new Object[old.references.length * 2];
+        for (int i = 0, v = 0, r = 0; i < old.components.length; i++) {
+            ComponentLayout layout = old.layouts[i];
+            layout.read(old.components[i], scratch.values, v, scratch.references, r);
+            v += layout.primitiveCount();
+            r += layout.referenceCount();
+        }
+        int r = old.references.length;
+        if (Arrays.equals(scratch.values, 0, old.values.length, old.values, 0, old.values.length)
+                && sameReferences(old.layouts, scratch.references, old.references, r)) {
+            Arrays.fill(scratch.references, 0, r, null);
+            return old;
+        }
+        return changed(old.id, old.components, old.layouts, old.values.length, r, scratch);
+    }
+
+    private static EntityState capture(int id, Collection<Component> live, EntityState old, Scratch scratch) {
+        int count = live.size();
+        if (scratch.components.length < count) {
+            scratch.components = new Component[count * 2];
+            scratch.layouts = new ComponentLayout[count * 2];
+        }
+        boolean same = old != null && old.components.length == count;
+        int c = 0, v = 0, r = 0;
+        for (Component component : live) {
+            if (same && old.components[c] != component) same = false;
+            ComponentLayout layout = ComponentLayout.of(component.getClass());
+            scratch.components[c] = component;
+            scratch.layouts[c++] = layout;
+            if (scratch.values.length < v + layout.primitiveCount()) {
+                scratch.values = Arrays.copyOf(scratch.values, (v + layout.primitiveCount()) * 2);
+            }
+            if (scratch.references.length < r + layout.referenceCount()) {
+                scratch.references = Arrays.copyOf(scratch.references, (r + layout.referenceCount()) * 2);
+            }
+            layout.read(component, scratch.values, v, scratch.references, r);
+            v += layout.primitiveCount();
+            r += layout.referenceCount();
+        }
+        if (same && Arrays.equals(scratch.values, 0, v, old.values, 0, old.values.length)
+                && sameReferences(old.layouts, scratch.references, old.references, r)) {
+            return old;
+        }
+        return changed(id, Arrays.copyOf(scratch.components, count), Arrays.copyOf(scratch.layouts, count), v, r, scratch);
+    }
+
+    /** A new state from the values and references just read into {@code scratch}. */
+    private static EntityState changed(int id, Component[] components, ComponentLayout[] layouts, int valueCount,
+                                       int referenceCount, Scratch scratch) {
+        Object[] references = Arrays.copyOf(scratch.references, referenceCount);
+        for (int i = 0, at = 0; i < layouts.length; i++) {
+            layouts[i].freeze(references, at);
+            at += layouts[i].referenceCount();
+        }
+        Arrays.fill(scratch.references, 0, referenceCount, null); // Do not keep live collections alive
+        return new EntityState(id, components, layouts, Arrays.copyOf(scratch.values, valueCount), references);
+    }
+
+    private static boolean sameReferences(ComponentLayout[] layouts, Object[] live, Object[] saved, int count) {
+        if (saved.length != count) return false;
+        for (int c = 0, at = 0; c < layouts.length; c++) {
+            ComponentLayout layout = layouts[c];
+            for (int i = 0; i < layout.referenceCount(); i++, at++) {
+                if (!layout.sameReference(i, live[at], saved[at])) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rolls the world back (or forward) to this state.
+     * @param current The state the world is in now: captured from it, with nothing run since.
+     *                Only entities whose state differs between the two are touched.
+     * @return The number of entities restored, recreated or destroyed.
+     */
+    public int restoreInto(EntityManager entityManager, WorldState current) {
+        if (current == null) throw new IllegalArgumentException("Current state cannot be null.");
+        EntityState[] now = current.entities;
+        int touched = 0, t = 0, n = 0;
+        while (t < entities.length || n < now.length) {
+            EntityState target = t < entities.length ? entities[t] : null;
+            EntityState live = n < now.length ? now[n] : null;
+            if (target != null && live != null && target.id == live.id) {
+                t++;
+                n++;
+                if (target == live) continue;
+                apply(target, entityManager.components(target.id), entityManager);
+            } else if (live == null || (target != null && target.id < live.id)) {
+                t++;
+                apply(target, entityManager.recreateEntity(target.id), entityManager);
+            } else {
+                n++;
+                entityManager.destroyEntity(live.id);
+            }
+            touched++;
+        }
+        entityManager.setNextEntityId(nextEntityId);
+        return touched;
+    }
+
+    /**
+     * Rolls the world back to this state without knowing what it holds now: the world is captured
+     * first, which reads every entity, and then restored as by {@link #restoreInto(EntityManager, WorldState)}.
+     * @return The number of entities restored, recreated or destroyed.
+     */
+    public int restoreInto(EntityManager entityManager) {
+        return restoreInto(entityManager, capture(tick, entityManager, this));
+    }
+
+    private static void apply(EntityState state, EntityManager.ComponentMap components, EntityManager entityManager) {
+        entityManager.markChanged(components);
+        components.clear();
+        for (int i = 0, v = 0, r = 0; i < state.components.length; i++) {
+            Component component = state.components[i];
+            ComponentLayout layout = state.layouts[i];
+            layout.write(component, state.values, v, state.references, r);
+            v += layout.primitiveCount();
+            r += layout.referenceCount();
+            components.put(component.getClass(), component);
+            if (component instanceof TrackedComponent tracked) {
+                tracked.owner = components;
+                entityManager.markChanged(tracked);
+            }
+        }
+    }
+
+    /**
+     * What changed from {@code base} to this state, down to the field, e.g. to find where two peers
+     * that should be in lockstep went apart. Entities shared between the two are skipped unread.
+     */
+    public WorldStateDiff diff(WorldState base) {
+        List<Integer> added = new ArrayList<>(), removed = new ArrayList<>(), changed = new ArrayList<>();
+        List<String> changes = new ArrayList<>();
+        EntityState[] from = base.entities;
+        int t = 0, b = 0;
+        while (t < entities.length || b < from.length) {
+            EntityState to = t < entities.length ? entities[t] : null;
+            EntityState was = b < from.length ? from[b] : null;
+            if (to != null && was != null && to.id == was.id) {
+                t++;
+                b++;
+                if (to != was && describeChanges(was, to, changes)) changed.add(to.id);
+            } else if (was == null || (to != null && to.id < was.id)) {
+                t++;
+                added.add(to.id);
+                changes.add("entity " + to.id + " added with " + typeNames(to));
+            } else {
+                b++;
+                removed.add(was.id);
+                changes.add("entity " + was.id + " removed");
+            }
+        }
+        return new WorldStateDiff(base.tick, tick, added, removed, changed, changes);
+    }
+
+    /** Appends a line per component added or removed and per field changed; false if there were none. */
+    private static boolean describeChanges(EntityState was, EntityState to, List<String> changes) {
+        int before = changes.size();
+        for (Component component : was.components) {
+            if (find(to, component.getClass()) < 0) {
+                changes.add("entity " + to.id + " lost " + component.getClass().getSimpleName());
+            }
+        }
+        for (int i = 0, v = 0, r = 0; i < to.components.length; i++) {
+            ComponentLayout layout = ComponentLayout.of(to.components[i].getClass());
+            int old = find(was, to.components[i].getClass());
+            if (old < 0) {
+                changes.add("entity " + to.id + " gained " + layout.typeName());
+            } else {
+                int oldV = 0, oldR = 0;
+                for (int j = 0; j < old; j++) {
+                    ComponentLayout earlier = ComponentLayout.of(was.components[j].getClass());
+                    oldV += earlier.primitiveCount();
+                    oldR += earlier.referenceCount();
+                }
+                for (int f = 0; f < layout.primitiveCount(); f++) {
+                    if (was.values[oldV + f] != to.values[v + f]) {
+                        changes.add("entity " + to.id + " " + layout.typeName() + "." + layout.primitiveName(f) + ": "
+                                + layout.format(f, was.values[oldV + f]) + " -> " + layout.format(f, to.values[v + f]));
+                    }
+                }
+                for (int f = 0; f < layout.referenceCount(); f++) {
+                    if (!Objects.deepEquals(was.references[oldR + f], to.references[r + f])) {
+                        changes.add("entity " + to.id + " " + layout.typeName() + "." + layout.referenceName(f) + ": "
+                                + ComponentLayout.formatReference(was.references[oldR + f]) + " -> "
+                                + ComponentLayout.formatReference(to.references[r + f]));
+                    }
+                }
+            }
+            v += layout.primitiveCount();
+            r += layout.referenceCount();
+        }
+        return changes.size() > before;
+    }
+
+    private static int find(EntityState state, Class<?> type) {
+        for (int i = 0; i < state.components.length; i++) {
+            if (state.components[i].getClass() == type) return i;
+        }
+        return -1;
+    }
+
+    private static String typeNames(EntityState state) {
+        List<String> names = new ArrayList<>(state.components.length);
+        for (Component component : state.components) {
+            names.add(component.getClass().getSimpleName());
+        }
+        return names.toString();
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getEntityCount() {
+        return entities.length;
+    }
+}
@@ -0,0 +1,30 @@
+package com.kindred.engine.entity.core;
+
+import java.util.List;
+
+/**
+ * What changed between two {@link WorldState}s of one world.
+ *
+ * @param changedEntities Entities in both whose components or fields differ.
+ * @param changes One readable line per entity added or removed, component gained or lost and field
+ *                changed, in entity id order, e.g. {@code entity 12 PositionComponent.x: 40 -> 41}.
+ */
+public record WorldStateDiff(
+        long fromTick,
+        long toTick,
+        List<Integer> addedEntities,
+        List<Integer> removedEntities,
+        List<Integer> changedEntities,
+        List<String> changes) {
+
+    public WorldStateDiff {
+        addedEntities = List.copyOf(addedEntities);
+        removedEntities = List.copyOf(removedEntities);
+        changedEntities = List.copyOf(changedEntities);
+        changes = List.copyOf(changes);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+}
@@ -0,0 +1,8 @@
+package com.kindred.engine.entity.events;
+
+/**
+ * An entity swings its attack this tick; CombatSystem finds what it hits.
+ * Published by player input, AI and scripted encounters.
+ */
+public record AttackEvent(int attacker) {
+}
@@ -0,0 +1,9 @@
+package com.kindred.engine.entity.events;
+
+/**
+ * An attack hit. Published by CombatSystem, e.g. for the hit flash.
+ *
+ * @param damage Health actually taken, which is less than the attack's damage when the target had less left.
+ */
+public record DamageEvent(int attacker, int target, float damage) {
+}
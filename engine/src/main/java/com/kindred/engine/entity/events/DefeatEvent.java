@@ -0,0 +1,20 @@
+package com.kindred.engine.entity.events;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An entity worth experience was defeated. Published by CombatSystem for ExperienceSystem, which shares
+ * {@code xpValue} between the participants by the damage each dealt.
+ *
+ * @param damageByParticipant Damage dealt per participating entity, copied.
+ */
+public record DefeatEvent(int entity, int xpValue, Map<Integer, Float> damageByParticipant) {
+
+    public DefeatEvent {
+        if (damageByParticipant == null) throw new IllegalArgumentException("Damage by participant cannot be null.");
+        // A HashMap copy, not Map.copyOf: XP is handed out in this map's order, which must not vary between runs
+        damageByParticipant = Collections.unmodifiableMap(new HashMap<>(damageByParticipant));
+    }
+}
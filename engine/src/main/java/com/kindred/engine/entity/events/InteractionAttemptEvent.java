@@ -0,0 +1,5 @@
+package com.kindred.engine.entity.events;
+
+/** An entity (the player) tries to interact with whatever is nearest; handled by InteractionSystem. */
+public record InteractionAttemptEvent(int entity) {
+}
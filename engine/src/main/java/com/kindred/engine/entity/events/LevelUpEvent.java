@@ -0,0 +1,8 @@
+package com.kindred.engine.entity.events;
+
+/**
+ * An entity reached a new level. Published by ExperienceSystem once per level gained; StatCalculationSystem
+ * grants the level's stat increase, and the game shows it to the player.
+ */
+public record LevelUpEvent(int entity, int newLevel) {
+}
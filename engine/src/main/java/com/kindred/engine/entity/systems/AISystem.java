@@ -2,7 +2,9 @@ package com.kindred.engine.entity.systems;
 
 import com.kindred.engine.entity.components.*;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EventChannel;
 import com.kindred.engine.entity.core.System;
+import com.kindred.engine.entity.events.AttackEvent;
 import com.kindred.engine.resource.AnimationDataRegistry;
 import lombok.extern.slf4j.Slf4j;
 
@@ -10,20 +12,36 @@ import java.util.List;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.Map;
+import java.util.Random;
 
 @Slf4j
 public class AISystem implements System {
     private final EntityManager entityManager;
+    private final EventChannel<AttackEvent> attacks;
     private int playerEntityId = -1;
     private PositionComponent playerPosCache = null;
     private final AnimationDataRegistry animationRegistry;
+    private final Random random;
 
     public AISystem(EntityManager entityManager, AnimationDataRegistry animationRegistry) {
+        this(entityManager, animationRegistry, new Random());
+    }
+
+    /**
+     * @param random Draws idle times and wander targets. A deterministic world passes one of its
+     *               per-tick streams, see {@link com.kindred.engine.simulation.TickRandom}.
+     */
+    public AISystem(EntityManager entityManager, AnimationDataRegistry animationRegistry, Random random) {
         if (entityManager == null) {
             throw new IllegalArgumentException("EntityManager cannot be null.");
         }
+        if (random == null) {
+            throw new IllegalArgumentException("Random cannot be null.");
+        }
         this.entityManager = entityManager;
+        this.attacks = entityManager.getEvents().channel(AttackEvent.class);
         this.animationRegistry = animationRegistry;
+        this.random = random;
         log.info("AISystem initialized.");
     }
 
@@ -57,6 +75,7 @@ public class AISystem implements System {
         {
             if (entity == playerEntityId) continue;
             if(entityManager.hasComponent(entity, DeadComponent.class)) continue;
+            if(entityManager.hasComponent(entity, DormantComponent.class)) continue;
 
             PositionComponent pos = entityManager.getComponent(entity, PositionComponent.class);
             VelocityComponent vel = entityManager.getComponent(entity, VelocityComponent.class);
@@ -100,7 +119,7 @@ public class AISystem implements System {
                 // Player left aggro range (or disappeared), and it's not an NPC -> Stop attacking
                 log.debug("Entity {} lost player, switching to IDLE", entity);
                 ai.currentState = WanderAIComponent.AIState.IDLE;
-                ai.resetIdleTimer(); // Start idling
+                ai.resetIdleTimer(random); // Start idling
                 vel.vx = 0; // Stop movement
                 vel.vy = 0;
             }
@@ -116,7 +135,7 @@ public class AISystem implements System {
                     vel.vy = 0;
                     // Check if idle time is over
                     if (ai.idleTimer <= 0) {
-                        ai.pickNewWanderTarget();
+                        ai.pickNewWanderTarget(random);
                         ai.currentState = WanderAIComponent.AIState.WANDERING;
                         log.trace("Entity {} finished idling, wandering to ({}, {})", entity, ai.targetX, ai.targetY);
                     }
@@ -141,7 +160,7 @@ public class AISystem implements System {
                         // Arrived at wander target
                         vel.vx = 0; vel.vy = 0;
                         pos.x = ai.targetX; pos.y = ai.targetY;
-                        ai.resetIdleTimer();
+                        ai.resetIdleTimer(random);
                         ai.currentState = WanderAIComponent.AIState.IDLE;
                         log.trace("Entity {} reached wander target, now idling.", entity);
                     } else {
@@ -157,7 +176,7 @@ public class AISystem implements System {
                     if (playerEntityId == -1 || playerPosCache == null) {
                          // Player disappeared mid-attack? Revert to idle.
                          ai.currentState = WanderAIComponent.AIState.IDLE;
-                         ai.resetIdleTimer();
+                         ai.resetIdleTimer(random);
                          vel.vx = 0; vel.vy = 0;
                          log.debug("Entity {} lost player target while attacking, switching to IDLE", entity);
                          break; // Exit switch for this entity
@@ -199,8 +218,10 @@ public class AISystem implements System {
                                     totalFramesInSequence,
                                     animComp.direction
                                 );
+                                effectComp.frameTrims = animationRegistry.getAttackFrameTrims(weaponType, animComp.direction);
+                                effectComp.frameHandles = animationRegistry.getAttackFrameHandles(weaponType, animComp.direction);
                                 entityManager.addComponent(entity, effectComp);
-                                entityManager.addComponent(entity, new AttackActionComponent());
+                                attacks.publish(new AttackEvent(entity));
 
                                 AttackingStateComponent attackingState = entityManager.getComponent(entity, AttackingStateComponent.class);
                                 if (attackingState == null) {
@@ -33,7 +33,6 @@ public class AnimationSystem implements System {
             if (!animComp.isAttacking) {
                 log.warn("Entity {} has AttackVisualEffectComponent but AnimationComponent.isAttacking is false. Cleaning up effect.", entity);
                 entityManager.removeComponent(entity, AttackVisualEffectComponent.class);
-                entityManager.removeComponent(entity, AttackActionComponent.class);
                 entityManager.removeComponent(entity, AttackingStateComponent.class);
                 continue;
             }
@@ -41,7 +40,6 @@ public class AnimationSystem implements System {
             if (effectComp.frames == null || effectComp.frames.length == 0 || effectComp.frameDuration <= 0) {
                 log.warn("Entity {}: Invalid AttackVisualEffectComponent data. Removing effect.", entity);
                 entityManager.removeComponent(entity, AttackVisualEffectComponent.class);
-                entityManager.removeComponent(entity, AttackActionComponent.class);
                 entityManager.removeComponent(entity, AttackingStateComponent.class);
                 animComp.isAttacking = false;
                 continue;
@@ -56,7 +54,6 @@ public class AnimationSystem implements System {
                     // Attack visual effect animation finished
                     log.trace("Entity {} finished attack visual effect.", entity);
                     entityManager.removeComponent(entity, AttackVisualEffectComponent.class);
-                    entityManager.removeComponent(entity, AttackActionComponent.class); // For CombatSystem
                     entityManager.removeComponent(entity, AttackingStateComponent.class); // For hit-once logic
                     animComp.isAttacking = false; // Reset the character's main attack state
                 }
@@ -79,6 +76,7 @@ public class AnimationSystem implements System {
                 // CorpseDecaySystem or CombatSystem should handle the sprite for dead entities.
                 continue;
             }
+            if (entityManager.hasComponent(entity, DormantComponent.class)) continue;
 
             if (!animComp.isAttacking) {
                 VelocityComponent vel = entityManager.getComponent(entity, VelocityComponent.class);
@@ -91,7 +89,7 @@ public class AnimationSystem implements System {
                     animComp.frame = 0;
                     animComp.tick = 0;
                 }
-                spriteComp.sprite = animComp.getCurrentFrame();
+                spriteComp.setSprite(animComp.getCurrentFrame(), animComp.getCurrentFrameHandle());
             } else {
                 // Entity is in the "isAttacking" state.
                 // Its base sprite (character body) should ideally be an attack stance/pose or freeze.
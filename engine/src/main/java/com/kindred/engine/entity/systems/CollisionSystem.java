@@ -63,6 +63,40 @@ public class CollisionSystem implements System {
         checkEntityVsEntityCollision(collidableEntities);
     } // End update()
 
+    /**
+     * Resolves collisions of a single entity against the level and every other collidable entity, changing
+     * only this entity's velocity. Applies the same tile sliding and the same "stop before overlapping"
+     * rule as {@link #update()}, so client-side prediction of the local player matches the server.
+     * @param entity The entity about to move.
+     */
+    public void resolveEntity(int entity) {
+        int tileSize = level.getTileSize();
+        if (tileSize <= 0) return;
+        checkEntityVsTileCollision(List.of(entity), tileSize);
+
+        PositionComponent posA = entityManager.getComponent(entity, PositionComponent.class);
+        VelocityComponent velA = entityManager.getComponent(entity, VelocityComponent.class);
+        ColliderComponent colA = entityManager.getComponent(entity, ColliderComponent.class);
+        if (posA == null || velA == null || colA == null) return;
+
+        for (int other : getCollidableEntities()) {
+            if (other == entity) continue;
+            PositionComponent posB = entityManager.getComponent(other, PositionComponent.class);
+            ColliderComponent colB = entityManager.getComponent(other, ColliderComponent.class);
+            if (posB == null || colB == null) continue;
+
+            boundsB.setBounds(posB.x + colB.offsetX, posB.y + colB.offsetY, colB.hitboxWidth, colB.hitboxHeight);
+            if (velA.vx != 0) {
+                projectedBoundsA.setBounds(posA.x + colA.offsetX + velA.vx, posA.y + colA.offsetY, colA.hitboxWidth, colA.hitboxHeight);
+                if (projectedBoundsA.intersects(boundsB)) velA.vx = 0;
+            }
+            if (velA.vy != 0) {
+                projectedBoundsA.setBounds(posA.x + colA.offsetX + velA.vx, posA.y + colA.offsetY + velA.vy, colA.hitboxWidth, colA.hitboxHeight);
+                if (projectedBoundsA.intersects(boundsB)) velA.vy = 0;
+            }
+        }
+    }
+
     private void checkEntityVsEntityCollision(List<Integer> collidableEntities) {
         // (Resolves collisions between entities, using velocity potentially modified by tiles)
         // Brute-force N^2 check (Optimize later with spatial partitioning if needed)
@@ -248,8 +282,9 @@ public class CollisionSystem implements System {
         Set<Integer> entitiesWithRequired = entityManager.getEntitiesWith(PositionComponent.class, VelocityComponent.class, ColliderComponent.class);
         List<Integer> collidableEntities = new ArrayList<>();
         for (int entityId : entitiesWithRequired) {
-             // Filter out dead entities
-             if (!entityManager.hasComponent(entityId, DeadComponent.class)) {
+             // Filter out dead and dormant entities
+             if (!entityManager.hasComponent(entityId, DeadComponent.class)
+                     && !entityManager.hasComponent(entityId, DormantComponent.class)) {
                  collidableEntities.add(entityId);
              }
         }
@@ -2,35 +2,75 @@ package com.kindred.engine.entity.systems;
 
 import com.kindred.engine.entity.components.*;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EventChannel;
+import com.kindred.engine.entity.core.EventReader;
 import com.kindred.engine.entity.core.System;
+import com.kindred.engine.entity.events.AttackEvent;
+import com.kindred.engine.entity.events.DamageEvent;
+import com.kindred.engine.entity.events.DefeatEvent;
 import com.kindred.engine.resource.AssetLoader;
 import lombok.extern.slf4j.Slf4j;
 
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
 @Slf4j
 public class CombatSystem implements System {
 
+    /**
+     * Lets a server judge a player's attack against where its targets were on the player's screen,
+     * rather than where they are now, one round trip later (lag compensation).
+     */
+    public interface HitRewind {
+        /**
+         * Fills in the target's position and hitbox as the attacker saw them.
+         * @return False to judge the attack against the present instead.
+         */
+        boolean rewind(int attackerId, int targetId, PositionComponent position, ColliderComponent collider);
+    }
+
     private final EntityManager entityManager;
-    private static final float HIT_FLASH_DURATION = 0.15f;
+    private final EventReader<AttackEvent> attacks;
+    private final EventChannel<DamageEvent> hits;
+    private final EventChannel<DefeatEvent> defeats;
     private static final float CORPSE_LIFETIME = 10.0f; // How long corpses last
-    private final Random random = new Random();
+    private final Random random;
+    private HitRewind hitRewind;
+    private final PositionComponent rewoundPosition = new PositionComponent(0, 0);
+    private final ColliderComponent rewoundCollider = new ColliderComponent(0, 0, 0, 0);
 
     // Corpse Sprites (ensure loaded)
     private static BufferedImage deidaraCorpseSprite = AssetLoader.loadImage("/assets/sprites/decaying_deidara_corpse.png");
 
     public CombatSystem(EntityManager entityManager) {
+        this(entityManager, new Random());
+    }
+
+    /**
+     * @param random Draws the hit particles. A deterministic world passes one of its per-tick
+     *               streams, see {@link com.kindred.engine.simulation.TickRandom}.
+     */
+    public CombatSystem(EntityManager entityManager, Random random) {
         if (entityManager == null) {
             throw new IllegalArgumentException("EntityManager cannot be null.");
         }
+        if (random == null) {
+            throw new IllegalArgumentException("Random cannot be null.");
+        }
         this.entityManager = entityManager;
+        this.random = random;
+        this.attacks = entityManager.getEvents().channel(AttackEvent.class).reader();
+        this.hits = entityManager.getEvents().channel(DamageEvent.class);
+        this.defeats = entityManager.getEvents().channel(DefeatEvent.class);
         log.info("CombatSystem initialized.");
     }
 
+    /** Sets the lag compensation used for attacks from now on; null judges every attack against the present. */
+    public void setHitRewind(HitRewind hitRewind) {
+        this.hitRewind = hitRewind;
+    }
+
     @Override
     public void update(float deltaTime) {
         // --- 1. Reduce Attack Cooldowns ---
@@ -44,16 +84,14 @@ public class CombatSystem implements System {
                 }
             }
         }
-        // --- 2. Process Attack Actions ---
-        List<Integer> attackers = new ArrayList<>(entityManager.getEntitiesWith(AttackActionComponent.class));
-        for (int attackerId : attackers) {
-            // Double-check components still exist
+        // --- 2. Process Attacks ---
+        for (AttackEvent attack = attacks.poll(); attack != null; attack = attacks.poll()) {
+            int attackerId = attack.attacker();
+            // The attacker may have died or been disarmed since the swing started
             if (!entityManager.isEntityActive(attackerId) ||
                     entityManager.hasComponent(attackerId, DeadComponent.class) ||
-                    !entityManager.hasComponent(attackerId, AttackActionComponent.class) ||
                     !entityManager.hasComponent(attackerId, PositionComponent.class) ||
                     !entityManager.hasComponent(attackerId, AttackComponent.class)) {
-                entityManager.removeComponent(attackerId, AttackActionComponent.class);
                 continue;
             }
 
@@ -85,6 +123,10 @@ public class CombatSystem implements System {
                 PositionComponent targetPos = entityManager.getComponent(targetId, PositionComponent.class);
                 ColliderComponent targetCollider = entityManager.getComponent(targetId, ColliderComponent.class);
                 if (targetPos == null || targetCollider == null) continue;
+                if (hitRewind != null && hitRewind.rewind(attackerId, targetId, rewoundPosition, rewoundCollider)) {
+                    targetPos = rewoundPosition;
+                    targetCollider = rewoundCollider;
+                }
 
                 // Simple Distance Check
                 float dx = targetPos.x - attackerPos.x;
@@ -94,14 +136,14 @@ public class CombatSystem implements System {
 
                 if (distanceSq <= rangeSq) {
                     // Target is in range - Apply Damage
-                    HealthComponent targetHealth = entityManager.getComponent(targetId, HealthComponent.class);
+                    HealthComponent targetHealth = entityManager.editComponent(targetId, HealthComponent.class);
                     float actualDamage = attackerAttack.damage; // TODO: Factor in target defense, attacker stats
                     float previousHealth = targetHealth.currentHealth;
                     targetHealth.currentHealth = Math.max(0, targetHealth.currentHealth - actualDamage);
                     float damageDealt = previousHealth - targetHealth.currentHealth; // Actual damage applied
 
                     log.info("Entity {} hit Entity {} for {} damage. Health: {} -> {}", attackerId, targetId, actualDamage, previousHealth, targetHealth.currentHealth);
-                    entityManager.addComponent(targetId, new TookDamageComponent(HIT_FLASH_DURATION));
+                    hits.publish(new DamageEvent(attackerId, targetId, damageDealt));
 
                     // Spawn Hit Particles
                     int hitX = targetPos.x + targetCollider.offsetX + targetCollider.hitboxWidth / 2;
@@ -127,17 +169,17 @@ public class CombatSystem implements System {
                     if (targetHealth.currentHealth <= 0 && !entityManager.hasComponent(targetId, DeadComponent.class)) {
                         log.info("Entity {} died.", targetId);
 
-                        // <<< Add DefeatedWithParticipantsComponent >>>
+                        // <<< Publish the defeat for ExperienceSystem >>>
                         XPValueComponent xpValComp = entityManager.getComponent(targetId, XPValueComponent.class);
                         ParticipantComponent finalParticipants = entityManager.getComponent(targetId, ParticipantComponent.class);
                         if (xpValComp != null && finalParticipants != null && !finalParticipants.isEmpty()) {
                             // Pass the XP value and a copy of the participant set
-                            entityManager.addComponent(targetId, new DefeatedWithParticipantsComponent(xpValComp.xpValue, finalParticipants.getDamageMap()));
-                            log.debug("Added DefeatedWithParticipantsComponent to entity {} with {} participants.", targetId, finalParticipants.getParticipantCount());
+                            defeats.publish(new DefeatEvent(targetId, xpValComp.xpValue, finalParticipants.getDamageMap()));
+                            log.debug("Published the defeat of entity {} with {} participants.", targetId, finalParticipants.getParticipantCount());
                         } else {
                             log.debug("Entity {} died but had no XP value or no participants.", targetId);
                         }
-                        // <<< End Defeated Component >>>
+                        // <<< End Defeat Event >>>
 
                         // Add DeadComponent (defaults stage to 0)
                         entityManager.addComponent(targetId, new DeadComponent());
@@ -146,7 +188,6 @@ public class CombatSystem implements System {
                         entityManager.removeComponent(targetId, ColliderComponent.class);
                         entityManager.removeComponent(targetId, WanderAIComponent.class); // Or other AI
                         entityManager.removeComponent(targetId, AttackComponent.class);
-                        entityManager.removeComponent(targetId, AttackActionComponent.class);
                         entityManager.removeComponent(targetId, TookDamageComponent.class);
                         // entityManager.removeComponent(targetId, ParticipantComponent.class);
                         // Optional: Stop movement if dead
@@ -167,7 +208,7 @@ public class CombatSystem implements System {
                             // OR: Load stage 0 sprite here explicitly. Let's do that for clarity.
                             BufferedImage corpseSprite = getInitialCorpseSprite(targetId); // Get stage 0 sprite & Check if not placeholder
                             if (corpseSprite != null && corpseSprite.getWidth() > 1) {
-                                spriteComp.sprite = corpseSprite;
+                                spriteComp.setSprite(corpseSprite);
                                 log.debug("Set initial corpse sprite for entity {}", targetId);
                             } else {
                                 log.warn("Could not get initial corpse sprite for entity {}, might remain as last living sprite or placeholder.", targetId);
@@ -182,9 +223,7 @@ public class CombatSystem implements System {
                     } // End death check
                 } // End if in range
             } // End target loop
-            // --- Remove Action Component ---
-            entityManager.removeComponent(attackerId, AttackActionComponent.class);
-        } // End attacker loop
+        } // End attack loop
     } // End update()
 
     private void spawnHitParticles(
@@ -205,7 +244,7 @@ public class CombatSystem implements System {
         // -------- base direction away from attacker --------
         float dx = hitX - attackerX;
         float dy = hitY - attackerY;
-        float len = (float) Math.hypot(dx, dy);
+        float len = (float) StrictMath.hypot(dx, dy); // StrictMath: particles are world state, identical on every JVM
         if (len == 0) {
             dx = 1;
             dy = 0;
@@ -224,8 +263,8 @@ public class CombatSystem implements System {
 
             // ----- pick a direction inside the cone -----
             float a = (random.nextFloat() - .5f) * angleOffset;
-            float cos = (float) Math.cos(a);
-            float sin = (float) Math.sin(a);
+            float cos = (float) StrictMath.cos(a);
+            float sin = (float) StrictMath.sin(a);
             float dirX = baseX * cos - baseY * sin;
             float dirY = baseX * sin + baseY * cos;
 
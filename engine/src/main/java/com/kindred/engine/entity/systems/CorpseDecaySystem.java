@@ -2,94 +2,101 @@ package com.kindred.engine.entity.systems;
 
 import com.kindred.engine.entity.components.*;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EntityQuery;
 import com.kindred.engine.entity.core.System;
+import com.kindred.engine.render.SpriteHandle;
+import com.kindred.engine.render.TextureAtlas;
 import com.kindred.engine.resource.AssetLoader;
 import lombok.extern.slf4j.Slf4j;
 
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Slf4j
 public class CorpseDecaySystem implements System {
     private final EntityManager entityManager;
+    private final EntityQuery corpseQuery;
+    private final TextureAtlas atlas; // Optional: stage sprites are packed here under their cache key
 
-    // --- Sprite Cache for Decay Stages (Made Static) ---
-    // Maps Type Key (String) -> List of decay stage BufferedImages
-    private static final Map<String, List<BufferedImage>> decaySprites = new HashMap<>();
+    // --- Decay Stage Sprites ---
+    // Stage sprites live in AssetLoader's shared cache under "<typeKey>/decay/<stage>", pinned the first time
+    // a CorpseDecaySystem is created, so every corpse in every world shares one instance per stage instead of
+    // a new cut after an eviction. This map only says which sheet belongs to which type.
     private static final int NUM_DECAY_STAGES = 3; // Example: 0=Fresh, 1=Decayed, 2=Bones
-    private static boolean spritesLoaded = false; // Flag to ensure loading happens once
+    private static final int DECAY_SPRITE_SIZE = 32;
+    /** Sheets the stage sprites are cut from; preload them through AssetManager before the first corpse appears. */
+    public static final String DEIDARA_CORPSE_SHEET = "/assets/sprites/decaying_deidara_corpse.png";
+    private static final Map<String, String> DECAY_SHEETS = Map.of(
+            "ENEMY_DEIDARA", DEIDARA_CORPSE_SHEET
+            // Add other entity types here
+    );
 
-    // --- Static Initializer Block to Load Sprites ---
-    static {
-        loadAllDecaySprites();
+    public CorpseDecaySystem(EntityManager entityManager) {
+        this(entityManager, null);
     }
 
-    public CorpseDecaySystem(EntityManager entityManager) {
+    /**
+     * @param atlas Atlas to pack the stage sprites into once, so corpses are drawn by handle.
+     *              Null when nothing is drawn (headless server).
+     */
+    public CorpseDecaySystem(EntityManager entityManager, TextureAtlas atlas) {
         this.entityManager = entityManager;
-        if (!spritesLoaded) { // Fallback if static block failed somehow
-            log.warn("Attempting to load decay sprites in constructor (should have happened in static block).");
-            loadAllDecaySprites();
-        }
+        this.atlas = atlas;
+        this.corpseQuery = new EntityQuery(entityManager,
+                DeadComponent.class,
+                LifetimeComponent.class,
+                SpriteComponent.class // Need sprite component to update it
+                // PositionComponent is not strictly needed by this system's logic
+        );
+        preloadDecaySprites();
+        packDecaySprites();
         log.info("CorpseDecaySystem initialized.");
     }
 
-    // --- Load and Cache Decay Sprites ---
-    private static void loadAllDecaySprites() {
-        if (spritesLoaded) return; // Prevent reloading
-        log.debug("Loading all decay sprites...");
-        // Example for Deidara
-        loadSprite("ENEMY_DEIDARA", "/assets/sprites/decaying_deidara_corpse.png", NUM_DECAY_STAGES);
-        // Add other entity types here
-        spritesLoaded = true; // Mark as loaded
+    private static boolean decaySpritesPinned; // Guarded by the class lock; pinned once per process
+
+    /** Cuts and pins the stage sprites, so the first corpse does not cut them mid-frame and none is cut twice. */
+    private static synchronized void preloadDecaySprites() {
+        if (decaySpritesPinned) return;
+        log.debug("Preloading all decay sprites...");
+        for (String typeKey : DECAY_SHEETS.keySet()) {
+            for (int stage = 0; stage < NUM_DECAY_STAGES; stage++) {
+                getDecaySprite(typeKey, stage);
+                if (!AssetLoader.pin(decaySpriteKey(typeKey, stage))) {
+                    log.warn("Decay sprite {} is not cached, it is not pinned.", decaySpriteKey(typeKey, stage));
+                }
+            }
+        }
+        decaySpritesPinned = true;
     }
 
-    private static void loadSpriteSequence(String typeKey, String basePath, int numStages) {
-        List<BufferedImage> sprites = new ArrayList<>();
-        log.debug("Loading decay sprites for type: {}", typeKey);
-        for (int i = 0; i < numStages; i++) {
-            String path = basePath + i + ".png"; // Assumes naming convention like slime_corpse_stage0.png
-            BufferedImage sprite = AssetLoader.loadImage(path);
-            // Use placeholder if load fails, ensuring list size matches numStages
-            if (sprite == null || sprite.getWidth() <= 1) {
-                log.warn("Failed to load decay sprite: {}. Using placeholder.", path);
-                sprite = AssetLoader.createPlaceholderImage(32, 32); // Use AssetLoader's placeholder
+    private void packDecaySprites() {
+        if (atlas == null) return;
+        for (String typeKey : DECAY_SHEETS.keySet()) {
+            for (int stage = 0; stage < NUM_DECAY_STAGES; stage++) {
+                atlas.add(decaySpriteKey(typeKey, stage), getDecaySprite(typeKey, stage));
             }
-            sprites.add(sprite);
-        }
-        if (!sprites.isEmpty()) {
-            decaySprites.put(typeKey, sprites);
-        } else {
-            log.error("Failed to load any decay sprites for type: {}", typeKey);
         }
     }
 
-    private static void loadSprite(String typeKey, String path, int numStages) {
-        List<BufferedImage> sprites = new ArrayList<>();
-        log.debug("Loading decay sprites for type: {}", typeKey);
-        BufferedImage sheet = AssetLoader.loadImage(path);
+    /** The key a stage sprite is cached and packed under. */
+    private static String decaySpriteKey(String typeKey, int stage) {
+        return typeKey + "/decay/" + stage;
+    }
 
-        if (sheet == null || sheet.getWidth() <= 1 || sheet.getHeight() <= 1) {
-            log.error("AssetLoader Error: Failed to load sheet or sheet is placeholder for animation: {}", path);
-        }
+    /** Handle of a packed stage sprite, or SpriteHandle.NONE without an atlas or for unknown types. */
+    private int decaySpriteHandle(String typeKey, int stage) {
+        return atlas != null ? atlas.handleOf(decaySpriteKey(typeKey, stage)) : SpriteHandle.NONE;
+    }
 
-        for (int i = 0; i < numStages; i++) {
-            // Use placeholder if load fails, ensuring list size matches numStages
-            BufferedImage frame;
-            if (sheet == null || sheet.getWidth() <= 1) {
-                log.warn("Failed to load decay sprite: {}. Using placeholder.", path);
-                frame = AssetLoader.createPlaceholderImage(32, 32); // Use AssetLoader's placeholder
-            }
-            frame = AssetLoader.getSprite(sheet, i, 0, 32, 32);
-            sprites.add(frame);
-        }
-        if (!sprites.isEmpty()) {
-            decaySprites.put(typeKey, sprites);
-        } else {
-            log.error("Failed to load any decay sprites for type: {}", typeKey);
+    private static BufferedImage cutDecaySprite(String sheetPath, int stage) {
+        BufferedImage sheet = AssetLoader.loadImage(sheetPath);
+        if (sheet == null || sheet.getWidth() <= 1 || sheet.getHeight() <= 1) {
+            log.error("AssetLoader Error: Failed to load sheet or sheet is placeholder for decay sprites: {}", sheetPath);
         }
+        // getSprite returns a placeholder if the sheet failed or the stage is out of bounds
+        return AssetLoader.getSprite(sheet, stage, 0, DECAY_SPRITE_SIZE, DECAY_SPRITE_SIZE);
     }
 
     /**
@@ -100,10 +107,10 @@ public class CorpseDecaySystem implements System {
      * @return The corresponding BufferedImage, or a placeholder if not found.
      */
     public static BufferedImage getDecaySprite(String typeKey, int stage) {
-        List<BufferedImage> sprites = decaySprites.get(typeKey);
-        if (sprites != null && stage >= 0 && stage < sprites.size()) {
-            BufferedImage sprite = sprites.get(stage);
-            // Return placeholder if the specific sprite failed loading earlier
+        String sheetPath = DECAY_SHEETS.get(typeKey);
+        if (sheetPath != null && stage >= 0 && stage < NUM_DECAY_STAGES) {
+            BufferedImage sprite = AssetLoader.getCachedOrCreate(decaySpriteKey(typeKey, stage), () -> cutDecaySprite(sheetPath, stage));
+            // Return placeholder if the specific sprite failed loading
             return (sprite != null && sprite.getWidth() > 1) ? sprite : AssetLoader.createPlaceholderImage(32, 32);
         }
         log.warn("Could not find decay sprite for type '{}', stage {}", typeKey, stage);
@@ -115,19 +122,21 @@ public class CorpseDecaySystem implements System {
     @Override
     public void update(float deltaTime) {
         // Query for entities that are dead and have a lifetime (i.e., are corpses)
-        for (int entity : entityManager.getEntitiesWith(
-                DeadComponent.class,
-                LifetimeComponent.class,
-                SpriteComponent.class // Need sprite component to update it
-                // PositionComponent is not strictly needed by this system's logic
-        )) {
+        List<Integer> corpses = corpseQuery.run();
+        for (int i = 0; i < corpses.size(); i++) {
+            int entity = corpses.get(i);
             if (!entityManager.isEntityActive(entity)) continue; // Check if entity still exists
 
             DeadComponent deadComp = entityManager.getComponent(entity, DeadComponent.class);
             LifetimeComponent lifetime = entityManager.getComponent(entity, LifetimeComponent.class);
+            if (deadComp == null || lifetime == null) continue; // Safeguard
+            // Between stages there is nothing to do; false while nextStageLifetime is NaN, i.e. for new corpses
+            if (lifetime.remainingLifetime > deadComp.nextStageLifetime) continue;
+
             SpriteComponent spriteComp = entityManager.getComponent(entity, SpriteComponent.class);
+            if (spriteComp == null || lifetime.initialLifetime <= 0) continue; // Safeguard
 
-            if (deadComp == null || lifetime == null || spriteComp == null || lifetime.initialLifetime <= 0) continue; // Safeguard
+            boolean firstLook = Float.isNaN(deadComp.nextStageLifetime);
 
             // Calculate decay progress
             float progress = 1.0f - (lifetime.remainingLifetime / lifetime.initialLifetime);
@@ -138,29 +147,36 @@ public class CorpseDecaySystem implements System {
             int requiredStage = (int) (progress * NUM_DECAY_STAGES);
             // Ensure stage index stays within bounds (e.g., if progress is exactly 1.0)
             requiredStage = Math.min(requiredStage, NUM_DECAY_STAGES - 1);
+            // Stage s + 1 starts once progress reaches (s + 1) / NUM_DECAY_STAGES
+            deadComp.nextStageLifetime = requiredStage < NUM_DECAY_STAGES - 1
+                    ? lifetime.initialLifetime * (1.0f - (requiredStage + 1) / (float) NUM_DECAY_STAGES)
+                    : Float.NEGATIVE_INFINITY;
+
+            // Determine entity type to get correct sprite set
+            String typeKey = "UNKNOWN"; // Default key
+            if (entityManager.hasComponent(entity, EnemyComponent.class)) { // Crude type check
+                typeKey = "ENEMY_DEIDARA"; // TODO: Need better type identification if multiple enemies
+            }
+            /*
+            *
+            else if (entityManager.hasComponent(entity, NPCComponent.class)) {
+                typeKey = "NPC_VILLAGER"; // TODO: Need better type identification
+            }
+            */
+            // Add more type checks as needed
+
+            // CombatSystem sets the stage 0 sprite without an atlas handle; give it the packed one on first sight
+            boolean needsHandle = firstLook && atlas != null && DECAY_SHEETS.containsKey(typeKey);
 
             // If the required stage is different from the current stage, update the sprite
-            if (requiredStage != deadComp.decayStage) {
+            if (requiredStage != deadComp.decayStage || needsHandle) {
                 log.trace("Entity {} decaying to stage {}", entity, requiredStage);
 
-                // Determine entity type to get correct sprite set
-                String typeKey = "UNKNOWN"; // Default key
-                if (entityManager.hasComponent(entity, EnemyComponent.class)) { // Crude type check
-                    typeKey = "ENEMY_DEIDARA"; // TODO: Need better type identification if multiple enemies
-                }
-                /*
-                *
-                else if (entityManager.hasComponent(entity, NPCComponent.class)) {
-                    typeKey = "NPC_VILLAGER"; // TODO: Need better type identification
-                }
-                */
-                // Add more type checks as needed
-
                 // Get the new sprite for the required stage
                 BufferedImage newSprite = getDecaySprite(typeKey, requiredStage);
 
                 // Update the entity's sprite component
-                spriteComp.sprite = newSprite;
+                spriteComp.setSprite(newSprite, decaySpriteHandle(typeKey, requiredStage));
 
                 // Update the stored decay stage
                 deadComp.decayStage = requiredStage;
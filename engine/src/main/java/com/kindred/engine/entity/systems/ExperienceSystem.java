@@ -2,48 +2,66 @@ package com.kindred.engine.entity.systems;
 
 import com.kindred.engine.entity.components.*;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EventChannel;
+import com.kindred.engine.entity.core.EventReader;
 import com.kindred.engine.entity.core.System;
+import com.kindred.engine.entity.events.DefeatEvent;
+import com.kindred.engine.entity.events.LevelUpEvent;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 
 /**
  * Handles experience gain and level progression for entities.
- * Processes DefeatedEnemyComponent to grant XP and triggers level ups.
+ * Turns each DefeatEvent into XP for its participants and publishes a LevelUpEvent per level gained.
  */
 @Slf4j
 public class ExperienceSystem implements System {
 
+    /** Told about every XP change, e.g. to journal progress so it survives a crash. */
+    public interface ProgressListener {
+        /** Called after a participant's XP (and any level-ups it caused) has been applied. */
+        void experienceGained(int entityId, int amount, ExperienceComponent experience);
+
+        /** Called once per level gained, with the experience as of that level. */
+        void levelledUp(int entityId, ExperienceComponent experience);
+    }
+
     private final EntityManager entityManager;
+    private final EventReader<DefeatEvent> defeats;
+    private final EventChannel<LevelUpEvent> levelUps;
+    private ProgressListener progressListener;
 
     public ExperienceSystem(EntityManager entityManager) {
         if (entityManager == null) {
             throw new IllegalArgumentException("EntityManager cannot be null.");
         }
         this.entityManager = entityManager;
+        this.defeats = entityManager.getEvents().channel(DefeatEvent.class).reader();
+        this.levelUps = entityManager.getEvents().channel(LevelUpEvent.class);
         log.info("ExperienceSystem initialized.");
     }
 
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
     @Override
     public void update(float deltaTime) {
-        // Query for entities defeated this frame that have participant data
-        List<Integer> defeatedEntities = new ArrayList<>(entityManager.getEntitiesWith(DefeatedWithParticipantsComponent.class));
-
-        for (int defeatedEntityId : defeatedEntities) {
-            if (!entityManager.isEntityActive(defeatedEntityId) || !entityManager.hasComponent(defeatedEntityId, DefeatedWithParticipantsComponent.class)) {
+        // Entities defeated since the last update that have participant data
+        for (DefeatEvent defeat = defeats.poll(); defeat != null; defeat = defeats.poll()) {
+            int defeatedEntityId = defeat.entity();
+            if (!entityManager.isEntityActive(defeatedEntityId)) {
                 continue;
             }
+            // The tracker has served its purpose whatever happens below
+            entityManager.removeComponent(defeatedEntityId, ParticipantComponent.class);
 
-            DefeatedWithParticipantsComponent defeatInfo = entityManager.getComponent(defeatedEntityId, DefeatedWithParticipantsComponent.class);
-            int totalXp = defeatInfo.xpValue;
-            Map<Integer, Float> damageMap = defeatInfo.damageMap; // Get the damage map
+            int totalXp = defeat.xpValue();
+            Map<Integer, Float> damageMap = defeat.damageByParticipant(); // Get the damage map
 
-            if (damageMap == null || damageMap.isEmpty() || totalXp <= 0) {
+            if (damageMap.isEmpty() || totalXp <= 0) {
                 log.trace("Skipping XP distribution for entity {}: No participants or zero XP.", defeatedEntityId);
-                entityManager.removeComponent(defeatedEntityId, DefeatedWithParticipantsComponent.class); // Clean up component
-                entityManager.removeComponent(defeatedEntityId, ParticipantComponent.class); // Also remove tracker
                 continue;
             }
 
@@ -55,8 +73,6 @@ public class ExperienceSystem implements System {
 
             if (totalDamageDealt <= 0) {
                  log.warn("Total damage dealt for entity {} was zero or negative. Skipping XP distribution.", defeatedEntityId);
-                 entityManager.removeComponent(defeatedEntityId, DefeatedWithParticipantsComponent.class);
-                 entityManager.removeComponent(defeatedEntityId, ParticipantComponent.class);
                  continue;
             }
 
@@ -75,7 +91,7 @@ public class ExperienceSystem implements System {
 
                 // Grant XP to the participant
                 if (entityManager.isEntityActive(participantId) && entityManager.hasComponent(participantId, ExperienceComponent.class)) {
-                    ExperienceComponent expComp = entityManager.getComponent(participantId, ExperienceComponent.class);
+                    ExperienceComponent expComp = entityManager.editComponent(participantId, ExperienceComponent.class);
 
                     expComp.currentXP += xpShare;
                     log.debug("Entity {} gained {} XP ({}% damage share). Total XP: {}/{}",
@@ -90,17 +106,14 @@ public class ExperienceSystem implements System {
                         long newXpThreshold = ExperienceComponent.calculateXpForNextLevel(expComp.currentLevel);
                         expComp.xpToNextLevel = newXpThreshold;
                         log.info("Entity {} leveled up to Level {}! XP: {}/{}", participantId, expComp.currentLevel, expComp.currentXP, expComp.xpToNextLevel);
-                        entityManager.addComponent(participantId, new LevelUpEventComponent(expComp.currentLevel));
+                        levelUps.publish(new LevelUpEvent(participantId, expComp.currentLevel));
+                        if (progressListener != null) progressListener.levelledUp(participantId, expComp);
                     }
+                    if (progressListener != null) progressListener.experienceGained(participantId, xpShare, expComp);
                 } else {
                     log.warn("Participant entity {} not found or cannot gain XP.", participantId);
                 }
             } // End loop through participants
-
-            // Remove the processed event component AND the participant tracker from the defeated entity
-            entityManager.removeComponent(defeatedEntityId, DefeatedWithParticipantsComponent.class);
-            entityManager.removeComponent(defeatedEntityId, ParticipantComponent.class); // <<< Remove tracker here
-
-        } // End loop through defeated entities
+        } // End loop through defeats
     } // End update()
 }
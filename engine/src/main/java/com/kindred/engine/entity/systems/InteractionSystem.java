@@ -2,14 +2,13 @@ package com.kindred.engine.entity.systems;
 
 import com.kindred.engine.entity.components.DeadComponent;
 import com.kindred.engine.entity.components.InteractableComponent;
-import com.kindred.engine.entity.components.InteractionAttemptComponent;
 import com.kindred.engine.entity.components.PositionComponent;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EventReader;
 import com.kindred.engine.entity.core.System;
+import com.kindred.engine.entity.events.InteractionAttemptEvent;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -20,36 +19,31 @@ import java.util.Set;
 public class InteractionSystem implements System {
 
     private final EntityManager entityManager;
+    private final EventReader<InteractionAttemptEvent> attempts;
 
     public InteractionSystem(EntityManager entityManager) {
         if (entityManager == null) {
             throw new IllegalArgumentException("EntityManager cannot be null.");
         }
         this.entityManager = entityManager;
+        this.attempts = entityManager.getEvents().channel(InteractionAttemptEvent.class).reader();
         log.info("InteractionSystem initialized.");
     }
 
     @Override
     public void update(float deltaTime) {
-        // Find entities attempting to interact (usually just the player)
-        // Copy to list to avoid concurrent modification if removing component
-        List<Integer> interactors = new ArrayList<>(entityManager.getEntitiesWith(InteractionAttemptComponent.class, PositionComponent.class));
-
-        if (interactors.isEmpty()) {
-            return; // No one is trying to interact
-        }
-
-        // Get all potential interactable targets
-        // TODO: Optimize later with spatial query instead of checking all interactables
-        Set<Integer> targets = entityManager.getEntitiesWith(InteractableComponent.class, PositionComponent.class);
-
-        for (int interactorId : interactors) {
+        // Entities attempting to interact (usually just the player)
+        for (InteractionAttemptEvent attempt = attempts.poll(); attempt != null; attempt = attempts.poll()) {
+            int interactorId = attempt.entity();
             // Check if interactor still valid
             if (!entityManager.isEntityActive(interactorId) || entityManager.hasComponent(interactorId, DeadComponent.class)) {
-                entityManager.removeComponent(interactorId, InteractionAttemptComponent.class); // Clean up
                 continue;
             }
 
+            // Get all potential interactable targets
+            // TODO: Optimize later with spatial query instead of checking all interactables
+            Set<Integer> targets = entityManager.getEntitiesWith(InteractableComponent.class, PositionComponent.class);
+
             PositionComponent interactorPos = entityManager.getComponent(interactorId, PositionComponent.class);
             if (interactorPos == null) continue;
 
@@ -97,11 +91,6 @@ public class InteractionSystem implements System {
             } else {
                 log.trace("Entity {} interaction attempt found no target in range.", interactorId);
             }
-
-
-            // Remove the attempt component regardless of success
-            entityManager.removeComponent(interactorId, InteractionAttemptComponent.class);
-
-        } // End loop through interactors
+        } // End loop through attempts
     } // End update()
 }
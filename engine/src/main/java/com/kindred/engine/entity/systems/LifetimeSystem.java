@@ -2,6 +2,7 @@ package com.kindred.engine.entity.systems;
 
 import com.kindred.engine.entity.components.LifetimeComponent;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EntityQuery;
 import com.kindred.engine.entity.core.System;
 import lombok.extern.slf4j.Slf4j;
 
@@ -16,21 +17,27 @@ import java.util.List;
 public class LifetimeSystem implements System {
 
     private final EntityManager entityManager;
+    // Reused every update, so ticking lifetimes does not allocate
+    private final EntityQuery aging;
+    private final List<Integer> entitiesToDestroy = new ArrayList<>();
 
     public LifetimeSystem(EntityManager entityManager) {
         if (entityManager == null) {
             throw new IllegalArgumentException("EntityManager cannot be null.");
         }
         this.entityManager = entityManager;
+        this.aging = new EntityQuery(entityManager, LifetimeComponent.class);
         log.info("LifetimeSystem initialized.");
     }
 
     @Override
     public void update(float deltaTime) {
-        List<Integer> entitiesToDestroy = new ArrayList<>();
+        entitiesToDestroy.clear();
 
         // Iterate through entities with a lifetime
-        for (int entity : entityManager.getEntitiesWith(LifetimeComponent.class)) {
+        List<Integer> entities = aging.run();
+        for (int i = 0; i < entities.size(); i++) {
+            Integer entity = entities.get(i); // Kept boxed so adding it below does not box again
             LifetimeComponent lifetime = entityManager.getComponent(entity, LifetimeComponent.class);
 
             lifetime.remainingLifetime -= deltaTime;
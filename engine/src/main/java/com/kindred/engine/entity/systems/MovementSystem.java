@@ -1,27 +1,45 @@
 package com.kindred.engine.entity.systems;
 
 import com.kindred.engine.entity.components.DeadComponent;
+import com.kindred.engine.entity.components.DormantComponent;
 import com.kindred.engine.entity.components.PositionComponent;
 import com.kindred.engine.entity.components.VelocityComponent;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EntityQuery;
 import com.kindred.engine.entity.core.System;
 
+import java.util.List;
+
 public class MovementSystem implements System {
     private final EntityManager entityManager;
+    private final EntityQuery movers;
 
     public MovementSystem(EntityManager entityManager) {
         this.entityManager = entityManager;
+        this.movers = new EntityQuery(entityManager, PositionComponent.class, VelocityComponent.class);
     }
 
     public void update(float deltaTime) {
-        for (int entity : entityManager.getEntitiesWith(PositionComponent.class, VelocityComponent.class)) {
+        List<Integer> moving = movers.run();
+        for (int i = 0; i < moving.size(); i++) {
+            int entity = moving.get(i);
             if(entityManager.hasComponent(entity, DeadComponent.class)) continue;
+            if(entityManager.hasComponent(entity, DormantComponent.class)) continue;
 
-            PositionComponent pos = entityManager.getComponent(entity, PositionComponent.class);
-            VelocityComponent vel = entityManager.getComponent(entity, VelocityComponent.class);
-
-            pos.x += vel.vx;
-            pos.y += vel.vy;
+            move(entity);
         }
     }
+
+    /**
+     * Moves one entity by its velocity. Used by client-side prediction to step the local player
+     * without advancing the rest of the world.
+     */
+    public void move(int entity) {
+        PositionComponent pos = entityManager.getComponent(entity, PositionComponent.class);
+        VelocityComponent vel = entityManager.getComponent(entity, VelocityComponent.class);
+        if (pos == null || vel == null) return;
+
+        pos.x += vel.vx;
+        pos.y += vel.vy;
+    }
 }
@@ -4,9 +4,12 @@ import com.kindred.engine.entity.components.LifetimeComponent;
 import com.kindred.engine.entity.components.ParticlePhysicsComponent;
 import com.kindred.engine.entity.components.VelocityComponent;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EntityQuery;
 import com.kindred.engine.entity.core.System;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+
 /**
  * Applies gravity and handles ground bouncing/friction for particles
  * based on their Z-axis position and velocity stored in ParticlePhysicsComponent.
@@ -15,6 +18,7 @@ import lombok.extern.slf4j.Slf4j;
 public class ParticlePhysicsSystem implements System {
 
     private final EntityManager entityManager;
+    private final EntityQuery particleQuery;
     private static final float VZ_STOP_THRESHOLD = 5.0f; // pixels/sec - Stop bouncing if vz is below this after bounce
     private static final float VX_VY_STOP_THRESHOLD = 1.0f; // pixels/sec - Stop sliding if vx/vy is below this
 
@@ -24,17 +28,20 @@ public class ParticlePhysicsSystem implements System {
             throw new IllegalArgumentException("EntityManager cannot be null.");
         }
         this.entityManager = entityManager;
+        this.particleQuery = new EntityQuery(entityManager,
+                VelocityComponent.class, // Needed for ground friction
+                ParticlePhysicsComponent.class,
+                LifetimeComponent.class // Ensure we only process active particles
+        );
         log.info("ParticlePhysicsSystem initialized.");
     }
 
     @Override
     public void update(float deltaTime) {
         // Iterate entities with the necessary physics and velocity components
-        for (int entity : entityManager.getEntitiesWith(
-                VelocityComponent.class, // Needed for ground friction
-                ParticlePhysicsComponent.class,
-                LifetimeComponent.class // Ensure we only process active particles
-        )) {
+        List<Integer> particles = particleQuery.run();
+        for (int i = 0; i < particles.size(); i++) {
+            int entity = particles.get(i);
             VelocityComponent vel = entityManager.getComponent(entity, VelocityComponent.class);
             ParticlePhysicsComponent physics = entityManager.getComponent(entity, ParticlePhysicsComponent.class);
             if (vel == null || physics == null) continue;
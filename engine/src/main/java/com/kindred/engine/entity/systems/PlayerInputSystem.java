@@ -2,8 +2,12 @@ package com.kindred.engine.entity.systems;
 
 import com.kindred.engine.entity.components.*;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EventChannel;
 import com.kindred.engine.entity.core.System;
+import com.kindred.engine.entity.events.AttackEvent;
+import com.kindred.engine.entity.events.InteractionAttemptEvent;
 import com.kindred.engine.input.Keyboard;
+import com.kindred.engine.input.PlayerCommand;
 import com.kindred.engine.resource.AnimationDataRegistry;
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,12 +19,20 @@ import java.awt.image.BufferedImage;
 @Slf4j
 public class PlayerInputSystem implements System {
     private final EntityManager entityManager;
+    private final EventChannel<AttackEvent> attacks;
+    private final EventChannel<InteractionAttemptEvent> interactionAttempts;
     private final Keyboard keyboard;
     private int playerEntity = -1;
     private final AnimationDataRegistry animationRegistry;
 
+    /**
+     * @param keyboard The local keyboard, or null on a headless server where every player is driven
+     *                 through {@link #applyCommand(int, PlayerCommand)}.
+     */
     public PlayerInputSystem(EntityManager entityManager, Keyboard keyboard, AnimationDataRegistry animationRegistry) {
         this.entityManager = entityManager;
+        this.attacks = entityManager.getEvents().channel(AttackEvent.class);
+        this.interactionAttempts = entityManager.getEvents().channel(InteractionAttemptEvent.class);
         this.keyboard = keyboard;
         this.animationRegistry = animationRegistry;
         log.info("PlayerInputSystem initialized.");
@@ -36,7 +48,19 @@ public class PlayerInputSystem implements System {
                 return;
             }
         }
+        if (keyboard == null) {
+            return; // Headless: commands arrive through applyCommand instead
+        }
+        applyCommand(playerEntity, PlayerCommand.fromKeyboard(keyboard));
+    }
 
+    /**
+     * Applies one tick of controls to a player entity: movement, facing, attacks and interaction.
+     * Used for the local keyboard player and by the server for every connected client's player.
+     * @param playerEntity The player entity to control.
+     * @param command The controls held this tick.
+     */
+    public void applyCommand(int playerEntity, PlayerCommand command) {
         if (!entityManager.hasComponent(playerEntity, VelocityComponent.class) ||
             !entityManager.hasComponent(playerEntity, AttackComponent.class) ||
             !entityManager.hasComponent(playerEntity, AnimationComponent.class))
@@ -54,10 +78,10 @@ public class PlayerInputSystem implements System {
             vel.vx = 0;
             vel.vy = 0;
             int speed = 2;
-            if (keyboard.up) vel.vy = -speed;
-            if (keyboard.down) vel.vy = speed;
-            if (keyboard.left) vel.vx = -speed;
-            if (keyboard.right) vel.vx = speed;
+            if (command.up()) vel.vy = -speed;
+            if (command.down()) vel.vy = speed;
+            if (command.left()) vel.vx = -speed;
+            if (command.right()) vel.vx = speed;
 
             // Update direction in AnimationComponent based on movement
             // This logic should ideally be in AnimationSystem or handled by setDirection carefully
@@ -77,7 +101,7 @@ public class PlayerInputSystem implements System {
         // --- End Movement Input ---
 
         // --- Attack Input ---
-        if (keyboard.space) { // Assuming space is the attack key
+        if (command.attack()) { // Assuming space is the attack key
             if (!animComp.isAttacking && attackComp.currentCooldown <= 0) {
                 log.debug("Player {} attempts attack!", playerEntity);
 
@@ -99,9 +123,11 @@ public class PlayerInputSystem implements System {
                         totalFramesInSequence,
                         animComp.direction // Pass current direction to the effect
                     );
+                    effectComp.frameTrims = animationRegistry.getAttackFrameTrims(weaponType, animComp.direction);
+                    effectComp.frameHandles = animationRegistry.getAttackFrameHandles(weaponType, animComp.direction);
                     entityManager.addComponent(playerEntity, effectComp);
 
-                    entityManager.addComponent(playerEntity, new AttackActionComponent());
+                    attacks.publish(new AttackEvent(playerEntity));
 
                     AttackingStateComponent attackingState = entityManager.getComponent(playerEntity, AttackingStateComponent.class);
                     if (attackingState == null) {
@@ -120,11 +146,9 @@ public class PlayerInputSystem implements System {
         }
 
         // --- Interaction Input ---
-        if (keyboard.interact && !animComp.isAttacking) { // Prevent interaction while attacking
-            if (!entityManager.hasComponent(playerEntity, InteractionAttemptComponent.class)) {
-                log.debug("Player {} initiates interaction attempt!", playerEntity);
-                entityManager.addComponent(playerEntity, new InteractionAttemptComponent());
-            }
+        if (command.interact() && !animComp.isAttacking) { // Prevent interaction while attacking
+            log.debug("Player {} initiates interaction attempt!", playerEntity);
+            interactionAttempts.publish(new InteractionAttemptEvent(playerEntity));
         }
     }
 }
@@ -4,6 +4,9 @@ import com.kindred.engine.entity.components.*;
 import com.kindred.engine.entity.core.EntityManager;
 import com.kindred.engine.entity.core.System;
 import com.kindred.engine.render.Screen;
+import com.kindred.engine.render.SpriteHandle;
+import com.kindred.engine.render.SpriteTrim;
+import com.kindred.engine.render.TextureAtlas;
 
 // Import SLF4J/Lombok if using logging
 import com.kindred.engine.ui.Const;
@@ -19,6 +22,7 @@ public class RenderSystem implements System {
 
     private final EntityManager entityManager;
     private final Screen screen;
+    private final TextureAtlas atlas; // Optional: sprites with a handle are drawn from here
     private final List<Integer> entitiesToRender = new ArrayList<>();
     private final Comparator<Integer> renderOrderComparator;
 
@@ -35,9 +39,19 @@ public class RenderSystem implements System {
 
 
     public RenderSystem(EntityManager entityManager, Screen screen) {
+        this(entityManager, screen, null);
+    }
+
+    /**
+     * @param atlas Atlas the sprite handles belong to. Nothing is packed here: whoever creates a sprite
+     *              packs it under its asset key, and sprites without a handle are drawn from the BufferedImage.
+     *              If null, everything is drawn straight from the BufferedImages.
+     */
+    public RenderSystem(EntityManager entityManager, Screen screen, TextureAtlas atlas) {
         // 1. Assign final fields FIRST
         this.entityManager = entityManager;
         this.screen = screen;
+        this.atlas = atlas;
         // 2. Initialize the comparator AFTER entityManager is assigned
         this.renderOrderComparator = getRenderOrderComparator(entityManager);
         log.info("RenderSystem initialized.");
@@ -84,7 +98,7 @@ public class RenderSystem implements System {
             // 1. Draw the entity's base sprite (character, corpse, etc.)
             // The sprite in spriteComp is managed by AnimationSystem (for walk/idle)
             // or CorpseDecaySystem (for dead entities).
-            screen.drawSpriteWithOffset(pos.x, pos.y, spriteComp.sprite); // Assuming drawSpriteWithOffset handles camera
+            drawSprite(pos.x, pos.y, spriteComp.sprite, spriteComp.handle);
 
             // +++ NEW: Render Attack Visual Effect on top +++
             if (entityManager.hasComponent(entityId, AttackVisualEffectComponent.class)) {
@@ -102,8 +116,10 @@ public class RenderSystem implements System {
                             attackerHeight = spriteComp.sprite.getHeight();
                         }
 
-                        int effectWidth = effectFrame.getWidth();
-                        int effectHeight = effectFrame.getHeight();
+                        // Trimmed frames are laid out by their untrimmed size, then shifted by the trim offset
+                        SpriteTrim trim = effectComp.getCurrentTrim();
+                        int effectWidth = trim != null ? trim.sourceWidth() : effectFrame.getWidth();
+                        int effectHeight = trim != null ? trim.sourceHeight() : effectFrame.getHeight();
 
                         // Desired offset factor (e.g., 0.35 means 35% of attacker's dimension "in front")
                         // This factor determines how much "in front" the effect's *origin* is placed.
@@ -136,7 +152,11 @@ public class RenderSystem implements System {
                                 finalEffectX = attackerBaseX + (int)(attackerWidth * offsetFactor) + attackerWidth / 2; // Adjusted
                                 break;
                         }
-                        screen.drawSpriteWithOffset(finalEffectX, finalEffectY, effectFrame);
+                        if (trim != null) {
+                            finalEffectX += trim.offsetX();
+                            finalEffectY += trim.offsetY();
+                        }
+                        drawSprite(finalEffectX, finalEffectY, effectFrame, effectComp.getCurrentFrameHandle());
                     }
                 }
             }
@@ -219,6 +239,15 @@ public class RenderSystem implements System {
     }
     // --- Helper Drawing Methods ---
 
+    /** Draws from the atlas when the sprite has a handle, otherwise from the BufferedImage. Both apply the camera offset. */
+    private void drawSprite(int worldX, int worldY, BufferedImage sprite, int handle) {
+        if (atlas != null && SpriteHandle.isValid(handle)) {
+            screen.drawAtlasSprite(worldX, worldY, atlas, handle);
+        } else {
+            screen.drawSpriteWithOffset(worldX, worldY, sprite);
+        }
+    }
+
     /** Draws text centered horizontally at the given coordinates. */
     private void drawTextCentered(int screenX, int screenY, String text, Font font, Color color) {
         if (text == null || text.isEmpty()) return;
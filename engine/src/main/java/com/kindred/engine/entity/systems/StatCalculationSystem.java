@@ -2,43 +2,42 @@ package com.kindred.engine.entity.systems;
 
 import com.kindred.engine.entity.components.ExperienceComponent;
 import com.kindred.engine.entity.components.HealthComponent;
-import com.kindred.engine.entity.components.LevelUpEventComponent;
 import com.kindred.engine.entity.components.StatsComponent;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EventReader;
+import com.kindred.engine.entity.events.LevelUpEvent;
 import lombok.extern.slf4j.Slf4j;
 
 import com.kindred.engine.entity.core.System;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Calculates derived stats based on base attributes, level, etc.
- * Can be triggered by events like LevelUpEventComponent.
+ * Runs for every LevelUpEvent, and on demand through recalculateStats.
  * Also updates dependent components like max health.
  */
 @Slf4j
 public class StatCalculationSystem implements System {
 
     private final EntityManager entityManager;
+    private final EventReader<LevelUpEvent> levelUps;
 
     public StatCalculationSystem(EntityManager entityManager) {
         if (entityManager == null) {
             throw new IllegalArgumentException("EntityManager cannot be null.");
         }
         this.entityManager = entityManager;
+        this.levelUps = entityManager.getEvents().channel(LevelUpEvent.class).reader();
         log.info("StatCalculationSystem initialized.");
     }
 
     @Override
     public void update(float deltaTime) {
         // Process entities that just leveled up
-        List<Integer> leveledUpEntities = new ArrayList<>(entityManager.getEntitiesWith(LevelUpEventComponent.class));
-
-        for (int entityId : leveledUpEntities) {
+        for (LevelUpEvent levelEvent = levelUps.poll(); levelEvent != null; levelEvent = levelUps.poll()) {
+            int entityId = levelEvent.entity();
             if (!entityManager.isEntityActive(entityId)) continue; // Check if still active
 
-            LevelUpEventComponent levelEvent = entityManager.getComponent(entityId, LevelUpEventComponent.class);
-            log.debug("Processing level up event for entity {} to level {}", entityId, levelEvent.newLevel);
+            log.debug("Processing level up event for entity {} to level {}", entityId, levelEvent.newLevel());
 
             // --- Apply Level Up Bonuses (Example: Increase base stats) ---
             // This is one place to handle stat increases. Alternatively, ExperienceSystem could do it.
@@ -58,19 +57,16 @@ public class StatCalculationSystem implements System {
 
             // --- Optional: Heal on Level Up ---
             if (entityManager.hasComponent(entityId, HealthComponent.class)) {
-                HealthComponent health = entityManager.getComponent(entityId, HealthComponent.class);
+                HealthComponent health = entityManager.editComponent(entityId, HealthComponent.class);
                 health.currentHealth = health.maxHealth; // Heal to full
                 log.debug("Entity {} healed to full health ({}) on level up.", entityId, health.maxHealth);
             }
             // TODO: Heal mana if applicable
-
-            // Remove the event component after processing
-            entityManager.removeComponent(entityId, LevelUpEventComponent.class);
         }
 
         // TODO: Decide if recalculation should happen at other times
         // (e.g., when equipment changes, buffs/debuffs applied/expired).
-        // If so, trigger recalculateStats based on other event components or run periodically.
+        // If so, trigger recalculateStats based on other events or run periodically.
     }
 
     /**
@@ -86,7 +82,7 @@ public class StatCalculationSystem implements System {
 
         StatsComponent stats = entityManager.getComponent(entityId, StatsComponent.class);
         ExperienceComponent exp = entityManager.getComponent(entityId, ExperienceComponent.class);
-        HealthComponent health = entityManager.getComponent(entityId, HealthComponent.class);
+        HealthComponent health = entityManager.editComponent(entityId, HealthComponent.class);
         // ManaComponent mana = entityManager.getComponent(entityId, ManaComponent.class);
         // Get EquipmentComponent, BuffComponent etc. if they exist and affect stats
 
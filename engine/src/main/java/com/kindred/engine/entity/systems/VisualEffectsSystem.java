@@ -1,8 +1,12 @@
 package com.kindred.engine.entity.systems;
 
+import com.kindred.engine.entity.components.DeadComponent;
 import com.kindred.engine.entity.components.TookDamageComponent;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EntityQuery;
+import com.kindred.engine.entity.core.EventReader;
 import com.kindred.engine.entity.core.System;
+import com.kindred.engine.entity.events.DamageEvent;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
@@ -11,24 +15,46 @@ import java.util.List;
 @Slf4j
 public class VisualEffectsSystem implements System {
 
+    private static final float HIT_FLASH_DURATION = 0.15f;
+
     private final EntityManager entityManager;
+    private final EventReader<DamageEvent> hits;
+    // Reused every update, so ticking flash timers does not allocate
+    private final EntityQuery flashing;
+    private final List<Integer> entitiesToRemoveComponent = new ArrayList<>();
 
     public VisualEffectsSystem(EntityManager entityManager) {
         if (entityManager == null) {
             throw new IllegalArgumentException("EntityManager cannot be null.");
         }
         this.entityManager = entityManager;
+        this.hits = entityManager.getEvents().channel(DamageEvent.class).reader();
+        this.flashing = new EntityQuery(entityManager, TookDamageComponent.class);
         log.info("VisualEffectsSystem initialized.");
     }
 
     @Override
     public void update(float deltaTime) {
+        // Start (or restart) a flash on everything hit since the last update, unless the hit killed it
+        for (DamageEvent hit = hits.poll(); hit != null; hit = hits.poll()) {
+            int target = hit.target();
+            if (!entityManager.isEntityActive(target) || entityManager.hasComponent(target, DeadComponent.class)) continue;
+            TookDamageComponent flash = entityManager.getComponent(target, TookDamageComponent.class);
+            if (flash == null) {
+                entityManager.addComponent(target, new TookDamageComponent(HIT_FLASH_DURATION));
+            } else {
+                flash.effectTimer = flash.initialDuration;
+            }
+        }
+
         // Use a list to collect entities whose component should be removed,
         // to avoid ConcurrentModificationException if removing while iterating the set.
-        List<Integer> entitiesToRemoveComponent = new ArrayList<>();
+        entitiesToRemoveComponent.clear();
 
         // Iterate through entities with the TookDamageComponent
-        for (int entity : entityManager.getEntitiesWith(TookDamageComponent.class)) {
+        List<Integer> entities = flashing.run();
+        for (int i = 0; i < entities.size(); i++) {
+            Integer entity = entities.get(i); // Kept boxed so adding it below does not box again
             TookDamageComponent damageEffect = entityManager.getComponent(entity, TookDamageComponent.class);
 
             // Decrease the timer
@@ -60,6 +60,28 @@ public class Keyboard implements KeyListener {
     }
 
 
+    /**
+     * Copies the keys as of the last {@link #update()} into a bitset, for input recording.
+     * @param bits At least 2 longs; bit {@code k % 64} of {@code bits[k / 64]} is key code k.
+     */
+    public void captureKeys(long[] bits) {
+        bits[0] = 0;
+        bits[1] = 0;
+        for (int key = 0; key < KEY_COUNT; key++) {
+            if (lastKeys[key]) bits[key >> 6] |= 1L << (key & 63);
+        }
+    }
+
+    /**
+     * Replaces the held keys with a bitset from {@link #captureKeys}, for replays and bots.
+     * Takes effect at the next {@link #update()}, like real key events.
+     */
+    public void setKeys(long[] bits) {
+        for (int key = 0; key < KEY_COUNT; key++) {
+            currentKeys[key] = (bits[key >> 6] & (1L << (key & 63))) != 0;
+        }
+    }
+
     // --- KeyListener Methods ---
 
     @Override
@@ -0,0 +1,42 @@
+package com.kindred.engine.input;
+
+/**
+ * The controls of one player for one tick, independent of where they came from
+ * (the local keyboard, a network client, a replay or a bot).
+ *
+ * @param up Move up.
+ * @param down Move down.
+ * @param left Move left.
+ * @param right Move right.
+ * @param attack Start an attack.
+ * @param interact Interact with whatever is in range.
+ */
+public record PlayerCommand(boolean up, boolean down, boolean left, boolean right, boolean attack, boolean interact) {
+
+    /** No keys held. */
+    public static final PlayerCommand NONE = new PlayerCommand(false, false, false, false, false, false);
+
+    private static final int UP = 1, DOWN = 2, LEFT = 4, RIGHT = 8, ATTACK = 16, INTERACT = 32;
+
+    /** Snapshot of the keyboard's current state. Call after {@link Keyboard#update()}. */
+    public static PlayerCommand fromKeyboard(Keyboard keyboard) {
+        return new PlayerCommand(keyboard.up, keyboard.down, keyboard.left, keyboard.right, keyboard.space, keyboard.interact);
+    }
+
+    /** The buttons as bits of one byte, for the wire; see {@link #fromBits(int)}. */
+    public int toBits() {
+        return (up ? UP : 0) | (down ? DOWN : 0) | (left ? LEFT : 0) | (right ? RIGHT : 0)
+                | (attack ? ATTACK : 0) | (interact ? INTERACT : 0);
+    }
+
+    /** Inverse of {@link #toBits()}. Unknown bits are ignored. */
+    public static PlayerCommand fromBits(int bits) {
+        return new PlayerCommand((bits & UP) != 0, (bits & DOWN) != 0, (bits & LEFT) != 0, (bits & RIGHT) != 0,
+                (bits & ATTACK) != 0, (bits & INTERACT) != 0);
+    }
+
+    /** The same movement without attack or interaction, for re-simulating ticks whose actions already happened. */
+    public PlayerCommand movementOnly() {
+        return attack || interact ? new PlayerCommand(up, down, left, right, false, false) : this;
+    }
+}
@@ -0,0 +1,24 @@
+package com.kindred.engine.input;
+
+/**
+ * A {@link PlayerCommand} tagged with the client tick it was sampled on, so the server can tell the
+ * client which of its inputs the authoritative state already includes.
+ *
+ * @param tick The client's input tick, counting up from 0.
+ * @param command The controls held on that tick.
+ * @param viewTick The server tick of the state the client was showing when it sampled the command,
+ *                 so the server can judge its attacks against what it saw; -1 if unknown.
+ */
+public record StampedCommand(int tick, PlayerCommand command, int viewTick) {
+
+    public StampedCommand {
+        if (tick < 0) throw new IllegalArgumentException("Input tick cannot be negative.");
+        if (command == null) throw new IllegalArgumentException("Command cannot be null.");
+        if (viewTick < -1) throw new IllegalArgumentException("View tick must be -1 or a tick.");
+    }
+
+    /** A command without a view tick; its attacks are judged against the present. */
+    public StampedCommand(int tick, PlayerCommand command) {
+        this(tick, command, -1);
+    }
+}
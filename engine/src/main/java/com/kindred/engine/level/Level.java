@@ -1,6 +1,8 @@
 package com.kindred.engine.level;
 
 import com.kindred.engine.render.Screen;
+import com.kindred.engine.render.SpriteHandle;
+import com.kindred.engine.render.TextureAtlas;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -13,6 +15,8 @@ public class Level {
     private final int height;         // Height in tiles
     private final int tileSize;       // Size of each tile in pixels
     private final Tile[][] levelTiles; // 2D array storing Tile objects
+    private TextureAtlas atlas;       // Optional: tiles are drawn from here once packed
+    private int[][] tileHandles;      // Atlas handle per tile, same layout as levelTiles
 
     // List to store spawn points detected during map loading
     private final List<SpawnPoint> spawnPoints;
@@ -42,6 +46,9 @@ public class Level {
              return; // Ignore invalid coordinates or null tile
         }
         levelTiles[y][x] = tile;
+        if (atlas != null) {
+            tileHandles[y][x] = atlas.add(atlasKey(tile), tile.sprite);
+        }
         // Spawn point detection is now handled in MapLoader *before* this is called
     }
 
@@ -60,7 +67,30 @@ public class Level {
     }
 
 
-    /** Renders the visible portion of the level. */
+    /**
+     * Packs the sprites of all tiles into the given atlas; render() draws from it afterwards.
+     * Distinct tile types share their handle, so this adds only a few sprites.
+     * @param atlas The atlas to pack into.
+     */
+    public void packTiles(TextureAtlas atlas) {
+        if (atlas == null) throw new IllegalArgumentException("TextureAtlas cannot be null.");
+        this.atlas = atlas;
+        this.tileHandles = new int[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                Tile tile = getTile(x, y);
+                tileHandles[y][x] = atlas.add(atlasKey(tile), tile.sprite);
+            }
+        }
+        log.info("Packed level tiles into texture atlas ({} sprites, {} pages).", atlas.getSpriteCount(), atlas.getPageCount());
+    }
+
+    /** Tile types are told apart by their map color, so that is what their sprite is packed under. */
+    private static String atlasKey(Tile tile) {
+        return "tile/" + Integer.toHexString(tile.mapColor);
+    }
+
+    /** Renders the visible portion of the level, skipping tiles outside the screen's repaint area. */
     public void render(Screen screen) {
         int x0 = screen.xOffset / tileSize - 1;
         int x1 = (screen.xOffset + screen.width + tileSize) / tileSize + 1;
@@ -74,6 +104,13 @@ public class Level {
 
         for (int y = y0; y < y1; y++) {
             for (int x = x0; x < x1; x++) {
+                if (!screen.needsRepaint(x * tileSize - screen.xOffset, y * tileSize - screen.yOffset, tileSize, tileSize)) {
+                    continue; // Background there is still valid from an earlier frame
+                }
+                if (atlas != null && SpriteHandle.isValid(tileHandles[y][x])) {
+                    screen.drawAtlasSprite(x * tileSize, y * tileSize, atlas, tileHandles[y][x]);
+                    continue;
+                }
                 Tile tile = getTile(x, y);
                 tile.render(x, y, screen, tileSize);
             }
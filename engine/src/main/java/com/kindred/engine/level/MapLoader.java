@@ -11,7 +11,7 @@ import java.util.Objects;
 @Slf4j
 public class MapLoader {
 
-    public static Level loadLevelFromImage(String path, int tileSize) {
+    public static Level loadLevelFromImage(String path, TileSet tiles, int tileSize) {
         log.info("Loading map from: " + path); // Debug output
         try (InputStream stream = MapLoader.class.getResourceAsStream(path)) {
             if (stream == null) {
@@ -19,63 +19,74 @@ public class MapLoader {
             }
             BufferedImage image = ImageIO.read(stream);
             Objects.requireNonNull(image, "ImageIO.read returned null for path: " + path);
+            return loadLevelFromImage(image, tiles, tileSize);
+        } catch (IOException | NullPointerException e) {
+            System.err.println("Failed to load map image: " + path);
+            e.printStackTrace();
+            throw new RuntimeException("Failed to load map: " + path, e);
+        }
+    }
 
-            int width = image.getWidth();
-            int height = image.getHeight();
-            log.info("Map dimensions: " + width + "x" + height); // Debug output
-
-            Level level = new Level(width, height, tileSize);
+    /**
+     * Builds a level from an already decoded map image, e.g. one preloaded through AssetManager.
+     * @param image The map image; each pixel is one tile or spawn marker.
+     * @param tiles The terrain tiles the map colors stand for.
+     * @param tileSize Size of each tile in pixels.
+     */
+    public static Level loadLevelFromImage(BufferedImage image, TileSet tiles, int tileSize) {
+        if (image == null) throw new IllegalArgumentException("Map image cannot be null.");
+        if (tiles == null) throw new IllegalArgumentException("TileSet cannot be null.");
+        int width = image.getWidth();
+        int height = image.getHeight();
+        log.info("Map dimensions: " + width + "x" + height); // Debug output
 
-            int[] pixelData = new int[width * height];
-            image.getRGB(0, 0, width, height, pixelData, 0, width);
+        Level level = new Level(width, height, tileSize);
 
-            for (int i = 0; i < pixelData.length; i++) {
-                int pixelColor = pixelData[i];
-                int x = i % width;
-                int y = i / width;
+        int[] pixelData = new int[width * height];
+        image.getRGB(0, 0, width, height, pixelData, 0, width);
 
-                Tile tileToSet = null; // Tile to actually place in the level grid
-                boolean handled = false; // Flag if pixel was a marker
+        for (int i = 0; i < pixelData.length; i++) {
+            int pixelColor = pixelData[i];
+            int x = i % width;
+            int y = i / width;
 
-                // --- Check for Spawn Marker Colors FIRST ---
-                if (pixelColor == Tile.COLOR_PLAYER_SPAWN) {
-                    level.addSpawnPoint(new SpawnPoint(x, y, SpawnPoint.SpawnType.PLAYER));
-                    tileToSet = Tile.FLOOR; // Place floor tile underneath the marker
-                    handled = true;
-                } else if (pixelColor == Tile.COLOR_NPC_SPAWN) {
-                    level.addSpawnPoint(new SpawnPoint(x, y, SpawnPoint.SpawnType.NPC_VILLAGER)); // Example type
-                    tileToSet = Tile.FLOOR; // Place floor tile
-                    handled = true;
-                } else if (pixelColor == Tile.COLOR_ENEMY_SPAWN) {
-                    level.addSpawnPoint(new SpawnPoint(x, y, SpawnPoint.SpawnType.ENEMY_DEIDARA)); // Example type
-                    tileToSet = Tile.FLOOR; // Place floor tile
-                    handled = true;
-                }
-                // --- Add checks for other marker colors here ---
+            Tile tileToSet = null; // Tile to actually place in the level grid
+            boolean handled = false; // Flag if pixel was a marker
 
-                // --- If not a marker, determine terrain tile ---
-                if (!handled) {
-                    tileToSet = Tile.getTileFromColor(pixelColor);
-                }
-                // ---------------------------------------------
+            // --- Check for Spawn Marker Colors FIRST ---
+            if (pixelColor == Tile.COLOR_PLAYER_SPAWN) {
+                level.addSpawnPoint(new SpawnPoint(x, y, SpawnPoint.SpawnType.PLAYER));
+                tileToSet = tiles.floor; // Place floor tile underneath the marker
+                handled = true;
+            } else if (pixelColor == Tile.COLOR_NPC_SPAWN) {
+                level.addSpawnPoint(new SpawnPoint(x, y, SpawnPoint.SpawnType.NPC_VILLAGER)); // Example type
+                tileToSet = tiles.floor; // Place floor tile
+                handled = true;
+            } else if (pixelColor == Tile.COLOR_ENEMY_SPAWN) {
+                level.addSpawnPoint(new SpawnPoint(x, y, SpawnPoint.SpawnType.ENEMY_DEIDARA)); // Example type
+                tileToSet = tiles.floor; // Place floor tile
+                handled = true;
+            }
+            // --- Add checks for other marker colors here ---
 
-                // --- Store the determined Tile object in the Level ---
-                if (tileToSet != null) { // Should not be null if logic is correct
-                     level.setTile(x, y, tileToSet);
-                } else {
-                     // Fallback if something went wrong (shouldn't happen)
-                     level.setTile(x, y, Tile.VOID);
-                     System.err.printf("Error: No tile determined for pixel 0x%08X at (%d, %d)%n", pixelColor, x, y);
-                }
-                // -------------------------------------------------
+            // --- If not a marker, determine terrain tile ---
+            if (!handled) {
+                tileToSet = tiles.getTileFromColor(pixelColor);
             }
+            // ---------------------------------------------
 
-            log.info("Map loading complete. Found " + level.getSpawnPoints().size() + " spawn points.");
-            return level;
-        } catch (IOException | NullPointerException e) {
-            System.err.println("Failed to load map image: " + path);
-            e.printStackTrace();
-            throw new RuntimeException("Failed to load map: " + path, e);
+            // --- Store the determined Tile object in the Level ---
+            if (tileToSet != null) { // Should not be null if logic is correct
+                 level.setTile(x, y, tileToSet);
+            } else {
+                 // Fallback if something went wrong (shouldn't happen)
+                 level.setTile(x, y, Tile.VOID);
+                 System.err.printf("Error: No tile determined for pixel 0x%08X at (%d, %d)%n", pixelColor, x, y);
+            }
+            // -------------------------------------------------
         }
+
+        log.info("Map loading complete. Found " + level.getSpawnPoints().size() + " spawn points.");
+        return level;
     }
 }
@@ -1,7 +1,6 @@
 package com.kindred.engine.level;
 
 import com.kindred.engine.render.Screen;
-import com.kindred.engine.resource.AssetLoader;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,15 +29,11 @@ public class Tile {
     public static final int COLOR_ENEMY_SPAWN = 0xFFFF00FE; // Example: Magenta for Enemy
 
 
-    // --- Load Spritesheets ---
-    // TODO: Update these paths to your actual spritesheet locations
-    private static final BufferedImage tileSheet = AssetLoader.loadImage("/assets/sheets/spawn_sprites.png"); // Example path
-
-    // Add other sheets if needed, e.g., for spawn level specific tiles
-    // private static final BufferedImage spawnSheet = AssetLoader.loadImage("/assets/sheets/spawn_sheet.png");
+    /** The tile sheet {@link TileSet} is laid out for. Decode it where the level is loaded and build a TileSet from it. */
+    public static final String SHEET_PATH = "/assets/sheets/spawn_sprites.png";
 
     // --- Static Tile Instances ---
-    // Load sprites using AssetLoader.getSprite(sheet, col, row, width, height)
+    // Only VOID, which needs no sheet; the terrain tiles come from a TileSet
 
     public static final Tile VOID = new Tile(
             createDefaultSprite(TILE_WIDTH, TILE_HEIGHT, COLOR_VOID), // Use fallback color sprite for void
@@ -47,34 +42,6 @@ public class Tile {
             false // buildable
     );
 
-    public static final Tile FLOOR = new Tile(
-            AssetLoader.getSprite(tileSheet, 0, 2, TILE_WIDTH, TILE_HEIGHT), // Example: Floor at (0, 2) on sheet
-            false, // solid
-            COLOR_FLOOR_GRAY,
-            true   // buildable
-    );
-
-    public static final Tile WALL = new Tile(
-            AssetLoader.getSprite(tileSheet, 0, 1, TILE_WIDTH, TILE_HEIGHT), // Example: Wall at (0, 1) on sheet
-            true,  // solid
-            COLOR_WALL_BLACK,
-            false  // buildable
-    );
-
-    public static final Tile GRASS = new Tile(
-            AssetLoader.getSprite(tileSheet, 0, 0, TILE_WIDTH, TILE_HEIGHT), // Example: Grass at (0, 0) on sheet
-            false, // solid
-            COLOR_GRASS,
-            true   // buildable
-    );
-
-    public static final Tile WATER = new Tile(
-            AssetLoader.getSprite(tileSheet, 2, 0, TILE_WIDTH, TILE_HEIGHT), // Example: Water at (2, 0) on sheet
-            false, // solid - typically walkable but maybe slows? Handled elsewhere.
-            COLOR_WATER,
-            false  // buildable
-    );
-
      // NOTE: We don't need specific Tile instances for spawn points,
      // MapLoader detects the color and places a regular floor tile.
 
@@ -116,31 +83,6 @@ public class Tile {
         screen.drawSpriteWithOffset(screenX, screenY, this.sprite);
     }
 
-    /** Static helper method to get a Tile object based on a map color. */
-    public static Tile getTileFromColor(int mapColor) {
-        // IMPORTANT: This method should ONLY return terrain/wall tiles.
-        // Marker colors (spawn points) are handled separately in MapLoader.
-        if (mapColor == COLOR_WALL_BLACK) {
-            return WALL;
-        } else if (mapColor == COLOR_FLOOR_GRAY) {
-            return FLOOR;
-        } else if (mapColor == COLOR_GRASS) {
-             // Warning: This color might be used as NPC spawn marker in example
-            return GRASS;
-        } else if (mapColor == COLOR_WATER) {
-            return WATER;
-        }
-        // Add more terrain tile types here
-
-        // If it's not a known terrain color (and not transparent/void), return default
-        // Check alpha before warning: (mapColor >>> 24) != 0
-        if ((mapColor >>> 24) != 0 && mapColor != COLOR_VOID) {
-             // This will also catch unhandled spawn marker colors if MapLoader logic fails
-             log.error("Warning: Unknown terrain map color encountered: 0x" + Integer.toHexString(mapColor) + ". Returning VOID.");
-        }
-        return VOID; // Default to VOID for unknown colors or marker colors
-    }
-
     /** Creates a simple fallback sprite */
     private static BufferedImage createDefaultSprite(int width, int height, int color) {
         BufferedImage img = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
@@ -0,0 +1,51 @@
+package com.kindred.engine.level;
+
+import com.kindred.engine.resource.AssetLoader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The terrain tiles cut from one tile sheet, and which map color stands for which of them.
+ * The sheet is decoded by the caller, e.g. through AssetManager alongside the map, so building
+ * the tiles reads no file and does not depend on which thread touches a tile first.
+ */
+@Slf4j
+public final class TileSet {
+
+    private static final int TILE_WIDTH = 16;  // Standard width of tiles in pixels
+    private static final int TILE_HEIGHT = 16; // Standard height of tiles in pixels
+
+    public final Tile floor;
+    public final Tile wall;
+    public final Tile grass;
+    public final Tile water;
+
+    /** @param sheet A sheet laid out like {@link Tile#SHEET_PATH}. */
+    public TileSet(BufferedImage sheet) {
+        if (sheet == null) throw new IllegalArgumentException("Tile sheet cannot be null.");
+        floor = new Tile(AssetLoader.getSprite(sheet, 0, 2, TILE_WIDTH, TILE_HEIGHT), false, Tile.COLOR_FLOOR_GRAY, true);
+        wall = new Tile(AssetLoader.getSprite(sheet, 0, 1, TILE_WIDTH, TILE_HEIGHT), true, Tile.COLOR_WALL_BLACK, false);
+        grass = new Tile(AssetLoader.getSprite(sheet, 0, 0, TILE_WIDTH, TILE_HEIGHT), false, Tile.COLOR_GRASS, true);
+        // Walkable; anything water does to movement is handled elsewhere
+        water = new Tile(AssetLoader.getSprite(sheet, 2, 0, TILE_WIDTH, TILE_HEIGHT), false, Tile.COLOR_WATER, false);
+    }
+
+    /** The terrain tile for a map color. Spawn marker colors are handled by MapLoader, not here. */
+    public Tile getTileFromColor(int mapColor) {
+        if (mapColor == Tile.COLOR_WALL_BLACK) {
+            return wall;
+        } else if (mapColor == Tile.COLOR_FLOOR_GRAY) {
+            return floor;
+        } else if (mapColor == Tile.COLOR_GRASS) {
+            return grass;
+        } else if (mapColor == Tile.COLOR_WATER) {
+            return water;
+        }
+        // Check alpha before warning: transparent pixels are void on purpose
+        if ((mapColor >>> 24) != 0 && mapColor != Tile.COLOR_VOID) {
+            log.error("Warning: Unknown terrain map color encountered: 0x" + Integer.toHexString(mapColor) + ". Returning VOID.");
+        }
+        return Tile.VOID;
+    }
+}
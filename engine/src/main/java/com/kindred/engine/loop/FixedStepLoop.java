@@ -0,0 +1,161 @@
+package com.kindred.engine.loop;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Fixed time step game loop, shared by the windowed client and the headless server.
+ * Updates run at a fixed rate with a constant delta time; a frame callback follows every batch of updates
+ * (the client renders there, the server does nothing). When the loop falls behind it runs at most
+ * {@code maxUpdatesPerFrame} updates in a row and then drops the backlog instead of spiralling.
+ * <p>
+ * A time scale runs the same fixed updates faster than real time, for long test and balance sessions;
+ * see {@link #setTimeScale(double)}.
+ */
+@Slf4j
+public class FixedStepLoop {
+
+    /** Callbacks driven by the loop, all on the loop thread. */
+    public interface Listener {
+        /** One simulation tick. */
+        void update(float deltaTime);
+
+        /** Called after every batch of one or more updates; when unlimited, at most once per real update interval. */
+        default void frame() {}
+
+        /** Called once per second with the updates and frames of that second. */
+        default void second(int updates, int frames) {}
+    }
+
+    /** Time scale that runs updates back to back, as fast as the machine allows. */
+    public static final double UNLIMITED = Double.POSITIVE_INFINITY;
+
+    private final double nsPerUpdate;
+    private final float deltaTime;
+    private final int maxUpdatesPerFrame;
+    private double timeScale = 1;
+    private long tick;
+
+    /**
+     * @param updatesPerSecond Update rate, e.g. 60.
+     * @param maxUpdatesPerFrame Updates allowed back to back before the backlog is dropped.
+     */
+    public FixedStepLoop(int updatesPerSecond, int maxUpdatesPerFrame) {
+        if (updatesPerSecond <= 0) throw new IllegalArgumentException("Update rate must be positive.");
+        if (maxUpdatesPerFrame <= 0) throw new IllegalArgumentException("Max updates per frame must be positive.");
+        this.nsPerUpdate = 1_000_000_000.0 / updatesPerSecond;
+        this.deltaTime = (float) nsPerUpdate / 1_000_000_000.0f;
+        this.maxUpdatesPerFrame = maxUpdatesPerFrame;
+    }
+
+    /**
+     * Sets how fast simulated time passes. Every update still covers {@link #getDeltaTime()}, so the
+     * simulation is the same as in real time; only the number of updates per real second changes.
+     * @param timeScale Simulated seconds per real second, e.g. 10, or {@link #UNLIMITED}.
+     */
+    public void setTimeScale(double timeScale) {
+        if (!(timeScale > 0)) throw new IllegalArgumentException("Time scale must be positive.");
+        this.timeScale = timeScale;
+    }
+
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    /** Runs until {@code running} returns false. Blocks the calling thread. */
+    public void run(BooleanSupplier running, Listener listener) {
+        if (timeScale == UNLIMITED) {
+            runUnlimited(running, listener);
+            return;
+        }
+        double nsPerScaledUpdate = nsPerUpdate / timeScale;
+        int maxUpdates = (int) Math.min(Integer.MAX_VALUE, maxUpdatesPerFrame * Math.ceil(timeScale));
+        long lastTime = System.nanoTime();
+        double delta = 0;
+        long timer = System.currentTimeMillis();
+        int frames = 0, updates = 0;
+
+        while (running.getAsBoolean()) {
+            long now = System.nanoTime();
+            long elapsed = now - lastTime;
+            // Prevent spiral of death if lagging badly
+            if (elapsed < 0) elapsed = 0;
+            if (elapsed > nsPerUpdate * 10) elapsed = (long) (nsPerUpdate * 10); // Cap max elapsed time
+            lastTime = now;
+            delta += elapsed / nsPerScaledUpdate;
+
+            // Limit updates per frame to prevent potential freezes if lagging severely
+            int updatesThisCycle = 0;
+            while (delta >= 1 && updatesThisCycle < maxUpdates) {
+                listener.update(deltaTime);
+                tick++;
+                updates++;
+                delta--;
+                updatesThisCycle++;
+            }
+            // If loop exited due to maxUpdates, reset delta partially to avoid losing time entirely
+            if (updatesThisCycle == maxUpdates && delta > 1) {
+                log.warn("Falling behind! Skipped {} updates.", (int) delta);
+                delta = 1; // Allow at least one update next cycle if still lagging
+            }
+
+            if (updatesThisCycle > 0) {
+                listener.frame();
+                frames++;
+            } else {
+                // Yield if no work done to prevent busy-waiting
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            if (System.currentTimeMillis() - timer >= 1000) {
+                listener.second(updates, frames);
+                updates = 0;
+                frames = 0;
+                timer += 1000;
+            }
+        }
+    }
+
+    /** Updates back to back, with a frame whenever an update interval of real time has passed since the last. */
+    private void runUnlimited(BooleanSupplier running, Listener listener) {
+        long lastFrame = System.nanoTime();
+        long timer = System.currentTimeMillis();
+        int frames = 0, updates = 0;
+
+        while (running.getAsBoolean()) {
+            listener.update(deltaTime);
+            tick++;
+            updates++;
+
+            long now = System.nanoTime();
+            if (now - lastFrame >= nsPerUpdate) {
+                listener.frame();
+                frames++;
+                lastFrame = now;
+            }
+
+            if (System.currentTimeMillis() - timer >= 1000) {
+                listener.second(updates, frames);
+                updates = 0;
+                frames = 0;
+                timer += 1000;
+            }
+        }
+    }
+
+    /** Number of updates run so far. */
+    public long getTick() {
+        return tick;
+    }
+
+    /** Seconds simulated by one update. */
+    public float getDeltaTime() {
+        return deltaTime;
+    }
+}
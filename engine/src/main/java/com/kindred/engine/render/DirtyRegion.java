@@ -0,0 +1,146 @@
+package com.kindred.engine.render;
+
+import java.util.Arrays;
+
+/**
+ * Coarse grid of dirty cells covering a pixel buffer.
+ * Draw calls mark the cells they touch, and the frame loop uses the grid to decide
+ * which parts of the background have to be repainted and which parts have to be uploaded.
+ * Rectangles are reported as horizontal runs of dirty cells, one run per cell row.
+ */
+public class DirtyRegion {
+
+    public static final int DEFAULT_CELL_SIZE = 16;
+
+    private final int width, height;
+    private final int cellSize;
+    private final int columns, rows;
+    private final boolean[] cells;
+    private int dirtyCount;
+
+    /** Callback for {@link #forEachRect(RectConsumer)}. Coordinates are in pixels, already clipped to the buffer. */
+    public interface RectConsumer {
+        void accept(int x, int y, int width, int height);
+    }
+
+    public DirtyRegion(int width, int height, int cellSize) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("DirtyRegion dimensions must be positive.");
+        if (cellSize <= 0) throw new IllegalArgumentException("DirtyRegion cellSize must be positive.");
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.columns = (width + cellSize - 1) / cellSize;
+        this.rows = (height + cellSize - 1) / cellSize;
+        this.cells = new boolean[columns * rows];
+    }
+
+    /** Marks every cell touched by the given pixel rectangle. Parts outside the buffer are ignored. */
+    public void mark(int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0 || isFull()) return;
+        int x0 = Math.max(0, x);
+        int y0 = Math.max(0, y);
+        int x1 = Math.min(width, x + w);
+        int y1 = Math.min(height, y + h);
+        if (x0 >= x1 || y0 >= y1) return;
+
+        int c0 = x0 / cellSize, c1 = (x1 - 1) / cellSize;
+        int r0 = y0 / cellSize, r1 = (y1 - 1) / cellSize;
+        for (int r = r0; r <= r1; r++) {
+            int rowStart = r * columns;
+            for (int c = c0; c <= c1; c++) {
+                if (!cells[rowStart + c]) {
+                    cells[rowStart + c] = true;
+                    dirtyCount++;
+                }
+            }
+        }
+    }
+
+    public void markAll() {
+        Arrays.fill(cells, true);
+        dirtyCount = cells.length;
+    }
+
+    public void clear() {
+        if (dirtyCount == 0) return;
+        Arrays.fill(cells, false);
+        dirtyCount = 0;
+    }
+
+    /** Adds every dirty cell of {@code other} to this region. Both regions must share the same grid. */
+    public void addAll(DirtyRegion other) {
+        if (other.cells.length != cells.length || other.cellSize != cellSize) {
+            throw new IllegalArgumentException("DirtyRegion grids do not match.");
+        }
+        if (other.dirtyCount == 0 || isFull()) return;
+        if (other.isFull()) {
+            markAll();
+            return;
+        }
+        for (int i = 0; i < cells.length; i++) {
+            if (other.cells[i] && !cells[i]) {
+                cells[i] = true;
+                dirtyCount++;
+            }
+        }
+    }
+
+    /** Copies the dirty cells of {@code other} into this region, replacing its current contents. */
+    public void set(DirtyRegion other) {
+        clear();
+        addAll(other);
+    }
+
+    /** Checks whether the given pixel rectangle touches at least one dirty cell. */
+    public boolean intersects(int x, int y, int w, int h) {
+        if (dirtyCount == 0 || w <= 0 || h <= 0) return false;
+        int x0 = Math.max(0, x);
+        int y0 = Math.max(0, y);
+        int x1 = Math.min(width, x + w);
+        int y1 = Math.min(height, y + h);
+        if (x0 >= x1 || y0 >= y1) return false;
+        if (isFull()) return true;
+
+        int c0 = x0 / cellSize, c1 = (x1 - 1) / cellSize;
+        int r0 = y0 / cellSize, r1 = (y1 - 1) / cellSize;
+        for (int r = r0; r <= r1; r++) {
+            int rowStart = r * columns;
+            for (int c = c0; c <= c1; c++) {
+                if (cells[rowStart + c]) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Visits the dirty area as rectangles. Adjacent dirty cells within a cell row are merged
+     * into a single rectangle, so a fully dirty buffer is reported as one rectangle per cell row.
+     */
+    public void forEachRect(RectConsumer consumer) {
+        if (dirtyCount == 0) return;
+        for (int r = 0; r < rows; r++) {
+            int y = r * cellSize;
+            int h = Math.min(cellSize, height - y);
+            int rowStart = r * columns;
+            int c = 0;
+            while (c < columns) {
+                if (!cells[rowStart + c]) {
+                    c++;
+                    continue;
+                }
+                int runStart = c;
+                while (c < columns && cells[rowStart + c]) c++;
+                int x = runStart * cellSize;
+                int w = Math.min(c * cellSize, width) - x;
+                consumer.accept(x, y, w, h);
+            }
+        }
+    }
+
+    public boolean isEmpty() { return dirtyCount == 0; }
+    public boolean isFull() { return dirtyCount == cells.length; }
+    public int getDirtyCellCount() { return dirtyCount; }
+    public int getCellSize() { return cellSize; }
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+}
@@ -0,0 +1,108 @@
+package com.kindred.engine.render;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Online MaxRects bin packer (best short side fit) for a single atlas page.
+ * Keeps a list of maximal free rectangles; every placement splits the free rectangles it overlaps
+ * and drops the ones that became contained in others. Rectangles are never rotated,
+ * since sprites are blitted as-is.
+ */
+public class MaxRectsPacker {
+
+    private final int width, height;
+    private final List<Rectangle> freeRects = new ArrayList<>();
+    private final List<Rectangle> splitScratch = new ArrayList<>();
+    private long usedArea;
+
+    public MaxRectsPacker(int width, int height) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("Packer dimensions must be positive.");
+        this.width = width;
+        this.height = height;
+        freeRects.add(new Rectangle(0, 0, width, height));
+    }
+
+    /**
+     * Places a rectangle of the given size.
+     * @param w Width in pixels.
+     * @param h Height in pixels.
+     * @return The placed rectangle, or null if it does not fit anywhere on this page.
+     */
+    public Rectangle insert(int w, int h) {
+        if (w <= 0 || h <= 0) throw new IllegalArgumentException("Packed rectangle must have a positive size.");
+
+        Rectangle best = null;
+        int bestShortSide = Integer.MAX_VALUE;
+        int bestLongSide = Integer.MAX_VALUE;
+        for (Rectangle free : freeRects) {
+            if (w > free.width || h > free.height) continue;
+            int leftoverX = free.width - w;
+            int leftoverY = free.height - h;
+            int shortSide = Math.min(leftoverX, leftoverY);
+            int longSide = Math.max(leftoverX, leftoverY);
+            if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+                best = free;
+                bestShortSide = shortSide;
+                bestLongSide = longSide;
+            }
+        }
+        if (best == null) return null;
+
+        Rectangle placed = new Rectangle(best.x, best.y, w, h);
+        splitFreeRects(placed);
+        pruneFreeRects();
+        usedArea += (long) w * h;
+        return placed;
+    }
+
+    private void splitFreeRects(Rectangle used) {
+        splitScratch.clear();
+        for (int i = freeRects.size() - 1; i >= 0; i--) {
+            Rectangle free = freeRects.get(i);
+            if (!free.intersects(used)) continue;
+            freeRects.remove(i);
+
+            // Keep the maximal parts of 'free' on each side of 'used'
+            if (used.y > free.y) {
+                splitScratch.add(new Rectangle(free.x, free.y, free.width, used.y - free.y));
+            }
+            if (used.y + used.height < free.y + free.height) {
+                splitScratch.add(new Rectangle(free.x, used.y + used.height, free.width, free.y + free.height - (used.y + used.height)));
+            }
+            if (used.x > free.x) {
+                splitScratch.add(new Rectangle(free.x, free.y, used.x - free.x, free.height));
+            }
+            if (used.x + used.width < free.x + free.width) {
+                splitScratch.add(new Rectangle(used.x + used.width, free.y, free.x + free.width - (used.x + used.width), free.height));
+            }
+        }
+        freeRects.addAll(splitScratch);
+    }
+
+    private void pruneFreeRects() {
+        for (int i = 0; i < freeRects.size(); i++) {
+            Rectangle a = freeRects.get(i);
+            for (int j = i + 1; j < freeRects.size(); j++) {
+                Rectangle b = freeRects.get(j);
+                if (a.contains(b)) {
+                    freeRects.remove(j);
+                    j--;
+                } else if (b.contains(a)) {
+                    freeRects.remove(i);
+                    i--;
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Fraction of the page area covered by placed rectangles. */
+    public float getOccupancy() {
+        return (float) usedArea / ((long) width * height);
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
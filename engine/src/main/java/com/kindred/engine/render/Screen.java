@@ -28,6 +28,20 @@ public class Screen {
     // If GameMain uses TYPE_INT_RGB, text drawing might not handle alpha correctly.
     private final BufferedImage bufferImage;
 
+    // --- Dirty-rectangle tracking ---
+    // Draw calls mark the cells they touch in 'dirty'. While the camera stands still, every pixel outside
+    // the cells drawn over last frame still holds plain background, so a frame only has to repaint those
+    // cells and upload what changed. Any offset change or clear() falls back to a full redraw.
+    private final DirtyRegion dirty;
+    private final DirtyRegion drawnLastFrame;
+    private final DirtyRegion repaint;
+    private final DirtyRegion overlay;
+    private final DirtyRegion upload;
+    private final DirtyRegion.RectConsumer clearRect;
+    private boolean fullRedraw = true;
+    private boolean partialFrame = false;
+    private boolean trackDraws = true;
+
     public Screen(int width, int height) {
         this.width = width;
         this.height = height;
@@ -61,23 +75,128 @@ public class Screen {
         this.bufferImage = new BufferedImage(colorModel, raster, colorModel.isAlphaPremultiplied(), null);
         // -----------------------------
 
+        dirty = new DirtyRegion(width, height, DirtyRegion.DEFAULT_CELL_SIZE);
+        drawnLastFrame = new DirtyRegion(width, height, DirtyRegion.DEFAULT_CELL_SIZE);
+        repaint = new DirtyRegion(width, height, DirtyRegion.DEFAULT_CELL_SIZE);
+        overlay = new DirtyRegion(width, height, DirtyRegion.DEFAULT_CELL_SIZE);
+        upload = new DirtyRegion(width, height, DirtyRegion.DEFAULT_CELL_SIZE);
+        clearRect = (x, y, w, h) -> {
+            for (int row = y; row < y + h; row++) {
+                Arrays.fill(pixels, row * this.width + x, row * this.width + x + w, 0);
+            }
+        };
+
         log.info("Screen initialized. BufferedImage uses shared pixel buffer.");
     }
 
     public void clear() {
         Arrays.fill(pixels, 0);
+        invalidateAll();
     }
 
     public void setOffset(int xOffset, int yOffset) {
+        if (xOffset != this.xOffset || yOffset != this.yOffset) {
+            invalidateAll(); // Every background pixel moved
+        }
         this.xOffset = xOffset;
         this.yOffset = yOffset;
     }
 
+    // --- Partial redraw ---
+
+    /**
+     * Starts a partially redrawn frame. Picks the cells that need repainting (everything after an
+     * invalidation, otherwise the cells drawn over last frame), clears them and pauses dirty tracking
+     * so the background pass can fill them without marking them again.
+     * Call {@link #beginDynamicPass()} once the background is drawn and {@link #copyDirtyTo(int[])} to finish the frame.
+     */
+    public void beginFrame() {
+        if (fullRedraw) {
+            repaint.markAll();
+            fullRedraw = false;
+        } else {
+            repaint.set(drawnLastFrame);
+        }
+        dirty.clear();
+        repaint.forEachRect(clearRect);
+        partialFrame = true;
+        trackDraws = false;
+    }
+
+    /** Resumes dirty tracking after the background pass; everything drawn from here on is repainted next frame. */
+    public void beginDynamicPass() {
+        trackDraws = true;
+    }
+
+    /**
+     * Checks whether a screen-space rectangle overlaps the area being repainted this frame.
+     * Outside a partial frame everything needs repainting.
+     */
+    public boolean needsRepaint(int x, int y, int width, int height) {
+        return !partialFrame || repaint.intersects(x, y, width, height);
+    }
+
+    /** Marks a screen-space rectangle as drawn this frame. Called by every draw method. */
+    public void markDirty(int x, int y, int width, int height) {
+        if (trackDraws) {
+            dirty.mark(x, y, width, height);
+        }
+    }
+
+    /**
+     * Marks a screen-space rectangle that was drawn on top of the uploaded image (the UI layer).
+     * The game pixels underneath are uploaded again next frame so the overlay is not drawn twice.
+     */
+    public void markOverlay(int x, int y, int width, int height) {
+        overlay.mark(x, y, width, height);
+    }
+
+    /** Forces the next frame to repaint and upload the whole screen. */
+    public void invalidateAll() {
+        fullRedraw = true;
+    }
+
+    /**
+     * Copies every region that changed this frame into {@code target} and ends the frame.
+     * @param target Destination pixel array, same dimensions as this screen.
+     */
+    public void copyDirtyTo(int[] target) {
+        if (target == null || target.length != pixels.length) {
+            throw new IllegalArgumentException("Target pixel array must match the screen size.");
+        }
+        upload.set(repaint);
+        upload.addAll(dirty);
+        upload.addAll(overlay);
+        if (!partialFrame) {
+            upload.markAll(); // Frame was drawn without beginFrame(), nothing is known about it
+        }
+        upload.forEachRect((x, y, w, h) -> {
+            for (int row = y; row < y + h; row++) {
+                int index = row * width + x;
+                System.arraycopy(pixels, index, target, index, w);
+            }
+        });
+        drawnLastFrame.set(dirty);
+        overlay.clear();
+        repaint.clear();
+        partialFrame = false;
+    }
+
+    /** Number of dirty cells uploaded by the last {@link #copyDirtyTo(int[])}, for profiling. */
+    public int getUploadedCellCount() {
+        return upload.getDirtyCellCount();
+    }
+
     public void drawRect(int xp, int yp, int width, int height, int color, boolean fixed) {
         if (fixed) {
             xp -= xOffset;
             yp -= yOffset;
         }
+        // Mark the four edges separately so large outlines do not dirty their whole interior
+        markDirty(xp, yp, width + 1, 1);
+        markDirty(xp, yp + height, width + 1, 1);
+        markDirty(xp, yp, 1, height + 1);
+        markDirty(xp + width, yp, 1, height + 1);
         for (int x = xp; x < xp + width; x++) {
             if (x < 0 | x >= this.width || yp >= this.height) continue;
             if (yp > 0) pixels[x + yp * this.width] = color;
@@ -97,6 +216,7 @@ public class Screen {
             xp -= xOffset;
             yp -= yOffset;
         }
+        markDirty(xp, yp, width, height);
 
         for (int y = 0; y < height; y++) {
             int yo = yp + y;
@@ -122,6 +242,7 @@ public class Screen {
     public void drawSprite(int xp, int yp, BufferedImage sprite) {
         int spriteWidth = sprite.getWidth();
         int spriteHeight = sprite.getHeight();
+        markDirty(xp, yp, spriteWidth, spriteHeight);
         for (int y = 0; y < spriteHeight; y++) {
             int ya = y + yp;
             if (ya < 0 || ya >= height) continue;
@@ -139,6 +260,7 @@ public class Screen {
 
         xp -= xOffset;
         yp -= yOffset;
+        markDirty(xp, yp, sprite.getWidth(), sprite.getHeight());
         for (int y = 0; y < sprite.getHeight(); y++) {
             int ya = y + yp;
             if (ya < 0 || ya >= height) continue;
@@ -157,6 +279,7 @@ public class Screen {
 
         xp -= xOffset;
         yp -= yOffset;
+        markDirty(xp, yp, sprite.getWidth(), sprite.getHeight());
         for (int y = 0; y < sprite.getHeight(); y++) {
             int ya = y + yp;
             if (ya < 0 || ya >= height) continue;
@@ -180,6 +303,7 @@ public class Screen {
 
         int spriteWidth = sprite.getWidth();
         int spriteHeight = sprite.getHeight();
+        markDirty(xp, yp, spriteWidth, spriteHeight);
 
         // Determine the screen area to draw onto (clipping)
         int startX = Math.max(0, xp);
@@ -210,6 +334,48 @@ public class Screen {
         }
     }
 
+    /**
+     * Draws a sprite packed in a TextureAtlas, applying the camera offset.
+     * Same clipping and transparency rules as {@link #drawSpriteWithOffset(int, int, BufferedImage)},
+     * but reads straight from the atlas page instead of going through BufferedImage.getRGB.
+     * @param xp World X of the sprite's top-left corner.
+     * @param yp World Y of the sprite's top-left corner.
+     * @param atlas The atlas the handle belongs to.
+     * @param handle The sprite handle; invalid handles are ignored.
+     */
+    public void drawAtlasSprite(int xp, int yp, TextureAtlas atlas, int handle) {
+        if (atlas == null || !SpriteHandle.isValid(handle)) return;
+
+        xp -= xOffset;
+        yp -= yOffset;
+
+        int spriteWidth = atlas.getWidth(handle);
+        int spriteHeight = atlas.getHeight(handle);
+        markDirty(xp, yp, spriteWidth, spriteHeight);
+
+        int startX = Math.max(0, xp);
+        int startY = Math.max(0, yp);
+        int endX = Math.min(width, xp + spriteWidth);
+        int endY = Math.min(height, yp + spriteHeight);
+        if (startX >= endX || startY >= endY) return;
+
+        int[] page = atlas.getPage(SpriteHandle.page(handle));
+        int pageSize = atlas.getPageSize();
+        int srcX = atlas.getX(handle) + (startX - xp);
+        int srcY = atlas.getY(handle) + (startY - yp);
+
+        for (int y = startY; y < endY; y++) {
+            int src = (srcY + y - startY) * pageSize + srcX;
+            int dst = y * width + startX;
+            for (int x = startX; x < endX; x++, src++, dst++) {
+                int col = page[src];
+                if (col != ALPHA_COL) {
+                    pixels[dst] = col;
+                }
+            }
+        }
+    }
+
     /**
      * Draws text directly onto the screen buffer at the specified SCREEN coordinates.
      * Handles centering and applies anti-aliasing.
@@ -260,6 +426,8 @@ public class Screen {
             // Draw the string directly onto the bufferImage's graphics context
             // This modifies the underlying 'pixels' array
             g2d.drawString(text, drawX, drawY);
+            // Pad by a pixel for anti-aliased glyph edges
+            markDirty(drawX - 1, drawY - fm.getAscent() - 1, fm.stringWidth(text) + 2, fm.getHeight() + 2);
 
         } finally {
             // IMPORTANT: Dispose the graphics context to release resources
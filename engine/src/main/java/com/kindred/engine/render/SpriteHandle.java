@@ -0,0 +1,38 @@
+package com.kindred.engine.render;
+
+/**
+ * Packs a sprite reference into a single int: the atlas page in the high bits and the
+ * index of the sprite's rectangle in the low 24 bits. Handles are plain ints, so components
+ * can hold them without pointing at image objects and they serialize as-is.
+ */
+public final class SpriteHandle {
+
+    /** No sprite / not packed into an atlas. */
+    public static final int NONE = -1;
+
+    public static final int MAX_PAGES = 128;
+    public static final int MAX_SPRITES = 1 << 24;
+
+    private static final int INDEX_BITS = 24;
+    private static final int INDEX_MASK = MAX_SPRITES - 1;
+
+    private SpriteHandle() {}
+
+    public static int of(int page, int index) {
+        if (page < 0 || page >= MAX_PAGES) throw new IllegalArgumentException("Atlas page out of range: " + page);
+        if (index < 0 || index >= MAX_SPRITES) throw new IllegalArgumentException("Sprite index out of range: " + index);
+        return (page << INDEX_BITS) | index;
+    }
+
+    public static int page(int handle) {
+        return handle >>> INDEX_BITS;
+    }
+
+    public static int index(int handle) {
+        return handle & INDEX_MASK;
+    }
+
+    public static boolean isValid(int handle) {
+        return handle >= 0;
+    }
+}
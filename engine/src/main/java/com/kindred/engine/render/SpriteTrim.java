@@ -0,0 +1,13 @@
+package com.kindred.engine.render;
+
+/**
+ * Where a trimmed sprite sits inside the frame it was cut from.
+ * Draw the trimmed image at the untrimmed position plus the offset; lay it out using the source size.
+ *
+ * @param offsetX Left edge of the trimmed pixels in the untrimmed frame.
+ * @param offsetY Top edge of the trimmed pixels in the untrimmed frame.
+ * @param sourceWidth Width of the untrimmed frame.
+ * @param sourceHeight Height of the untrimmed frame.
+ */
+public record SpriteTrim(int offsetX, int offsetY, int sourceWidth, int sourceHeight) {
+}
@@ -0,0 +1,152 @@
+package com.kindred.engine.render;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs sprite frames into a few large square {@code int[]} pages (ARGB, row-major) using MaxRects.
+ * Each packed sprite is referenced by an int {@link SpriteHandle} of (page, rect) instead of its own
+ * BufferedImage, so drawing reads from a handful of contiguous arrays.
+ * Sprites are added under a stable asset key (e.g. the sheet path and frame), not by image: adding a key
+ * that is already packed returns its handle without reading the image, so a sprite cut from its sheet
+ * again gets the handle of the first cut. The atlas keeps no reference to the images it copied.
+ * Rects are never freed; the keys of one atlas should name a bounded set of assets.
+ */
+@Slf4j
+public class TextureAtlas {
+
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+
+    private final int pageSize;
+    private final List<int[]> pages = new ArrayList<>();
+    private final List<MaxRectsPacker> packers = new ArrayList<>();
+    private final Map<String, Integer> handles = new HashMap<>();
+
+    // Per-sprite rectangles, indexed by SpriteHandle.index()
+    private int[] rectX = new int[64];
+    private int[] rectY = new int[64];
+    private int[] rectW = new int[64];
+    private int[] rectH = new int[64];
+    private int spriteCount;
+
+    public TextureAtlas(int pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("Atlas page size must be positive.");
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Packs a sprite into the atlas, opening a new page when the existing ones are full.
+     * @param key Stable asset key of the sprite. If it is already packed, its handle is returned as is.
+     * @param sprite The sprite to pack.
+     * @return The sprite's handle, or {@link SpriteHandle#NONE} if it is null or larger than a page.
+     */
+    public int add(String key, BufferedImage sprite) {
+        if (key == null) throw new IllegalArgumentException("Atlas key cannot be null.");
+        Integer existing = handles.get(key);
+        if (existing != null) return existing;
+        if (sprite == null) return SpriteHandle.NONE;
+
+        int w = sprite.getWidth();
+        int h = sprite.getHeight();
+        if (w > pageSize || h > pageSize) {
+            log.warn("Sprite {}x{} does not fit an atlas page of {}x{}, it will not be packed.", w, h, pageSize, pageSize);
+            return SpriteHandle.NONE;
+        }
+
+        int page = -1;
+        Rectangle rect = null;
+        for (int i = 0; i < packers.size() && rect == null; i++) {
+            rect = packers.get(i).insert(w, h);
+            page = i;
+        }
+        if (rect == null) {
+            page = newPage();
+            rect = packers.get(page).insert(w, h);
+        }
+
+        // getRGB with the page as destination and the page width as scansize copies straight into place
+        sprite.getRGB(0, 0, w, h, pages.get(page), rect.y * pageSize + rect.x, pageSize);
+
+        int index = spriteCount++;
+        ensureCapacity(spriteCount);
+        rectX[index] = rect.x;
+        rectY[index] = rect.y;
+        rectW[index] = w;
+        rectH[index] = h;
+
+        int handle = SpriteHandle.of(page, index);
+        handles.put(key, handle);
+        return handle;
+    }
+
+    /**
+     * Packs a [direction][frame] animation set, each frame under {@link #frameKey}.
+     * @param key Stable asset key of the whole set.
+     * @return Handles in the same layout; null rows stay null.
+     */
+    public int[][] addAll(String key, BufferedImage[][] frames) {
+        if (frames == null) return null;
+        int[][] result = new int[frames.length][];
+        for (int i = 0; i < frames.length; i++) {
+            if (frames[i] == null) continue;
+            result[i] = new int[frames[i].length];
+            for (int j = 0; j < frames[i].length; j++) {
+                result[i][j] = add(frameKey(key, i, j), frames[i][j]);
+            }
+        }
+        return result;
+    }
+
+    /** The key {@link #addAll} packs frame [row][column] of a set under. */
+    public static String frameKey(String key, int row, int column) {
+        return key + "/" + row + "/" + column;
+    }
+
+    /** Returns the handle of an already packed sprite, or {@link SpriteHandle#NONE}. */
+    public int handleOf(String key) {
+        Integer handle = handles.get(key);
+        return handle != null ? handle : SpriteHandle.NONE;
+    }
+
+    private int newPage() {
+        if (pages.size() >= SpriteHandle.MAX_PAGES) {
+            throw new IllegalStateException("Texture atlas is full (" + SpriteHandle.MAX_PAGES + " pages).");
+        }
+        pages.add(new int[pageSize * pageSize]);
+        packers.add(new MaxRectsPacker(pageSize, pageSize));
+        log.debug("Texture atlas opened page {} ({}x{}).", pages.size() - 1, pageSize, pageSize);
+        return pages.size() - 1;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count <= rectX.length) return;
+        int newLength = Math.max(count, rectX.length * 2);
+        rectX = Arrays.copyOf(rectX, newLength);
+        rectY = Arrays.copyOf(rectY, newLength);
+        rectW = Arrays.copyOf(rectW, newLength);
+        rectH = Arrays.copyOf(rectH, newLength);
+    }
+
+    // --- Accessors for drawing ---
+    public int[] getPage(int page) { return pages.get(page); }
+    public int getX(int handle) { return rectX[SpriteHandle.index(handle)]; }
+    public int getY(int handle) { return rectY[SpriteHandle.index(handle)]; }
+    public int getWidth(int handle) { return rectW[SpriteHandle.index(handle)]; }
+    public int getHeight(int handle) { return rectH[SpriteHandle.index(handle)]; }
+
+    public int getPageSize() { return pageSize; }
+    public int getPageCount() { return pages.size(); }
+    public int getSpriteCount() { return spriteCount; }
+
+    /** Fraction of the page area used, for tuning the page size. */
+    public float getOccupancy(int page) {
+        return packers.get(page).getOccupancy();
+    }
+}
@@ -0,0 +1,37 @@
+package com.kindred.engine.replay;
+
+import com.kindred.engine.input.Keyboard;
+
+import java.util.Arrays;
+
+/**
+ * The keys the player held during one tick. Captured from {@link Keyboard} after the tick's update and
+ * put back into it before the same tick on playback. Mouse and chat are not recorded: playback drives
+ * a server world, which has no UI for them. One instance is reused for every tick.
+ */
+public class InputFrame {
+
+    public long tick;
+    /** Held keys, see {@link Keyboard#captureKeys}. */
+    public final long[] keys = new long[2];
+
+    /** Records the keyboard's state for a tick. */
+    public void capture(long tick, Keyboard keyboard) {
+        this.tick = tick;
+        keyboard.captureKeys(keys);
+    }
+
+    /** Puts the recorded keys into the keyboard; call before {@link Keyboard#update()}. */
+    public void applyTo(Keyboard keyboard) {
+        keyboard.setKeys(keys);
+    }
+
+    public void copyFrom(InputFrame other) {
+        tick = other.tick;
+        System.arraycopy(other.keys, 0, keys, 0, keys.length);
+    }
+
+    boolean sameKeys(InputFrame other) {
+        return Arrays.equals(keys, other.keys);
+    }
+}
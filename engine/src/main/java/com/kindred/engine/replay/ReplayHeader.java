@@ -0,0 +1,18 @@
+package com.kindred.engine.replay;
+
+/**
+ * What a replay was recorded against, so playback can build the world to play it into.
+ *
+ * @param tickRate Updates per second of the recording.
+ * @param seed Seed of the world the replay is played into; runs with the same seed end the same.
+ * @param levelPath Classpath location of the map image.
+ * @param tileSize Tile size of the map in pixels.
+ */
+public record ReplayHeader(int tickRate, long seed, String levelPath, int tileSize) {
+
+    public ReplayHeader {
+        if (tickRate <= 0) throw new IllegalArgumentException("Tick rate must be positive.");
+        if (levelPath == null) throw new IllegalArgumentException("Level path cannot be null.");
+        if (tileSize <= 0) throw new IllegalArgumentException("Tile size must be positive.");
+    }
+}
@@ -0,0 +1,89 @@
+package com.kindred.engine.replay;
+
+import com.kindred.engine.serialization.WireFormat;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Plays back a file written by {@link ReplayWriter}, one tick at a time from tick 0, filling in the
+ * ticks the writer skipped. A record cut off at the end of the file (a crashed recording) ends the
+ * replay at the last complete tick.
+ */
+public class ReplayReader {
+
+    private final ByteBuffer in;
+    private final ReplayHeader header;
+    private final InputFrame state = new InputFrame();
+    private long nextTick;
+    private long nextRecordTick; // -1 once there is no further record
+
+    /** Reads the whole file; replays are small. */
+    public static ReplayReader open(Path file) throws IOException {
+        return new ReplayReader(ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+
+    /**
+     * @throws IllegalArgumentException If the data is not a replay or has another version.
+     */
+    public ReplayReader(ByteBuffer in) {
+        this.in = in;
+        try {
+            if (in.getInt() != ReplayWriter.MAGIC) throw new IllegalArgumentException("Not a replay.");
+            int version = WireFormat.getVarInt(in);
+            if (version != ReplayWriter.VERSION) {
+                throw new IllegalArgumentException("Replay version " + version + " is not " + ReplayWriter.VERSION + ".");
+            }
+            header = new ReplayHeader(WireFormat.getVarInt(in), WireFormat.getVarLong(in), WireFormat.getString(in),
+                    WireFormat.getVarInt(in));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Replay header is truncated.", e);
+        }
+        nextRecordTick = readRecordTick(-1);
+    }
+
+    public ReplayHeader getHeader() { return header; }
+
+    /**
+     * Fills {@code frame} with the next tick's input.
+     * @return False once past the last recorded tick.
+     */
+    public boolean next(InputFrame frame) {
+        if (nextRecordTick < 0) return false;
+        if (nextTick == nextRecordTick && !readRecord()) {
+            nextRecordTick = -1;
+            return false;
+        }
+        state.tick = nextTick++;
+        frame.copyFrom(state);
+        return true;
+    }
+
+    /** The tick of the next record, or -1 at the end of the data. */
+    private long readRecordTick(long lastRecordTick) {
+        if (!in.hasRemaining()) return -1;
+        try {
+            return lastRecordTick + WireFormat.getVarLong(in);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /** Applies the record due this tick and reads the tick of the one after. False if it was cut off. */
+    private boolean readRecord() {
+        try {
+            int flags = in.get();
+            if ((flags & ReplayWriter.KEYS) != 0) {
+                state.keys[0] = WireFormat.getVarLong(in);
+                state.keys[1] = WireFormat.getVarLong(in);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return false;
+        }
+        nextRecordTick = readRecordTick(nextRecordTick); // The last record's tick still plays
+        return true;
+    }
+}
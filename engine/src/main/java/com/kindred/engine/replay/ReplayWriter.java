@@ -0,0 +1,111 @@
+package com.kindred.engine.replay;
+
+import com.kindred.engine.serialization.WireFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Appends input frames to a replay file. A frame is only written when the held keys changed since the
+ * previous one, so an idle minute costs a few bytes:
+ * <pre>
+ * header: int magic "KRPL", varint version, varint tick rate, varlong seed, string level, varint tile size
+ * record: varint ticks since the previous record, byte flags, then KEYS 2 varlongs if flagged
+ * </pre>
+ * A record with no flags marks the last tick, so a replay keeps its idle tail. The file is only
+ * appended to; a recording cut short by a crash loses at most what was still buffered.
+ */
+public class ReplayWriter implements Closeable {
+
+    static final int MAGIC = 0x4B52504C; // "KRPL"
+    static final int VERSION = 2; // 1 also held mouse and chat
+    static final int KEYS = 1;
+
+    private final OutputStream out;
+    private final ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private final InputFrame previous = new InputFrame();
+    private long lastWrittenTick = -1;
+    private long bytesWritten;
+    private boolean closed;
+
+    /** Creates or truncates the file and writes the header. */
+    public ReplayWriter(Path file, ReplayHeader header) throws IOException {
+        this(Files.newOutputStream(file), header);
+    }
+
+    public ReplayWriter(OutputStream out, ReplayHeader header) throws IOException {
+        if (header == null) throw new IllegalArgumentException("ReplayHeader cannot be null.");
+        this.out = new BufferedOutputStream(out, 16 * 1024);
+        previous.tick = -1;
+        scratch.putInt(MAGIC);
+        WireFormat.putVarInt(scratch, VERSION);
+        WireFormat.putVarInt(scratch, header.tickRate());
+        WireFormat.putVarLong(scratch, header.seed());
+        WireFormat.putString(scratch, header.levelPath());
+        WireFormat.putVarInt(scratch, header.tileSize());
+        flushScratch();
+    }
+
+    /**
+     * Appends a frame. Frames must come in increasing tick order; skipped ticks repeat the previous
+     * frame's held keys.
+     */
+    public void write(InputFrame frame) throws IOException {
+        if (closed) throw new IllegalStateException("Replay is closed.");
+        if (frame.tick <= previous.tick) {
+            throw new IllegalArgumentException("Tick " + frame.tick + " is not after " + previous.tick + ".");
+        }
+        int flags = frame.sameKeys(previous) ? 0 : KEYS;
+        long tick = frame.tick;
+        previous.copyFrom(frame);
+        if (flags == 0) return;
+
+        writeRecord(tick, flags, frame);
+    }
+
+    private void writeRecord(long tick, int flags, InputFrame frame) throws IOException {
+        WireFormat.putVarLong(scratch, tick - lastWrittenTick);
+        scratch.put((byte) flags);
+        if ((flags & KEYS) != 0) {
+            WireFormat.putVarLong(scratch, frame.keys[0]);
+            WireFormat.putVarLong(scratch, frame.keys[1]);
+        }
+        lastWrittenTick = tick;
+        flushScratch();
+    }
+
+    private void flushScratch() throws IOException {
+        out.write(scratch.array(), 0, scratch.position());
+        bytesWritten += scratch.position();
+        scratch.clear();
+    }
+
+    /** Pushes buffered records to the file. */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /** Bytes of the replay so far, header included. */
+    public long getBytesWritten() { return bytesWritten; }
+
+    /** Marks the last recorded tick and closes the file. */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (previous.tick > lastWrittenTick) {
+                WireFormat.putVarLong(scratch, previous.tick - lastWrittenTick);
+                scratch.put((byte) 0);
+                flushScratch();
+            }
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.kindred.engine.resource;
 
 import com.kindred.engine.entity.components.AnimationComponent;
+import com.kindred.engine.render.SpriteTrim;
+import com.kindred.engine.render.TextureAtlas;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -10,6 +12,11 @@ import java.util.Map;
 import java.util.List;
 
 public class AnimationDataRegistry {
+    /** Source sheet of the attack effects, only read when the prebuilt bundle below is missing. */
+    public static final String ATTACK_SHEET_PATH = "/assets/sprites/attack_spritesheet.png";
+    /** Attack frames and hitboxes preprocessed by the tools module; the sheet above is only read without it. */
+    public static final String ATTACK_BUNDLE_MANIFEST = "/assets/bundles/attacks.manifest";
+
     // Key: weaponType (e.g., "GENERIC_SLASH")
     // Value: BufferedImage[direction][frameIndex]
     private Map<String, BufferedImage[][]> weaponAttackAnimations;
@@ -21,19 +28,40 @@ public class AnimationDataRegistry {
 
     private Map<String, Float> weaponAttackFrameDurations;
     private Map<String, Integer> weaponAttackNumFrames; // Total frames in the base animation strip
+    // Key: weaponType. Value: SpriteTrim[direction][frameIndex], only for trimmed (bundled) frames
+    private Map<String, SpriteTrim[][]> weaponAttackFrameTrims;
+    // Key: weaponType. Value: atlas handle [direction][frameIndex], filled by packAttackFrames
+    private Map<String, int[][]> weaponAttackFrameHandles;
 
     public AnimationDataRegistry() {
         weaponAttackAnimations = new HashMap<>();
         weaponAttackHitboxesPerDirection = new HashMap<>();
         weaponAttackFrameDurations = new HashMap<>();
         weaponAttackNumFrames = new HashMap<>();
+        weaponAttackFrameTrims = new HashMap<>();
+        weaponAttackFrameHandles = new HashMap<>();
         loadAllAnimationData();
     }
 
     private void loadAllAnimationData() {
+        SpriteBundle bundle = SpriteBundle.load(ATTACK_BUNDLE_MANIFEST);
+        if (bundle != null) {
+            for (SpriteBundle.Animation animation : bundle.getAnimations().values()) {
+                weaponAttackNumFrames.put(animation.key, animation.frameCount);
+                weaponAttackFrameDurations.put(animation.key, animation.frameDuration);
+                weaponAttackAnimations.put(animation.key, animation.frames);
+                weaponAttackFrameTrims.put(animation.key, animation.trims);
+                animation.hitboxes.forEach((direction, hitboxes) ->
+                        weaponAttackHitboxesPerDirection.put(animation.key + "_" + direction, hitboxes));
+            }
+            System.out.println("Loaded " + bundle.getAnimations().size() + " attack animations from " + ATTACK_BUNDLE_MANIFEST);
+            return;
+        }
+
+        // --- Fallback: no prebuilt bundle (e.g. started without the Gradle build), process the sheet here ---
         // --- Load Generic Slash Attack ---
         String weaponTypeKey = "GENERIC_SLASH";
-        String slashSheetPath = "/assets/sprites/attack_spritesheet.png"; // Your path
+        String slashSheetPath = ATTACK_SHEET_PATH;
         int frameWidth = 40;
         int frameHeight = 30;
         int numFrames = 4;
@@ -47,30 +75,26 @@ public class AnimationDataRegistry {
             return;
         }
 
-        // Extract original frames (assuming they are for UP direction)
-        BufferedImage[] originalFramesUp = new BufferedImage[numFrames];
+        // Extract original frames (the sheet is drawn facing DOWN)
+        BufferedImage[] originalFramesDown = new BufferedImage[numFrames];
         for (int i = 0; i < numFrames; i++) {
-            originalFramesUp[i] = ImageUtils.extractFrame(originalSpriteSheet, i, frameWidth, frameHeight);
+            originalFramesDown[i] = ImageUtils.extractFrame(originalSpriteSheet, i, frameWidth, frameHeight);
         }
 
         // Prepare the 4-directional array
         BufferedImage[][] allDirectionFrames = new BufferedImage[4][numFrames];
-        allDirectionFrames[AnimationComponent.DOWN] = originalFramesUp; // UP = 0, LEFT = 1, RIGHT = 2, DOWN = 3 (as per your AnimationComponent constants)
+        allDirectionFrames[AnimationComponent.DOWN] = originalFramesDown; // DOWN = 0, LEFT = 1, RIGHT = 2, UP = 3 (as per AnimationComponent constants)
 
-        // Generate other directions by rotating
+        // Generate other directions by rotating clockwise
         allDirectionFrames[AnimationComponent.LEFT] = new BufferedImage[numFrames];
         allDirectionFrames[AnimationComponent.UP] = new BufferedImage[numFrames];
         allDirectionFrames[AnimationComponent.RIGHT] = new BufferedImage[numFrames];
 
         for (int i = 0; i < numFrames; i++) {
-            if (originalFramesUp[i] != null && originalFramesUp[i].getWidth() > 1) {
-                // Assuming original is UP:
-                // UP to RIGHT: Rotate 90 degrees clockwise
-                allDirectionFrames[AnimationComponent.LEFT][i] = ImageUtils.rotateImage(originalFramesUp[i], 90);
-                // UP to DOWN: Rotate 180 degrees
-                allDirectionFrames[AnimationComponent.UP][i] = ImageUtils.rotateImage(originalFramesUp[i], 180);
-                // UP to LEFT: Rotate 270 degrees clockwise (or -90)
-                allDirectionFrames[AnimationComponent.RIGHT][i] = ImageUtils.rotateImage(originalFramesUp[i], 270);
+            if (originalFramesDown[i] != null && originalFramesDown[i].getWidth() > 1) {
+                allDirectionFrames[AnimationComponent.LEFT][i] = ImageUtils.rotateImage(originalFramesDown[i], 90);
+                allDirectionFrames[AnimationComponent.UP][i] = ImageUtils.rotateImage(originalFramesDown[i], 180);
+                allDirectionFrames[AnimationComponent.RIGHT][i] = ImageUtils.rotateImage(originalFramesDown[i], 270);
             } else {
                 // Handle placeholder if original frame failed to load
                 allDirectionFrames[AnimationComponent.LEFT][i] = AssetLoader.createPlaceholderImage(frameHeight, frameWidth); // Note: dims swap
@@ -81,119 +105,51 @@ public class AnimationDataRegistry {
         weaponAttackAnimations.put(weaponTypeKey, allDirectionFrames);
         System.out.println("Loaded and processed GENERIC_SLASH animations.");
 
-        // --- Define Hitboxes (CRITICAL: These need to be adjusted per direction after rotation) ---
-        // This part is complex because hitboxes also need to be "rotated" or defined per direction.
-        // For simplicity, let's define a sample hitbox for the UP direction and acknowledge
-        // that for other directions, these relative coordinates would need transformation.
-
-        // Example Hitboxes for UP direction (relative to entity origin, assuming entity faces UP)
-        // You'll need to carefully define these based on your visuals.
+        // --- Hitboxes for the UP direction (relative to entity origin, assuming entity faces UP) ---
         // Map<frameIndex, List<Rectangle>>
         Map<Integer, List<Rectangle>> hitboxesUp = new HashMap<>();
         // Frame 0: No hitbox (wind-up)
         // Frame 1: Active
         List<Rectangle> frame1HitboxesUp = new ArrayList<>();
-        frame1HitboxesUp.add(new Rectangle(-15, -25, 30, 20)); // x, y, width, height (example for an upward slash)
+        frame1HitboxesUp.add(new Rectangle(-15, -25, 30, 20)); // x, y, width, height
         hitboxesUp.put(1, frame1HitboxesUp);
         // Frame 2: Active
         List<Rectangle> frame2HitboxesUp = new ArrayList<>();
         frame2HitboxesUp.add(new Rectangle(-20, -30, 40, 25)); // Wider/longer
         hitboxesUp.put(2, frame2HitboxesUp);
-        // Frame 3: Maybe a lingering small hitbox or none
-        weaponAttackHitboxesPerDirection.put(weaponTypeKey + "_" + AnimationComponent.UP, hitboxesUp);
+        // Frame 3: No hitbox (follow-through)
 
-
-        // TODO: Define/Transform hitboxes for RIGHT, DOWN, LEFT directions.
-        // This is non-trivial. Rotating a rectangle requires finding the new bounding box
-        // or transforming its corner points. A simpler approach for gameplay might be to
-        // define distinct (even if symmetrical) hitboxes for each cardinal direction's animation.
-        // For example, if the UP slash is (-15, -25, 30, 20), a RIGHT slash might be (5, -15, 20, 30) relative to origin.
-        // This needs careful design based on your sprite's pivot and visual extent.
-
-        // Placeholder for other directions' hitboxes (you'll need to create these)
-        weaponAttackHitboxesPerDirection.put(weaponTypeKey + "_" + AnimationComponent.LEFT, createTransformedHitboxes(hitboxesUp, 90, frameWidth, frameHeight, frameHeight, frameWidth)); // Example call
-        weaponAttackHitboxesPerDirection.put(weaponTypeKey + "_" + AnimationComponent.UP, createTransformedHitboxes(hitboxesUp, 180, frameWidth, frameHeight, frameWidth, frameHeight));
-        weaponAttackHitboxesPerDirection.put(weaponTypeKey + "_" + AnimationComponent.RIGHT, createTransformedHitboxes(hitboxesUp, 270, frameWidth, frameHeight, frameHeight, frameWidth));
-
-        System.out.println("Defined hitboxes for GENERIC_SLASH UP and placeholders for others.");
+        // Clockwise from UP: RIGHT is a quarter turn, DOWN a half turn, LEFT three quarters
+        weaponAttackHitboxesPerDirection.put(weaponTypeKey + "_" + AnimationComponent.UP, hitboxesUp);
+        weaponAttackHitboxesPerDirection.put(weaponTypeKey + "_" + AnimationComponent.RIGHT, rotateHitboxes(hitboxesUp, 1));
+        weaponAttackHitboxesPerDirection.put(weaponTypeKey + "_" + AnimationComponent.DOWN, rotateHitboxes(hitboxesUp, 2));
+        weaponAttackHitboxesPerDirection.put(weaponTypeKey + "_" + AnimationComponent.LEFT, rotateHitboxes(hitboxesUp, 3));
     }
 
     /**
-     * Placeholder for a complex function that would transform hitbox rectangles
-     * based on the rotation angle of the sprite. This is a challenging geometric problem.
-     * A simpler approach is to manually define hitboxes for each direction.
+     * Rotates hitboxes clockwise around the entity origin in quarter turns.
+     * An axis-aligned rectangle stays axis-aligned under a quarter turn, so this is exact.
+     * Same transform as the tools module's SpriteTransform, used when no prebuilt bundle is available.
      *
-     * @param baseHitboxes Hitboxes for the original orientation (e.g., UP).
-     * @param angle        Rotation angle in degrees.
-     * @param originalSpriteW Width of the original sprite frame.
-     * @param originalSpriteH Height of the original sprite frame.
-     * @param rotatedSpriteW Width of the rotated sprite frame.
-     * @param rotatedSpriteH Height of the rotated sprite frame.
-     * @return Transformed hitboxes.
+     * @param baseHitboxes Hitboxes per frame index.
+     * @param quarterTurns Number of clockwise quarter turns (0-3).
+     * @return Rotated hitboxes.
      */
-    private Map<Integer, List<Rectangle>> createTransformedHitboxes(
-            Map<Integer, List<Rectangle>> baseHitboxes, double angle,
-            int originalSpriteW, int originalSpriteH,
-            int rotatedSpriteW, int rotatedSpriteH) {
-
-        Map<Integer, List<Rectangle>> transformedHitboxes = new HashMap<>();
-        if (baseHitboxes == null) return transformedHitboxes;
-
-        // --- THIS IS A SIMPLIFIED AND LIKELY INCORRECT TRANSFORMATION ---
-        // --- Actual geometric transformation of rectangles is more involved ---
-        // --- You would typically rotate the defining points of the rectangle ---
-        // --- and then find the new axis-aligned bounding box (AABB).     ---
-        // --- For pixel-perfect hitboxes, often defined manually per direction. ---
-
-        double radians = Math.toRadians(angle);
-
+    static Map<Integer, List<Rectangle>> rotateHitboxes(Map<Integer, List<Rectangle>> baseHitboxes, int quarterTurns) {
+        Map<Integer, List<Rectangle>> rotated = new HashMap<>();
         for (Map.Entry<Integer, List<Rectangle>> entry : baseHitboxes.entrySet()) {
-            int frameIndex = entry.getKey();
-            List<Rectangle> newRectsForFrame = new ArrayList<>();
-            for (Rectangle originalRect : entry.getValue()) {
-                // Center of the original hitbox relative to original sprite's top-left
-                double ox = originalRect.x + originalRect.width / 2.0;
-                double oy = originalRect.y + originalRect.height / 2.0;
-
-                // Pretend sprite pivot is its center for hitbox calculation
-                double spriteCenterX = originalSpriteW / 2.0;
-                double spriteCenterY = originalSpriteH / 2.0;
-
-                // Coords of hitbox center relative to sprite center
-                double relX = ox - spriteCenterX;
-                double relY = oy - spriteCenterY;
-
-                // Rotate these relative coordinates
-                double rotatedRelX = relX * Math.cos(radians) - relY * Math.sin(radians);
-                double rotatedRelY = relX * Math.sin(radians) + relY * Math.cos(radians);
-
-                // New sprite center in rotated sprite dimensions
-                double newSpriteCenterX = rotatedSpriteW / 2.0;
-                double newSpriteCenterY = rotatedSpriteH / 2.0;
-
-                // New absolute hitbox center in rotated sprite's coordinate system
-                double newAbsX = newSpriteCenterX + rotatedRelX;
-                double newAbsY = newSpriteCenterY + rotatedRelY;
-
-                // For AABB, if width/height swap, you might swap them here too
-                int newRectW = (angle == 90 || angle == 270) ? originalRect.height : originalRect.width;
-                int newRectH = (angle == 90 || angle == 270) ? originalRect.width : originalRect.height;
-
-                newRectsForFrame.add(new Rectangle(
-                        (int) (newAbsX - newRectW / 2.0),
-                        (int) (newAbsY - newRectH / 2.0),
-                        newRectW,
-                        newRectH
-                ));
+            List<Rectangle> rects = new ArrayList<>();
+            for (Rectangle r : entry.getValue()) {
+                Rectangle turned = new Rectangle(r);
+                for (int i = 0; i < (quarterTurns & 3); i++) {
+                    // (x, y) -> (-y, x) on screen, where y points down
+                    turned = new Rectangle(-(turned.y + turned.height), turned.x, turned.height, turned.width);
+                }
+                rects.add(turned);
             }
-            transformedHitboxes.put(frameIndex, newRectsForFrame);
+            rotated.put(entry.getKey(), rects);
         }
-        // This is a very rough approximation. For accurate hitboxes,
-        // you'd typically define them manually for each rotated animation set or use
-        // more precise geometric transformations (e.g., rotating polygon vertices).
-        // For many games, defining them manually per direction offers the most control.
-        System.out.println("WARNING: Hitbox transformation is a placeholder and likely needs manual adjustment for angle: " + angle);
-        return transformedHitboxes;
+        return rotated;
     }
 
 
@@ -224,6 +180,39 @@ public class AnimationDataRegistry {
         return hitboxes;
     }
 
+    /**
+     * Returns where each trimmed frame sits in its untrimmed frame, for placing the effect.
+     * @return SpriteTrim per frame index, or null if the frames for this direction are not trimmed.
+     */
+    public SpriteTrim[] getAttackFrameTrims(String weaponType, int direction) {
+        SpriteTrim[][] trims = weaponAttackFrameTrims.get(weaponType);
+        if (trims == null || direction < 0 || direction >= trims.length) return null;
+        return trims[direction];
+    }
+
+    /**
+     * Packs every attack frame into the atlas once, under "attack/" plus the weapon type, so effects
+     * can be drawn by handle. The handles returned afterwards belong to the atlas given last.
+     * Call it while loading, before any system reads the registry.
+     * @param atlas The atlas to pack into.
+     */
+    public void packAttackFrames(TextureAtlas atlas) {
+        if (atlas == null) throw new IllegalArgumentException("TextureAtlas cannot be null.");
+        for (Map.Entry<String, BufferedImage[][]> entry : weaponAttackAnimations.entrySet()) {
+            weaponAttackFrameHandles.put(entry.getKey(), atlas.addAll("attack/" + entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Returns the atlas handle of each frame for one direction.
+     * @return Handle per frame index, or null if the frames were not packed.
+     */
+    public int[] getAttackFrameHandles(String weaponType, int direction) {
+        int[][] handles = weaponAttackFrameHandles.get(weaponType);
+        if (handles == null || direction < 0 || direction >= handles.length) return null;
+        return handles[direction];
+    }
+
     public float getAttackFrameDuration(String weaponType) {
         return weaponAttackFrameDurations.getOrDefault(weaponType, 0.1f); // Default duration
     }
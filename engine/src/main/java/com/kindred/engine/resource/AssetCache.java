@@ -0,0 +1,192 @@
+package com.kindred.engine.resource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe, size-bounded LRU cache for decoded assets.
+ * Every entry is weighed in bytes of decoded pixels; when the total goes over the budget the least
+ * recently used unpinned entries are evicted. Pinned entries (assets currently in use) are never evicted,
+ * so the cache can stay over budget while everything in it is pinned.
+ * Hits, misses and evictions are counted for tuning the budget.
+ *
+ * @param <K> Key type (usually a classpath path).
+ * @param <V> Asset type.
+ */
+@Slf4j
+public class AssetCache<K, V> {
+
+    /** Snapshot of the cache counters. */
+    public record Stats(long hits, long misses, long evictions, int entries, long sizeBytes, long budgetBytes) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long bytes;
+        int pins;
+
+        Entry(V value, long bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+
+    private final String name;
+    private final ToLongFunction<V> weigher;
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long budgetBytes;
+    private long sizeBytes;
+    private long hits, misses, evictions;
+
+    /**
+     * @param name Name used in log messages.
+     * @param budgetBytes Maximum total size of unpinned entries, in bytes.
+     * @param weigher Size of a value in bytes.
+     */
+    public AssetCache(String name, long budgetBytes, ToLongFunction<V> weigher) {
+        if (budgetBytes <= 0) throw new IllegalArgumentException("Cache budget must be positive.");
+        if (weigher == null) throw new IllegalArgumentException("Weigher cannot be null.");
+        this.name = name;
+        this.budgetBytes = budgetBytes;
+        this.weigher = weigher;
+    }
+
+    /** Returns the cached value, or null on a miss. */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Returns the cached value, loading it on a miss. The loader runs outside the cache lock, so two
+     * threads missing the same key at once may both load it; the first one stored wins.
+     * @param loader Produces the value; a null result is returned but not cached.
+     */
+    public V getOrLoad(K key, Function<K, V> loader) {
+        V cached = get(key);
+        if (cached != null) return cached;
+        V loaded = loader.apply(key);
+        if (loaded == null) return null;
+        return putIfAbsent(key, loaded);
+    }
+
+    /** Stores a value, replacing any previous one (its pins carry over). */
+    public synchronized void put(K key, V value) {
+        if (value == null) throw new IllegalArgumentException("Cached value cannot be null.");
+        Entry<V> entry = new Entry<>(value, weigher.applyAsLong(value));
+        Entry<V> previous = entries.put(key, entry);
+        if (previous != null) {
+            sizeBytes -= previous.bytes;
+            entry.pins = previous.pins;
+        }
+        sizeBytes += entry.bytes;
+        evictIfNeeded();
+    }
+
+    private synchronized V putIfAbsent(K key, V value) {
+        Entry<V> existing = entries.get(key);
+        if (existing != null) return existing.value;
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Pins an entry so it is never evicted. Pins are counted; every pin needs a matching {@link #unpin(Object)}.
+     * @return False if the key is not cached.
+     */
+    public synchronized boolean pin(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) return false;
+        entry.pins++;
+        return true;
+    }
+
+    public synchronized void unpin(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.pins == 0) {
+            log.warn("{} cache: unpin of '{}' without a matching pin.", name, key);
+            return;
+        }
+        entry.pins--;
+        if (entry.pins == 0) {
+            evictIfNeeded();
+        }
+    }
+
+    public synchronized void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            sizeBytes -= entry.bytes;
+        }
+    }
+
+    /** Drops every unpinned entry. */
+    public synchronized void clear() {
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry<V> entry = it.next();
+            if (entry.pins == 0) {
+                sizeBytes -= entry.bytes;
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        if (budgetBytes <= 0) throw new IllegalArgumentException("Cache budget must be positive.");
+        this.budgetBytes = budgetBytes;
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        if (sizeBytes <= budgetBytes) return;
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (sizeBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<K, Entry<V>> candidate = it.next();
+            if (candidate.getValue().pins > 0) continue;
+            sizeBytes -= candidate.getValue().bytes;
+            evictions++;
+            log.debug("{} cache: evicted '{}' ({} bytes).", name, candidate.getKey(), candidate.getValue().bytes);
+            it.remove();
+        }
+        if (sizeBytes > budgetBytes) {
+            log.warn("{} cache is over budget ({} of {} bytes) with only pinned entries left.", name, sizeBytes, budgetBytes);
+        }
+    }
+
+    public synchronized boolean contains(K key) {
+        return entries.containsKey(key); // Not counted as a hit or miss and does not refresh the entry
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, entries.size(), sizeBytes, budgetBytes);
+    }
+
+    // --- Weighers ---
+
+    /**
+     * Bytes of decoded ARGB pixels the image owns. A sub-image (e.g. a sprite cut from a sheet with
+     * getSubimage) shares its sheet's raster, whose pixels are already counted with the sheet, so it weighs
+     * nothing. Keep such a sheet pinned while its sub-images are in use, or its pixels stay alive uncounted.
+     */
+    public static long imageBytes(BufferedImage image) {
+        if (image == null || image.getRaster().getParent() != null) return 0;
+        return (long) image.getWidth() * image.getHeight() * Integer.BYTES;
+    }
+}
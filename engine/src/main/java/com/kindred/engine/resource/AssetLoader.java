@@ -9,23 +9,28 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
 
 @Slf4j
 public class AssetLoader {
-    // Cache to store already loaded images (maps path to image)
-    private static final Map<String, BufferedImage> imageCache = new HashMap<>();
-    private static final Map<String, BufferedImage> placeholderCache = new HashMap<>();
+    /** Default budget for decoded images in the cache, see {@link #setCacheBudgetBytes(long)}. */
+    public static final long DEFAULT_CACHE_BUDGET_BYTES = 64L * 1024 * 1024;
+    private static final String PLACEHOLDER_KEY_PREFIX = "placeholder:";
+
+    // Shared, bounded cache for every decoded image: sheets by path, placeholders and derived sprites
+    // (see getCachedOrCreate) under their own keys. Thread-safe, because AssetManager decodes on worker threads.
+    private static final AssetCache<String, BufferedImage> imageCache =
+            new AssetCache<>("Image", DEFAULT_CACHE_BUDGET_BYTES, AssetCache::imageBytes);
 
     /**
      * Loads an image from the classpath (e.g. /assets/sprites/player.png)
      */
     public static BufferedImage loadImage(String path) {
         // 1. Check cache first
-        if (imageCache.containsKey(path)) {
-            return imageCache.get(path);
+        BufferedImage cached = imageCache.get(path);
+        if (cached != null) {
+            return cached;
         }
 
         // 2. Load from classpath resource stream
@@ -38,7 +43,7 @@ public class AssetLoader {
                 throw new IOException("ImageIO.read returned null for path: " + path);
             }
             log.info("AssetLoader: Loaded image {} ({}x{})", path, image.getWidth(), image.getHeight());
-            // 3. Store in cache on success
+            // 3. Store in cache on success (may evict least recently used images)
             imageCache.put(path, image);
             return image;
         } catch (IOException e) {
@@ -139,12 +144,38 @@ public class AssetLoader {
     }
 
     /**
-     * Clears the image cache. Useful if assets need to be reloaded during development.
+     * Returns a derived image (e.g. a sprite cut from a sheet) from the cache, creating it on a miss.
+     * Derived images are evicted like any other; the creator must be able to build them again.
+     * @param key Unique cache key, should not collide with classpath paths.
+     * @param creator Builds the image on a miss.
+     */
+    public static BufferedImage getCachedOrCreate(String key, Supplier<BufferedImage> creator) {
+        return imageCache.getOrLoad(key, k -> creator.get());
+    }
+
+    /** Keeps a loaded image in the cache until {@link #unpin(String)}. Returns false if it is not cached. */
+    public static boolean pin(String path) {
+        return imageCache.pin(path);
+    }
+
+    public static void unpin(String path) {
+        imageCache.unpin(path);
+    }
+
+    public static void setCacheBudgetBytes(long budgetBytes) {
+        imageCache.setBudgetBytes(budgetBytes);
+    }
+
+    public static AssetCache.Stats getCacheStats() {
+        return imageCache.getStats();
+    }
+
+    /**
+     * Clears the image cache (pinned images stay). Useful if assets need to be reloaded during development.
      */
     public static void clearCache() {
         imageCache.clear();
-        placeholderCache.clear();
-        log.info("AssetLoader: Image caches cleared.");
+        log.info("AssetLoader: Image cache cleared.");
     }
 
     /**
@@ -158,24 +189,20 @@ public class AssetLoader {
         // Ensure minimum size of 1x1
         width = Math.max(1, width);
         height = Math.max(1, height);
-        String key = width + "x" + height; // Cache key based on size
-
-        // Check placeholder cache first
-        if (placeholderCache.containsKey(key)) {
-            return placeholderCache.get(key);
-        }
+        String key = PLACEHOLDER_KEY_PREFIX + width + "x" + height; // Cache key based on size
 
         // Create placeholder if not cached
-        BufferedImage placeholder = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = placeholder.createGraphics();
-        try { // Ensure graphics object is disposed
-            g.setColor(new Color(255, 0, 255)); // Magenta
-            g.fillRect(0, 0, width, height);
-        } finally {
-            g.dispose();
-        }
-        // Store in cache and return
-        placeholderCache.put(key, placeholder);
-        return placeholder;
+        int placeholderWidth = width, placeholderHeight = height;
+        return imageCache.getOrLoad(key, k -> {
+            BufferedImage placeholder = new BufferedImage(placeholderWidth, placeholderHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = placeholder.createGraphics();
+            try { // Ensure graphics object is disposed
+                g.setColor(new Color(255, 0, 255)); // Magenta
+                g.fillRect(0, 0, placeholderWidth, placeholderHeight);
+            } finally {
+                g.dispose();
+            }
+            return placeholder;
+        });
     }
 }
@@ -0,0 +1,137 @@
+package com.kindred.engine.resource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Loads assets in parallel and hands out futures for them.
+ * Images are decoded through {@link AssetLoader} on a virtual thread each, so they end up in its cache
+ * and later synchronous {@code AssetLoader.loadImage} calls return immediately.
+ * Work that needs other assets (building the level, rotating attack frames, ...) is declared with
+ * {@link #load(String, Supplier, CompletableFuture[])} and starts once its dependencies are done,
+ * instead of relying on class-initialization order.
+ * Progress is reported per finished asset, for a loading screen or the log.
+ */
+@Slf4j
+public class AssetManager implements AutoCloseable {
+
+    /** Receives progress updates. Called on the thread that finished the asset. */
+    public interface ProgressListener {
+        void onProgress(int completed, int total, String assetName);
+    }
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Map<String, CompletableFuture<BufferedImage>> images = new ConcurrentHashMap<>();
+    private final List<CompletableFuture<?>> tasks = new CopyOnWriteArrayList<>();
+    private final List<ProgressListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /** Creates an AssetManager that runs every task on its own virtual thread. */
+    public AssetManager() {
+        this(Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * Creates an AssetManager on a caller-supplied executor (e.g. a direct executor in tests).
+     * The executor is not shut down by {@link #close()}.
+     */
+    public AssetManager(ExecutorService executor) {
+        this(executor, false);
+    }
+
+    private AssetManager(ExecutorService executor, boolean ownsExecutor) {
+        if (executor == null) throw new IllegalArgumentException("Executor cannot be null.");
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    public void addProgressListener(ProgressListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Starts decoding an image from the classpath. Requesting the same path again returns the same future.
+     * @param path Classpath location, e.g. /assets/sprites/player.png.
+     * @return Future of the decoded image (AssetLoader's placeholder if decoding failed).
+     */
+    public CompletableFuture<BufferedImage> loadImage(String path) {
+        return images.computeIfAbsent(path, p -> load(p, () -> AssetLoader.loadImage(p)));
+    }
+
+    /**
+     * Runs a loading step once all of its dependencies have completed.
+     * @param name Name shown in progress reports.
+     * @param loader Produces the asset. Runs on the loading executor.
+     * @param dependencies Futures that have to complete first. If one fails, this step fails too.
+     * @return Future of the produced asset.
+     */
+    public <T> CompletableFuture<T> load(String name, Supplier<T> loader, CompletableFuture<?>... dependencies) {
+        if (loader == null) throw new IllegalArgumentException("Loader cannot be null.");
+        CompletableFuture<Void> ready = dependencies.length == 0
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.allOf(dependencies);
+
+        total.incrementAndGet();
+        CompletableFuture<T> task = ready
+                .thenApplyAsync(ignored -> loader.get(), executor)
+                .whenComplete((result, error) -> finished(name, error));
+        tasks.add(task);
+        return task;
+    }
+
+    private void finished(String name, Throwable error) {
+        int done = completed.incrementAndGet();
+        if (error != null) {
+            failed.incrementAndGet();
+            log.error("Failed to load asset '{}'", name, error);
+        } else {
+            log.debug("Loaded asset '{}' ({}/{})", name, done, total.get());
+        }
+        for (ProgressListener listener : listeners) {
+            listener.onProgress(done, total.get(), name);
+        }
+    }
+
+    /** Completes when every asset requested so far has finished loading, successfully or not. */
+    public CompletableFuture<Void> whenAllLoaded() {
+        CompletableFuture<?>[] pending = tasks.toArray(new CompletableFuture<?>[0]);
+        return CompletableFuture.allOf(pending).handle((ignored, error) -> null);
+    }
+
+    /** Blocks until {@link #whenAllLoaded()} completes. */
+    public void awaitAll() {
+        whenAllLoaded().join();
+    }
+
+    /** Fraction of requested assets that have finished, 1.0 if nothing was requested. */
+    public float getProgress() {
+        int requested = total.get();
+        return requested == 0 ? 1f : (float) completed.get() / requested;
+    }
+
+    public int getCompletedCount() { return completed.get(); }
+    public int getTotalCount() { return total.get(); }
+    public int getFailedCount() { return failed.get(); }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
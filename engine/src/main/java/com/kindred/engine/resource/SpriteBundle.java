@@ -0,0 +1,174 @@
+package com.kindred.engine.resource;
+
+import com.kindred.engine.render.SpriteTrim;
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Directional animations preprocessed at build time by the tools module's SpritePipeline:
+ * frames already turned and trimmed, packed into one image, with hitboxes for every direction.
+ * Loading one is a manifest parse plus sub-images of a single decoded image.
+ */
+@Slf4j
+public class SpriteBundle {
+
+    public static final int SUPPORTED_VERSION = 1;
+    private static final int DIRECTIONS = 4;
+
+    /** One animation of the bundle, indexed by [direction][frame] like AnimationComponent. */
+    public static final class Animation {
+        public final String key;
+        public final int frameCount;
+        public final float frameDuration;
+        public final BufferedImage[][] frames;
+        public final SpriteTrim[][] trims;
+        /** Key: direction. Value: hitboxes per frame index, relative to the entity origin. */
+        public final Map<Integer, Map<Integer, List<Rectangle>>> hitboxes = new HashMap<>();
+
+        Animation(String key, int frameCount, float frameDuration) {
+            this.key = key;
+            this.frameCount = frameCount;
+            this.frameDuration = frameDuration;
+            this.frames = new BufferedImage[DIRECTIONS][frameCount];
+            this.trims = new SpriteTrim[DIRECTIONS][frameCount];
+        }
+    }
+
+    private final Map<String, Animation> animations = new LinkedHashMap<>();
+
+    private SpriteBundle() {
+    }
+
+    /**
+     * Loads a bundle from the classpath.
+     * @param manifestPath e.g. /assets/bundles/attacks.manifest
+     * @return The bundle, or null if it is missing or broken (callers fall back to processing at runtime).
+     */
+    public static SpriteBundle load(String manifestPath) {
+        try (InputStream is = SpriteBundle.class.getResourceAsStream(manifestPath)) {
+            if (is == null) {
+                log.info("No sprite bundle at {}; run the build to generate it.", manifestPath);
+                return null;
+            }
+            List<String> lines = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8)).lines().toList();
+            String dir = manifestPath.substring(0, manifestPath.lastIndexOf('/') + 1);
+            return parse(lines, image -> AssetLoader.loadImage(dir + image));
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Could not load sprite bundle {}", manifestPath, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses a manifest.
+     * @param lines Manifest lines.
+     * @param imageLoader Decodes the bundle image, given its name from the manifest.
+     * @throws IllegalArgumentException If the manifest is malformed or references pixels outside the image.
+     */
+    public static SpriteBundle parse(List<String> lines, Function<String, BufferedImage> imageLoader) {
+        SpriteBundle bundle = new SpriteBundle();
+        BufferedImage image = null;
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] t = line.split("\\s+");
+            try {
+                switch (t[0]) {
+                    case "bundle" -> {
+                        expect(t, 3);
+                        int version = Integer.parseInt(t[1]);
+                        if (version != SUPPORTED_VERSION) {
+                            throw new IllegalArgumentException("unsupported bundle version " + version);
+                        }
+                        image = imageLoader.apply(t[2]);
+                    }
+                    case "animation" -> {
+                        expect(t, 4);
+                        Animation animation = new Animation(t[1], Integer.parseInt(t[2]), Float.parseFloat(t[3]));
+                        bundle.animations.put(animation.key, animation);
+                    }
+                    case "frame" -> {
+                        expect(t, 12);
+                        if (image == null) throw new IllegalArgumentException("frame before bundle line");
+                        Animation animation = bundle.animation(t[1]);
+                        int dir = direction(t[2]);
+                        int index = frameIndex(animation, t[3]);
+                        int x = Integer.parseInt(t[4]), y = Integer.parseInt(t[5]);
+                        int w = Integer.parseInt(t[6]), h = Integer.parseInt(t[7]);
+                        if (x < 0 || y < 0 || w <= 0 || h <= 0 || x + w > image.getWidth() || y + h > image.getHeight()) {
+                            throw new IllegalArgumentException("frame outside the bundle image");
+                        }
+                        animation.frames[dir][index] = image.getSubimage(x, y, w, h);
+                        animation.trims[dir][index] = new SpriteTrim(Integer.parseInt(t[8]), Integer.parseInt(t[9]),
+                                Integer.parseInt(t[10]), Integer.parseInt(t[11]));
+                    }
+                    case "hitbox" -> {
+                        expect(t, 8);
+                        Animation animation = bundle.animation(t[1]);
+                        int dir = direction(t[2]);
+                        int index = frameIndex(animation, t[3]);
+                        animation.hitboxes
+                                .computeIfAbsent(dir, d -> new HashMap<>())
+                                .computeIfAbsent(index, i -> new ArrayList<>())
+                                .add(new Rectangle(Integer.parseInt(t[4]), Integer.parseInt(t[5]),
+                                        Integer.parseInt(t[6]), Integer.parseInt(t[7])));
+                    }
+                    default -> throw new IllegalArgumentException("unknown entry '" + t[0] + "'");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Sprite manifest line " + (n + 1) + ": bad number in '" + line + "'", e);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Sprite manifest line " + (n + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return bundle;
+    }
+
+    private static void expect(String[] tokens, int count) {
+        if (tokens.length != count) {
+            throw new IllegalArgumentException("expected " + count + " fields but got " + tokens.length);
+        }
+    }
+
+    private static int direction(String token) {
+        int dir = Integer.parseInt(token);
+        if (dir < 0 || dir >= DIRECTIONS) throw new IllegalArgumentException("direction " + dir + " out of range");
+        return dir;
+    }
+
+    private static int frameIndex(Animation animation, String token) {
+        int index = Integer.parseInt(token);
+        if (index < 0 || index >= animation.frameCount) {
+            throw new IllegalArgumentException("frame " + index + " out of range for " + animation.key);
+        }
+        return index;
+    }
+
+    private Animation animation(String key) {
+        Animation animation = animations.get(key);
+        if (animation == null) throw new IllegalArgumentException("animation " + key + " not declared");
+        return animation;
+    }
+
+    /** Returns the animation, or null if the bundle does not contain it. */
+    public Animation getAnimation(String key) {
+        return animations.get(key);
+    }
+
+    public Map<String, Animation> getAnimations() {
+        return animations;
+    }
+}
@@ -0,0 +1,128 @@
+package com.kindred.engine.save;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes {@link WorldSnapshot}s to a {@link SaveStore} on a background thread, so the game thread
+ * only pays for capturing them. The first save is a full snapshot; later ones append just what
+ * changed to the journal, and every {@code compactEvery} journal records (or after a failed write)
+ * the next save is a full snapshot again, which compacts the journal.
+ * <p>
+ * {@link #submit} and {@link #finish} must be called from one thread, normally the game thread.
+ */
+@Slf4j
+public class Autosaver implements AutoCloseable {
+
+    /** Told on the writer thread once a snapshot is safely on disk. */
+    public interface SaveListener {
+        void saved(WorldSnapshot snapshot);
+    }
+
+    public static final int DEFAULT_COMPACT_EVERY = 20;
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final SaveStore store;
+    private final int compactEvery;
+    private final ExecutorService writer;
+    private final AtomicInteger pending = new AtomicInteger();
+    private WorldSnapshot lastSubmitted; // Game thread
+    private int journalRecords;          // Writer thread
+    private boolean needsFullSave = true; // Writer thread
+    private volatile SaveListener saveListener;
+
+    public Autosaver(SaveStore store, int compactEvery) {
+        if (store == null) throw new IllegalArgumentException("SaveStore cannot be null.");
+        if (compactEvery <= 0) throw new IllegalArgumentException("compactEvery must be positive.");
+        this.store = store;
+        this.compactEvery = compactEvery;
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "Autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Autosaver(SaveStore store) {
+        this(store, DEFAULT_COMPACT_EVERY);
+    }
+
+    public void setSaveListener(SaveListener saveListener) {
+        this.saveListener = saveListener;
+    }
+
+    /**
+     * Queues a save of the snapshot. If the previous save is still being written the snapshot is
+     * dropped instead, so a slow disk delays autosaves rather than piling them up.
+     * @return True if queued.
+     */
+    public boolean submit(WorldSnapshot snapshot) {
+        if (pending.get() > 0) return false;
+        queue(snapshot);
+        return true;
+    }
+
+    /** Queues a last save whether or not one is in progress, then closes, waiting for both to finish. */
+    public void finish(WorldSnapshot snapshot) {
+        queue(snapshot);
+        close();
+    }
+
+    private void queue(WorldSnapshot snapshot) {
+        WorldSnapshot base = lastSubmitted;
+        lastSubmitted = snapshot;
+        pending.incrementAndGet();
+        writer.execute(() -> write(base, snapshot));
+    }
+
+    private void write(WorldSnapshot base, WorldSnapshot snapshot) {
+        long start = System.nanoTime();
+        try {
+            if (base == null || needsFullSave || journalRecords >= compactEvery) {
+                store.writeSnapshot(snapshot);
+                journalRecords = 0;
+                needsFullSave = false;
+                log.debug("Saved full snapshot at tick {} in {} ms.", snapshot.getTick(), (System.nanoTime() - start) / 1_000_000);
+            } else {
+                WorldDelta delta = snapshot.changesSince(base);
+                if (!delta.isEmpty()) {
+                    store.appendDelta(delta);
+                    journalRecords++;
+                    log.debug("Journaled {} changed and {} removed entities at tick {} in {} ms.", delta.changedEntities().size(),
+                            delta.removedEntities().size(), snapshot.getTick(), (System.nanoTime() - start) / 1_000_000);
+                }
+            }
+            SaveListener listener = saveListener;
+            if (listener != null) listener.saved(snapshot);
+        } catch (IOException | RuntimeException e) {
+            // The journal may now be missing a delta; the next save starts over from a full snapshot
+            needsFullSave = true;
+            log.error("Autosave at tick {} to {} failed.", snapshot.getTick(), store.getDirectory(), e);
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    /** True while a save is queued or being written. */
+    public boolean isBusy() {
+        return pending.get() > 0;
+    }
+
+    /** Waits for queued saves to be written and stops the writer thread. */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.error("Autosave did not finish within {} s.", CLOSE_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
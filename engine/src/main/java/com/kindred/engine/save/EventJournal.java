@@ -0,0 +1,348 @@
+package com.kindred.engine.save;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of gameplay events, so that progress made since the last
+ * {@link WorldSnapshot} survives a crash. Records go into memory-mapped segment files: an append is a
+ * copy into the page cache and a CRC, with no system call, so it costs well under a microsecond on the
+ * game thread and is already safe from a crash of the process. Durability against an OS crash is
+ * group-committed: {@link #commit()} marks the end of a tick and a background thread forces the
+ * committed range to disk every {@value #FLUSH_INTERVAL_MILLIS} ms, covering every tick since the
+ * last force with one write.
+ * <p>
+ * On disk each entry is {@code int payloadLength, int crc, long sequence, byte type, payload}; the CRC covers
+ * everything after it. Sequence numbers start at 1, grow by one with each append and are never reused, so a
+ * snapshot can store the last sequence it includes and loading replays only what came after. A torn
+ * or corrupt entry ends its segment; the next segment is only trusted if it continues the sequence.
+ * <p>
+ * {@link #append}, {@link #commit} and {@link #close} belong to one thread, normally the game thread.
+ */
+@Slf4j
+public class EventJournal implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_BYTES = 1 << 20;
+    public static final int MAX_PAYLOAD_BYTES = 16 * 1024;
+    public static final long FLUSH_INTERVAL_MILLIS = 20;
+
+    private static final int MAGIC = 0x4B57414C; // "KWAL"
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 4 + 4 + 8;
+    private static final int RECORD_HEADER_BYTES = 4 + 4 + 8 + 1;
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    /** Receives replayed records. The payload is only valid during the call. */
+    @FunctionalInterface
+    public interface Handler {
+        void record(long sequence, int type, ByteBuffer payload);
+    }
+
+    private static final class Segment {
+        final Path path;
+        final long firstSequence;
+        MappedByteBuffer buffer; // Null once closed
+        int forcedPosition;
+
+        Segment(Path path, long firstSequence) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+        }
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final CRC32 crc = new CRC32();
+    private final List<Segment> segments = new ArrayList<>(); // Guarded by forceLock
+    private final Object forceLock = new Object();
+    private final Object publishLock = new Object();
+    private final Thread flusher;
+    private Segment current;
+    private long lastSequence;
+
+    // Published by commit() under publishLock, read by the flusher
+    private Segment committedSegment;
+    private int committedPosition;
+    private long committedSequence;
+    private boolean closed;
+
+    private volatile long durableSequence;
+    private volatile long discardThrough;
+
+    private EventJournal(Path directory, int segmentBytes, long lastSequence, List<Segment> oldSegments) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.lastSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.segments.addAll(oldSegments);
+        this.current = createSegment(lastSequence + 1);
+        this.committedSegment = current;
+        this.committedPosition = current.buffer.position();
+        this.committedSequence = lastSequence;
+        this.flusher = new Thread(this::flushLoop, "EventJournalFlush");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public static EventJournal open(Path directory, long afterSequence, Handler handler) throws IOException {
+        return open(directory, afterSequence, handler, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Replays the journal in a directory and opens it for appending. New records go to a fresh
+     * segment; segments after a break in the sequence are deleted, since nothing can follow a gap.
+     * @param afterSequence Last sequence already in the loaded snapshot (0 for none): older records
+     *                      are skipped, and new records are numbered after it even if the journal is empty.
+     * @param handler Receives every intact record after {@code afterSequence}, in order.
+     * @param segmentBytes Size of each segment file.
+     * @throws IllegalArgumentException If a segment cannot hold one largest record.
+     */
+    public static EventJournal open(Path directory, long afterSequence, Handler handler, int segmentBytes) throws IOException {
+        if (segmentBytes < SEGMENT_HEADER_BYTES + RECORD_HEADER_BYTES + MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Segments of " + segmentBytes + " bytes cannot hold a record.");
+        }
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(EventJournal::isSegment).sorted().toList();
+        }
+        List<Segment> kept = new ArrayList<>();
+        long last = -1;
+        boolean broken = false;
+        int replayed = 0;
+        for (Path file : files) {
+            ByteBuffer data = broken ? null : readSegment(file);
+            long first = data == null ? -1 : data.getLong(8);
+            if (data == null || (last >= 0 && first != last + 1)) {
+                if (!broken) log.warn("Event journal breaks at {}; it and later segments are discarded.", file.getFileName());
+                broken = true;
+                Files.deleteIfExists(file);
+                continue;
+            }
+            if (last < 0 && first > afterSequence + 1) {
+                log.warn("Event journal starts at {} but the snapshot ends at {}; events in between are lost.", first, afterSequence);
+            }
+            last = first - 1;
+            int position = SEGMENT_HEADER_BYTES;
+            for (int length = recordLength(data, position, last + 1); length > 0; length = recordLength(data, position, last + 1)) {
+                last++;
+                if (last > afterSequence) {
+                    ByteBuffer payload = data.duplicate().position(position + RECORD_HEADER_BYTES)
+                            .limit(position + RECORD_HEADER_BYTES + length).slice().asReadOnlyBuffer();
+                    handler.record(last, data.get(position + 16) & 0xFF, payload);
+                    replayed++;
+                }
+                position += RECORD_HEADER_BYTES + length;
+            }
+            if (last == first - 1) {
+                Files.deleteIfExists(file); // Nothing in it, and the new segment may take its name
+            } else {
+                kept.add(new Segment(file, first));
+            }
+        }
+        long lastSequence = Math.max(Math.max(last, 0), afterSequence);
+        if (replayed > 0) log.info("Replayed {} journaled events up to sequence {}.", replayed, lastSequence);
+        EventJournal journal = new EventJournal(directory, segmentBytes, lastSequence, kept);
+        journal.discardThrough(afterSequence); // The loaded snapshot already has those records
+        return journal;
+    }
+
+    /**
+     * Validates the record at {@code position}.
+     * @return Its payload length, or 0 if there is none: the zeroed tail of a segment, a torn or
+     *         corrupt write, or a sequence number other than the expected one.
+     */
+    private static int recordLength(ByteBuffer data, int position, long expectedSequence) {
+        if (data.limit() - position < RECORD_HEADER_BYTES) return 0;
+        int length = data.getInt(position);
+        if (length <= 0 || length > MAX_PAYLOAD_BYTES || length > data.limit() - position - RECORD_HEADER_BYTES) return 0;
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate().position(position + 8).limit(position + RECORD_HEADER_BYTES + length));
+        if ((int) crc.getValue() != data.getInt(position + 4)) return 0;
+        return data.getLong(position + 8) == expectedSequence ? length : 0;
+    }
+
+    /** A segment's bytes, or null if it is not a journal segment of a known version. */
+    private static ByteBuffer readSegment(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < SEGMENT_HEADER_BYTES) return null;
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.getInt(0) != MAGIC || data.getInt(4) > VERSION) return null;
+            return data;
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+        Segment segment = new Segment(directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX)),
+                firstSequence);
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Mapping past the end grows the file; the zeroed tail reads as "no more records"
+            segment.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segment.buffer.putInt(MAGIC).putInt(VERSION).putLong(firstSequence);
+        segment.buffer.force(0, SEGMENT_HEADER_BYTES);
+        segment.forcedPosition = SEGMENT_HEADER_BYTES;
+        synchronized (forceLock) {
+            segments.add(segment);
+        }
+        return segment;
+    }
+
+    /**
+     * Appends a record. It reaches disk with the next group commit after {@link #commit()}.
+     * @param type Record type, 0 to 255, chosen by the caller.
+     * @param payload Read from position to limit; its position is left unchanged.
+     * @return The record's sequence number.
+     * @throws IllegalArgumentException If the type or payload size is out of range.
+     * @throws IOException If a new segment was needed and could not be created.
+     */
+    public long append(int type, ByteBuffer payload) throws IOException {
+        if (type < 0 || type > 255) throw new IllegalArgumentException("Record types are 0 to 255.");
+        int length = payload.remaining();
+        if (length == 0 || length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Payloads are 1 to " + MAX_PAYLOAD_BYTES + " bytes, not " + length + ".");
+        }
+        if (current.buffer.remaining() < RECORD_HEADER_BYTES + length) {
+            roll();
+        }
+        MappedByteBuffer buffer = current.buffer;
+        long sequence = lastSequence + 1;
+        int start = buffer.position();
+        int payloadStart = payload.position();
+        buffer.position(start + 8);
+        buffer.putLong(sequence).put((byte) type).put(payload);
+        payload.position(payloadStart);
+        int end = buffer.position();
+
+        crc.reset();
+        buffer.position(start + 8).limit(end);
+        crc.update(buffer);
+        buffer.limit(buffer.capacity());
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.putInt(start, length);
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /** Marks the end of a tick: everything appended so far goes to disk with the next group commit. */
+    public void commit() {
+        synchronized (publishLock) {
+            committedSegment = current;
+            committedPosition = current.buffer.position();
+            committedSequence = lastSequence;
+        }
+    }
+
+    private void roll() throws IOException {
+        synchronized (forceLock) {
+            // Rare (once per segment), so the old segment is finished here rather than handed over
+            Segment old = current;
+            old.buffer.force();
+            old.forcedPosition = old.buffer.position();
+            durableSequence = lastSequence;
+            Segment next = createSegment(lastSequence + 1);
+            current = next;
+            old.buffer = null;
+            synchronized (publishLock) {
+                committedSegment = next;
+                committedPosition = next.buffer.position();
+                committedSequence = lastSequence;
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (publishLock) {
+                if (closed) return;
+                try {
+                    publishLock.wait(FLUSH_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            flush();
+        }
+    }
+
+    private void flush() {
+        synchronized (forceLock) {
+            Segment segment;
+            int position;
+            long sequence;
+            synchronized (publishLock) {
+                segment = committedSegment;
+                position = committedPosition;
+                sequence = committedSequence;
+            }
+            if (segment.buffer != null && position > segment.forcedPosition) {
+                segment.buffer.force(segment.forcedPosition, position - segment.forcedPosition);
+                segment.forcedPosition = position;
+            }
+            if (sequence > durableSequence) durableSequence = sequence;
+            deleteDiscardedSegments();
+        }
+    }
+
+    /**
+     * Lets the journal delete segments whose records are all at or below {@code sequence}, once a
+     * snapshot containing them is safely on disk. Any thread; the files go with the next flush.
+     */
+    public void discardThrough(long sequence) {
+        if (sequence > discardThrough) discardThrough = sequence;
+    }
+
+    private void deleteDiscardedSegments() {
+        // A segment is covered when the next one starts at or below discardThrough + 1
+        while (segments.size() > 1 && segments.get(1).firstSequence - 1 <= discardThrough) {
+            Segment old = segments.remove(0);
+            try {
+                Files.deleteIfExists(old.path);
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}.", old.path, e);
+            }
+        }
+    }
+
+    /** Sequence of the last record appended; 0 before the first. */
+    public long getLastSequence() { return lastSequence; }
+
+    /** Sequence up to which records are forced to disk. */
+    public long getDurableSequence() { return durableSequence; }
+
+    /** Commits and forces everything appended, then stops the flush thread. */
+    @Override
+    public void close() {
+        commit();
+        synchronized (publishLock) {
+            closed = true;
+            publishLock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        current.buffer = null;
+    }
+}
@@ -0,0 +1,236 @@
+package com.kindred.engine.save;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A save slot on disk: a compressed full snapshot ({@value #SNAPSHOT_FILE}) and a journal of the
+ * deltas saved since ({@value #JOURNAL_FILE}). Loading reads the snapshot and replays the journal
+ * over it; writing a new snapshot compacts the journal away.
+ * <p>
+ * A crash never leaves a broken save: snapshots are written to a temporary file and moved into place,
+ * journal records carry a length and a CRC so a torn final write is dropped, and the journal names
+ * the snapshot generation it extends, so a journal left over from before a compaction is ignored.
+ * <p>
+ * Not thread-safe; an {@link Autosaver} uses it from its writer thread only.
+ */
+@Slf4j
+public class SaveStore {
+
+    public static final String SNAPSHOT_FILE = "world.sav";
+    public static final String JOURNAL_FILE = "world.journal";
+
+    private static final int SNAPSHOT_MAGIC = 0x4B534156; // "KSAV"
+    private static final int JOURNAL_MAGIC = 0x4B4A524E;  // "KJRN"
+    private static final int VERSION = 1;
+    private static final int JOURNAL_HEADER_BYTES = 4 + 4 + 8;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private long generation;
+
+    public SaveStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() { return directory; }
+
+    public boolean exists() {
+        return Files.exists(directory.resolve(SNAPSHOT_FILE));
+    }
+
+    /** Writes a full snapshot and starts an empty journal after it. */
+    public void writeSnapshot(WorldSnapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        long nextGeneration = Math.max(generation + 1, System.currentTimeMillis());
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(nextGeneration);
+            out.writeLong(snapshot.getTick());
+            writeEntities(out, snapshot.getEntities());
+            out.writeInt(0); // No removed entities in a full snapshot
+            writeSections(out, snapshot.getSections());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        generation = nextGeneration;
+
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_BYTES);
+        header.putInt(JOURNAL_MAGIC).putInt(VERSION).putLong(generation).flip();
+        try (FileChannel channel = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Appends a delta to the journal of the last snapshot written or loaded, and forces it to disk.
+     * @throws IllegalStateException If this store has not written or loaded a snapshot yet.
+     */
+    public void appendDelta(WorldDelta delta) throws IOException {
+        if (generation == 0) throw new IllegalStateException("Write or load a snapshot before appending deltas.");
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(payload))) {
+            out.writeLong(delta.tick());
+            writeEntities(out, delta.changedEntities());
+            out.writeInt(delta.removedEntities().size());
+            for (int entityId : delta.removedEntities()) {
+                out.writeInt(entityId);
+            }
+            writeSections(out, delta.changedSections());
+        }
+        byte[] bytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        ByteBuffer record = ByteBuffer.allocate(8 + bytes.length);
+        record.putInt(bytes.length).putInt((int) crc.getValue()).put(bytes).flip();
+        try (FileChannel channel = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Reads the snapshot and replays its journal. A torn or corrupt journal record ends the replay
+     * there: the save is as of the last intact record.
+     * @return The saved world, or null if there is no save.
+     * @throws IOException If the snapshot itself cannot be read.
+     */
+    public WorldSnapshot load() throws IOException {
+        WorldSnapshot snapshot;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(directory.resolve(SNAPSHOT_FILE)), 64 * 1024)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a save file: " + directory.resolve(SNAPSHOT_FILE));
+            int version = in.readUnsignedByte();
+            if (version > VERSION) throw new IOException("Save version " + version + " is newer than this game.");
+            generation = in.readLong();
+            WorldDelta full = readDelta(in, in.readLong());
+            snapshot = new WorldSnapshot(full.tick(), new LinkedHashMap<>(full.changedEntities()),
+                    new LinkedHashMap<>(full.changedSections()));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        byte[] journal;
+        try {
+            journal = Files.readAllBytes(directory.resolve(JOURNAL_FILE));
+        } catch (NoSuchFileException e) {
+            return snapshot;
+        }
+        ByteBuffer in = ByteBuffer.wrap(journal);
+        if (in.remaining() < JOURNAL_HEADER_BYTES || in.getInt() != JOURNAL_MAGIC || in.getInt() > VERSION
+                || in.getLong() != generation) {
+            log.warn("Ignoring a journal that does not belong to the saved snapshot.");
+            return snapshot;
+        }
+        int records = 0;
+        boolean damaged = false;
+        while (in.hasRemaining()) {
+            int length = in.remaining() >= 8 ? in.getInt() : -1;
+            int expectedCrc = length >= 0 ? in.getInt() : 0;
+            if (length < 0 || length > Math.min(in.remaining(), MAX_RECORD_BYTES)) {
+                damaged = true;
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(journal, in.position(), length);
+            if ((int) crc.getValue() != expectedCrc) {
+                damaged = true;
+                break;
+            }
+            try (DataInputStream record = new DataInputStream(new InflaterInputStream(
+                    new ByteArrayInputStream(journal, in.position(), length)))) {
+                snapshot = snapshot.apply(readDelta(record, record.readLong()));
+            }
+            in.position(in.position() + length);
+            records++;
+        }
+        if (damaged) {
+            log.warn("Save journal ends in a damaged record; loaded {} records up to tick {}.", records, snapshot.getTick());
+        }
+        return snapshot;
+    }
+
+    private static void writeEntities(DataOutputStream out, Map<Integer, byte[]> entities) throws IOException {
+        out.writeInt(entities.size());
+        for (Map.Entry<Integer, byte[]> entity : entities.entrySet()) {
+            out.writeInt(entity.getKey());
+            out.writeInt(entity.getValue().length);
+            out.write(entity.getValue());
+        }
+    }
+
+    private static void writeSections(DataOutputStream out, Map<String, byte[]> sections) throws IOException {
+        out.writeInt(sections.size());
+        for (Map.Entry<String, byte[]> section : sections.entrySet()) {
+            out.writeUTF(section.getKey());
+            out.writeInt(section.getValue().length);
+            out.write(section.getValue());
+        }
+    }
+
+    private static WorldDelta readDelta(DataInputStream in, long tick) throws IOException {
+        Map<Integer, byte[]> entities = new LinkedHashMap<>();
+        for (int i = count(in); i > 0; i--) {
+            int entityId = in.readInt();
+            entities.put(entityId, bytes(in));
+        }
+        List<Integer> removed = new ArrayList<>();
+        for (int i = count(in); i > 0; i--) {
+            removed.add(in.readInt());
+        }
+        Map<String, byte[]> sections = new LinkedHashMap<>();
+        for (int i = count(in); i > 0; i--) {
+            String name = in.readUTF();
+            sections.put(name, bytes(in));
+        }
+        return new WorldDelta(tick, entities, removed, sections);
+    }
+
+    private static int count(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) throw new IOException("Negative count in save data.");
+        return count;
+    }
+
+    private static byte[] bytes(DataInputStream in) throws IOException {
+        int length = count(in);
+        if (length > MAX_RECORD_BYTES) throw new EOFException("Entry of " + length + " bytes exceeds the save.");
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
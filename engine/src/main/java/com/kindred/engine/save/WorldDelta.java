@@ -0,0 +1,20 @@
+package com.kindred.engine.save;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The difference between two {@link WorldSnapshot}s: one record of the save journal.
+ *
+ * @param tick Tick of the newer snapshot.
+ * @param changedEntities Encoded components of entities that are new or changed, by id.
+ * @param removedEntities Ids of entities that no longer exist.
+ * @param changedSections Game state sections that are new or changed, by name.
+ */
+public record WorldDelta(long tick, Map<Integer, byte[]> changedEntities, List<Integer> removedEntities,
+                         Map<String, byte[]> changedSections) {
+
+    public boolean isEmpty() {
+        return changedEntities.isEmpty() && removedEntities.isEmpty() && changedSections.isEmpty();
+    }
+}
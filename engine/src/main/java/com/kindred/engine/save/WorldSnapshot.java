@@ -0,0 +1,149 @@
+package com.kindred.engine.save;
+
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.serialization.ComponentCodecRegistry;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of the world taken at a tick boundary: every entity's encoded components (see
+ * {@link ComponentCodecRegistry#writeEntity}) plus named sections of game state that does not live in
+ * components, each already encoded by its owner.
+ * <p>
+ * Capturing against the previous snapshot shares the byte arrays of everything that did not change,
+ * so a snapshot costs one encoding pass on the game thread and memory only for what changed; the
+ * copy can then be compressed and written on another thread while the game moves on.
+ */
+public final class WorldSnapshot {
+
+    private static final int INITIAL_SCRATCH_BYTES = 4096;
+
+    private final long tick;
+    private final Map<Integer, byte[]> entities;
+    private final Map<String, byte[]> sections;
+
+    WorldSnapshot(long tick, Map<Integer, byte[]> entities, Map<String, byte[]> sections) {
+        this.tick = tick;
+        this.entities = Collections.unmodifiableMap(entities);
+        this.sections = Collections.unmodifiableMap(sections);
+    }
+
+    /**
+     * Encodes the world. Call between ticks, on the thread that runs them.
+     * @param tick The tick the world has completed.
+     * @param sections Encoded game state by name; the arrays must not be modified afterwards.
+     * @param previous The last snapshot, whose unchanged arrays are reused; null for none.
+     */
+    public static WorldSnapshot capture(long tick, EntityManager entityManager, ComponentCodecRegistry registry,
+                                        Map<String, byte[]> sections, WorldSnapshot previous) {
+        Map<Integer, byte[]> entities = new LinkedHashMap<>();
+        ByteBuffer scratch = ByteBuffer.allocate(INITIAL_SCRATCH_BYTES);
+        for (int entityId : entityManager.getEntitiesWith()) {
+            while (true) {
+                scratch.clear();
+                try {
+                    registry.writeEntity(entityManager, entityId, scratch);
+                    break;
+                } catch (BufferOverflowException e) {
+                    scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+                }
+            }
+            byte[] bytes = Arrays.copyOf(scratch.array(), scratch.position());
+            entities.put(entityId, share(bytes, previous == null ? null : previous.entities.get(entityId)));
+        }
+        Map<String, byte[]> sectionCopies = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> section : sections.entrySet()) {
+            byte[] old = previous == null ? null : previous.sections.get(section.getKey());
+            sectionCopies.put(section.getKey(), share(section.getValue(), old));
+        }
+        return new WorldSnapshot(tick, entities, sectionCopies);
+    }
+
+    private static byte[] share(byte[] bytes, byte[] previous) {
+        return previous != null && Arrays.equals(bytes, previous) ? previous : bytes;
+    }
+
+    /** What changed between {@code base} and this snapshot, for an incremental save. */
+    public WorldDelta changesSince(WorldSnapshot base) {
+        Map<Integer, byte[]> changed = new LinkedHashMap<>();
+        for (Map.Entry<Integer, byte[]> entity : entities.entrySet()) {
+            // Shared arrays compare by reference, so unchanged entities cost nothing here
+            if (!Arrays.equals(entity.getValue(), base.entities.get(entity.getKey()))) {
+                changed.put(entity.getKey(), entity.getValue());
+            }
+        }
+        List<Integer> removed = new ArrayList<>();
+        for (int entityId : base.entities.keySet()) {
+            if (!entities.containsKey(entityId)) removed.add(entityId);
+        }
+        Map<String, byte[]> changedSections = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> section : sections.entrySet()) {
+            if (!Arrays.equals(section.getValue(), base.sections.get(section.getKey()))) {
+                changedSections.put(section.getKey(), section.getValue());
+            }
+        }
+        return new WorldDelta(tick, changed, removed, changedSections);
+    }
+
+    /** This snapshot with a delta applied; loading replays the journal this way. */
+    public WorldSnapshot apply(WorldDelta delta) {
+        Map<Integer, byte[]> patched = new LinkedHashMap<>(entities);
+        for (int entityId : delta.removedEntities()) {
+            patched.remove(entityId);
+        }
+        boolean added = false;
+        for (Map.Entry<Integer, byte[]> entity : delta.changedEntities().entrySet()) {
+            added |= patched.put(entity.getKey(), entity.getValue()) == null;
+        }
+        if (added) {
+            // Keep id order for entities created since the base
+            Map<Integer, byte[]> sorted = new LinkedHashMap<>();
+            for (int entityId : patched.keySet().stream().sorted().toList()) {
+                sorted.put(entityId, patched.get(entityId));
+            }
+            patched = sorted;
+        }
+        Map<String, byte[]> patchedSections = new LinkedHashMap<>(sections);
+        patchedSections.putAll(delta.changedSections());
+        return new WorldSnapshot(delta.tick(), patched, patchedSections);
+    }
+
+    /**
+     * Loads the snapshot into a world built from the same level. Entities the world has but the
+     * snapshot does not were destroyed before the save and are destroyed again; entities in both get
+     * their encodable components replaced, leaving sprites and other runtime-only components alone.
+     * Entities only in the snapshot were spawned during play (particles, effects) and are not recreated.
+     * @return The number of entities restored.
+     */
+    public int restoreInto(EntityManager entityManager, ComponentCodecRegistry registry) {
+        for (int entityId : List.copyOf(entityManager.getEntitiesWith())) {
+            if (!entities.containsKey(entityId)) entityManager.destroyEntity(entityId);
+        }
+        int restored = 0;
+        for (Map.Entry<Integer, byte[]> entity : entities.entrySet()) {
+            int entityId = entity.getKey();
+            if (!entityManager.isEntityActive(entityId)) continue;
+            registry.clearEntity(entityManager, entityId);
+            registry.readEntity(ByteBuffer.wrap(entity.getValue()), entityManager, entityId);
+            restored++;
+        }
+        return restored;
+    }
+
+    public long getTick() { return tick; }
+
+    /** Encoded components by entity id, in id order. */
+    public Map<Integer, byte[]> getEntities() { return entities; }
+
+    /** Encoded game state by name; null if the snapshot has no such section. */
+    public byte[] getSection(String name) { return sections.get(name); }
+
+    public Map<String, byte[]> getSections() { return sections; }
+}
@@ -0,0 +1,57 @@
+package com.kindred.engine.serialization;
+
+import com.kindred.engine.entity.core.Component;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+/**
+ * Writes and reads one component type, field by field, with the primitives in {@link WireFormat}.
+ * Implementations are hand-written (no reflection) and registered in a {@link ComponentCodecRegistry}.
+ * <p>
+ * The schema version is stored with every encoded component. When a component's fields change,
+ * bump {@link #version()} and keep {@link #read} able to decode the older versions, so saves and
+ * replays recorded before the change still load.
+ *
+ * @param <T> The component type.
+ */
+public interface ComponentCodec<T extends Component> {
+
+    /** Current schema version, 1 or higher. */
+    int version();
+
+    void write(T component, ByteBuffer out);
+
+    /**
+     * Decodes a component written by {@link #write} of the given schema version.
+     * @throws IllegalArgumentException If the version is unknown or the data is malformed.
+     */
+    T read(ByteBuffer in, int version);
+
+    /** Encodes a component's fields. */
+    @FunctionalInterface
+    interface Writer<T> {
+        void write(T component, ByteBuffer out);
+    }
+
+    /** Decodes a component of the given schema version. */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(ByteBuffer in, int version);
+    }
+
+    /** Builds a codec from a writer and a reader, for components simple enough to fit in two lambdas. */
+    static <T extends Component> ComponentCodec<T> of(int version, Writer<T> writer, Reader<T> reader) {
+        if (version < 1) throw new IllegalArgumentException("Schema versions start at 1.");
+        return new ComponentCodec<>() {
+            @Override public int version() { return version; }
+            @Override public void write(T component, ByteBuffer out) { writer.write(component, out); }
+            @Override public T read(ByteBuffer in, int v) { return reader.read(in, v); }
+        };
+    }
+
+    /** Codec for a marker component without fields: nothing but its type id is stored. */
+    static <T extends Component> ComponentCodec<T> marker(Supplier<T> factory) {
+        return of(1, (component, out) -> {}, (in, version) -> factory.get());
+    }
+}
@@ -0,0 +1,178 @@
+package com.kindred.engine.serialization;
+
+import com.kindred.engine.entity.core.Component;
+import com.kindred.engine.entity.core.EntityManager;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The component types that can be serialized, each under a stable numeric type id. One registry
+ * serves every consumer of binary entity state: network messages, save games, replays and snapshots.
+ * <p>
+ * An encoded component is {@code varint typeId, varint schemaVersion, varint length, payload}; an
+ * encoded entity is its registered components followed by type id 0. The length lets readers skip
+ * component types they do not know, so removing a component type does not break old saves.
+ * <p>
+ * Type ids are part of the format: never reuse the id of a removed type. Register everything
+ * up front; after that a registry can be shared between threads.
+ */
+public class ComponentCodecRegistry {
+
+    private record Entry<T extends Component>(int typeId, Class<T> type, ComponentCodec<T> codec) {
+        void write(Component component, ByteBuffer out) {
+            codec.write(type.cast(component), out);
+        }
+    }
+
+    private final List<Entry<?>> entries = new ArrayList<>();
+    private final Map<Class<? extends Component>, Entry<?>> byType = new HashMap<>();
+    private Entry<?>[] byId = new Entry<?>[32];
+
+    /** A registry with every engine component that holds plain data; see {@link EngineComponentCodecs}. */
+    public static ComponentCodecRegistry withEngineComponents() {
+        ComponentCodecRegistry registry = new ComponentCodecRegistry();
+        EngineComponentCodecs.registerAll(registry);
+        return registry;
+    }
+
+    /**
+     * Registers a codec under a type id.
+     * @throws IllegalArgumentException If the id is not positive, or the id or type is already registered.
+     */
+    public <T extends Component> ComponentCodecRegistry register(int typeId, Class<T> type, ComponentCodec<T> codec) {
+        if (typeId <= 0) throw new IllegalArgumentException("Type ids must be positive, 0 ends an entity.");
+        if (type == null || codec == null) throw new IllegalArgumentException("Type and codec cannot be null.");
+        if (byType.containsKey(type)) throw new IllegalArgumentException(type.getSimpleName() + " is already registered.");
+        if (typeId < byId.length && byId[typeId] != null) {
+            throw new IllegalArgumentException("Type id " + typeId + " is already used by " + byId[typeId].type().getSimpleName() + ".");
+        }
+        if (typeId >= byId.length) {
+            byId = Arrays.copyOf(byId, Math.max(typeId + 1, byId.length * 2));
+        }
+        Entry<T> entry = new Entry<>(typeId, type, codec);
+        entries.add(entry);
+        byType.put(type, entry);
+        byId[typeId] = entry;
+        return this;
+    }
+
+    public boolean isRegistered(Class<? extends Component> type) {
+        return byType.containsKey(type);
+    }
+
+    /**
+     * Writes one component.
+     * @throws IllegalArgumentException If its type is not registered.
+     * @throws BufferOverflowException If the buffer is too small.
+     */
+    public void writeComponent(Component component, ByteBuffer out) {
+        Entry<?> entry = byType.get(component.getClass());
+        if (entry == null) throw new IllegalArgumentException(component.getClass().getSimpleName() + " has no codec.");
+        write(entry, component, out);
+    }
+
+    private void write(Entry<?> entry, Component component, ByteBuffer out) {
+        WireFormat.putVarInt(out, entry.typeId());
+        WireFormat.putVarInt(out, entry.codec().version());
+        // Reserve one length byte, the common case, and move the payload if the length needs more
+        int lengthAt = out.position();
+        out.put((byte) 0);
+        entry.write(component, out);
+        int length = out.position() - lengthAt - 1;
+        int extra = WireFormat.varIntSize(length) - 1;
+        if (extra > 0) {
+            if (out.remaining() < extra) throw new BufferOverflowException();
+            for (int i = length - 1; i >= 0; i--) {
+                out.put(lengthAt + 1 + extra + i, out.get(lengthAt + 1 + i));
+            }
+        }
+        int end = out.position() + extra;
+        out.position(lengthAt);
+        WireFormat.putVarInt(out, length);
+        out.position(end);
+    }
+
+    /**
+     * Reads one component.
+     * @return The component, or null if its type is not registered (its bytes are skipped).
+     * @throws IllegalArgumentException If the data is malformed or newer than its codec.
+     */
+    public Component readComponent(ByteBuffer in) {
+        return readComponent(in, WireFormat.getVarInt(in));
+    }
+
+    private Component readComponent(ByteBuffer in, int typeId) {
+        int version = WireFormat.getVarInt(in);
+        int length = WireFormat.getVarInt(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Component length " + length + " exceeds the input.");
+        }
+        int end = in.position() + length;
+        Entry<?> entry = typeId > 0 && typeId < byId.length ? byId[typeId] : null;
+        if (entry == null) {
+            in.position(end);
+            return null;
+        }
+        if (version < 1 || version > entry.codec().version()) {
+            throw new IllegalArgumentException(entry.type().getSimpleName() + " schema version " + version
+                    + " is not supported (current " + entry.codec().version() + ").");
+        }
+        Component component = entry.codec().read(in, version);
+        if (in.position() != end) {
+            throw new IllegalArgumentException(entry.type().getSimpleName() + " read " + (in.position() - end + length)
+                    + " of " + length + " bytes.");
+        }
+        return component;
+    }
+
+    /**
+     * Writes every registered component of an entity, in registration order, and the end marker.
+     * Components without a codec (sprites, per-frame events) are left out.
+     * @return The number of components written.
+     */
+    public int writeEntity(EntityManager entityManager, int entityId, ByteBuffer out) {
+        int written = 0;
+        for (Entry<?> entry : entries) {
+            Component component = entityManager.getComponent(entityId, entry.type());
+            if (component != null) {
+                write(entry, component, out);
+                written++;
+            }
+        }
+        WireFormat.putVarInt(out, 0);
+        return written;
+    }
+
+    /**
+     * Removes every registered component from an entity, leaving those without a codec, so a
+     * following {@link #readEntity} replaces the entity's data exactly.
+     */
+    public void clearEntity(EntityManager entityManager, int entityId) {
+        for (Entry<?> entry : entries) {
+            entityManager.removeComponent(entityId, entry.type());
+        }
+    }
+
+    /**
+     * Reads an entity written by {@link #writeEntity} and adds its components to an existing entity,
+     * replacing components of the same type.
+     * @return The number of components added; unknown types are skipped.
+     */
+    public int readEntity(ByteBuffer in, EntityManager entityManager, int entityId) {
+        int added = 0;
+        for (int typeId = WireFormat.getVarInt(in); typeId != 0; typeId = WireFormat.getVarInt(in)) {
+            Component component = readComponent(in, typeId);
+            if (component != null) {
+                entityManager.addComponent(entityId, component);
+                added++;
+            }
+        }
+        return added;
+    }
+}
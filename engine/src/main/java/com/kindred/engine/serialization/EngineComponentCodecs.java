@@ -0,0 +1,162 @@
+package com.kindred.engine.serialization;
+
+import com.kindred.engine.entity.components.*;
+
+import java.nio.ByteBuffer;
+
+import static com.kindred.engine.serialization.WireFormat.*;
+
+/**
+ * Codecs and type ids for the engine's data components. Components that hold sprites or only live for
+ * a frame (animation, attack effects, damage and interaction events) are not encoded: sprites are
+ * recreated by the EntityFactory and events are consumed within the tick that produced them.
+ * <p>
+ * The type ids below are part of every saved file; append new ones, never renumber.
+ */
+public final class EngineComponentCodecs {
+
+    public static final int POSITION = 1;
+    public static final int VELOCITY = 2;
+    public static final int HEALTH = 3;
+    public static final int DEAD = 4;
+    public static final int COLLIDER = 5;
+    public static final int ATTACK = 6;
+    public static final int STATS = 7;
+    public static final int EXPERIENCE = 8;
+    public static final int NAME = 9;
+    public static final int XP_VALUE = 10;
+    public static final int INTERACTABLE = 11;
+    public static final int LIFETIME = 12;
+    public static final int WANDER_AI = 13;
+    public static final int PLAYER = 14;
+    public static final int NPC = 15;
+    public static final int ENEMY = 16;
+    public static final int DORMANT = 17;
+
+    /** Health, damage, ranges and stats: hundredths are below anything the game displays or compares. */
+    static final float VALUE_STEP = 0.01f;
+    /** Timers in seconds: a millisecond, well under one 60 Hz tick. */
+    static final float TIME_STEP = 0.001f;
+
+    private EngineComponentCodecs() {}
+
+    public static void registerAll(ComponentCodecRegistry registry) {
+        registry.register(POSITION, PositionComponent.class, ComponentCodec.of(1,
+                (c, out) -> { putSignedVarInt(out, c.x); putSignedVarInt(out, c.y); },
+                (in, v) -> new PositionComponent(getSignedVarInt(in), getSignedVarInt(in))));
+        registry.register(VELOCITY, VelocityComponent.class, ComponentCodec.of(1,
+                (c, out) -> { putSignedVarInt(out, c.vx); putSignedVarInt(out, c.vy); },
+                (in, v) -> new VelocityComponent(getSignedVarInt(in), getSignedVarInt(in))));
+        registry.register(HEALTH, HealthComponent.class, ComponentCodec.of(1,
+                (c, out) -> { putQuantized(out, c.currentHealth, VALUE_STEP); putQuantized(out, c.maxHealth, VALUE_STEP); },
+                (in, v) -> {
+                    float current = getQuantized(in, VALUE_STEP);
+                    return new HealthComponent(current, getQuantized(in, VALUE_STEP));
+                }));
+        registry.register(DEAD, DeadComponent.class, ComponentCodec.of(1,
+                (c, out) -> putVarInt(out, c.decayStage),
+                (in, v) -> new DeadComponent(getVarInt(in))));
+        registry.register(COLLIDER, ColliderComponent.class, ComponentCodec.of(1,
+                (c, out) -> {
+                    putVarInt(out, c.hitboxWidth);
+                    putVarInt(out, c.hitboxHeight);
+                    putSignedVarInt(out, c.offsetX);
+                    putSignedVarInt(out, c.offsetY);
+                },
+                (in, v) -> new ColliderComponent(getVarInt(in), getVarInt(in), getSignedVarInt(in), getSignedVarInt(in))));
+        registry.register(ATTACK, AttackComponent.class, ComponentCodec.of(1,
+                (c, out) -> {
+                    putQuantized(out, c.damage, VALUE_STEP);
+                    putQuantized(out, c.range, VALUE_STEP);
+                    putQuantized(out, c.attackCooldown, TIME_STEP);
+                    putQuantized(out, c.currentCooldown, TIME_STEP);
+                },
+                (in, v) -> {
+                    float damage = getQuantized(in, VALUE_STEP);
+                    float range = getQuantized(in, VALUE_STEP);
+                    AttackComponent c = new AttackComponent(damage, range, getQuantized(in, TIME_STEP));
+                    c.currentCooldown = getQuantized(in, TIME_STEP);
+                    return c;
+                }));
+        registry.register(STATS, StatsComponent.class, ComponentCodec.of(1,
+                (c, out) -> {
+                    putVarInt(out, c.strength);
+                    putVarInt(out, c.dexterity);
+                    putVarInt(out, c.intelligence);
+                    putVarInt(out, c.vitality);
+                    putQuantized(out, c.attackPower, VALUE_STEP);
+                    putQuantized(out, c.defensePower, VALUE_STEP);
+                    putQuantized(out, c.maxHealthBonus, VALUE_STEP);
+                    putQuantized(out, c.maxManaBonus, VALUE_STEP);
+                    putQuantized(out, c.attackSpeed, VALUE_STEP);
+                    putQuantized(out, c.movementSpeedModifier, VALUE_STEP);
+                },
+                (in, v) -> {
+                    StatsComponent c = new StatsComponent(getVarInt(in), getVarInt(in), getVarInt(in), getVarInt(in));
+                    c.attackPower = getQuantized(in, VALUE_STEP);
+                    c.defensePower = getQuantized(in, VALUE_STEP);
+                    c.maxHealthBonus = getQuantized(in, VALUE_STEP);
+                    c.maxManaBonus = getQuantized(in, VALUE_STEP);
+                    c.attackSpeed = getQuantized(in, VALUE_STEP);
+                    c.movementSpeedModifier = getQuantized(in, VALUE_STEP);
+                    return c;
+                }));
+        registry.register(EXPERIENCE, ExperienceComponent.class, ComponentCodec.of(1,
+                (c, out) -> { putVarInt(out, c.currentLevel); putVarLong(out, c.currentXP); putVarLong(out, c.xpToNextLevel); },
+                (in, v) -> new ExperienceComponent(getVarInt(in), getVarLong(in), getVarLong(in))));
+        registry.register(NAME, NameComponent.class, ComponentCodec.of(1,
+                (c, out) -> putString(out, c.name),
+                (in, v) -> new NameComponent(getString(in))));
+        registry.register(XP_VALUE, XPValueComponent.class, ComponentCodec.of(1,
+                (c, out) -> putVarInt(out, c.xpValue),
+                (in, v) -> new XPValueComponent(getVarInt(in))));
+        registry.register(INTERACTABLE, InteractableComponent.class, ComponentCodec.of(1,
+                (c, out) -> putQuantized(out, c.interactionRange, VALUE_STEP),
+                (in, v) -> new InteractableComponent(getQuantized(in, VALUE_STEP))));
+        registry.register(LIFETIME, LifetimeComponent.class, ComponentCodec.of(1,
+                (c, out) -> { putQuantized(out, c.initialLifetime, TIME_STEP); putQuantized(out, c.remainingLifetime, TIME_STEP); },
+                (in, v) -> {
+                    LifetimeComponent c = new LifetimeComponent(getQuantized(in, TIME_STEP));
+                    c.remainingLifetime = getQuantized(in, TIME_STEP);
+                    return c;
+                }));
+        registry.register(WANDER_AI, WanderAIComponent.class, ComponentCodec.of(1,
+                EngineComponentCodecs::writeWanderAI, EngineComponentCodecs::readWanderAI));
+        registry.register(PLAYER, PlayerComponent.class, ComponentCodec.marker(PlayerComponent::new));
+        registry.register(NPC, NPCComponent.class, ComponentCodec.marker(NPCComponent::new));
+        registry.register(ENEMY, EnemyComponent.class, ComponentCodec.marker(EnemyComponent::new));
+        registry.register(DORMANT, DormantComponent.class, ComponentCodec.marker(DormantComponent::new));
+    }
+
+    private static void writeWanderAI(WanderAIComponent c, ByteBuffer out) {
+        putSignedVarInt(out, c.startX);
+        putSignedVarInt(out, c.startY);
+        putQuantized(out, c.wanderRadius, VALUE_STEP);
+        putQuantized(out, c.minIdleTime, TIME_STEP);
+        putQuantized(out, c.maxIdleTime, TIME_STEP);
+        putQuantized(out, c.moveSpeed, VALUE_STEP);
+        putQuantized(out, c.aggroRadius, VALUE_STEP);
+        putVarInt(out, c.currentState.ordinal());
+        putQuantized(out, c.idleTimer, TIME_STEP);
+        putSignedVarInt(out, c.targetX);
+        putSignedVarInt(out, c.targetY);
+    }
+
+    private static WanderAIComponent readWanderAI(ByteBuffer in, int version) {
+        int startX = getSignedVarInt(in);
+        int startY = getSignedVarInt(in);
+        float wanderRadius = getQuantized(in, VALUE_STEP);
+        float minIdle = getQuantized(in, TIME_STEP);
+        float maxIdle = getQuantized(in, TIME_STEP);
+        float moveSpeed = getQuantized(in, VALUE_STEP);
+        WanderAIComponent c = new WanderAIComponent(startX, startY, wanderRadius, minIdle, maxIdle, moveSpeed, getQuantized(in, VALUE_STEP));
+        int state = getVarInt(in);
+        WanderAIComponent.AIState[] states = WanderAIComponent.AIState.values();
+        if (state >= states.length) throw new IllegalArgumentException("Unknown AI state " + state + ".");
+        c.currentState = states[state];
+        c.idleTimer = getQuantized(in, TIME_STEP);
+        c.targetX = getSignedVarInt(in);
+        c.targetY = getSignedVarInt(in);
+        return c;
+    }
+}
@@ -0,0 +1,114 @@
+package com.kindred.engine.serialization;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Primitive encodings shared by every {@link ComponentCodec}: variable-length integers (7 bits per byte,
+ * high bit set on all but the last), zig-zag signed integers so small negative numbers stay small, and
+ * floats quantized to a fixed step. Readers throw {@link java.nio.BufferUnderflowException} on truncated
+ * input and {@link IllegalArgumentException} on malformed input.
+ */
+public final class WireFormat {
+
+    private WireFormat() {}
+
+    /** Writes an int as an unsigned varint: 1 byte below 128, at most 5. Negative values take 5 bytes; use {@link #putSignedVarInt}. */
+    public static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Varint longer than 5 bytes.");
+    }
+
+    public static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Varlong longer than 10 bytes.");
+    }
+
+    /** Writes a signed int zig-zag encoded: 0, -1, 1, -2... become 0, 1, 2, 3... */
+    public static void putSignedVarInt(ByteBuffer out, int value) {
+        putVarInt(out, value << 1 ^ value >> 31);
+    }
+
+    public static int getSignedVarInt(ByteBuffer in) {
+        int raw = getVarInt(in);
+        return raw >>> 1 ^ -(raw & 1);
+    }
+
+    public static void putSignedVarLong(ByteBuffer out, long value) {
+        putVarLong(out, value << 1 ^ value >> 63);
+    }
+
+    public static long getSignedVarLong(ByteBuffer in) {
+        long raw = getVarLong(in);
+        return raw >>> 1 ^ -(raw & 1);
+    }
+
+    /**
+     * Writes a float rounded to a multiple of {@code step}, as a zig-zag varint count of steps.
+     * Health at a step of 0.01 takes 2 or 3 bytes instead of 4.
+     * @throws IllegalArgumentException If the value is not finite or too large for the step.
+     */
+    public static void putQuantized(ByteBuffer out, float value, float step) {
+        double steps = Math.rint((double) value / step);
+        if (!Float.isFinite(value) || Math.abs(steps) > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Cannot quantize " + value + " at a step of " + step + ".");
+        }
+        putSignedVarInt(out, (int) steps);
+    }
+
+    /** Reads a value written by {@link #putQuantized} with the same step. */
+    public static float getQuantized(ByteBuffer in, float step) {
+        return getSignedVarInt(in) * step;
+    }
+
+    /** Writes a string as a varint byte length and UTF-8. Null is written as length 0 and read back as "". */
+    public static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        putVarInt(out, bytes.length);
+        out.put(bytes);
+    }
+
+    public static String getString(ByteBuffer in) {
+        int length = getVarInt(in);
+        if (length < 0 || length > in.remaining()) throw new IllegalArgumentException("String length " + length + " exceeds the input.");
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Number of bytes {@link #putVarInt} uses for the value. */
+    public static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,65 @@
+package com.kindred.engine.simulation;
+
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.serialization.ComponentCodecRegistry;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Hashes the state of a world so peers can compare it cheaply: every entity in id order, each as
+ * the bytes its registered codecs write (64-bit FNV-1a). Peers that simulate identically get the same
+ * hash; the first tick at which the hashes differ is where they desynced.
+ * <p>
+ * Only components with a codec count, at the precision their codecs quantize to, so sprites and
+ * other presentation state can differ between peers without a false alarm. Not thread-safe.
+ */
+public class StateHasher {
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final ComponentCodecRegistry codecs;
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+
+    public StateHasher(ComponentCodecRegistry codecs) {
+        if (codecs == null) throw new IllegalArgumentException("ComponentCodecRegistry cannot be null.");
+        this.codecs = codecs;
+    }
+
+    /**
+     * @param entityManager Must iterate its entities in id order, as {@link EntityManager} does.
+     * @param tick Mixed in, so equal states at different ticks do not match.
+     */
+    public long hash(EntityManager entityManager, long tick) {
+        long hash = mixLong(FNV_OFFSET, tick);
+        for (int entityId : entityManager.getEntitiesWith()) {
+            hash = mixLong(hash, entityId);
+            encode(entityManager, entityId);
+            for (int i = 0; i < scratch.limit(); i++) {
+                hash = (hash ^ (scratch.get(i) & 0xFF)) * FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+
+    private void encode(EntityManager entityManager, int entityId) {
+        while (true) {
+            try {
+                scratch.clear();
+                codecs.writeEntity(entityManager, entityId, scratch);
+                scratch.flip();
+                return;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private static long mixLong(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,55 @@
+package com.kindred.engine.simulation;
+
+import java.util.Random;
+
+/**
+ * Random numbers for a deterministic simulation: a fixed set of streams, each reseeded at the start
+ * of every tick from the world seed, the tick number and the stream id. Two peers with the same seed
+ * draw the same numbers in the same tick no matter how many were drawn before, so a tick can be
+ * re-simulated on its own, and a system that draws one number more does not shift every other
+ * system's numbers.
+ * <p>
+ * Hand each system its own stream with {@link #stream(int)} once; the instances stay the same and
+ * are only reseeded by {@link #beginTick(long)}.
+ */
+public class TickRandom {
+
+    private final long seed;
+    private final Random[] streams;
+
+    /**
+     * @param seed Shared by every peer simulating the same world.
+     * @param streamCount Number of independent streams, ids 0 to {@code streamCount - 1}.
+     */
+    public TickRandom(long seed, int streamCount) {
+        if (streamCount <= 0) throw new IllegalArgumentException("Stream count must be positive.");
+        this.seed = seed;
+        this.streams = new Random[streamCount];
+        for (int i = 0; i < streamCount; i++) {
+            streams[i] = new Random(0);
+        }
+        beginTick(0);
+    }
+
+    /** Reseeds every stream for the given tick. */
+    public void beginTick(long tick) {
+        for (int i = 0; i < streams.length; i++) {
+            streams[i].setSeed(mix(seed ^ mix(tick * 0x9E3779B97F4A7C15L + i)));
+        }
+    }
+
+    /** The stream with the given id. Always the same instance. */
+    public Random stream(int id) {
+        if (id < 0 || id >= streams.length) throw new IllegalArgumentException("No random stream " + id + ".");
+        return streams[id];
+    }
+
+    public long getSeed() { return seed; }
+
+    /** SplitMix64 finalizer: neighbouring ticks and streams get unrelated seeds. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,6 +1,7 @@
 package com.kindred.engine.ui;
 
 import com.kindred.engine.input.InputState;
+import com.kindred.engine.render.Screen;
 import lombok.extern.slf4j.Slf4j;
 
 import java.awt.*;
@@ -60,6 +61,20 @@ public class UIManager {
         }
     }
 
+    /**
+     * Reports the bounds of every active panel to the screen as overlay, so the game pixels
+     * underneath are uploaded again before the UI is drawn over them next frame.
+     * @param screen The Screen whose pixels the UI is drawn on top of.
+     */
+    public void markOverlay(Screen screen) {
+        for (UIPanel panel : panels) {
+            if (panel.active && panel.size != null) {
+                Vector2i panelPos = panel.getAbsolutePosition();
+                screen.markOverlay(panelPos.x, panelPos.y, panel.size.x, panel.size.y);
+            }
+        }
+    }
+
     // --- Optional Helper Methods ---
 
     public void showPanel(UIPanel panelToShow) {
@@ -12,7 +12,8 @@ import java.util.Locale;
 
 /**
  * A specific UIPanel designed to display the player's current stats
- * like Health, Level, and Experience.
+ * like Health, Level, and Experience. Labels are only rebuilt when the components' change ticks
+ * show they changed, so an idle frame formats no strings.
  */
 @Slf4j
 public class PlayerStatsPanel extends UIPanel {
@@ -28,6 +29,13 @@ public class PlayerStatsPanel extends UIPanel {
     private UIProgressBar xpBar;
     // Add more labels for other stats (Strength, etc.) as needed
 
+    // What the labels show, to skip rebuilding them while it has not changed
+    private boolean refreshAll = true; // Rebuild everything on the next update, e.g. for a new player
+    private boolean showingNoPlayer;
+    private HealthComponent shownHealth;
+    private ExperienceComponent shownExperience;
+    private long shownChangeTick;
+
     /**
      * Creates the Player Stats Panel.
      * @param position Position relative to its parent (likely the sidebar).
@@ -125,6 +133,7 @@ public class PlayerStatsPanel extends UIPanel {
         if (this.playerEntityId != newPlayerId) {
             log.info("PlayerStatsPanel updating target entity ID from {} to {}", this.playerEntityId, newPlayerId);
             this.playerEntityId = newPlayerId;
+            refreshAll = true;
             // Immediately update display when player changes
             updateLabelsAndBars();
         }
@@ -147,28 +156,40 @@ public class PlayerStatsPanel extends UIPanel {
 
     /**
      * Updates the text/progress of the labels/bars by querying the player's current components.
-     * Separated from the main update loop logic.
+     * Separated from the main update loop logic. Only what changed since the last update is rebuilt.
      */
     private void updateLabelsAndBars() {
         if (!active) return;
 
         if (playerEntityId == -1  || !entityManager.isEntityActive(playerEntityId)) {
+            if (showingNoPlayer && !refreshAll) return;
             // If panel inactive or player doesn't exist, maybe clear labels or show defaults
             healthLabel.setText("HP: N/A");
             healthBar.setProgress(0.0);
             levelLabel.setText("Level: N/A");
             xpLabel.setText("XP: N/A");
             xpBar.setProgress(0.0);
+            showingNoPlayer = true;
         } else {
             // --- Get Player Components ---
             HealthComponent health = entityManager.getComponent(playerEntityId, HealthComponent.class);
             ExperienceComponent experience = entityManager.getComponent(playerEntityId, ExperienceComponent.class);
             // StatsComponent stats = entityManager.getComponent(playerEntityId, StatsComponent.class); // Get stats if needed
 
-            // --- Update Labels ---
-            updateHealth(health);
-            updateXP(experience);
+            // --- Update Labels, where changed ---
+            boolean all = refreshAll || showingNoPlayer;
+            if (all || health != shownHealth || (health != null && health.changedSince(shownChangeTick))) {
+                updateHealth(health);
+            }
+            if (all || experience != shownExperience || (experience != null && experience.changedSince(shownChangeTick))) {
+                updateXP(experience);
+            }
+            shownHealth = health;
+            shownExperience = experience;
+            showingNoPlayer = false;
         }
+        shownChangeTick = entityManager.getChangeTick();
+        refreshAll = false;
     }
 
     private void updateXP(ExperienceComponent experience) {
@@ -0,0 +1,88 @@
+package com.kindred.engine.diagnostics;
+
+import com.kindred.engine.entity.core.System;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SystemProfilerTest {
+
+    /** Makes a kilobyte of garbage every update. */
+    private static final class LitteringSystem implements System {
+        long[] last;
+        int updates;
+
+        @Override
+        public void update(float deltaTime) {
+            last = new long[128];
+            updates++;
+        }
+    }
+
+    private static final class TidySystem implements System {
+        int updates;
+
+        @Override
+        public void update(float deltaTime) {
+            updates++;
+        }
+    }
+
+    @Test
+    void measuresEverySystemInTheOrderFirstSeen() {
+        SystemProfiler profiler = new SystemProfiler(true);
+        TidySystem tidy = new TidySystem();
+        LitteringSystem littering = new LitteringSystem();
+        for (int i = 0; i < 10; i++) {
+            profiler.update(tidy, 0.1f);
+            profiler.update(littering, 0.1f);
+        }
+
+        List<SystemProfiler.Sample> samples = profiler.samples();
+        assertEquals(List.of("TidySystem", "LitteringSystem"), samples.stream().map(SystemProfiler.Sample::name).toList());
+        assertEquals(10, samples.get(0).updates());
+        assertEquals(10, tidy.updates);
+        assertEquals(10, littering.updates);
+        if (AllocationCounter.isSupported()) {
+            assertEquals(0, samples.get(0).allocatedBytes());
+            assertTrue(samples.get(1).bytesPerUpdate() >= 128 * Long.BYTES, "counted " + samples.get(1).bytesPerUpdate());
+        }
+        assertTrue(samples.get(1).maxNanos() <= samples.get(1).totalNanos());
+        assertTrue(profiler.format().contains("LitteringSystem"));
+    }
+
+    @Test
+    void sectionsWithOneNameAddUpAndDoNotNest() {
+        SystemProfiler profiler = new SystemProfiler(true);
+        for (int i = 0; i < 3; i++) {
+            profiler.begin("hooks");
+            profiler.end();
+        }
+        assertEquals(3, profiler.samples().get(0).updates());
+
+        profiler.begin("hooks");
+        assertThrows(IllegalStateException.class, () -> profiler.begin("other"));
+        profiler.end();
+        assertThrows(IllegalStateException.class, profiler::end);
+    }
+
+    @Test
+    void resetStartsANewWindowAndDisabledOnlyCallsThrough() {
+        SystemProfiler profiler = new SystemProfiler(true);
+        TidySystem tidy = new TidySystem();
+        profiler.update(tidy, 0.1f);
+        profiler.reset();
+        assertEquals(0, profiler.samples().get(0).updates());
+
+        SystemProfiler disabled = new SystemProfiler(false);
+        disabled.update(tidy, 0.1f);
+        disabled.begin("hooks");
+        disabled.end();
+        assertEquals(2, tidy.updates);
+        assertTrue(disabled.samples().isEmpty());
+    }
+}
@@ -0,0 +1,68 @@
+package com.kindred.engine.entity.core;
+
+import com.kindred.engine.entity.components.ExperienceComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeTrackingTest {
+
+    private final EntityManager entityManager = new EntityManager();
+
+    @Test
+    void onlyRecordedChangesPassTheChangedSinceFilter() {
+        EntityQuery query = new EntityQuery(entityManager, PositionComponent.class, HealthComponent.class, ExperienceComponent.class);
+        int[] entities = new int[4];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = entityManager.createEntity();
+            entityManager.addComponent(entities[i], new PositionComponent(i, i));
+            entityManager.addComponent(entities[i], new HealthComponent(10f));
+            entityManager.addComponent(entities[i], new ExperienceComponent());
+        }
+        long seen = entityManager.getChangeTick();
+        assertEquals(List.of(), query.changedSince(seen));
+
+        entityManager.editComponent(entities[3], HealthComponent.class).takeDamage(2f);
+        ExperienceComponent experience = entityManager.getComponent(entities[1], ExperienceComponent.class);
+        experience.currentXP += 5;
+        entityManager.markChanged(experience);
+        entityManager.getComponent(entities[2], PositionComponent.class).x++; // Untracked
+        entityManager.getComponent(entities[0], HealthComponent.class).takeDamage(1f); // Unrecorded
+
+        assertEquals(List.of(entities[1], entities[3]), query.changedSince(seen));
+        assertTrue(experience.changedSince(seen));
+        assertFalse(experience.changedSince(entityManager.getChangeTick()));
+        assertEquals(4, query.run().size()); // The filtered list is the reused one, refilled
+    }
+
+    @Test
+    void restoredComponentsCountAsChanged() {
+        int player = entityManager.createEntity();
+        HealthComponent health = new HealthComponent(20f);
+        entityManager.addComponent(player, health);
+        WorldState saved = WorldState.capture(1, entityManager, null);
+        entityManager.editComponent(player, HealthComponent.class).takeDamage(5f);
+        WorldState now = WorldState.capture(2, entityManager, saved);
+        long seen = entityManager.getChangeTick();
+
+        saved.restoreInto(entityManager, now);
+
+        assertEquals(20f, health.currentHealth);
+        assertTrue(health.changedSince(seen));
+        assertTrue(WorldState.capture(3, entityManager, now).diff(saved).isEmpty()); // The stamp is not state
+    }
+
+    @Test
+    void queryingChangesNeedsATrackedType() {
+        EntityQuery query = new EntityQuery(entityManager, PositionComponent.class);
+
+        assertThrows(IllegalStateException.class, () -> query.changedSince(0));
+    }
+}
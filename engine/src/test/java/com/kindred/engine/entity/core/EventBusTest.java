@@ -0,0 +1,53 @@
+package com.kindred.engine.entity.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventBusTest {
+
+    private final EventBus bus = new EventBus();
+
+    @Test
+    void readerSeesEventsFromBeforeAndAfterItOnceEach() {
+        EventChannel<String> channel = bus.channel(String.class);
+        EventReader<String> early = channel.reader(); // Runs before the publisher, like a system earlier in the tick
+        EventReader<String> late = channel.reader();
+
+        assertNull(early.poll());
+        channel.publish("a");
+        channel.publish("b");
+        assertEquals("a", late.poll());
+        assertEquals("b", late.poll());
+        assertNull(late.poll());
+        bus.endTick();
+
+        channel.publish("c");
+        assertEquals("a", early.poll()); // Published after it ran last tick, still there
+        assertEquals("b", early.poll());
+        assertEquals("c", early.poll());
+        assertNull(early.poll());
+        assertEquals("c", late.poll());
+        assertSame(channel, bus.channel(String.class));
+    }
+
+    @Test
+    void eventsOlderThanTheLastTickAreDropped() {
+        EventChannel<Integer> channel = bus.channel(Integer.class);
+        EventReader<Integer> idle = channel.reader();
+        for (int tick = 0; tick < 3; tick++) {
+            for (int i = 0; i < 40; i++) {
+                channel.publish(tick * 100 + i); // Grows past the initial buffers
+            }
+            bus.endTick();
+        }
+
+        assertEquals(Integer.valueOf(200), idle.poll()); // Ticks 0 and 1 are gone, tick 2 is kept
+        assertEquals(0, channel.size());
+        assertEquals(Integer.valueOf(200), channel.reader().poll());
+        assertThrows(IllegalArgumentException.class, () -> channel.publish(null));
+    }
+}
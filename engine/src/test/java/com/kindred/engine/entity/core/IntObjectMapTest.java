@@ -0,0 +1,46 @@
+package com.kindred.engine.entity.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IntObjectMapTest {
+
+    @Test
+    void agreesWithHashMapThroughGrowthAndRemoval() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int op = 0; op < 50_000; op++) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, "v" + op);
+                expected.put(key, "v" + op);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 2_000; key++) {
+            assertEquals(expected.get(key), map.get(key), "key " + key);
+        }
+    }
+
+    @Test
+    void removingAnAbsentKeyChangesNothing() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(7, "seven");
+        map.remove(8);
+        assertEquals("seven", map.get(7));
+        assertEquals(1, map.size());
+        map.remove(7);
+        assertNull(map.get(7));
+        assertEquals(0, map.size());
+    }
+}
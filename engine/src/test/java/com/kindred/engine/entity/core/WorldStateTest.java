@@ -0,0 +1,175 @@
+package com.kindred.engine.entity.core;
+
+import com.kindred.engine.entity.components.AttackVisualEffectComponent;
+import com.kindred.engine.entity.components.AttackingStateComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.LifetimeComponent;
+import com.kindred.engine.entity.components.ParticipantComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.VelocityComponent;
+import com.kindred.engine.entity.systems.LifetimeSystem;
+import com.kindred.engine.entity.systems.MovementSystem;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldStateTest {
+
+    private final EntityManager entityManager = new EntityManager();
+
+    @Test
+    void restoreBringsBackFieldsComponentsEntitiesAndIds() {
+        int fighter = entityManager.createEntity();
+        PositionComponent position = new PositionComponent(10, 20);
+        entityManager.addComponent(fighter, position);
+        entityManager.addComponent(fighter, new HealthComponent(50f));
+        ParticipantComponent participants = new ParticipantComponent();
+        participants.recordDamage(7, 4f);
+        entityManager.addComponent(fighter, participants);
+        entityManager.addComponent(fighter, new AttackingStateComponent());
+        int doomed = entityManager.createEntity();
+        entityManager.addComponent(doomed, new PositionComponent(1, 1));
+        int bystander = entityManager.createEntity();
+        entityManager.addComponent(bystander, new PositionComponent(5, 5));
+        WorldState saved = WorldState.capture(1, entityManager, null);
+
+        position.x = 99;
+        entityManager.getComponent(fighter, HealthComponent.class).takeDamage(30f);
+        participants.recordDamage(8, 2f);
+        entityManager.getComponent(fighter, AttackingStateComponent.class).addHitTargetThisSwing(doomed);
+        entityManager.removeComponent(fighter, AttackingStateComponent.class);
+        entityManager.addComponent(fighter, new VelocityComponent(3, 0));
+        entityManager.destroyEntity(doomed);
+        int spawned = entityManager.createEntity();
+        WorldState now = WorldState.capture(2, entityManager, saved);
+
+        assertEquals(3, saved.restoreInto(entityManager, now)); // Fighter, doomed and spawned, not the bystander
+        assertSame(position, entityManager.getComponent(fighter, PositionComponent.class));
+        assertEquals(10, position.x);
+        assertEquals(50f, entityManager.getComponent(fighter, HealthComponent.class).currentHealth);
+        assertEquals(Set.of(7), participants.getParticipants());
+        assertTrue(entityManager.getComponent(fighter, AttackingStateComponent.class).hitTargetsThisSwing.isEmpty());
+        assertNull(entityManager.getComponent(fighter, VelocityComponent.class));
+        assertEquals(1, entityManager.getComponent(doomed, PositionComponent.class).x);
+        assertFalse(entityManager.isEntityActive(spawned));
+        assertEquals(List.of(fighter, doomed, bystander), List.copyOf(entityManager.getEntitiesWith()));
+        assertEquals(spawned, entityManager.createEntity()); // The id is handed out again
+    }
+
+    @Test
+    void diffNamesEveryChangedFieldAndSkipsTheRest() {
+        int mover = entityManager.createEntity();
+        PositionComponent position = new PositionComponent(1, 2);
+        entityManager.addComponent(mover, position);
+        int still = entityManager.createEntity();
+        entityManager.addComponent(still, new PositionComponent(3, 4));
+        WorldState before = WorldState.capture(1, entityManager, null);
+
+        position.x = 5;
+        entityManager.addComponent(mover, new LifetimeComponent(2f));
+        entityManager.destroyEntity(still);
+        WorldState after = WorldState.capture(2, entityManager, before);
+        WorldStateDiff diff = after.diff(before);
+
+        assertEquals(Set.of("entity 0 PositionComponent.x: 1 -> 5",
+                "entity 0 gained LifetimeComponent",
+                "entity 1 removed"), Set.copyOf(diff.changes()));
+        assertEquals(List.of(mover), diff.changedEntities());
+        assertEquals(List.of(still), diff.removedEntities());
+        assertTrue(WorldState.capture(3, entityManager, after).diff(after).isEmpty());
+    }
+
+    @Test
+    void rolledBackWorldReplaysToTheSameState() {
+        MovementSystem movement = new MovementSystem(entityManager);
+        LifetimeSystem lifetimes = new LifetimeSystem(entityManager);
+        for (int i = 0; i < 20; i++) {
+            int entity = entityManager.createEntity();
+            entityManager.addComponent(entity, new PositionComponent(i, 0));
+            entityManager.addComponent(entity, new VelocityComponent(1, i % 3));
+        }
+        WorldState atTen = null;
+        for (int tick = 0; tick < 20; tick++) {
+            if (tick == 10) atTen = WorldState.capture(tick, entityManager, null);
+            step(tick, movement, lifetimes);
+        }
+        WorldState first = WorldState.capture(20, entityManager, atTen);
+
+        atTen.restoreInto(entityManager, first);
+        for (int tick = 10; tick < 20; tick++) {
+            step(tick, movement, lifetimes);
+        }
+        WorldState second = WorldState.capture(20, entityManager, atTen);
+
+        assertEquals(List.of(), second.diff(first).changes());
+        assertEquals(first.getEntityCount(), second.getEntityCount());
+    }
+
+    @Test
+    void captureChangedReadsOnlyTheEntitiesWithARecordedChange() {
+        int[] entities = new int[4];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = entityManager.createEntity();
+            entityManager.addComponent(entities[i], new PositionComponent(i, 0));
+            entityManager.addComponent(entities[i], new HealthComponent(10f));
+        }
+        WorldState before = WorldState.capture(1, entityManager, null);
+
+        entityManager.editComponent(entities[0], PositionComponent.class).x = 10;
+        HealthComponent health = entityManager.getComponent(entities[1], HealthComponent.class);
+        health.takeDamage(4f);
+        entityManager.markChanged(health);
+        PositionComponent held = entityManager.getComponent(entities[2], PositionComponent.class);
+        held.x = 12;
+        entityManager.getComponent(entities[3], PositionComponent.class).x = 13; // Never recorded
+        entityManager.markChanged(entities[2]);
+        WorldState after = WorldState.captureChanged(2, entityManager, before);
+
+        assertEquals(List.of(entities[0], entities[1], entities[2]), after.diff(before).changedEntities());
+        assertEquals(List.of(entities[0], entities[1], entities[2], entities[3]),
+                WorldState.capture(2, entityManager, before).diff(before).changedEntities());
+        assertTrue(WorldState.captureChanged(3, entityManager, after).diff(after).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> WorldState.captureChanged(3, new EntityManager(), after));
+    }
+
+    @Test
+    void arraysAreCopiedSoChangesInsideThemRollBack() {
+        int slash = entityManager.createEntity();
+        BufferedImage[] frames = {new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), null};
+        AttackVisualEffectComponent effect = new AttackVisualEffectComponent(frames, Map.of(), 0.1f, 2, 0);
+        effect.frameHandles = new int[]{4, 5};
+        entityManager.addComponent(slash, effect);
+        WorldState saved = WorldState.capture(1, entityManager, null);
+
+        effect.frameHandles[1] = 9;
+        frames[1] = frames[0];
+        WorldState now = WorldState.capture(2, entityManager, saved);
+
+        assertTrue(now.diff(saved).changes().contains("entity 0 AttackVisualEffectComponent.frameHandles: [4, 5] -> [4, 9]"));
+        assertEquals(1, saved.restoreInto(entityManager, now));
+        assertArrayEquals(new int[]{4, 5}, effect.frameHandles);
+        assertSame(frames, effect.frames); // A final array is refilled in place
+        assertNull(frames[1]);
+    }
+
+    /** Moves everything and spawns a short-lived particle, which later expires. */
+    private void step(int tick, MovementSystem movement, LifetimeSystem lifetimes) {
+        int particle = entityManager.createEntity();
+        entityManager.addComponent(particle, new PositionComponent(tick, tick));
+        entityManager.addComponent(particle, new VelocityComponent(0, -1));
+        entityManager.addComponent(particle, new LifetimeComponent(0.05f));
+        movement.update(1f / 60);
+        lifetimes.update(1f / 60);
+    }
+}
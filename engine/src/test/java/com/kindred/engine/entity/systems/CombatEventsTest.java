@@ -0,0 +1,73 @@
+package com.kindred.engine.entity.systems;
+
+import com.kindred.engine.entity.components.AttackComponent;
+import com.kindred.engine.entity.components.ColliderComponent;
+import com.kindred.engine.entity.components.DeadComponent;
+import com.kindred.engine.entity.components.EnemyComponent;
+import com.kindred.engine.entity.components.ExperienceComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.ParticipantComponent;
+import com.kindred.engine.entity.components.PlayerComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.StatsComponent;
+import com.kindred.engine.entity.components.TookDamageComponent;
+import com.kindred.engine.entity.components.XPValueComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.events.AttackEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CombatEventsTest {
+
+    private final EntityManager entityManager = new EntityManager();
+
+    @Test
+    void attackFlowsThroughDamageDefeatAndLevelUpsInOneTick() {
+        CombatSystem combat = new CombatSystem(entityManager, new Random(1));
+        ExperienceSystem experience = new ExperienceSystem(entityManager);
+        StatCalculationSystem stats = new StatCalculationSystem(entityManager);
+        VisualEffectsSystem effects = new VisualEffectsSystem(entityManager);
+        int player = entityManager.createEntity();
+        entityManager.addComponent(player, new PositionComponent(100, 100));
+        entityManager.addComponent(player, new PlayerComponent());
+        entityManager.addComponent(player, new AttackComponent(5f, 40f, 1f));
+        entityManager.addComponent(player, new ExperienceComponent(1, 0, 100));
+        StatsComponent playerStats = new StatsComponent(10, 10, 10, 10);
+        entityManager.addComponent(player, playerStats);
+        entityManager.addComponent(player, new HealthComponent(20f, 100f));
+        int weak = enemy(110, 1f, 260); // Worth two levels: 100 XP, then 150
+        int tough = enemy(90, 100f, 10);
+
+        entityManager.getEvents().channel(AttackEvent.class).publish(new AttackEvent(player));
+        float deltaTime = 1f / 60;
+        combat.update(deltaTime);
+        experience.update(deltaTime);
+        stats.update(deltaTime);
+        effects.update(deltaTime);
+        entityManager.getEvents().endTick();
+
+        assertTrue(entityManager.hasComponent(weak, DeadComponent.class));
+        assertFalse(entityManager.hasComponent(weak, ParticipantComponent.class));
+        assertFalse(entityManager.hasComponent(weak, TookDamageComponent.class)); // No flash on the dead
+        assertTrue(entityManager.hasComponent(tough, TookDamageComponent.class));
+        assertEquals(3, entityManager.getComponent(player, ExperienceComponent.class).currentLevel);
+        assertEquals(12, playerStats.strength); // One increase per level gained
+        HealthComponent health = entityManager.getComponent(player, HealthComponent.class);
+        assertEquals(health.maxHealth, health.currentHealth);
+    }
+
+    private int enemy(int x, float health, int xpValue) {
+        int enemy = entityManager.createEntity();
+        entityManager.addComponent(enemy, new PositionComponent(x, 100));
+        entityManager.addComponent(enemy, new ColliderComponent(16, 16));
+        entityManager.addComponent(enemy, new EnemyComponent());
+        entityManager.addComponent(enemy, new HealthComponent(health, health));
+        entityManager.addComponent(enemy, new XPValueComponent(xpValue));
+        return enemy;
+    }
+}
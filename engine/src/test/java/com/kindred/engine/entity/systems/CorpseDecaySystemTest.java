@@ -0,0 +1,80 @@
+package com.kindred.engine.entity.systems;
+
+import com.kindred.engine.entity.components.DeadComponent;
+import com.kindred.engine.entity.components.EnemyComponent;
+import com.kindred.engine.entity.components.LifetimeComponent;
+import com.kindred.engine.entity.components.SpriteComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.render.SpriteHandle;
+import com.kindred.engine.render.TextureAtlas;
+import com.kindred.engine.resource.AssetLoader;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorpseDecaySystemTest {
+
+    @Test
+    void corpseDecaysAStageAtEachThirdOfItsLifetime() {
+        EntityManager entityManager = new EntityManager();
+        CorpseDecaySystem decay = new CorpseDecaySystem(entityManager);
+        int corpse = entityManager.createEntity();
+        DeadComponent dead = new DeadComponent();
+        LifetimeComponent lifetime = new LifetimeComponent(30f);
+        entityManager.addComponent(corpse, dead);
+        entityManager.addComponent(corpse, lifetime);
+        entityManager.addComponent(corpse, new SpriteComponent(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)));
+
+        decay.update(0f);
+        assertEquals(0, dead.decayStage);
+        assertEquals(20f, dead.nextStageLifetime, 1e-4f);
+
+        lifetime.remainingLifetime = 20.5f;
+        decay.update(0f);
+        assertEquals(0, dead.decayStage);
+
+        lifetime.remainingLifetime = 19f;
+        decay.update(0f);
+        assertEquals(1, dead.decayStage);
+
+        lifetime.remainingLifetime = 2f;
+        decay.update(0f);
+        assertEquals(2, dead.decayStage);
+        assertEquals(Float.NEGATIVE_INFINITY, dead.nextStageLifetime);
+    }
+
+    @Test
+    void stageSpritesArePinnedAndPackedOnce() {
+        EntityManager entityManager = new EntityManager();
+        TextureAtlas atlas = new TextureAtlas(TextureAtlas.DEFAULT_PAGE_SIZE);
+        CorpseDecaySystem decay = new CorpseDecaySystem(entityManager, atlas);
+        int packed = atlas.getSpriteCount();
+        BufferedImage firstCut = CorpseDecaySystem.getDecaySprite("ENEMY_DEIDARA", 0);
+
+        for (int i = 0; i < 10; i++) {
+            AssetLoader.clearCache(); // Drops everything that is not pinned
+            assertSame(firstCut, CorpseDecaySystem.getDecaySprite("ENEMY_DEIDARA", 0));
+            int corpse = entityManager.createEntity();
+            LifetimeComponent lifetime = new LifetimeComponent(30f);
+            SpriteComponent sprite = new SpriteComponent(CorpseDecaySystem.getDecaySprite("ENEMY_DEIDARA", 0));
+            entityManager.addComponent(corpse, new EnemyComponent());
+            entityManager.addComponent(corpse, new DeadComponent());
+            entityManager.addComponent(corpse, lifetime);
+            entityManager.addComponent(corpse, sprite);
+
+            decay.update(0f);
+            assertTrue(SpriteHandle.isValid(sprite.handle));
+
+            lifetime.remainingLifetime = 2f;
+            decay.update(0f);
+            assertEquals(atlas.handleOf("ENEMY_DEIDARA/decay/2"), sprite.handle);
+            entityManager.destroyEntity(corpse);
+        }
+
+        assertEquals(packed, atlas.getSpriteCount());
+    }
+}
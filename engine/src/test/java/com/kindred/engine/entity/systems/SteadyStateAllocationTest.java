@@ -0,0 +1,76 @@
+package com.kindred.engine.entity.systems;
+
+import com.kindred.engine.diagnostics.ZeroAllocationExtension;
+import com.kindred.engine.entity.components.DeadComponent;
+import com.kindred.engine.entity.components.LifetimeComponent;
+import com.kindred.engine.entity.components.ParticlePhysicsComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.SpriteComponent;
+import com.kindred.engine.entity.components.TookDamageComponent;
+import com.kindred.engine.entity.components.VelocityComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.awt.image.BufferedImage;
+
+/** Systems that must not make garbage once a world has settled. */
+class SteadyStateAllocationTest {
+
+    private static final float DELTA = 1f / 60;
+    /** Outlives every warm-up and measured run, so nothing expires mid-test. */
+    private static final float FOREVER = 1_000_000f;
+    /** Enough entities for ids past the Integer cache, which would box if anything did. */
+    private static final int ENTITIES = 300;
+
+    @RegisterExtension
+    final ZeroAllocationExtension allocations = new ZeroAllocationExtension();
+
+    private final EntityManager entityManager = new EntityManager();
+
+    SteadyStateAllocationTest() {
+        BufferedImage pixel = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < ENTITIES; i++) {
+            int entity = entityManager.createEntity();
+            entityManager.addComponent(entity, new PositionComponent(i, i));
+            entityManager.addComponent(entity, new VelocityComponent(0, 0));
+            switch (i % 3) {
+                case 0 -> {
+                    entityManager.addComponent(entity, new ParticlePhysicsComponent(0, 0, 360f, -0.55f, 0.4f, -0.5f));
+                    entityManager.addComponent(entity, new LifetimeComponent(FOREVER));
+                }
+                case 1 -> entityManager.addComponent(entity, new TookDamageComponent(FOREVER));
+                default -> {
+                    entityManager.addComponent(entity, new DeadComponent());
+                    entityManager.addComponent(entity, new LifetimeComponent(FOREVER));
+                    entityManager.addComponent(entity, new SpriteComponent(pixel));
+                }
+            }
+        }
+    }
+
+    @Test
+    void movementDoesNotAllocate() {
+        allocations.assertNoAllocation(new MovementSystem(entityManager), DELTA);
+    }
+
+    @Test
+    void particlePhysicsDoesNotAllocate() {
+        allocations.assertNoAllocation(new ParticlePhysicsSystem(entityManager), DELTA);
+    }
+
+    @Test
+    void lifetimesDoNotAllocateUntilOneExpires() {
+        allocations.assertNoAllocation(new LifetimeSystem(entityManager), DELTA);
+    }
+
+    @Test
+    void damageFlashesDoNotAllocateUntilOneEnds() {
+        allocations.assertNoAllocation(new VisualEffectsSystem(entityManager), DELTA);
+    }
+
+    @Test
+    void corpsesDoNotAllocateBetweenDecayStages() {
+        allocations.assertNoAllocation(new CorpseDecaySystem(entityManager), DELTA);
+    }
+}
@@ -0,0 +1,69 @@
+package com.kindred.engine.loop;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FixedStepLoopTest {
+
+    /** Counts updates and frames, and stops the loop after a given number of updates. */
+    private static final class Counter implements FixedStepLoop.Listener {
+        final long stopAfter;
+        long updates;
+        long frames;
+        float deltaTime;
+
+        Counter(long stopAfter) {
+            this.stopAfter = stopAfter;
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            this.deltaTime = deltaTime;
+            updates++;
+        }
+
+        @Override
+        public void frame() {
+            frames++;
+        }
+    }
+
+    @Test
+    void unlimitedRunsHalfAnHourOfTicksInFarLessTime() {
+        FixedStepLoop loop = new FixedStepLoop(60, 5);
+        loop.setTimeScale(FixedStepLoop.UNLIMITED);
+        Counter counter = new Counter(30 * 60 * 60);
+
+        long start = System.nanoTime();
+        loop.run(() -> counter.updates < counter.stopAfter, counter);
+        long realSeconds = (System.nanoTime() - start) / 1_000_000_000L;
+
+        assertEquals(counter.stopAfter, loop.getTick());
+        assertEquals(1f / 60, counter.deltaTime, 1e-6); // The same ticks as in real time
+        assertTrue(realSeconds < 60, "took " + realSeconds + " s");
+        assertTrue(counter.frames < counter.updates / 10, "frames are decimated, got " + counter.frames);
+    }
+
+    @Test
+    void timeScaleRunsThatManyUpdatesPerRealSecond() {
+        FixedStepLoop loop = new FixedStepLoop(60, 5);
+        loop.setTimeScale(20);
+        Counter counter = new Counter(0);
+
+        long end = System.nanoTime() + 500_000_000L;
+        loop.run(() -> System.nanoTime() < end, counter);
+
+        assertTrue(counter.updates > 60 * 20 / 2 / 2, "updates " + counter.updates); // Half a second at 20x, with slack
+        assertTrue(counter.updates <= 60 * 20 / 2 + 60 * 20 / 10, "updates " + counter.updates);
+    }
+
+    @Test
+    void timeScaleMustBePositive() {
+        FixedStepLoop loop = new FixedStepLoop(60, 5);
+        assertThrows(IllegalArgumentException.class, () -> loop.setTimeScale(0));
+        assertThrows(IllegalArgumentException.class, () -> loop.setTimeScale(Double.NaN));
+    }
+}
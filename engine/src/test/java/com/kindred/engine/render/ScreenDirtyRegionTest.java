@@ -0,0 +1,68 @@
+package com.kindred.engine.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScreenDirtyRegionTest {
+
+    @Test
+    void markingMergesAdjacentCellsIntoOneRectanglePerCellRow() {
+        DirtyRegion region = new DirtyRegion(64, 64, 16);
+
+        region.mark(4, 4, 28, 20);
+
+        assertEquals(4, region.getDirtyCellCount());
+        int[] rects = new int[1];
+        region.forEachRect((x, y, w, h) -> {
+            assertEquals(0, x);
+            assertEquals(32, w);
+            rects[0]++;
+        });
+        assertEquals(2, rects[0]);
+        assertTrue(region.intersects(20, 20, 1, 1));
+        assertFalse(region.intersects(40, 40, 8, 8));
+    }
+
+    @Test
+    void firstFrameAndCameraMovesRepaintEverything() {
+        Screen screen = new Screen(64, 64);
+
+        screen.beginFrame();
+        assertTrue(screen.needsRepaint(48, 48, 8, 8));
+        screen.copyDirtyTo(new int[64 * 64]);
+
+        screen.beginFrame();
+        assertFalse(screen.needsRepaint(48, 48, 8, 8));
+        screen.copyDirtyTo(new int[64 * 64]);
+
+        screen.setOffset(1, 0);
+        screen.beginFrame();
+        assertTrue(screen.needsRepaint(48, 48, 8, 8));
+    }
+
+    @Test
+    void spriteDrawnLastFrameIsRepaintedAndUploadedAfterItMoves() {
+        Screen screen = new Screen(64, 64);
+        BufferedImage sprite = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+        int[] target = new int[64 * 64];
+
+        screen.beginFrame();
+        screen.beginDynamicPass();
+        screen.drawSpriteWithOffset(0, 0, sprite);
+        screen.copyDirtyTo(target);
+
+        screen.beginFrame();
+        assertTrue(screen.needsRepaint(0, 0, 8, 8));
+        assertFalse(screen.needsRepaint(48, 0, 8, 8));
+        screen.beginDynamicPass();
+        screen.drawSpriteWithOffset(48, 0, sprite);
+        screen.copyDirtyTo(target);
+
+        assertEquals(2, screen.getUploadedCellCount());
+    }
+}
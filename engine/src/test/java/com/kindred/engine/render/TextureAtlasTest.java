@@ -0,0 +1,95 @@
+package com.kindred.engine.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextureAtlasTest {
+
+    @Test
+    void packedRectanglesStayInsideThePageAndNeverOverlap() {
+        MaxRectsPacker packer = new MaxRectsPacker(128, 128);
+        List<Rectangle> placed = new ArrayList<>();
+        int[][] sizes = {{32, 32}, {40, 30}, {16, 16}, {30, 40}, {32, 32}, {8, 50}, {50, 8}, {16, 16}};
+
+        for (int[] size : sizes) {
+            Rectangle rect = packer.insert(size[0], size[1]);
+            for (Rectangle other : placed) {
+                assertFalse(rect.intersects(other), rect + " overlaps " + other);
+            }
+            assertTrue(new Rectangle(0, 0, 128, 128).contains(rect));
+            placed.add(rect);
+        }
+    }
+
+    @Test
+    void sameKeySharesAHandleAndPixelsAreCopiedIntoThePage() {
+        TextureAtlas atlas = new TextureAtlas(64);
+        BufferedImage sprite = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+        sprite.setRGB(3, 2, 0xFF123456);
+
+        int handle = atlas.add("sprite", sprite);
+
+        assertEquals(handle, atlas.add("sprite", sprite));
+        assertEquals(handle, atlas.handleOf("sprite"));
+        assertEquals(1, atlas.getSpriteCount());
+        int[] page = atlas.getPage(SpriteHandle.page(handle));
+        assertEquals(0xFF123456, page[(atlas.getY(handle) + 2) * atlas.getPageSize() + atlas.getX(handle) + 3]);
+    }
+
+    @Test
+    void spriteCutAgainUnderTheSameKeyIsNotPackedAgain() {
+        TextureAtlas atlas = new TextureAtlas(32);
+        BufferedImage sheet = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+
+        int handle = atlas.add("sheet/0", sheet.getSubimage(0, 0, 32, 32));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(handle, atlas.add("sheet/0", sheet.getSubimage(0, 0, 32, 32)));
+        }
+
+        assertEquals(1, atlas.getSpriteCount());
+        assertEquals(1, atlas.getPageCount());
+        assertEquals(SpriteHandle.NONE, atlas.handleOf("sheet/1"));
+    }
+
+    @Test
+    void fullPageOpensANewOneAndOversizedSpritesAreNotPacked() {
+        TextureAtlas atlas = new TextureAtlas(32);
+
+        int first = atlas.add("first", new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB));
+        int second = atlas.add("second", new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB));
+
+        assertNotEquals(SpriteHandle.page(first), SpriteHandle.page(second));
+        assertEquals(2, atlas.getPageCount());
+        assertEquals(SpriteHandle.NONE, atlas.add("oversized", new BufferedImage(33, 8, BufferedImage.TYPE_INT_ARGB)));
+    }
+
+    @Test
+    void screenDrawsAtlasSpritesLikeTheirSourceImages() {
+        TextureAtlas atlas = new TextureAtlas(64);
+        atlas.add("filler", new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB)); // Push the next sprite away from (0, 0)
+        BufferedImage sprite = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        sprite.setRGB(0, 0, 0xFF00FF00);
+        sprite.setRGB(1, 1, 0xFFFF00FF); // Color key, skipped
+        Screen fromAtlas = new Screen(8, 8);
+        Screen fromImage = new Screen(8, 8);
+        fromAtlas.setOffset(-3, -3);
+        fromImage.setOffset(-3, -3);
+
+        fromAtlas.drawAtlasSprite(0, 0, atlas, atlas.add("sprite", sprite));
+        fromImage.drawSpriteWithOffset(0, 0, sprite);
+
+        for (int i = 0; i < fromImage.pixels.length; i++) {
+            assertEquals(fromImage.pixels[i], fromAtlas.pixels[i]);
+        }
+        assertEquals(0xFF00FF00, fromAtlas.pixels[3 * 8 + 3]);
+    }
+}
@@ -0,0 +1,92 @@
+package com.kindred.engine.replay;
+
+import com.kindred.engine.input.Keyboard;
+import org.junit.jupiter.api.Test;
+
+import java.awt.event.KeyEvent;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayTest {
+
+    private static final ReplayHeader HEADER = new ReplayHeader(60, 42, "/assets/level/test.png", 16);
+
+    @Test
+    void playbackReproducesEveryTickOfTheRecording() throws IOException {
+        InputFrame[] recorded = session();
+        byte[] file = record(recorded);
+
+        ReplayReader reader = new ReplayReader(ByteBuffer.wrap(file));
+        assertEquals(HEADER, reader.getHeader());
+        InputFrame frame = new InputFrame();
+        for (InputFrame expected : recorded) {
+            assertTrue(reader.next(frame), "Tick " + expected.tick);
+            assertEquals(expected.tick, frame.tick);
+            assertTrue(Arrays.equals(expected.keys, frame.keys), "Keys at tick " + expected.tick);
+        }
+        assertFalse(reader.next(frame), "The idle tail ends where the recording ended");
+        // 600 ticks but only a handful of changes: the header and a few bytes per change
+        assertTrue(file.length < 60, "Replay size " + file.length);
+    }
+
+    @Test
+    void framesDriveTheKeyboardLikeRealEvents() {
+        Keyboard keyboard = new Keyboard();
+        InputFrame frame = session()[100];
+
+        frame.applyTo(keyboard);
+        keyboard.update();
+
+        assertTrue(keyboard.right && keyboard.space);
+        assertFalse(keyboard.left);
+
+        InputFrame captured = new InputFrame();
+        captured.capture(100, keyboard);
+        assertTrue(Arrays.equals(frame.keys, captured.keys));
+    }
+
+    @Test
+    void truncatedRecordingPlaysUpToTheCut() throws IOException {
+        byte[] file = record(session());
+        ReplayReader reader = new ReplayReader(ByteBuffer.wrap(Arrays.copyOf(file, file.length - 3)));
+        InputFrame frame = new InputFrame();
+        int ticks = 0;
+        while (reader.next(frame)) ticks++;
+
+        assertTrue(ticks >= 300 && ticks < 600, "Played " + ticks);
+        assertThrows(IllegalArgumentException.class, () -> new ReplayReader(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5})));
+    }
+
+    /** Ten idle seconds with a few held keys in them. */
+    private static InputFrame[] session() {
+        InputFrame[] frames = new InputFrame[600];
+        for (int tick = 0; tick < frames.length; tick++) {
+            InputFrame frame = new InputFrame();
+            frame.tick = tick;
+            if (tick >= 100 && tick < 300) {
+                frame.keys[0] |= 1L << KeyEvent.VK_SPACE;
+                frame.keys[1] |= 1L << (KeyEvent.VK_D - 64);
+            }
+            if (tick >= 400 && tick < 420) frame.keys[1] |= 1L << (KeyEvent.VK_W - 64);
+            frames[tick] = frame;
+        }
+        return frames;
+    }
+
+    private static byte[] record(InputFrame[] frames) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReplayWriter writer = new ReplayWriter(out, HEADER)) {
+            for (InputFrame frame : frames) {
+                writer.write(frame);
+            }
+        }
+        return out.toByteArray();
+    }
+}
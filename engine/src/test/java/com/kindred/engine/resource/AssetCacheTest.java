@@ -0,0 +1,79 @@
+package com.kindred.engine.resource;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssetCacheTest {
+
+    private static final long TILE_BYTES = 16 * 16 * 4;
+
+    @Test
+    void leastRecentlyUsedImageIsEvictedWhenOverBudget() {
+        AssetCache<String, BufferedImage> cache = new AssetCache<>("Test", 2 * TILE_BYTES, AssetCache::imageBytes);
+        cache.put("grass", tile());
+        cache.put("wall", tile());
+        cache.get("grass"); // wall is now least recently used
+
+        cache.put("water", tile());
+
+        assertTrue(cache.contains("grass"));
+        assertFalse(cache.contains("wall"));
+        assertTrue(cache.contains("water"));
+        assertEquals(1, cache.getStats().evictions());
+        assertEquals(2 * TILE_BYTES, cache.getStats().sizeBytes());
+    }
+
+    @Test
+    void pinnedImagesSurviveEvictionUntilUnpinned() {
+        AssetCache<String, BufferedImage> cache = new AssetCache<>("Test", TILE_BYTES, AssetCache::imageBytes);
+        cache.put("player", tile());
+        assertTrue(cache.pin("player"));
+
+        cache.put("villager", tile());
+        assertTrue(cache.contains("player"));
+        assertFalse(cache.contains("villager"));
+
+        cache.unpin("player");
+        cache.put("enemy", tile());
+        assertFalse(cache.contains("player"));
+        assertTrue(cache.contains("enemy"));
+    }
+
+    @Test
+    void hitsAndMissesAreCountedAndLoadsAreStored() {
+        AssetCache<String, BufferedImage> cache = new AssetCache<>("Test", 10 * TILE_BYTES, AssetCache::imageBytes);
+        BufferedImage loaded = tile();
+
+        assertSame(loaded, cache.getOrLoad("sheet", key -> loaded));
+        assertSame(loaded, cache.getOrLoad("sheet", key -> tile()));
+
+        AssetCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+        assertEquals(1, stats.entries());
+    }
+
+    @Test
+    void spritesCutFromACachedSheetAreNotCountedTwice() {
+        AssetCache<String, BufferedImage> cache = new AssetCache<>("Test", 10 * TILE_BYTES, AssetCache::imageBytes);
+        BufferedImage sheet = new BufferedImage(32, 16, BufferedImage.TYPE_INT_ARGB);
+        cache.put("sheet", sheet);
+
+        cache.put("sheet/0", sheet.getSubimage(0, 0, 16, 16));
+        cache.put("sheet/1", sheet.getSubimage(16, 0, 16, 16));
+
+        assertEquals(2 * TILE_BYTES, cache.getStats().sizeBytes());
+        assertEquals(3, cache.getStats().entries());
+    }
+
+    private static BufferedImage tile() {
+        return new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+    }
+}
@@ -0,0 +1,69 @@
+package com.kindred.engine.resource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssetManagerTest {
+
+    @Test
+    void dependentStepWaitsForItsDependencies() throws Exception {
+        try (AssetManager assets = new AssetManager()) {
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<String> sheet = assets.load("sheet", () -> {
+                await(release);
+                return "sheet";
+            });
+            CompletableFuture<String> level = assets.load("level", () -> sheet.join() + "+level", sheet);
+
+            Thread.sleep(20);
+            assertFalse(level.isDone());
+
+            release.countDown();
+            assertEquals("sheet+level", level.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void progressCountsEveryFinishedAssetIncludingFailures() {
+        List<String> reported = new CopyOnWriteArrayList<>();
+        try (AssetManager assets = new AssetManager()) {
+            assets.addProgressListener((completed, total, name) -> reported.add(name));
+            assets.load("ok", () -> 1);
+            assets.load("broken", () -> { throw new IllegalStateException("decode failed"); });
+
+            assets.awaitAll();
+
+            assertEquals(1f, assets.getProgress());
+            assertEquals(2, assets.getCompletedCount());
+            assertEquals(1, assets.getFailedCount());
+            assertTrue(reported.contains("ok") && reported.contains("broken"));
+        }
+    }
+
+    @Test
+    void sameImagePathSharesOneFuture() {
+        try (AssetManager assets = new AssetManager()) {
+            assertSame(assets.loadImage("/missing/image.png"), assets.loadImage("/missing/image.png"));
+            assets.awaitAll();
+            assertEquals(1, assets.getTotalCount());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.kindred.engine.resource;
+
+import com.kindred.engine.entity.components.AnimationComponent;
+import com.kindred.engine.render.SpriteTrim;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpriteBundleTest {
+
+    private static final List<String> MANIFEST = List.of(
+            "# test bundle",
+            "bundle 1 test.png",
+            "animation SLASH 2 0.1",
+            "frame SLASH 0 0 0 0 4 2 3 5 10 12",
+            "frame SLASH 0 1 4 0 2 2 0 0 10 12",
+            "hitbox SLASH 0 1 -15 5 30 20",
+            "hitbox SLASH 3 1 -15 -25 30 20");
+
+    @Test
+    void framesAreCutFromTheBundleImageWithTheirTrims() {
+        BufferedImage image = new BufferedImage(8, 2, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(4, 1, 0xFF112233);
+
+        SpriteBundle.Animation slash = SpriteBundle.parse(MANIFEST, name -> image).getAnimation("SLASH");
+
+        assertNotNull(slash);
+        assertEquals(2, slash.frameCount);
+        assertEquals(0xFF112233, slash.frames[AnimationComponent.DOWN][1].getRGB(0, 1));
+        assertEquals(new SpriteTrim(3, 5, 10, 12), slash.trims[AnimationComponent.DOWN][0]);
+        assertEquals(List.of(new Rectangle(-15, -25, 30, 20)), slash.hitboxes.get(AnimationComponent.UP).get(1));
+    }
+
+    @Test
+    void framesOutsideTheImageAreRejectedWithTheLineNumber() {
+        BufferedImage tooSmall = new BufferedImage(4, 2, BufferedImage.TYPE_INT_ARGB);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SpriteBundle.parse(MANIFEST, name -> tooSmall));
+        assertTrue(e.getMessage().contains("line 5"), e.getMessage());
+    }
+
+    @Test
+    void attackHitboxesCoverEveryDirection() {
+        AnimationDataRegistry registry = new AnimationDataRegistry();
+
+        for (int dir : new int[]{AnimationComponent.DOWN, AnimationComponent.LEFT, AnimationComponent.RIGHT, AnimationComponent.UP}) {
+            assertEquals(2, registry.getAttackHitboxes("GENERIC_SLASH", dir).size(), "direction " + dir);
+        }
+        assertEquals(new Rectangle(-15, 5, 30, 20),
+                registry.getAttackHitboxes("GENERIC_SLASH", AnimationComponent.DOWN).get(1).get(0));
+    }
+}
@@ -0,0 +1,116 @@
+package com.kindred.engine.save;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventJournalTest {
+
+    /** Smallest segment the journal accepts: header, record header and one largest payload. */
+    private static final int SMALL_SEGMENT_BYTES = 16 + 17 + EventJournal.MAX_PAYLOAD_BYTES;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendedRecordsReplayInOrderAfterTheSnapshotSequence() throws IOException {
+        try (EventJournal journal = EventJournal.open(directory, 0, (sequence, type, payload) -> {})) {
+            for (int i = 1; i <= 5; i++) {
+                assertEquals(i, journal.append(i, ByteBuffer.allocate(4).putInt(0, i * 10)));
+            }
+            journal.commit();
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(directory, 2,
+                (sequence, type, payload) -> replayed.add(sequence + ":" + type + ":" + payload.getInt(0)))) {
+            assertEquals(List.of("3:3:30", "4:4:40", "5:5:50"), replayed);
+            assertEquals(5, journal.getLastSequence());
+            assertEquals(6, journal.append(1, ByteBuffer.allocate(1)));
+        }
+    }
+
+    @Test
+    void tornRecordEndsTheReplayAndNumberingContinuesBeforeIt() throws IOException {
+        try (EventJournal journal = EventJournal.open(directory, 0, (sequence, type, payload) -> {})) {
+            for (int i = 1; i <= 3; i++) {
+                journal.append(1, ByteBuffer.allocate(4).putInt(0, i));
+            }
+        }
+        // Damage the payload of the third record: 16 header bytes, then 21 bytes per record
+        Path segment = segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 16 + 2 * 21 + 17);
+        }
+
+        List<Long> replayed = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(directory, 0, (sequence, type, payload) -> replayed.add(sequence))) {
+            assertEquals(List.of(1L, 2L), replayed);
+            assertEquals(3, journal.append(1, ByteBuffer.allocate(1)));
+        }
+    }
+
+    @Test
+    void fullSegmentsRollAndAreDeletedOnceASnapshotCoversThem() throws IOException {
+        // Two of these fit in a segment
+        ByteBuffer payload = ByteBuffer.allocate(8000);
+        try (EventJournal journal = EventJournal.open(directory, 0, (sequence, type, data) -> {}, SMALL_SEGMENT_BYTES)) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(1, payload);
+            }
+            assertEquals(3, segments(directory).size());
+            journal.discardThrough(4);
+        }
+        assertEquals(1, segments(directory).size());
+
+        List<Long> replayed = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(directory, 4, (sequence, type, data) -> replayed.add(sequence), SMALL_SEGMENT_BYTES)) {
+            assertEquals(List.of(5L, 6L), replayed);
+            assertEquals(6, journal.getDurableSequence());
+        }
+    }
+
+    @Test
+    void rejectsRecordsItCannotStore() throws IOException {
+        try (EventJournal journal = EventJournal.open(directory, 0, (sequence, type, payload) -> {})) {
+            assertThrows(IllegalArgumentException.class, () -> journal.append(256, ByteBuffer.allocate(1)));
+            assertThrows(IllegalArgumentException.class, () -> journal.append(1, ByteBuffer.allocate(0)));
+            assertThrows(IllegalArgumentException.class, () -> journal.append(1, ByteBuffer.allocate(EventJournal.MAX_PAYLOAD_BYTES + 1)));
+        }
+    }
+
+    @Test
+    void appendingStaysCheapOnTheGameThread() throws IOException {
+        try (EventJournal journal = EventJournal.open(directory, 0, (sequence, type, payload) -> {})) {
+            ByteBuffer payload = ByteBuffer.allocate(32);
+            int events = 10_000;
+            long start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                journal.append(1, payload);
+                if (i % 10 == 0) journal.commit();
+            }
+            long averageNanos = (System.nanoTime() - start) / events;
+            // Generous for a shared CI machine; typically well under a microsecond
+            assertTrue(averageNanos < 10_000, "Average append took " + averageNanos + " ns.");
+        }
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".wal")).sorted().toList();
+        }
+    }
+}
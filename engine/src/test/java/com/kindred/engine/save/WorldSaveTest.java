@@ -0,0 +1,135 @@
+package com.kindred.engine.save;
+
+import com.kindred.engine.entity.components.CameraComponent;
+import com.kindred.engine.entity.components.DeadComponent;
+import com.kindred.engine.entity.components.ExperienceComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.serialization.ComponentCodecRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldSaveTest {
+
+    private final ComponentCodecRegistry registry = ComponentCodecRegistry.withEngineComponents();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotsShareUnchangedEntitiesAndDiffToWhatChanged() {
+        EntityManager world = world(50);
+        WorldSnapshot first = WorldSnapshot.capture(1, world, registry, Map.of("state", new byte[]{1}), null);
+
+        world.getComponent(7, PositionComponent.class).x += 5;
+        world.destroyEntity(9);
+        int spawned = world.createEntity();
+        world.addComponent(spawned, new PositionComponent(1, 1));
+        WorldSnapshot second = WorldSnapshot.capture(2, world, registry, Map.of("state", new byte[]{1}), first);
+
+        assertSame(first.getEntities().get(8), second.getEntities().get(8));
+        WorldDelta delta = second.changesSince(first);
+        assertEquals(List.of(7, spawned), List.copyOf(delta.changedEntities().keySet()));
+        assertEquals(List.of(9), delta.removedEntities());
+        assertTrue(delta.changedSections().isEmpty());
+
+        WorldSnapshot patched = first.apply(delta);
+        assertEquals(List.copyOf(second.getEntities().keySet()), List.copyOf(patched.getEntities().keySet()));
+        assertTrue(patched.changesSince(second).isEmpty());
+    }
+
+    @Test
+    void journalReplaysOverTheSnapshotAndCompactionStartsItOver() throws IOException {
+        EntityManager world = world(20);
+        WorldSnapshot latest = null;
+        try (Autosaver autosaver = new Autosaver(new SaveStore(directory), 3)) {
+            for (int save = 1; save <= 5; save++) {
+                world.getComponent(save, HealthComponent.class).currentHealth = 10 * save;
+                latest = WorldSnapshot.capture(save, world, registry, Map.of("save", new byte[]{(byte) save}), latest);
+                while (autosaver.isBusy()) {
+                    Thread.onSpinWait();
+                }
+                assertTrue(autosaver.submit(latest));
+            }
+        }
+        // Saves 1 and 5 were full snapshots, 2 to 4 went to the journal and were compacted by 5
+        WorldSnapshot loaded = new SaveStore(directory).load();
+        assertEquals(5, loaded.getTick());
+        assertTrue(loaded.changesSince(latest).isEmpty());
+        assertEquals(16, Files.size(directory.resolve(SaveStore.JOURNAL_FILE)), "Only the journal header is left");
+    }
+
+    @Test
+    void aTornJournalRecordIsDroppedAndTheRestLoads() throws IOException {
+        EntityManager world = world(10);
+        SaveStore store = new SaveStore(directory);
+        WorldSnapshot base = WorldSnapshot.capture(0, world, registry, Map.of(), null);
+        store.writeSnapshot(base);
+        world.getComponent(3, PositionComponent.class).y = 999;
+        WorldSnapshot second = WorldSnapshot.capture(1, world, registry, Map.of(), base);
+        store.appendDelta(second.changesSince(base));
+        world.destroyEntity(4);
+        store.appendDelta(WorldSnapshot.capture(2, world, registry, Map.of(), second).changesSince(second));
+
+        Path journal = directory.resolve(SaveStore.JOURNAL_FILE);
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(journal) - 2);
+        }
+        WorldSnapshot loaded = new SaveStore(directory).load();
+
+        assertEquals(1, loaded.getTick());
+        assertNotNull(loaded.getEntities().get(4));
+        EntityManager restored = world(10);
+        assertEquals(10, loaded.restoreInto(restored, registry));
+        assertEquals(999, restored.getComponent(3, PositionComponent.class).y);
+    }
+
+    @Test
+    void restoreReplacesSavedDataButKeepsRuntimeOnlyComponents() {
+        EntityManager saved = world(3);
+        saved.addComponent(1, new DeadComponent(2));
+        saved.destroyEntity(2);
+        saved.getComponent(0, ExperienceComponent.class).currentXP = 75;
+        WorldSnapshot snapshot = WorldSnapshot.capture(0, saved, registry, Map.of(), null);
+
+        EntityManager fresh = world(3);
+        fresh.addComponent(0, new CameraComponent(0, 0)); // No codec: must survive the restore
+        fresh.addComponent(0, new DeadComponent(1));      // Not in the save: must go
+
+        assertEquals(2, snapshot.restoreInto(fresh, registry));
+        assertEquals(75, fresh.getComponent(0, ExperienceComponent.class).currentXP);
+        assertNotNull(fresh.getComponent(0, CameraComponent.class));
+        assertNull(fresh.getComponent(0, DeadComponent.class));
+        assertEquals(2, fresh.getComponent(1, DeadComponent.class).decayStage);
+        assertFalse(fresh.isEntityActive(2));
+        assertArrayEquals(snapshot.getEntities().get(1), WorldSnapshot.capture(0, fresh, registry, Map.of(), null).getEntities().get(1));
+    }
+
+    private static EntityManager world(int entities) {
+        EntityManager world = new EntityManager();
+        for (int i = 0; i < entities; i++) {
+            int entity = world.createEntity();
+            world.addComponent(entity, new PositionComponent(i * 16, i * 8));
+            world.addComponent(entity, new HealthComponent(100));
+            world.addComponent(entity, new ExperienceComponent());
+        }
+        return world;
+    }
+}
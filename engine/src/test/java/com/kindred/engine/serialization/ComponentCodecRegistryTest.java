@@ -0,0 +1,103 @@
+package com.kindred.engine.serialization;
+
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.NameComponent;
+import com.kindred.engine.entity.components.PlayerComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.StatsComponent;
+import com.kindred.engine.entity.components.WanderAIComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentCodecRegistryTest {
+
+    @Test
+    void varintsAndZigZagKeepSmallValuesSmall() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        WireFormat.putVarInt(buffer, 127);
+        WireFormat.putVarInt(buffer, 128);
+        WireFormat.putSignedVarInt(buffer, -1);
+        WireFormat.putSignedVarInt(buffer, Integer.MIN_VALUE);
+        WireFormat.putSignedVarLong(buffer, -300L);
+        WireFormat.putQuantized(buffer, 37.5f, 0.01f);
+        assertEquals(1 + 2 + 1 + 5 + 2 + 2, buffer.position());
+
+        buffer.flip();
+        assertEquals(127, WireFormat.getVarInt(buffer));
+        assertEquals(128, WireFormat.getVarInt(buffer));
+        assertEquals(-1, WireFormat.getSignedVarInt(buffer));
+        assertEquals(Integer.MIN_VALUE, WireFormat.getSignedVarInt(buffer));
+        assertEquals(-300L, WireFormat.getSignedVarLong(buffer));
+        assertEquals(37.5f, WireFormat.getQuantized(buffer, 0.01f), 0.005f);
+    }
+
+    @Test
+    void entityRoundTripsThroughTheEngineCodecs() {
+        EntityManager source = new EntityManager();
+        int entity = source.createEntity();
+        source.addComponent(entity, new PositionComponent(-40, 1200));
+        source.addComponent(entity, new HealthComponent(63.25f, 100f));
+        source.addComponent(entity, new PlayerComponent());
+        source.addComponent(entity, new NameComponent("Kaito"));
+        StatsComponent stats = new StatsComponent(12, 9, 10, 14);
+        stats.movementSpeedModifier = 1.25f;
+        source.addComponent(entity, stats);
+        WanderAIComponent ai = new WanderAIComponent(10, 20, 64f, 1f, 4f, 0.8f, 100f);
+        ai.currentState = WanderAIComponent.AIState.ATTACKING;
+        source.addComponent(entity, ai);
+
+        ComponentCodecRegistry registry = ComponentCodecRegistry.withEngineComponents();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        assertEquals(6, registry.writeEntity(source, entity, buffer));
+        assertTrue(buffer.position() < 64, "Encoded in " + buffer.position() + " bytes");
+
+        EntityManager target = new EntityManager();
+        int copy = target.createEntity();
+        assertEquals(6, registry.readEntity(buffer.flip(), target, copy));
+        assertEquals(0, buffer.remaining());
+        assertEquals(-40, target.getComponent(copy, PositionComponent.class).x);
+        assertEquals(1200, target.getComponent(copy, PositionComponent.class).y);
+        assertEquals(63.25f, target.getComponent(copy, HealthComponent.class).currentHealth, 0.001f);
+        assertTrue(target.hasComponent(copy, PlayerComponent.class));
+        assertEquals("Kaito", target.getComponent(copy, NameComponent.class).name);
+        assertEquals(14, target.getComponent(copy, StatsComponent.class).vitality);
+        assertEquals(1.25f, target.getComponent(copy, StatsComponent.class).movementSpeedModifier, 0.001f);
+        assertEquals(WanderAIComponent.AIState.ATTACKING, target.getComponent(copy, WanderAIComponent.class).currentState);
+    }
+
+    @Test
+    void unknownTypesAreSkippedAndNewerSchemasRejected() {
+        // A writer from a "newer build" with an extra component type and position schema 2 (with a z)
+        ComponentCodecRegistry newer = new ComponentCodecRegistry()
+                .register(1, PositionComponent.class, ComponentCodec.of(2,
+                        (c, out) -> { WireFormat.putSignedVarInt(out, c.x); WireFormat.putSignedVarInt(out, c.y); WireFormat.putVarInt(out, 0); },
+                        (in, v) -> null))
+                .register(99, NameComponent.class, ComponentCodec.of(1,
+                        (c, out) -> WireFormat.putString(out, c.name.repeat(40)), // Over 127 bytes: a 2-byte length
+                        (in, v) -> null));
+        ComponentCodecRegistry older = ComponentCodecRegistry.withEngineComponents();
+
+        EntityManager em = new EntityManager();
+        int entity = em.createEntity();
+        em.addComponent(entity, new PositionComponent(3, 4));
+        em.addComponent(entity, new NameComponent("Villager"));
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        newer.writeEntity(em, entity, buffer);
+
+        // Position v2 is newer than the engine codec: rejected rather than misread
+        assertThrows(IllegalArgumentException.class, () -> older.readEntity(buffer.duplicate().flip(), new EntityManager(), 0));
+
+        ByteBuffer nameOnly = ByteBuffer.allocate(512);
+        newer.writeComponent(em.getComponent(entity, NameComponent.class), nameOnly);
+        nameOnly.flip();
+        assertNull(older.readComponent(nameOnly));
+        assertEquals(0, nameOnly.remaining());
+    }
+}
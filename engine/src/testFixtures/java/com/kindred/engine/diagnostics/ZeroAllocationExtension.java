@@ -0,0 +1,59 @@
+package com.kindred.engine.diagnostics;
+
+import com.kindred.engine.entity.core.System;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Asserts that code settles into a steady state that allocates nothing:
+ * <pre>
+ * &#64;RegisterExtension
+ * final ZeroAllocationExtension allocations = new ZeroAllocationExtension();
+ *
+ * &#64;Test
+ * void movingDoesNotAllocate() {
+ *     allocations.assertNoAllocation(movementSystem, DELTA);
+ * }
+ * </pre>
+ * The code first runs {@link #WARMUP_RUNS} times, so the JIT has compiled it and anything it builds
+ * lazily exists, and then must not allocate a byte over {@link #MEASURED_RUNS} more. A window can catch
+ * the JIT swapping in new code, so it gets {@link #ATTEMPTS} windows to come out clean.
+ * Tests are skipped on JVMs that cannot count allocated bytes per thread.
+ */
+public class ZeroAllocationExtension implements BeforeEachCallback {
+
+    static final int WARMUP_RUNS = 20_000;
+    static final int MEASURED_RUNS = 1_000;
+    static final int ATTEMPTS = 3;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        assumeTrue(AllocationCounter.isSupported(), "This JVM cannot count allocated bytes per thread.");
+    }
+
+    /** Asserts that updating {@code system} over and over stops allocating. */
+    public void assertNoAllocation(System system, float deltaTime) {
+        assertNoAllocation(system.getClass().getSimpleName(), () -> system.update(deltaTime));
+    }
+
+    /** Asserts that running {@code code} over and over stops allocating. */
+    public void assertNoAllocation(String name, Runnable code) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            code.run();
+        }
+        long allocated = 0;
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            long before = AllocationCounter.currentThread();
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                code.run();
+            }
+            allocated = AllocationCounter.currentThread() - before;
+            if (allocated == 0) return;
+        }
+        fail(String.format("%s still allocated %d bytes over %d runs (%.1f per run) after %d warm-up runs.",
+                name, allocated, MEASURED_RUNS, (double) allocated / MEASURED_RUNS, WARMUP_RUNS));
+    }
+}
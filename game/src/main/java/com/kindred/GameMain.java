@@ -1,19 +1,38 @@
 package com.kindred;
 
+import com.kindred.engine.diagnostics.SystemProfiler;
+import com.kindred.engine.entity.EntityFactory;
 import com.kindred.engine.entity.components.*;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.EventChannel;
+import com.kindred.engine.entity.core.EventReader;
+import com.kindred.engine.entity.events.AttackEvent;
+import com.kindred.engine.entity.events.LevelUpEvent;
 import com.kindred.engine.entity.systems.*;
 import com.kindred.engine.input.InputState;
 import com.kindred.engine.input.Keyboard;
 import com.kindred.engine.level.Level;
+import com.kindred.engine.loop.FixedStepLoop;
 import com.kindred.engine.level.MapLoader;
 import com.kindred.engine.level.SpawnPoint;
 import com.kindred.engine.render.Screen;
+import com.kindred.engine.render.TextureAtlas;
+import com.kindred.engine.level.Tile;
+import com.kindred.engine.level.TileSet;
+import com.kindred.engine.replay.InputFrame;
+import com.kindred.engine.replay.ReplayHeader;
+import com.kindred.engine.replay.ReplayWriter;
 import com.kindred.engine.resource.AnimationDataRegistry;
 import com.kindred.engine.resource.AssetLoader;
+import com.kindred.engine.resource.AssetManager;
+import com.kindred.engine.save.Autosaver;
+import com.kindred.engine.save.SaveStore;
+import com.kindred.engine.save.WorldSnapshot;
+import com.kindred.engine.serialization.ComponentCodecRegistry;
 import com.kindred.engine.ui.UIManager;
 import com.kindred.engine.ui.layout.DefaultGameUILayout;
 import com.kindred.game.forest.*;
+import com.kindred.game.save.GameJournal;
 import com.kindred.game.text.PlayerTextKey;
 import com.kindred.game.text.PlayerTextResolver;
 import lombok.extern.slf4j.Slf4j;
@@ -24,12 +43,18 @@ import java.awt.event.*;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 @Slf4j
 public class GameMain extends Canvas implements Runnable, MouseMotionListener {
@@ -37,7 +62,7 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
     // --- Member Variables ---
     private JFrame frame;
     private Thread gameThread;
-    private boolean running = false;
+    private volatile boolean running = false;
 
     // Game Window Constants
     public static final int WINDOW_WIDTH = 900;
@@ -45,6 +70,24 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
     public static final int SCALE = 2;
     private static final PlayerTextResolver PLAYER_TEXT = PlayerTextResolver.forLocale(Locale.ENGLISH);
     public static final String TITLE = PLAYER_TEXT.resolve(PlayerTextKey.TITLE_KINDRED);
+    /** System property naming a file to record the held keys to, as a workload for ReplayRunner; not a reproduction. */
+    public static final String RECORD_PROPERTY = "kindred.record";
+    /** Seed written to recordings for the server world they are played into; the client itself is not seeded. */
+    private static final long REPLAY_WORLD_SEED = 0;
+    /** System property with the save directory; an empty value turns saving off. */
+    public static final String SAVE_PROPERTY = "kindred.save";
+    /** System property that, set to true, logs what every system costs in time and allocation. */
+    public static final String PROFILE_PROPERTY = "kindred.profile";
+    /** System property with how fast simulated time passes: a multiple of real time, e.g. 8, or max. */
+    public static final String SPEED_PROPERTY = "kindred.speed";
+    /** System property with the simulated seconds after which the session ends, e.g. 1800 for half an hour. */
+    public static final String DURATION_PROPERTY = "kindred.duration";
+    private static final int PROFILE_REPORT_SECONDS = 10;
+    private static final int AUTOSAVE_INTERVAL_TICKS = 30 * 60; // Every 30 s at 60 UPS
+    // Tiles, spawned entities and the cached decay stages are cut from these sheets and share their rasters.
+    // Sub-images weigh nothing in the image cache, so the sheets are pinned for the session to stay counted.
+    private static final List<String> SESSION_SHEETS = List.of(Tile.SHEET_PATH, EntityFactory.PLAYER_SHEET,
+            EntityFactory.VILLAGER_SHEET, EntityFactory.DEIDARA_SHEET, CorpseDecaySystem.DEIDARA_CORPSE_SHEET);
 
     // Rendering Buffer
     private final BufferedImage image;
@@ -52,8 +95,11 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
 
     // Core Engine Components
     private final Screen screen;
+    private final TextureAtlas spriteAtlas;
+    private final List<String> pinnedSheets = new ArrayList<>(); // The SESSION_SHEETS that loaded, unpinned when the loop ends
     private final Keyboard keyboard;
     private final EntityManager entityManager;
+    private final EntityFactory entityFactory;
     private final Level level;
     private final InputState inputState = new InputState();
     public static AnimationDataRegistry animationRegistry; // +++ NEW: AnimationDataRegistry instance
@@ -72,9 +118,15 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
     private final LifetimeSystem lifetimeSystem;
     private final ParticlePhysicsSystem particlePhysicsSystem;
     private final CorpseDecaySystem corpseDecaySystem;
+    // Every system updates through this; it only measures when PROFILE_PROPERTY is set
+    private final double timeScale; // SPEED_PROPERTY, read before anything loads so a bad value fails fast
+    private final long sessionTicks; // DURATION_PROPERTY in updates; Long.MAX_VALUE runs until stopped
+    private final SystemProfiler profiler = new SystemProfiler(Boolean.getBoolean(PROFILE_PROPERTY));
     private final ExperienceSystem experienceSystem;
     private final StatCalculationSystem statCalculationSystem;
     private final InteractionSystem interactionSystem;
+    private final EventChannel<AttackEvent> attackEvents; // Wolves attack through this, like the AI
+    private final EventReader<LevelUpEvent> levelUpsToShow;
     private final UIManager uiManager;
     private final DefaultGameUILayout gameUILayout;
     private final ForestCrisisState forestCrisisState;
@@ -83,9 +135,23 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
     private final ForestCrisisWolfEncounter forestCrisisWolfEncounter;
     private final ForestCrisisRecoveryResources forestCrisisRecoveryResources;
     private final ForestCrisisResourceInput forestCrisisResourceInput;
+    // Key presses arrive on the AWT event thread; the world and the journal belong to the tick thread
+    private final Queue<PlayerAction> queuedPlayerActions = new ConcurrentLinkedQueue<>();
     private final Map<String, Integer> wolfEntityIds = new HashMap<>();
     private final Set<String> recordedWolfDefeats = new HashSet<>();
 
+    // Key recording, active when RECORD_PROPERTY is set
+    private ReplayWriter replayWriter;
+    private final InputFrame replayFrame = new InputFrame();
+    private long updateTick;
+
+    // Saving: loaded in the constructor, autosaved in the background while running
+    private final ComponentCodecRegistry saveCodecs = ComponentCodecRegistry.withEngineComponents();
+    private SaveStore saveStore;
+    private Autosaver autosaver;
+    private WorldSnapshot lastSave;
+    private final GameJournal gameJournal; // Progress events between autosaves
+
 
     // Entity IDs
     private int playerEntity = -1;
@@ -98,6 +164,9 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
      * creates the level, initializes ECS and systems, and spawns initial entities.
      */
     public GameMain() {
+        timeScale = parseTimeScale(System.getProperty(SPEED_PROPERTY));
+        sessionTicks = parseDuration(System.getProperty(DURATION_PROPERTY));
+
         // --- Window Setup ---
         setPreferredSize(new Dimension(WINDOW_WIDTH * SCALE, WINDOW_HEIGHT * SCALE));
         setFocusable(true);
@@ -109,25 +178,54 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
 
         // --- Core Component Initialization ---
         screen = new Screen(WINDOW_WIDTH, WINDOW_HEIGHT);
+        spriteAtlas = new TextureAtlas(TextureAtlas.DEFAULT_PAGE_SIZE);
         keyboard = new Keyboard();
         addKeyListener(new GameKeyListener());
         addMouseListener(new MouseInputAdapter());
         addMouseMotionListener(this);
 
-        // --- Initialize AnimationDataRegistry ---
-        if (animationRegistry == null) { // Ensure it's loaded once
-            animationRegistry = new AnimationDataRegistry();
-            log.info("AnimationDataRegistry initialized.");
-        }
+        // --- Asset Loading ---
+        // Every sheet is decoded in parallel; steps that need one declare it as a dependency.
+        // Sheets read later by the entity factories and CorpseDecaySystem are then cache hits.
+        log.info("Loading assets...");
+        long loadStart = System.nanoTime();
+        CompletableFuture<Level> levelFuture;
+        CompletableFuture<AnimationDataRegistry> registryFuture;
+        try (AssetManager assetManager = new AssetManager()) {
+            assetManager.addProgressListener((completed, total, name) ->
+                    log.info("Loading assets {}/{} ({})", completed, total, name));
+            CompletableFuture<BufferedImage> tileSheet = assetManager.loadImage(Tile.SHEET_PATH);
+            CompletableFuture<BufferedImage> mapImage = assetManager.loadImage(ForestCrisisGreybox.LEVEL_RESOURCE);
+            for (String sheet : SESSION_SHEETS) {
+                assetManager.loadImage(sheet); // Returns the tile sheet's future from above instead of loading it twice
+            }
 
-        // --- Level Loading ---
-        log.info("Loading level...");
-        level = MapLoader.loadLevelFromImage(ForestCrisisGreybox.LEVEL_RESOURCE, ForestCrisisGreybox.TILE_SIZE);
-        log.info("Level loading complete.");
+            registryFuture = animationRegistry != null // Ensure it's loaded once
+                    ? CompletableFuture.completedFuture(animationRegistry)
+                    : assetManager.load("animation registry", AnimationDataRegistry::new); // Reads the prebuilt attack bundle
+            levelFuture = assetManager.load("level",
+                    () -> MapLoader.loadLevelFromImage(mapImage.join(), new TileSet(tileSheet.join()), ForestCrisisGreybox.TILE_SIZE),
+                    mapImage, tileSheet);
+            assetManager.awaitAll();
+        }
+        for (String sheet : SESSION_SHEETS) {
+            if (AssetLoader.pin(sheet)) {
+                pinnedSheets.add(sheet);
+            } else {
+                log.warn("Sheet {} did not load, it is not pinned.", sheet);
+            }
+        }
+        animationRegistry = registryFuture.join();
+        level = levelFuture.join();
+        level.packTiles(spriteAtlas);
+        animationRegistry.packAttackFrames(spriteAtlas);
+        log.info("Assets loaded in {} ms.", (System.nanoTime() - loadStart) / 1_000_000);
+        log.info("Image cache after loading: {}", AssetLoader.getCacheStats());
 
         // --- ECS and System Initialization ---
         log.info("Initializing ECS and Systems...");
         entityManager = new EntityManager();
+        entityFactory = new EntityFactory(entityManager, spriteAtlas);
         movementSystem = new MovementSystem(entityManager);
         // +++ Pass animationRegistry to systems that need it +++
         playerInputSystem = new PlayerInputSystem(entityManager, keyboard, animationRegistry);
@@ -135,7 +233,7 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
         // ++++++++++++++++++++++++++++++++++++++++++++++++++++++
         animationSystem = new AnimationSystem(entityManager); // AnimationSystem itself might not need the registry directly
                                                             // if AnimationComponent is populated by input/AI systems.
-        renderSystem = new RenderSystem(entityManager, screen);
+        renderSystem = new RenderSystem(entityManager, screen, spriteAtlas);
         cameraSystem = new CameraSystem(entityManager, screen, level);
         collisionSystem = new CollisionSystem(entityManager, level);
         debugRenderSystem = new DebugRenderSystem(entityManager, screen, level);
@@ -146,7 +244,9 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
         experienceSystem = new ExperienceSystem(entityManager);
         statCalculationSystem = new StatCalculationSystem(entityManager);
         interactionSystem = new InteractionSystem(entityManager);
-        corpseDecaySystem = new CorpseDecaySystem(entityManager);
+        corpseDecaySystem = new CorpseDecaySystem(entityManager, spriteAtlas);
+        attackEvents = entityManager.getEvents().channel(AttackEvent.class);
+        levelUpsToShow = entityManager.getEvents().channel(LevelUpEvent.class).reader();
         uiManager = new UIManager();
         forestCrisisState = new ForestCrisisState();
         forestCrisisGreybox = ForestCrisisGreybox.createDefault(forestCrisisState);
@@ -154,6 +254,8 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
         forestCrisisWolfEncounter = ForestCrisisWolfEncounter.createDefault(forestCrisisGreybox, forestCrisisState);
         forestCrisisRecoveryResources = ForestCrisisRecoveryResources.createDefault();
         forestCrisisResourceInput = new ForestCrisisResourceInput();
+        gameJournal = new GameJournal(entityManager, forestCrisisState, forestCrisisRecoveryResources, forestCrisisWolfEncounter);
+        experienceSystem.setProgressListener(gameJournal);
         log.info("Systems and UIManager initialized.");
 
         // --- Initial Entity Spawning ---
@@ -183,6 +285,7 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
         showIntroductionMoment(forestCrisisIntroductionPath.safeMoment());
         showIntroductionMoment(forestCrisisIntroductionPath.interactionHint());
         gameUILayout.addChatLine(PLAYER_TEXT.resolve(PlayerTextKey.RECOVERY_STARTING_RESOURCES));
+        loadSavedWorld();
         log.info("GameMain initialization complete.");
     }
 
@@ -201,17 +304,17 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
             switch (sp.getType()) {
                 case PLAYER:
                     if (!playerSpawned) {
-                        this.playerEntity = createPlayer(spawnX, spawnY);
+                        this.playerEntity = entityFactory.createPlayer(spawnX, spawnY);
                         playerSpawned = true;
                     } else {
                         log.warn("Multiple player spawn points detected. Ignoring extra at tile ({}, {})", sp.getTileX(), sp.getTileY());
                     }
                     break;
                 case NPC_VILLAGER:
-                    createVillagerNPC(spawnX, spawnY);
+                    entityFactory.createVillagerNPC(spawnX, spawnY);
                     break;
                 case ENEMY_DEIDARA:
-                    createEnemyDeidara(spawnX, spawnY);
+                    entityFactory.createEnemyDeidara(spawnX, spawnY);
                     break;
                 default:
                     log.warn("Unknown spawn type encountered in map data: {}", sp.getType());
@@ -225,169 +328,6 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
     }
 
 
-    // --- Entity Factory Methods ---
-
-    private int createPlayer(int spawnX, int spawnY) {
-        log.debug("Creating Player at: ({}, {})", spawnX, spawnY);
-        int entityId = entityManager.createEntity();
-        String playerSheetPath = "/assets/sprites/player.png";
-        int numDirections = 4;
-        int framesPerDirection = 3;
-        BufferedImage[][] walkFrames = new BufferedImage[numDirections][framesPerDirection];
-        boolean playerSpritesLoaded = false;
-        int playerSpriteSize = 32;
-
-        try {
-            BufferedImage sheet = AssetLoader.loadImage(playerSheetPath);
-            if (sheet != null && sheet.getWidth() >= playerSpriteSize * numDirections && sheet.getHeight() >= playerSpriteSize * framesPerDirection) {
-                for (int frameRow = 0; frameRow < framesPerDirection; frameRow++) {
-                    for (int dirCol = 0; dirCol < numDirections; dirCol++) {
-                        int directionIndex;
-                        switch (dirCol) {
-                            case 0: directionIndex = AnimationComponent.LEFT; break;  // Col 0 -> LEFT (1)
-                            case 1: directionIndex = AnimationComponent.DOWN; break;  // Col 1 -> DOWN (0)
-                            case 2: directionIndex = AnimationComponent.UP; break;    // Col 2 -> UP (3)
-                            case 3: directionIndex = AnimationComponent.RIGHT; break; // Col 3 -> RIGHT (2)
-                            default: continue;
-                        }
-                        walkFrames[directionIndex][frameRow] = AssetLoader.getSprite(sheet, dirCol, frameRow, playerSpriteSize, playerSpriteSize);
-                        if (walkFrames[directionIndex][frameRow] == null || walkFrames[directionIndex][frameRow].getWidth() <= 1) {
-                             log.warn("Warning: Failed player sprite load (Col:{}, Row:{}) -> Dir:{}", dirCol, frameRow, directionIndex);
-                        }
-                    }
-                }
-                playerSpritesLoaded = true;
-                log.debug("Player animation frames loaded using nested loops.");
-            } else { /* Error handling */ }
-        } catch (Exception e) { log.error("Error loading player spritesheet", e); }
-
-        BufferedImage initialSprite;
-        // Use Down direction (index 0) frame 0 as default
-        if (playerSpritesLoaded && walkFrames[AnimationComponent.DOWN] != null && walkFrames[AnimationComponent.DOWN][0] != null && walkFrames[AnimationComponent.DOWN][0].getWidth() > 1) {
-            initialSprite = walkFrames[AnimationComponent.DOWN][0];
-        } else {
-            log.warn("Using placeholder for initial player sprite.");
-            initialSprite = AssetLoader.createPlaceholderImage(playerSpriteSize, playerSpriteSize);
-        }
-
-        entityManager.addComponent(entityId, new PositionComponent(spawnX, spawnY));
-        entityManager.addComponent(entityId, new VelocityComponent(0, 0));
-        entityManager.addComponent(entityId, new SpriteComponent(initialSprite));
-        // Use FPS constructor for AnimationComponent
-        entityManager.addComponent(entityId, new AnimationComponent(walkFrames, 7f)); // Example: 7 FPS
-        entityManager.addComponent(entityId, new PlayerComponent());
-        entityManager.addComponent(entityId, new ColliderComponent(15, 14, 8, 15));
-        entityManager.addComponent(entityId, new HealthComponent(100));
-        entityManager.addComponent(entityId, new NameComponent("Lolzords"));
-        entityManager.addComponent(entityId, new AttackComponent(10f, 45f, 0.5f));
-        entityManager.addComponent(entityId, new ExperienceComponent());
-        entityManager.addComponent(entityId, new StatsComponent());
-        log.info("Player Entity Created with ID: {}", entityId);
-        return entityId;
-    }
-
-    private int createVillagerNPC(int spawnX, int spawnY) {
-        log.debug("Creating Villager NPC at: ({}, {})", spawnX, spawnY);
-        int entityId = entityManager.createEntity();
-        String sheetPath = "/assets/sprites/blondLong.png"; // TODO: Verify path
-        // NPC/Enemy Sheet Layout: Rows=Direction (0=D, 1=L, 2=R, 3=U), Cols=Frame (0-2)
-        int numDirections = 4;
-        int framesPerDirection = 3;
-        BufferedImage[][] walkFrames = new BufferedImage[numDirections][framesPerDirection];
-        boolean spritesLoaded = false;
-        int spriteSize = 32;
-
-        try {
-            BufferedImage sheet = AssetLoader.loadImage(sheetPath);
-            if (sheet != null && sheet.getWidth() >= spriteSize * framesPerDirection && sheet.getHeight() >= spriteSize * numDirections) {
-                // <<< Nested loop loading for NPC/Enemy Sheet Layout >>>
-                for (int dirRow = 0; dirRow < numDirections; dirRow++) {
-                    // Map sheet row to AnimationComponent direction constant
-                    int directionIndex;
-                    switch (dirRow) {
-                        case 0: directionIndex = AnimationComponent.DOWN; break;  // Row 0 -> DOWN (0)
-                        case 1: directionIndex = AnimationComponent.LEFT; break;  // Row 1 -> LEFT (1)
-                        case 2: directionIndex = AnimationComponent.RIGHT; break; // Row 2 -> RIGHT (2)
-                        case 3: directionIndex = AnimationComponent.UP; break;    // Row 3 -> UP (3)
-                        default: continue;
-                    }
-                    for (int frameCol = 0; frameCol < framesPerDirection; frameCol++) {
-                        walkFrames[directionIndex][frameCol] = AssetLoader.getSprite(sheet, frameCol, dirRow, spriteSize, spriteSize);
-                         if (walkFrames[directionIndex][frameCol] == null || walkFrames[directionIndex][frameCol].getWidth() <= 1) {
-                             log.warn("Warning: Failed villager sprite load (Col:{}, Row:{}) -> Dir:{}", frameCol, dirRow, directionIndex);
-                        }
-                    }
-                }
-                spritesLoaded = true;
-            } else { /* Error handling */ }
-        } catch (Exception e) { log.error("Error loading villager sprites", e); }
-
-        BufferedImage initialSprite;
-        if (spritesLoaded && walkFrames[AnimationComponent.DOWN][0] != null && walkFrames[AnimationComponent.DOWN][0].getWidth() > 1) {
-            initialSprite = walkFrames[AnimationComponent.DOWN][0];
-        } else { initialSprite = AssetLoader.createPlaceholderImage(spriteSize, spriteSize); }
-
-        // Components
-        entityManager.addComponent(entityId, new PositionComponent(spawnX, spawnY));
-        entityManager.addComponent(entityId, new VelocityComponent(0, 0));
-        entityManager.addComponent(entityId, new SpriteComponent(initialSprite));
-        entityManager.addComponent(entityId, new AnimationComponent(walkFrames, 5f));
-        entityManager.addComponent(entityId, new ColliderComponent(20, 28, 6, 4));
-        entityManager.addComponent(entityId, new HealthComponent(100));
-        entityManager.addComponent(entityId, new NPCComponent());
-        entityManager.addComponent(entityId, new InteractableComponent(40f));
-        entityManager.addComponent(entityId, new NameComponent("Graze"));
-        entityManager.addComponent(entityId, new WanderAIComponent(spawnX, spawnY, 64f, 3.0f, 8.0f, 0.8f, 100f));
-        log.debug("Villager NPC Entity Created with ID: {}", entityId);
-        return entityId;
-    }
-
-    private int createEnemyDeidara(int spawnX, int spawnY) {
-        log.debug("Creating Enemy at: ({}, {})", spawnX, spawnY);
-        int entityId = entityManager.createEntity();
-        String sheetPath = "/assets/sprites/deidara.png"; // TODO: Verify path
-        int numDirections = 4; int framesPerDirection = 3;
-        BufferedImage[][] walkFrames = new BufferedImage[numDirections][framesPerDirection];
-        boolean spritesLoaded = false; int spriteSize = 32;
-        try {
-            BufferedImage sheet = AssetLoader.loadImage(sheetPath);
-            if (sheet != null && sheet.getWidth() >= spriteSize * framesPerDirection && sheet.getHeight() >= spriteSize * numDirections) {
-                 // <<< Nested loop loading for NPC/Enemy Sheet Layout >>>
-                for (int dirRow = 0; dirRow < numDirections; dirRow++) {
-                    int directionIndex;
-                    switch (dirRow) { case 0: directionIndex = AnimationComponent.DOWN; break; case 1: directionIndex = AnimationComponent.LEFT; break; case 2: directionIndex = AnimationComponent.RIGHT; break; case 3: directionIndex = AnimationComponent.UP; break; default: continue; }
-                    for (int frameCol = 0; frameCol < framesPerDirection; frameCol++) {
-                        walkFrames[directionIndex][frameCol] = AssetLoader.getSprite(sheet, frameCol, dirRow, spriteSize, spriteSize);
-                        if (walkFrames[directionIndex][frameCol] == null || walkFrames[directionIndex][frameCol].getWidth() <= 1) { log.warn("Warning: Failed enemy sprite load (Col:{}, Row:{}) -> Dir:{}", frameCol, dirRow, directionIndex); }
-                    }
-                }
-                spritesLoaded = true;
-            } else { /* Error handling */ }
-        } catch (Exception e) { log.error("Error loading enemy sprites", e); }
-
-        BufferedImage initialSprite;
-        if (spritesLoaded && walkFrames[AnimationComponent.DOWN][0] != null && walkFrames[AnimationComponent.DOWN][0].getWidth() > 1) { initialSprite = walkFrames[AnimationComponent.DOWN][0]; }
-        else { initialSprite = AssetLoader.createPlaceholderImage(spriteSize, spriteSize); }
-
-        // Components
-        entityManager.addComponent(entityId, new PositionComponent(spawnX, spawnY));
-        entityManager.addComponent(entityId, new VelocityComponent(0, 0));
-        entityManager.addComponent(entityId, new SpriteComponent(initialSprite));
-        entityManager.addComponent(entityId, new AnimationComponent(walkFrames, 12));
-        // Use frameDelay
-        entityManager.addComponent(entityId, new ColliderComponent(24, 16, 4, 16));
-        entityManager.addComponent(entityId, new HealthComponent(30));
-        entityManager.addComponent(entityId, new EnemyComponent());
-        entityManager.addComponent(entityId, new NameComponent("Deidara"));
-        entityManager.addComponent(entityId, new AttackComponent(5f, 35f, 1.5f));
-        entityManager.addComponent(entityId, new WanderAIComponent(spawnX, spawnY, 48f, 1.0f, 4.0f, 0.6f, 120f));
-        entityManager.addComponent(entityId, new XPValueComponent(15));
-        entityManager.addComponent(entityId, new ParticipantComponent());
-        entityManager.addComponent(entityId, new StatsComponent(5, 8, 2, 5));
-        log.debug("Enemy Entity Created with ID: {}", entityId);
-        return entityId;
-    }
-
     private int createCamera() {
         cameraEntity = entityManager.createEntity();
         entityManager.addComponent(cameraEntity, new CameraComponent(0, 0));
@@ -398,6 +338,11 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
     // --- Game Loop and Core Methods ---
     public synchronized void start() {
         if (running) return;
+        startRecording();
+        if (saveStore != null) {
+            autosaver = new Autosaver(saveStore);
+            autosaver.setSaveListener(gameJournal::discardThrough);
+        }
         running = true;
         gameThread = new Thread(this, "GameThread");
         gameThread.start();
@@ -417,72 +362,163 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
         }
     }
 
-    /** Main game loop logic (fixed time step). */
+    /**
+     * Main game loop logic (fixed time step). SPEED_PROPERTY runs the same 1/60 s updates faster than
+     * real time; with -Djava.awt.headless=true nothing is rendered, so a max speed session runs as fast
+     * as the systems allow.
+     */
     @Override
     public void run() {
-        long lastTime = System.nanoTime();
-        final double nsPerUpdate = 1_000_000_000.0 / 60.0; // Target 60 updates per second
-        double delta = 0;
-        long timer = System.currentTimeMillis();
-        int frames = 0, updates = 0;
         log.info("Game loop starting...");
+        FixedStepLoop loop = new FixedStepLoop(60, 5); // Target 60 updates per second
+        loop.setTimeScale(timeScale);
+        long endTick = sessionTicks > Long.MAX_VALUE - updateTick ? Long.MAX_VALUE : updateTick + sessionTicks;
+        boolean headless = GraphicsEnvironment.isHeadless();
+        if (loop.getTimeScale() != 1 || headless) {
+            log.info("Running at {}x real time{}.", loop.getTimeScale() == FixedStepLoop.UNLIMITED ? "max" : loop.getTimeScale(),
+                    headless ? ", headless" : "");
+        }
+        long startTick = updateTick;
+        long startNanos = System.nanoTime();
+        loop.run(() -> running && updateTick < endTick, new FixedStepLoop.Listener() {
+            @Override
+            public void update(float deltaTime) {
+                GameMain.this.update(deltaTime);
+            }
 
-        while (running) {
-            long now = System.nanoTime();
-            long elapsed = now - lastTime;
-            // Prevent spiral of death if lagging badly
-            if (elapsed < 0) elapsed = 0;
-            if (elapsed > nsPerUpdate * 10) elapsed = (long) (nsPerUpdate * 10); // Cap max elapsed time
-            lastTime = now;
-            delta += elapsed / nsPerUpdate;
-
-            boolean updated = false; // Track if any updates happened
-
-            // Process updates based on elapsed time
-            // Limit updates per frame to prevent potential freezes if lagging severely
-            int maxUpdatesPerFrame = 5;
-            int updatesThisCycle = 0;
-            while (delta >= 1 && updatesThisCycle < maxUpdatesPerFrame) {
-                // Calculate deltaTime in seconds for this update tick
-                float deltaTime = (float) nsPerUpdate / 1_000_000_000.0f;
-                update(deltaTime); // Pass delta time to update logic
-                updates++;
-                delta--;
-                updated = true; // Mark that an update occurred
-                updatesThisCycle++;
-            }
-            // If loop exited due to maxUpdates, reset delta partially to avoid losing time entirely
-            if (updatesThisCycle == maxUpdatesPerFrame && delta > 1) {
-                log.warn("Falling behind! Skipped {} updates.", (int) delta);
-                delta = 1; // Allow at least one update next cycle if still lagging
-            }
-
-            // Render if an update occurred (or based on separate rendering timer if needed)
-            if (updated) {
+            private int seconds;
+
+            @Override
+            public void frame() {
+                if (headless) return;
+                profiler.begin("render");
                 render();
-                frames++;
-            } else {
-                // Yield if no work done to prevent busy-waiting
-                try {
-                    Thread.sleep(1);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+                profiler.end();
             }
 
-
-            // Update FPS/UPS counter every second
-            if (System.currentTimeMillis() - timer >= 1000) {
+            @Override
+            public void second(int updates, int frames) {
                 log.debug("UPS: {}, FPS: {}", updates, frames); // Log FPS/UPS
+                if (profiler.isEnabled() && ++seconds % PROFILE_REPORT_SECONDS == 0) {
+                    log.info("Systems over the last {} s:\n{}", PROFILE_REPORT_SECONDS, profiler.format());
+                    profiler.reset();
+                }
                 if (frame != null) {
                     frame.setTitle(TITLE + " | UPS: " + updates + ", FPS: " + frames);
                 }
-                updates = 0;
-                frames = 0;
-                timer += 1000;
             }
+        });
+        long realMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        log.info("Simulated {} s in {} ms of real time.", (updateTick - startTick) / 60, realMillis);
+        stopRecording();
+        if (autosaver != null) {
+            autosaver.finish(captureWorld());
+            log.info("World saved to {}.", saveStore.getDirectory());
+        }
+        gameJournal.close();
+        pinnedSheets.forEach(AssetLoader::unpin);
+        pinnedSheets.clear();
+        if (frame != null && updateTick >= endTick) {
+            SwingUtilities.invokeLater(frame::dispose); // The session is over; let the JVM exit
+        }
+    }
+
+    /** SPEED_PROPERTY's value as a FixedStepLoop time scale; unset means real time. */
+    static double parseTimeScale(String speed) {
+        if (speed == null || speed.isBlank()) return 1;
+        if (speed.equalsIgnoreCase("max")) return FixedStepLoop.UNLIMITED;
+        double scale;
+        try {
+            scale = Double.parseDouble(speed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Speed must be a number or max, was " + speed + ".", e);
+        }
+        if (!(scale > 0)) throw new IllegalArgumentException("Speed must be positive, was " + speed + ".");
+        return scale;
+    }
+
+    /** DURATION_PROPERTY's value in 1/60 s updates; unset means the session runs until it is stopped. */
+    static long parseDuration(String duration) {
+        if (duration == null || duration.isBlank()) return Long.MAX_VALUE;
+        double seconds;
+        try {
+            seconds = Double.parseDouble(duration);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Duration must be a number of seconds, was " + duration + ".", e);
+        }
+        if (!(seconds > 0)) throw new IllegalArgumentException("Duration must be positive, was " + duration + ".");
+        return Math.max(1, Math.round(seconds * 60));
+    }
+
+    /** Loads the save over the freshly built world; a save that cannot be read is left alone, not overwritten. */
+    private void loadSavedWorld() {
+        String directory = System.getProperty(SAVE_PROPERTY, Path.of(System.getProperty("user.home"), ".kindred", "save").toString());
+        if (directory.isBlank()) return;
+        SaveStore store = new SaveStore(Path.of(directory));
+        try {
+            WorldSnapshot saved = store.load();
+            if (saved != null) {
+                int restored = saved.restoreInto(entityManager, saveCodecs);
+                ForestCrisisSave.restore(saved.getSections(), forestCrisisState, forestCrisisRecoveryResources, forestCrisisWolfEncounter);
+                lastSave = saved;
+                log.info("Loaded save from {} (tick {}, {} entities).", directory, saved.getTick(), restored);
+            }
+            gameJournal.open(Path.of(directory), saved);
+            for (WolfRuntimeState wolf : forestCrisisWolfEncounter.wolfStates()) {
+                if (wolf.state() == WolfState.DEFEATED) recordedWolfDefeats.add(wolf.id());
+            }
+            saveStore = store;
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not load the save in {}; saving is off for this session.", directory, e);
+        }
+    }
+
+    /** Copies the world at this tick boundary; unchanged data is shared with the previous save. */
+    private WorldSnapshot captureWorld() {
+        Map<String, byte[]> sections = ForestCrisisSave.capture(forestCrisisState, forestCrisisRecoveryResources, forestCrisisWolfEncounter);
+        gameJournal.addSequenceSection(sections);
+        lastSave = WorldSnapshot.capture(updateTick, entityManager, saveCodecs, sections, lastSave);
+        return lastSave;
+    }
+
+    private void autosave() {
+        if (autosaver == null || updateTick % AUTOSAVE_INTERVAL_TICKS != 0 || autosaver.isBusy()) return;
+        autosaver.submit(captureWorld());
+    }
+
+    private void startRecording() {
+        String path = System.getProperty(RECORD_PROPERTY);
+        if (path == null || path.isBlank()) return;
+        try {
+            replayWriter = new ReplayWriter(Path.of(path),
+                    new ReplayHeader(60, REPLAY_WORLD_SEED, ForestCrisisGreybox.LEVEL_RESOURCE, ForestCrisisGreybox.TILE_SIZE));
+            log.info("Recording keys to {}.", path);
+        } catch (IOException e) {
+            log.error("Could not start recording input to {}.", path, e);
+        }
+    }
+
+    /** Appends this tick's held keys to the replay; a failing disk stops the recording, not the game. */
+    private void recordKeys() {
+        if (replayWriter == null) return;
+        replayFrame.capture(updateTick, keyboard);
+        try {
+            replayWriter.write(replayFrame);
+        } catch (IOException e) {
+            log.error("Input recording failed at tick {}; recording stopped.", updateTick, e);
+            stopRecording();
         }
-        // Consider calling a cleanup method here if needed before exit
+    }
+
+    private void stopRecording() {
+        if (replayWriter == null) return;
+        try {
+            replayWriter.close();
+            log.info("Input recording closed after {} ticks, {} bytes.", updateTick, replayWriter.getBytesWritten());
+        } catch (IOException e) {
+            log.error("Could not close the input recording.", e);
+        }
+        replayWriter = null;
     }
 
     /**
@@ -492,27 +528,31 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
     private void update(float deltaTime) {
         forestCrisisRecoveredPlayerThisFrame = false;
         keyboard.update();
+        runQueuedPlayerActions();
 
         // --- Update Systems in Order ---
-        playerInputSystem.update(deltaTime);
-        aiSystem.update(deltaTime); // AI now handles attacks
+        profiler.update(playerInputSystem, deltaTime);
+        profiler.update(aiSystem, deltaTime); // AI now handles attacks
+        profiler.begin("forestCrisisWolves");
         updateForestCrisisWolves();
-        interactionSystem.update(deltaTime);
+        profiler.end();
+        profiler.update(interactionSystem, deltaTime);
         rememberPlayerRecoveryEssentials();
-        combatSystem.update(deltaTime);
+        profiler.update(combatSystem, deltaTime);
         recoverPlayerFromForestCrisisDefeat();
         recordForestCrisisWolfDefeats();
-        experienceSystem.update(deltaTime);
-        statCalculationSystem.update(deltaTime);
+        profiler.update(experienceSystem, deltaTime);
+        profiler.update(statCalculationSystem, deltaTime);
+        showPlayerLevelUps();
         updateForestCrisisFoodRecovery(deltaTime);
-        particlePhysicsSystem.update(deltaTime);
-        collisionSystem.update(deltaTime);
-        movementSystem.update(deltaTime);
-        lifetimeSystem.update(deltaTime);    // Update particle lifetimes, destroy expired entities
-        visualEffectsSystem.update(deltaTime); // Update flash timers for TookDamageComponent
-        corpseDecaySystem.update(deltaTime);
-        cameraSystem.update(deltaTime);
-        animationSystem.update(deltaTime);   // +++ IMPORTANT: AnimationSystem now needs deltaTime +++
+        profiler.update(particlePhysicsSystem, deltaTime);
+        profiler.update(collisionSystem, deltaTime);
+        profiler.update(movementSystem, deltaTime);
+        profiler.update(lifetimeSystem, deltaTime);    // Update particle lifetimes, destroy expired entities
+        profiler.update(visualEffectsSystem, deltaTime); // Update flash timers for TookDamageComponent
+        profiler.update(corpseDecaySystem, deltaTime);
+        profiler.update(cameraSystem, deltaTime);
+        profiler.update(animationSystem, deltaTime);   // +++ IMPORTANT: AnimationSystem now needs deltaTime +++
 
         uiManager.update(inputState, deltaTime);
 
@@ -523,6 +563,11 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
                 gameUILayout.addChatLine(PLAYER_TEXT.resolve(PlayerTextKey.CHAT_PLAYER_PREFIX) + submitted);
             }
         }
+        recordKeys();
+        gameJournal.commit();
+        updateTick++;
+        entityManager.getEvents().endTick();
+        autosave();
         inputState.clearFrameEvents();
         // ----------------------------------
     }
@@ -531,16 +576,17 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
     private void render() {
         BufferStrategy bs = getBufferStrategy();
         if (bs == null) { createBufferStrategy(3); return; }
-        // Prepare screen for drawing
-        screen.clear();
+        // Prepare screen for drawing (clears only what has to be repainted, everything after a camera move)
+        screen.beginFrame();
 
         level.render(screen);
+        screen.beginDynamicPass();
         renderSystem.render();
         debugRenderSystem.render();
         renderForestCrisisGreyboxAreas();
 
-        // --- Draw buffer to screen ---
-        System.arraycopy(screen.pixels, 0, pixels, 0, pixels.length);
+        // --- Draw changed regions to the image ---
+        screen.copyDirtyTo(pixels);
 
         // Get Graphics and Render UI
         Graphics g = null;
@@ -548,6 +594,7 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
             g = image.getGraphics(); // Get graphics for the image we draw to the canvas
             if (g != null) {
                 // --- Render UI Layer ---
+                uiManager.markOverlay(screen);
                 uiManager.render(g);
             }
         } catch (Exception e) {
@@ -585,6 +632,18 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
         }
     }
 
+    /** Carries out the actions the key listener queued since the last tick, in the order pressed. */
+    private void runQueuedPlayerActions() {
+        PlayerAction action;
+        while ((action = queuedPlayerActions.poll()) != null) {
+            switch (action) {
+                case INTERACT -> interactWithForestCrisisGreybox();
+                case USE_BANDAGE -> useForestCrisisBandage();
+                case USE_FOOD -> useForestCrisisFood();
+            }
+        }
+    }
+
     private void interactWithForestCrisisGreybox() {
         if (tryInteractWithForestCrisisEmergencyCache()) {
             return;
@@ -597,6 +656,7 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
             return false;
         }
         showForestCrisisResourceUse(forestCrisisRecoveryResources.claimEmergencyCache());
+        gameJournal.resourcesChanged();
         return true;
     }
 
@@ -697,13 +757,22 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
             if (wolf.state() == WolfState.PURSUING && isWolfInAttackRange(entityId)) {
                 AttackComponent attack = entityManager.getComponent(entityId, AttackComponent.class);
                 if (attack != null && attack.currentCooldown <= 0) {
-                    entityManager.addComponent(entityId, new AttackActionComponent());
+                    attackEvents.publish(new AttackEvent(entityId));
                     attack.currentCooldown = attack.attackCooldown;
                 }
             }
         }
     }
 
+    /** The end of the combat, experience and stats pipeline: tells the player about their level-ups. */
+    private void showPlayerLevelUps() {
+        for (LevelUpEvent levelUp = levelUpsToShow.poll(); levelUp != null; levelUp = levelUpsToShow.poll()) {
+            if (levelUp.entity() == playerEntity && gameUILayout != null) {
+                gameUILayout.addChatLine(PLAYER_TEXT.resolve(PlayerTextKey.PROGRESS_LEVEL_UP));
+            }
+        }
+    }
+
     private boolean isWolfInAttackRange(int wolfEntityId) {
         PositionComponent wolfPosition = entityManager.getComponent(wolfEntityId, PositionComponent.class);
         PositionComponent playerPosition = entityManager.getComponent(playerEntity, PositionComponent.class);
@@ -723,6 +792,7 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
             }
             recordedWolfDefeats.add(wolf.getKey());
             WolfEncounterUpdate update = forestCrisisWolfEncounter.recordDefeat(wolf.getKey());
+            gameJournal.wolfChanged(forestCrisisWolfEncounter.wolf(wolf.getKey()));
             update.developmentLogMessage().ifPresent(this::emitForestCrisisDevelopmentLog);
             showWolfEncounterMoment(update.event());
         }
@@ -740,6 +810,7 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
                 latestPlayerRecoveryEssentials);
         if (recovery.event() == ForestCrisisResourceEvent.DEFEAT_RECOVERED) {
             forestCrisisRecoveredPlayerThisFrame = true;
+            gameJournal.resourcesChanged();
             gameUILayout.addChatLine(PLAYER_TEXT.resolve(PlayerTextKey.RECOVERY_DEFEAT_RECOVERED));
             showForestCrisisResourceEvent(recovery.costEvent());
             WolfEncounterUpdate update = forestCrisisWolfEncounter.update(currentPlayerPoint());
@@ -760,7 +831,9 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
             return;
         }
         HealthComponent health = entityManager.getComponent(playerEntity, HealthComponent.class);
-        if (health != null && !entityManager.hasComponent(playerEntity, DeadComponent.class)) {
+        if (health != null && forestCrisisRecoveryResources.isFoodRecoveryActive()
+                && !entityManager.hasComponent(playerEntity, DeadComponent.class)) {
+            entityManager.markChanged(health);
             forestCrisisRecoveryResources.update(deltaTime, health);
         }
     }
@@ -771,7 +844,12 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
         }
         HealthComponent health = entityManager.getComponent(playerEntity, HealthComponent.class);
         if (health != null) {
-            showForestCrisisResourceUse(forestCrisisRecoveryResources.useBandage(health));
+            ForestCrisisResourceUse use = forestCrisisRecoveryResources.useBandage(health);
+            if (use.event() == ForestCrisisResourceEvent.BANDAGE_USED) {
+                entityManager.markChanged(health); // On the tick thread, queued there by the key listener
+            }
+            showForestCrisisResourceUse(use);
+            gameJournal.resourcesChanged();
         }
     }
 
@@ -782,6 +860,7 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
         HealthComponent health = entityManager.getComponent(playerEntity, HealthComponent.class);
         if (health != null) {
             showForestCrisisResourceUse(forestCrisisRecoveryResources.useFood(health));
+            gameJournal.resourcesChanged();
         }
     }
 
@@ -848,8 +927,18 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
 
     public static void main(String[] args) {
         GameMain game = new GameMain();
+        if (GraphicsEnvironment.isHeadless()) {
+            game.start(); // No window; ends with DURATION_PROPERTY or when the process is stopped
+            return;
+        }
         game.frame = new JFrame(TITLE);
         game.frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        game.frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                game.stop(); // Runs before the exit, so the loop can write its final save
+            }
+        });
         game.frame.setResizable(false);
         game.frame.add(game);
         game.frame.pack();
@@ -938,6 +1027,9 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
     }
     // --- End Mouse Listener Methods ---
 
+    /** What a key press asks the game to do on its next tick. */
+    private enum PlayerAction { INTERACT, USE_BANDAGE, USE_FOOD }
+
     /** Handles Keyboard Events */
     private class GameKeyListener extends KeyAdapter {
         @Override
@@ -967,17 +1059,16 @@ public class GameMain extends Canvas implements Runnable, MouseMotionListener {
                 }
             }
             else if (keyCode == KeyEvent.VK_E && gameUILayout != null && !gameUILayout.isChatInputFocused()) {
-                interactWithForestCrisisGreybox();
+                queuedPlayerActions.add(PlayerAction.INTERACT);
             }
             else if (gameUILayout != null) {
+                // Whether the player is defeated is checked on the tick thread, when the action runs
                 ForestCrisisResourceAction resourceAction = forestCrisisResourceInput.actionFor(
-                        keyCode,
-                        gameUILayout.isChatInputFocused(),
-                        entityManager.hasComponent(playerEntity, DeadComponent.class));
+                        keyCode, gameUILayout.isChatInputFocused(), false);
                 if (resourceAction == ForestCrisisResourceAction.USE_BANDAGE) {
-                    useForestCrisisBandage();
+                    queuedPlayerActions.add(PlayerAction.USE_BANDAGE);
                 } else if (resourceAction == ForestCrisisResourceAction.USE_FOOD) {
-                    useForestCrisisFood();
+                    queuedPlayerActions.add(PlayerAction.USE_FOOD);
                 }
             }
 
@@ -1,6 +1,5 @@
 package com.kindred.game.forest;
 
-import com.kindred.engine.entity.components.AttackActionComponent;
 import com.kindred.engine.entity.components.AttackComponent;
 import com.kindred.engine.entity.components.ColliderComponent;
 import com.kindred.engine.entity.components.DeadComponent;
@@ -79,7 +78,7 @@ public class ForestCrisisRecoveryResources {
             int playerEntity,
             ForestCrisisGreybox greybox,
             PlayerRecoveryEssentials essentials) {
-        HealthComponent health = entityManager.getComponent(playerEntity, HealthComponent.class);
+        HealthComponent health = entityManager.editComponent(playerEntity, HealthComponent.class);
         PositionComponent position = entityManager.getComponent(playerEntity, PositionComponent.class);
         if (health == null || position == null) {
             return new ForestCrisisDefeatRecovery(ForestCrisisResourceEvent.NONE, ForestCrisisResourceEvent.DEFEAT_COST_NONE, playerEntity);
@@ -95,7 +94,6 @@ public class ForestCrisisRecoveryResources {
         entityManager.removeComponent(playerEntity, DeadComponent.class);
         entityManager.removeComponent(playerEntity, LifetimeComponent.class);
         entityManager.removeComponent(playerEntity, TookDamageComponent.class);
-        entityManager.removeComponent(playerEntity, AttackActionComponent.class);
 
         VelocityComponent velocity = entityManager.getComponent(playerEntity, VelocityComponent.class);
         if (velocity == null) {
@@ -147,6 +145,25 @@ public class ForestCrisisRecoveryResources {
         return emergencyCacheClaimed;
     }
 
+    float foodHealingRemaining() {
+        return foodHealingRemaining;
+    }
+
+    float foodSecondsRemaining() {
+        return foodSecondsRemaining;
+    }
+
+    /** Replaces the whole state with a saved one; see {@link ForestCrisisSave}. */
+    void restore(int bandages, int food, boolean foodRecoveryActive, float foodHealingRemaining,
+                 float foodSecondsRemaining, boolean emergencyCacheClaimed) {
+        this.bandages = Math.max(0, bandages);
+        this.food = Math.max(0, food);
+        this.foodRecoveryActive = foodRecoveryActive;
+        this.foodHealingRemaining = foodHealingRemaining;
+        this.foodSecondsRemaining = foodSecondsRemaining;
+        this.emergencyCacheClaimed = emergencyCacheClaimed;
+    }
+
     private ForestCrisisResourceEvent applyDefeatCost() {
         if (bandages > 0) {
             bandages--;
@@ -0,0 +1,154 @@
+package com.kindred.game.forest;
+
+import com.kindred.engine.serialization.WireFormat;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Encodes the Forest Crisis state that lives outside components (crisis progress, recovery
+ * resources, wolf states) as named save sections, and puts it back. Enums are stored by name so
+ * reordering them does not corrupt saves; each section starts with its own format version. The same
+ * encodings serve as journal records, see {@code com.kindred.game.save.GameJournal}.
+ */
+public final class ForestCrisisSave {
+    public static final String CRISIS_SECTION = "forest.crisis";
+    public static final String RESOURCES_SECTION = "forest.resources";
+    public static final String WOLVES_SECTION = "forest.wolves";
+
+    public static final int MAX_SECTION_BYTES = 4096;
+
+    private static final int VERSION = 1;
+
+    private ForestCrisisSave() {
+    }
+
+    public static Map<String, byte[]> capture(
+            ForestCrisisState crisis,
+            ForestCrisisRecoveryResources resources,
+            ForestCrisisWolfEncounter encounter) {
+        Map<String, byte[]> sections = new LinkedHashMap<>();
+        ByteBuffer out = ByteBuffer.allocate(MAX_SECTION_BYTES);
+        writeCrisis(out.clear(), crisis);
+        sections.put(CRISIS_SECTION, bytes(out));
+        writeResources(out.clear(), resources);
+        sections.put(RESOURCES_SECTION, bytes(out));
+        writeWolves(out.clear(), encounter.wolfStates());
+        sections.put(WOLVES_SECTION, bytes(out));
+        return sections;
+    }
+
+    /**
+     * Restores every section present in {@code sections}; missing sections leave their state as it is.
+     * @throws IllegalArgumentException If a section is malformed or from a newer version.
+     */
+    public static void restore(
+            Map<String, byte[]> sections,
+            ForestCrisisState crisis,
+            ForestCrisisRecoveryResources resources,
+            ForestCrisisWolfEncounter encounter) {
+        byte[] crisisBytes = sections.get(CRISIS_SECTION);
+        if (crisisBytes != null) {
+            readCrisis(ByteBuffer.wrap(crisisBytes), crisis);
+        }
+        byte[] resourceBytes = sections.get(RESOURCES_SECTION);
+        if (resourceBytes != null) {
+            readResources(ByteBuffer.wrap(resourceBytes), resources);
+        }
+        byte[] wolfBytes = sections.get(WOLVES_SECTION);
+        if (wolfBytes != null) {
+            readWolves(ByteBuffer.wrap(wolfBytes), encounter);
+        }
+    }
+
+    /** Writes the whole crisis progress, in at most {@value #MAX_SECTION_BYTES} bytes. */
+    public static void writeCrisis(ByteBuffer out, ForestCrisisState crisis) {
+        WireFormat.putVarInt(out, VERSION);
+        WireFormat.putVarInt(out, crisis.predatorDefeats());
+        out.put((byte) (crisis.isAlternativeLoggingAreaMarked() ? 1 : 0));
+        out.put((byte) (crisis.isDamagedGroveRestored() ? 1 : 0));
+        out.put((byte) (crisis.hasCompletedElderInterpretation() ? 1 : 0));
+        EnvironmentalSign[] signs = Arrays.stream(EnvironmentalSign.values()).filter(crisis::hasDiscovered).toArray(EnvironmentalSign[]::new);
+        WireFormat.putVarInt(out, signs.length);
+        for (EnvironmentalSign sign : signs) {
+            WireFormat.putString(out, sign.name());
+        }
+    }
+
+    public static void readCrisis(ByteBuffer in, ForestCrisisState crisis) {
+        checkVersion(in, CRISIS_SECTION);
+        int predatorDefeats = WireFormat.getVarInt(in);
+        boolean alternativeLoggingAreaMarked = in.get() != 0;
+        boolean damagedGroveRestored = in.get() != 0;
+        boolean elderInterpretationCompleted = in.get() != 0;
+        Set<EnvironmentalSign> signs = EnumSet.noneOf(EnvironmentalSign.class);
+        for (int i = WireFormat.getVarInt(in); i > 0; i--) {
+            signs.add(EnvironmentalSign.valueOf(WireFormat.getString(in)));
+        }
+        crisis.restore(predatorDefeats, alternativeLoggingAreaMarked, damagedGroveRestored, signs, elderInterpretationCompleted);
+    }
+
+    public static void writeResources(ByteBuffer out, ForestCrisisRecoveryResources resources) {
+        WireFormat.putVarInt(out, VERSION);
+        WireFormat.putVarInt(out, resources.bandages());
+        WireFormat.putVarInt(out, resources.food());
+        out.put((byte) (resources.isFoodRecoveryActive() ? 1 : 0));
+        out.putFloat(resources.foodHealingRemaining());
+        out.putFloat(resources.foodSecondsRemaining());
+        out.put((byte) (resources.isEmergencyCacheClaimed() ? 1 : 0));
+    }
+
+    public static void readResources(ByteBuffer in, ForestCrisisRecoveryResources resources) {
+        checkVersion(in, RESOURCES_SECTION);
+        int bandages = WireFormat.getVarInt(in);
+        int food = WireFormat.getVarInt(in);
+        boolean foodRecoveryActive = in.get() != 0;
+        float foodHealingRemaining = in.getFloat();
+        float foodSecondsRemaining = in.getFloat();
+        resources.restore(bandages, food, foodRecoveryActive, foodHealingRemaining, foodSecondsRemaining, in.get() != 0);
+    }
+
+    /** Writes some or all wolves; {@link #readWolves} restores only the ones written. */
+    public static void writeWolves(ByteBuffer out, List<WolfRuntimeState> wolves) {
+        WireFormat.putVarInt(out, VERSION);
+        WireFormat.putVarInt(out, wolves.size());
+        for (WolfRuntimeState wolf : wolves) {
+            WireFormat.putString(out, wolf.id());
+            WireFormat.putSignedVarInt(out, wolf.position().x());
+            WireFormat.putSignedVarInt(out, wolf.position().y());
+            WireFormat.putString(out, wolf.state().name());
+        }
+    }
+
+    /** @return The wolves read; those no longer in the greybox are dropped. */
+    public static List<WolfRuntimeState> readWolves(ByteBuffer in, ForestCrisisWolfEncounter encounter) {
+        checkVersion(in, WOLVES_SECTION);
+        List<WolfRuntimeState> wolves = new ArrayList<>();
+        for (int i = WireFormat.getVarInt(in); i > 0; i--) {
+            String id = WireFormat.getString(in);
+            GreyboxPoint position = new GreyboxPoint(WireFormat.getSignedVarInt(in), WireFormat.getSignedVarInt(in));
+            WolfRuntimeState wolf = new WolfRuntimeState(id, position, WolfState.valueOf(WireFormat.getString(in)));
+            if (encounter.restoreWolf(wolf)) {
+                wolves.add(wolf);
+            }
+        }
+        return wolves;
+    }
+
+    private static void checkVersion(ByteBuffer in, String name) {
+        int version = WireFormat.getVarInt(in);
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Save section " + name + " has unsupported version " + version + ".");
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer out) {
+        return Arrays.copyOf(out.array(), out.position());
+    }
+}
@@ -9,9 +9,16 @@ public class ForestCrisisState {
     private boolean damagedGroveRestored;
     private final Set<EnvironmentalSign> discoveredSigns = EnumSet.noneOf(EnvironmentalSign.class);
     private boolean elderInterpretationCompleted;
+    private Runnable changeListener;
+
+    /** Called after every change to the crisis progress, e.g. to journal it. */
+    public void setChangeListener(Runnable changeListener) {
+        this.changeListener = changeListener;
+    }
 
     public void recordPredatorDefeat() {
         predatorDefeats++;
+        changed();
     }
 
     public int predatorDefeats() {
@@ -20,14 +27,18 @@ public class ForestCrisisState {
 
     public void markAlternativeLoggingArea() {
         alternativeLoggingAreaMarked = true;
+        changed();
     }
 
     public void restoreDamagedGrove() {
         damagedGroveRestored = true;
+        changed();
     }
 
     public void discoverSign(EnvironmentalSign sign) {
-        discoveredSigns.add(sign);
+        if (discoveredSigns.add(sign)) {
+            changed();
+        }
     }
 
     public boolean hasDiscovered(EnvironmentalSign sign) {
@@ -36,12 +47,32 @@ public class ForestCrisisState {
 
     public void completeElderInterpretation() {
         elderInterpretationCompleted = true;
+        changed();
     }
 
     public boolean hasCompletedElderInterpretation() {
         return elderInterpretationCompleted;
     }
 
+    boolean isAlternativeLoggingAreaMarked() {
+        return alternativeLoggingAreaMarked;
+    }
+
+    boolean isDamagedGroveRestored() {
+        return damagedGroveRestored;
+    }
+
+    /** Replaces the whole state with a saved one; see {@link ForestCrisisSave}. */
+    void restore(int predatorDefeats, boolean alternativeLoggingAreaMarked, boolean damagedGroveRestored,
+                 Set<EnvironmentalSign> discoveredSigns, boolean elderInterpretationCompleted) {
+        this.predatorDefeats = predatorDefeats;
+        this.alternativeLoggingAreaMarked = alternativeLoggingAreaMarked;
+        this.damagedGroveRestored = damagedGroveRestored;
+        this.discoveredSigns.clear();
+        this.discoveredSigns.addAll(discoveredSigns);
+        this.elderInterpretationCompleted = elderInterpretationCompleted;
+    }
+
     public OutcomeReadiness evaluateOutcomeReadiness() {
         int completedBalanceActions = completedBalanceActions();
         if (completedBalanceActions == 2) {
@@ -56,6 +87,12 @@ public class ForestCrisisState {
         return OutcomeReadiness.NONE;
     }
 
+    private void changed() {
+        if (changeListener != null) {
+            changeListener.run();
+        }
+    }
+
     private int completedBalanceActions() {
         int completed = 0;
         if (alternativeLoggingAreaMarked) {
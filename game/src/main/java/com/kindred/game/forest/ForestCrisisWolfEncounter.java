@@ -103,6 +103,24 @@ public class ForestCrisisWolfEncounter {
         return List.copyOf(states.values());
     }
 
+    /**
+     * Puts a wolf back into a saved state; see {@link ForestCrisisSave}. Defeats restored this way are
+     * not counted again, the saved {@link ForestCrisisState} already has them.
+     * @return False if the greybox has no wolf with that id.
+     */
+    boolean restoreWolf(WolfRuntimeState state) {
+        if (!states.containsKey(state.id())) {
+            return false;
+        }
+        states.put(state.id(), state);
+        if (state.state() == WolfState.DEFEATED) {
+            defeatedWolves.add(state.id());
+        } else {
+            defeatedWolves.remove(state.id());
+        }
+        return true;
+    }
+
     private WolfEncounterUpdate breakContact() {
         boolean brokeContact = false;
         for (WolfPlaceholder wolf : wolves) {
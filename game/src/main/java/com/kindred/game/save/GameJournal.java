@@ -0,0 +1,215 @@
+package com.kindred.game.save;
+
+import com.kindred.engine.entity.components.EnemyComponent;
+import com.kindred.engine.entity.components.ExperienceComponent;
+import com.kindred.engine.entity.components.NameComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.events.LevelUpEvent;
+import com.kindred.engine.entity.systems.ExperienceSystem;
+import com.kindred.engine.save.EventJournal;
+import com.kindred.engine.save.WorldSnapshot;
+import com.kindred.engine.serialization.WireFormat;
+import com.kindred.game.forest.ForestCrisisRecoveryResources;
+import com.kindred.game.forest.ForestCrisisSave;
+import com.kindred.game.forest.ForestCrisisState;
+import com.kindred.game.forest.ForestCrisisWolfEncounter;
+import com.kindred.game.forest.WolfRuntimeState;
+import com.kindred.game.forest.WolfState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journals the gameplay events that make up a player's progress (crisis progress, wolf defeats,
+ * recovery resource use, XP gains and level-ups) to an {@link EventJournal} as they happen, and
+ * replays them over the last snapshot when the game starts.
+ * <p>
+ * Records are after-images (the state after the event, not the change), so replaying one is a plain
+ * overwrite. Snapshots store the last sequence they include in {@link #SEQUENCE_SECTION}; replay starts
+ * after it, so nothing is applied twice.
+ * <p>
+ * Until {@link #open} succeeds, or after a write fails, journaling is off and every call is a no-op.
+ * <p>
+ * Calls are serialised: {@link EventJournal} takes one writer at a time, and all records share one
+ * scratch buffer. The game makes them from its tick thread; the lock keeps a stray call from any
+ * other thread from interleaving with it and corrupting the journal.
+ */
+@Slf4j
+public class GameJournal implements ExperienceSystem.ProgressListener {
+    public static final int CRISIS = 1;
+    public static final int WOLF = 2;
+    public static final int RESOURCES = 3;
+    public static final int XP_GAINED = 4;
+    public static final int LEVEL_UP = 5;
+
+    /** Snapshot section with the last journal sequence the snapshot includes. */
+    public static final String SEQUENCE_SECTION = "journal.sequence";
+
+    private final EntityManager entityManager;
+    private final ForestCrisisState crisis;
+    private final ForestCrisisRecoveryResources resources;
+    private final ForestCrisisWolfEncounter encounter;
+    private final ByteBuffer scratch = ByteBuffer.allocate(ForestCrisisSave.MAX_SECTION_BYTES);
+    private EventJournal journal;
+    private long lastSequence;
+
+    public GameJournal(
+            EntityManager entityManager,
+            ForestCrisisState crisis,
+            ForestCrisisRecoveryResources resources,
+            ForestCrisisWolfEncounter encounter) {
+        this.entityManager = entityManager;
+        this.crisis = crisis;
+        this.resources = resources;
+        this.encounter = encounter;
+    }
+
+    /**
+     * Replays the journal in {@code directory} over the state restored from {@code loaded} (null if
+     * there was no save) and starts journaling new events there.
+     */
+    public synchronized void open(Path directory, WorldSnapshot loaded) throws IOException {
+        journal = EventJournal.open(directory, sequenceOf(loaded), this::apply);
+        lastSequence = journal.getLastSequence();
+        crisis.setChangeListener(this::crisisChanged);
+    }
+
+    /** The last journal sequence included in a snapshot; 0 for none. */
+    public static long sequenceOf(WorldSnapshot snapshot) {
+        byte[] section = snapshot == null ? null : snapshot.getSection(SEQUENCE_SECTION);
+        return section == null || section.length != Long.BYTES ? 0 : ByteBuffer.wrap(section).getLong();
+    }
+
+    /** Adds the journal position to the sections of a snapshot being captured now. */
+    public synchronized void addSequenceSection(Map<String, byte[]> sections) {
+        sections.put(SEQUENCE_SECTION, ByteBuffer.allocate(Long.BYTES).putLong(lastSequence).array());
+    }
+
+    /** Lets the journal drop records a snapshot on disk now includes. Safe from the autosave thread. */
+    public void discardThrough(WorldSnapshot saved) {
+        EventJournal current = journal;
+        if (current != null) {
+            current.discardThrough(sequenceOf(saved));
+        }
+    }
+
+    public synchronized void crisisChanged() {
+        ForestCrisisSave.writeCrisis(scratch.clear(), crisis);
+        append(CRISIS);
+    }
+
+    public synchronized void wolfChanged(WolfRuntimeState wolf) {
+        ForestCrisisSave.writeWolves(scratch.clear(), List.of(wolf));
+        append(WOLF);
+    }
+
+    public synchronized void resourcesChanged() {
+        ForestCrisisSave.writeResources(scratch.clear(), resources);
+        append(RESOURCES);
+    }
+
+    @Override
+    public synchronized void experienceGained(int entityId, int amount, ExperienceComponent experience) {
+        scratch.clear();
+        WireFormat.putVarInt(scratch, entityId);
+        WireFormat.putVarInt(scratch, amount);
+        writeExperience(experience);
+        append(XP_GAINED);
+    }
+
+    @Override
+    public synchronized void levelledUp(int entityId, ExperienceComponent experience) {
+        scratch.clear();
+        WireFormat.putVarInt(scratch, entityId);
+        writeExperience(experience);
+        append(LEVEL_UP);
+    }
+
+    private void writeExperience(ExperienceComponent experience) {
+        WireFormat.putVarInt(scratch, experience.currentLevel);
+        WireFormat.putVarLong(scratch, experience.currentXP);
+        WireFormat.putVarLong(scratch, experience.xpToNextLevel);
+    }
+
+    private void append(int type) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            lastSequence = journal.append(type, scratch.flip());
+        } catch (IOException e) {
+            // Progress since the last autosave is no longer crash-safe, but the game goes on
+            log.error("Event journal write failed; journaling is off until restart.", e);
+            close();
+        }
+    }
+
+    /** Ends a tick: its events are group-committed to disk shortly after. */
+    public synchronized void commit() {
+        if (journal != null) {
+            journal.commit();
+        }
+    }
+
+    public synchronized void close() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    private void apply(long sequence, int type, ByteBuffer payload) {
+        try {
+            switch (type) {
+                case CRISIS -> ForestCrisisSave.readCrisis(payload, crisis);
+                case RESOURCES -> ForestCrisisSave.readResources(payload, resources);
+                case WOLF -> {
+                    for (WolfRuntimeState wolf : ForestCrisisSave.readWolves(payload, encounter)) {
+                        if (wolf.state() == WolfState.DEFEATED) {
+                            removeDefeatedWolf(wolf.id());
+                        }
+                    }
+                }
+                case XP_GAINED, LEVEL_UP -> applyExperience(type, payload);
+                default -> log.warn("Skipping journal record {} of unknown type {}.", sequence, type);
+            }
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            log.warn("Skipping malformed journal record {} of type {}.", sequence, type, e);
+        }
+    }
+
+    /** The snapshot still has the wolf alive; by now its corpse would have decayed. */
+    private void removeDefeatedWolf(String wolfId) {
+        for (int entityId : List.copyOf(entityManager.getEntitiesWith(EnemyComponent.class, NameComponent.class))) {
+            if (wolfId.equals(entityManager.getComponent(entityId, NameComponent.class).name)) {
+                entityManager.destroyEntity(entityId);
+            }
+        }
+    }
+
+    private void applyExperience(int type, ByteBuffer payload) {
+        int entityId = WireFormat.getVarInt(payload);
+        if (type == XP_GAINED) {
+            WireFormat.getVarInt(payload); // Amount, for the record only
+        }
+        int level = WireFormat.getVarInt(payload);
+        long xp = WireFormat.getVarLong(payload);
+        long xpToNextLevel = WireFormat.getVarLong(payload);
+        ExperienceComponent experience = entityManager.editComponent(entityId, ExperienceComponent.class);
+        if (experience == null) {
+            return;
+        }
+        experience.currentLevel = level;
+        experience.currentXP = xp;
+        experience.xpToNextLevel = xpToNextLevel;
+        if (type == LEVEL_UP) {
+            // StatCalculationSystem grants the level's stat increase on the first tick, as it did live
+            entityManager.getEvents().channel(LevelUpEvent.class).publish(new LevelUpEvent(entityId, level));
+        }
+    }
+}
@@ -34,6 +34,7 @@ public enum PlayerTextKey {
     RECOVERY_DEFEAT_COST_NONE("recovery.defeatCostNone"),
     RECOVERY_EMERGENCY_CACHE_CLAIMED("recovery.emergencyCacheClaimed"),
     RECOVERY_EMERGENCY_CACHE_EXHAUSTED("recovery.emergencyCacheExhausted"),
+    PROGRESS_LEVEL_UP("progress.levelUp"),
     FINAL_LINE_EXAMPLE("finalLine.example"),
     CHAT_PLAYER_PREFIX("chat.playerPrefix"),
     TITLE_KINDRED("title.kindred"),
@@ -0,0 +1,36 @@
+package com.kindred;
+
+import com.kindred.engine.loop.FixedStepLoop;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameMainTest {
+
+    @Test
+    void durationIsReadAsSecondsOfUpdates() {
+        assertEquals(Long.MAX_VALUE, GameMain.parseDuration(null));
+        assertEquals(Long.MAX_VALUE, GameMain.parseDuration(" "));
+        assertEquals(1800 * 60L, GameMain.parseDuration("1800"));
+        assertEquals(30L, GameMain.parseDuration("0.5"));
+        assertEquals(1L, GameMain.parseDuration("0.001"));
+    }
+
+    @Test
+    void durationThatIsNotAPositiveNumberIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> GameMain.parseDuration("half an hour"));
+        assertThrows(IllegalArgumentException.class, () -> GameMain.parseDuration("-60"));
+        assertThrows(IllegalArgumentException.class, () -> GameMain.parseDuration("0"));
+        assertThrows(IllegalArgumentException.class, () -> GameMain.parseDuration("NaN"));
+    }
+
+    @Test
+    void speedIsAPositiveMultipleOrMax() {
+        assertEquals(1.0, GameMain.parseTimeScale(null));
+        assertEquals(8.0, GameMain.parseTimeScale("8"));
+        assertEquals(FixedStepLoop.UNLIMITED, GameMain.parseTimeScale("MAX"));
+        assertThrows(IllegalArgumentException.class, () -> GameMain.parseTimeScale("fast"));
+        assertThrows(IllegalArgumentException.class, () -> GameMain.parseTimeScale("-2"));
+    }
+}
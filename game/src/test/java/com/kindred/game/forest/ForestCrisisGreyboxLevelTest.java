@@ -4,6 +4,9 @@ import com.kindred.engine.entity.components.ColliderComponent;
 import com.kindred.engine.level.Level;
 import com.kindred.engine.level.MapLoader;
 import com.kindred.engine.level.SpawnPoint;
+import com.kindred.engine.level.Tile;
+import com.kindred.engine.level.TileSet;
+import com.kindred.engine.resource.AssetLoader;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayDeque;
@@ -20,6 +23,7 @@ class ForestCrisisGreyboxLevelTest {
 
     private final Level level = MapLoader.loadLevelFromImage(
             ForestCrisisGreybox.LEVEL_RESOURCE,
+            new TileSet(AssetLoader.loadImage(Tile.SHEET_PATH)),
             ForestCrisisGreybox.TILE_SIZE);
     private final ForestCrisisGreybox greybox = ForestCrisisGreybox.createDefault(new ForestCrisisState());
 
@@ -1,8 +1,12 @@
 package com.kindred.game.forest;
 
 import com.kindred.game.text.PlayerTextKey;
+import com.kindred.networking.server.ServerAssets;
 import org.junit.jupiter.api.Test;
 
+import java.awt.Rectangle;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -20,6 +24,14 @@ class ForestCrisisGreyboxTest {
         assertTrue(greybox.canWalkFromVillageToFarm());
     }
 
+    @Test
+    void serversKeepTheThreatZoneAlwaysRelevant() {
+        GreyboxArea zone = ForestCrisisGreybox.createDefault(new ForestCrisisState()).threatZone();
+
+        assertEquals(List.of(new Rectangle(zone.x(), zone.y(), zone.width(), zone.height())),
+                ServerAssets.alwaysRelevantRegions(ForestCrisisGreybox.LEVEL_RESOURCE));
+    }
+
     @Test
     void shepherdInteractionRequiresProximity() {
         ForestCrisisGreybox greybox = ForestCrisisGreybox.createDefault(new ForestCrisisState());
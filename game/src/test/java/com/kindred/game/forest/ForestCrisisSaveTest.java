@@ -0,0 +1,49 @@
+package com.kindred.game.forest;
+
+import com.kindred.engine.entity.components.HealthComponent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForestCrisisSaveTest {
+
+    @Test
+    void crisisProgressResourcesAndWolvesSurviveASaveAndLoad() {
+        ForestCrisisState crisis = new ForestCrisisState();
+        ForestCrisisGreybox greybox = ForestCrisisGreybox.createDefault(crisis);
+        ForestCrisisWolfEncounter encounter = ForestCrisisWolfEncounter.createDefault(greybox, crisis);
+        ForestCrisisRecoveryResources resources = ForestCrisisRecoveryResources.createDefault();
+        String defeatedWolf = encounter.wolves().get(0).id();
+        encounter.recordDefeat(defeatedWolf);
+        crisis.discoverSign(EnvironmentalSign.PREDATOR_TRAIL);
+        crisis.markAlternativeLoggingArea();
+        resources.useBandage(new HealthComponent(100));
+        resources.useFood(new HealthComponent(100));
+        resources.update(2f, new HealthComponent(100));
+
+        Map<String, byte[]> sections = ForestCrisisSave.capture(crisis, resources, encounter);
+
+        ForestCrisisState loadedCrisis = new ForestCrisisState();
+        ForestCrisisWolfEncounter loadedEncounter = ForestCrisisWolfEncounter.createDefault(greybox, loadedCrisis);
+        ForestCrisisRecoveryResources loadedResources = ForestCrisisRecoveryResources.createDefault();
+        ForestCrisisSave.restore(sections, loadedCrisis, loadedResources, loadedEncounter);
+
+        assertEquals(1, loadedCrisis.predatorDefeats());
+        assertTrue(loadedCrisis.hasDiscovered(EnvironmentalSign.PREDATOR_TRAIL));
+        assertFalse(loadedCrisis.hasDiscovered(EnvironmentalSign.CLEARED_SHELTER));
+        assertEquals(OutcomeReadiness.MIXED, loadedCrisis.evaluateOutcomeReadiness());
+        assertEquals(ForestCrisisRecoveryResources.STARTING_BANDAGES - 1, loadedResources.bandages());
+        assertEquals(ForestCrisisRecoveryResources.STARTING_FOOD - 1, loadedResources.food());
+        assertTrue(loadedResources.isFoodRecoveryActive());
+        assertEquals(resources.foodSecondsRemaining(), loadedResources.foodSecondsRemaining());
+        assertEquals(encounter.wolfStates(), loadedEncounter.wolfStates());
+
+        // A restored defeat is not counted a second time
+        loadedEncounter.recordDefeat(defeatedWolf);
+        assertEquals(1, loadedCrisis.predatorDefeats());
+    }
+}
@@ -1,6 +1,5 @@
 package com.kindred.game.forest;
 
-import com.kindred.engine.entity.components.AttackActionComponent;
 import com.kindred.engine.entity.components.AttackComponent;
 import com.kindred.engine.entity.components.ColliderComponent;
 import com.kindred.engine.entity.components.EnemyComponent;
@@ -8,6 +7,7 @@ import com.kindred.engine.entity.components.HealthComponent;
 import com.kindred.engine.entity.components.PlayerComponent;
 import com.kindred.engine.entity.components.PositionComponent;
 import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.events.AttackEvent;
 import com.kindred.engine.entity.systems.CombatSystem;
 import org.junit.jupiter.api.Test;
 
@@ -30,9 +30,10 @@ class ForestCrisisWolfAttackTest {
         entityManager.addComponent(wolf, new ColliderComponent(16, 16));
         entityManager.addComponent(wolf, new EnemyComponent());
         entityManager.addComponent(wolf, new AttackComponent(4f, ForestCrisisWolfEncounter.WOLF_ATTACK_RANGE, 1.0f));
-        entityManager.addComponent(wolf, new AttackActionComponent());
+        CombatSystem combat = new CombatSystem(entityManager);
+        entityManager.getEvents().channel(AttackEvent.class).publish(new AttackEvent(wolf));
 
-        new CombatSystem(entityManager).update(1.0f / 60.0f);
+        combat.update(1.0f / 60.0f);
 
         assertTrue(playerHealth.currentHealth < playerHealth.maxHealth);
     }
@@ -0,0 +1,125 @@
+package com.kindred.game.save;
+
+import com.kindred.engine.entity.components.EnemyComponent;
+import com.kindred.engine.entity.components.ExperienceComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.NameComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.events.LevelUpEvent;
+import com.kindred.engine.save.EventJournal;
+import com.kindred.game.forest.EnvironmentalSign;
+import com.kindred.game.forest.ForestCrisisGreybox;
+import com.kindred.game.forest.ForestCrisisRecoveryResources;
+import com.kindred.game.forest.ForestCrisisState;
+import com.kindred.game.forest.ForestCrisisWolfEncounter;
+import com.kindred.game.forest.WolfState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void progressSinceTheLastSnapshotIsReplayedAfterACrash() throws IOException {
+        World before = new World();
+        before.journal.open(directory, null);
+        String wolf = before.encounter.wolves().get(0).id();
+        before.encounter.recordDefeat(wolf);
+        before.journal.wolfChanged(before.encounter.wolf(wolf));
+        before.crisis.discoverSign(EnvironmentalSign.PREDATOR_TRAIL);
+        before.resources.useBandage(new HealthComponent(100));
+        before.journal.resourcesChanged();
+        ExperienceComponent experience = before.entityManager.getComponent(before.player, ExperienceComponent.class);
+        experience.currentLevel = 2;
+        experience.currentXP = 5;
+        experience.xpToNextLevel = ExperienceComponent.calculateXpForNextLevel(2);
+        before.journal.levelledUp(before.player, experience);
+        before.journal.commit();
+        before.journal.close(); // As far as the journal goes, a crash: nothing else was saved
+
+        World after = new World();
+        int wolfEntity = after.spawnWolf(wolf);
+        after.journal.open(directory, null);
+
+        assertEquals(1, after.crisis.predatorDefeats());
+        assertTrue(after.crisis.hasDiscovered(EnvironmentalSign.PREDATOR_TRAIL));
+        assertEquals(WolfState.DEFEATED, after.encounter.wolf(wolf).state());
+        assertFalse(after.entityManager.isEntityActive(wolfEntity));
+        assertEquals(ForestCrisisRecoveryResources.STARTING_BANDAGES - 1, after.resources.bandages());
+        ExperienceComponent replayed = after.entityManager.getComponent(after.player, ExperienceComponent.class);
+        assertEquals(2, replayed.currentLevel);
+        assertEquals(5, replayed.currentXP);
+        assertEquals(new LevelUpEvent(after.player, 2), after.entityManager.getEvents().channel(LevelUpEvent.class).reader().poll());
+        after.journal.close();
+    }
+
+    @Test
+    void journalCallsFromTwoThreadsAllSurvive() throws Exception {
+        World world = new World();
+        world.journal.open(directory, null);
+        ExperienceComponent experience = world.entityManager.getComponent(world.player, ExperienceComponent.class);
+        int perThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread keyPresses = new Thread(() -> {
+            awaitQuietly(start);
+            for (int i = 0; i < perThread; i++) {
+                world.journal.resourcesChanged();
+            }
+        });
+        keyPresses.start();
+        start.countDown();
+        for (int i = 0; i < perThread; i++) {
+            world.journal.experienceGained(world.player, 1, experience);
+            world.journal.commit();
+        }
+        keyPresses.join();
+        world.journal.close();
+
+        List<Long> sequences = new ArrayList<>();
+        EventJournal.open(directory, 0, (sequence, type, payload) -> sequences.add(sequence)).close();
+
+        assertEquals(2 * perThread, sequences.size()); // A mixed-up record would end the replay early
+        assertEquals(Long.valueOf(2L * perThread), sequences.get(sequences.size() - 1));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class World {
+        final EntityManager entityManager = new EntityManager();
+        final ForestCrisisState crisis = new ForestCrisisState();
+        final ForestCrisisWolfEncounter encounter = ForestCrisisWolfEncounter.createDefault(ForestCrisisGreybox.createDefault(crisis), crisis);
+        final ForestCrisisRecoveryResources resources = ForestCrisisRecoveryResources.createDefault();
+        final GameJournal journal = new GameJournal(entityManager, crisis, resources, encounter);
+        final int player;
+
+        World() {
+            player = entityManager.createEntity();
+            entityManager.addComponent(player, new ExperienceComponent());
+        }
+
+        int spawnWolf(String id) {
+            int entity = entityManager.createEntity();
+            entityManager.addComponent(entity, new EnemyComponent());
+            entityManager.addComponent(entity, new NameComponent(id));
+            return entity;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.kindred.networking.interest;
+
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.level.Level;
+import com.kindred.networking.replication.ReplicationServer;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Interest management over a coarse grid laid on the {@link Level}. Each client subscribes to the square
+ * of cells around its player; an entity is relevant to a client while it stands in one of those cells
+ * or in a cell marked always-relevant (a region everyone must know about, like a threat zone).
+ * <p>
+ * The grid serves two purposes: as a {@link ReplicationServer.InterestFilter} it limits what each client
+ * is sent, and {@link #isActive(int, int)} tells the server which regions have anybody around, so
+ * entities elsewhere can be left unsimulated.
+ * <p>
+ * Not thread-safe: use it from the tick thread.
+ */
+public class InterestGrid implements ReplicationServer.InterestFilter {
+
+    /** 8 tiles of 16 px: a 128 px cell. */
+    public static final int DEFAULT_CELL_TILES = 8;
+    /** Cells subscribed in each direction around the player: a 5x5 cell (640 px) square. */
+    public static final int DEFAULT_RADIUS_CELLS = 2;
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] subscribers;      // Clients subscribed to each cell
+    private final boolean[] alwaysRelevant;
+    private final Map<Integer, Client> clients = new LinkedHashMap<>();
+
+    private static final class Client {
+        final int radius;
+        int cellX = -1, cellY = -1;       // -1 until the first subscribeAround
+        BitSet relevant = new BitSet();   // Entity ids relevant after the last update
+        BitSet next = new BitSet();
+
+        Client(int radius) {
+            this.radius = radius;
+        }
+
+        boolean covers(int x, int y) {
+            return cellX >= 0 && Math.abs(x - cellX) <= radius && Math.abs(y - cellY) <= radius;
+        }
+    }
+
+    /**
+     * @param level The level to cover.
+     * @param cellTiles Cell edge length in tiles.
+     */
+    public InterestGrid(Level level, int cellTiles) {
+        if (level == null) throw new IllegalArgumentException("Level cannot be null.");
+        if (cellTiles <= 0) throw new IllegalArgumentException("Cell size must be positive.");
+        this.cellSize = cellTiles * level.getTileSize();
+        this.columns = (level.getWidth() + cellTiles - 1) / cellTiles;
+        this.rows = (level.getHeight() + cellTiles - 1) / cellTiles;
+        this.subscribers = new int[columns * rows];
+        this.alwaysRelevant = new boolean[columns * rows];
+    }
+
+    public InterestGrid(Level level) {
+        this(level, DEFAULT_CELL_TILES);
+    }
+
+    /**
+     * Marks every cell overlapping the pixel rectangle as relevant to all clients and always active,
+     * e.g. the forest crisis threat zone: {@code markAlwaysRelevant(zone.x(), zone.y(), zone.width(), zone.height())}.
+     */
+    public void markAlwaysRelevant(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("Region must have a positive size.");
+        for (int cy = cellY(y); cy <= cellY(y + height - 1); cy++) {
+            for (int cx = cellX(x); cx <= cellX(x + width - 1); cx++) {
+                alwaysRelevant[cy * columns + cx] = true;
+            }
+        }
+    }
+
+    public void addClient(int clientId, int radiusCells) {
+        if (radiusCells < 0) throw new IllegalArgumentException("Radius cannot be negative.");
+        if (clients.containsKey(clientId)) throw new IllegalArgumentException("Client " + clientId + " is already subscribed.");
+        clients.put(clientId, new Client(radiusCells));
+    }
+
+    public void removeClient(int clientId) {
+        Client client = clients.remove(clientId);
+        if (client != null) {
+            changeSubscription(client, -1);
+        }
+    }
+
+    /** Subscribes a client to the cells around a pixel position, usually its player's. Cheap when the cell is unchanged. */
+    public void subscribeAround(int clientId, int x, int y) {
+        Client client = clients.get(clientId);
+        if (client == null) throw new IllegalArgumentException("Unknown client " + clientId + ".");
+        int cx = cellX(x);
+        int cy = cellY(y);
+        if (cx == client.cellX && cy == client.cellY) return;
+        changeSubscription(client, -1);
+        client.cellX = cx;
+        client.cellY = cy;
+        changeSubscription(client, 1);
+    }
+
+    private void changeSubscription(Client client, int delta) {
+        if (client.cellX < 0) return;
+        for (int cy = Math.max(0, client.cellY - client.radius); cy <= Math.min(rows - 1, client.cellY + client.radius); cy++) {
+            for (int cx = Math.max(0, client.cellX - client.radius); cx <= Math.min(columns - 1, client.cellX + client.radius); cx++) {
+                subscribers[cy * columns + cx] += delta;
+            }
+        }
+    }
+
+    /**
+     * Recomputes which entities are relevant to each client and reports the differences.
+     * @param listener Told about entities entering or leaving a client's interest; may be null.
+     */
+    public void update(EntityManager entityManager, InterestListener listener) {
+        for (Client client : clients.values()) {
+            client.next.clear();
+        }
+        for (int entityId : entityManager.getEntitiesWith(PositionComponent.class)) {
+            PositionComponent pos = entityManager.getComponent(entityId, PositionComponent.class);
+            int cx = cellX(pos.x);
+            int cy = cellY(pos.y);
+            boolean always = alwaysRelevant[cy * columns + cx];
+            for (Client client : clients.values()) {
+                if (always || client.covers(cx, cy)) {
+                    client.next.set(entityId);
+                }
+            }
+        }
+        for (Map.Entry<Integer, Client> entry : clients.entrySet()) {
+            int clientId = entry.getKey();
+            Client client = entry.getValue();
+            if (listener != null) {
+                for (int e = client.next.nextSetBit(0); e >= 0; e = client.next.nextSetBit(e + 1)) {
+                    if (!client.relevant.get(e)) listener.onEnter(clientId, e);
+                }
+                for (int e = client.relevant.nextSetBit(0); e >= 0; e = client.relevant.nextSetBit(e + 1)) {
+                    if (!client.next.get(e)) listener.onLeave(clientId, e);
+                }
+            }
+            BitSet swap = client.relevant;
+            client.relevant = client.next;
+            client.next = swap;
+        }
+    }
+
+    /** True if the entity was relevant to the client at the last {@link #update}. */
+    @Override
+    public boolean isRelevant(int clientId, int entityId) {
+        Client client = clients.get(clientId);
+        return client != null && entityId >= 0 && client.relevant.get(entityId);
+    }
+
+    /** True if the cell containing the pixel position has a subscriber or is always relevant. */
+    public boolean isActive(int x, int y) {
+        int cell = cellY(y) * columns + cellX(x);
+        return subscribers[cell] > 0 || alwaysRelevant[cell];
+    }
+
+    public int getActiveCellCount() {
+        int active = 0;
+        for (int i = 0; i < subscribers.length; i++) {
+            if (subscribers[i] > 0 || alwaysRelevant[i]) active++;
+        }
+        return active;
+    }
+
+    /** Cell column of a pixel x, clamped to the grid. */
+    public int cellX(int x) {
+        return Math.max(0, Math.min(columns - 1, Math.floorDiv(x, cellSize)));
+    }
+
+    /** Cell row of a pixel y, clamped to the grid. */
+    public int cellY(int y) {
+        return Math.max(0, Math.min(rows - 1, Math.floorDiv(y, cellSize)));
+    }
+
+    public int getCellSize() { return cellSize; }
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+}
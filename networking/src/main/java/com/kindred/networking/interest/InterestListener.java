@@ -0,0 +1,10 @@
+package com.kindred.networking.interest;
+
+/** Told when entities become relevant to a client or stop being relevant. */
+public interface InterestListener {
+
+    void onEnter(int clientId, int entityId);
+
+    /** Also called for entities that were destroyed while relevant. */
+    void onLeave(int clientId, int entityId);
+}
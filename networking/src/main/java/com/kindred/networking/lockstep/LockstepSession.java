@@ -0,0 +1,230 @@
+package com.kindred.networking.lockstep;
+
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.serialization.WireFormat;
+import com.kindred.networking.server.ServerWorld;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Deterministic lockstep for small co-op games, as an alternative to snapshot replication. Every peer
+ * runs the same seeded {@link ServerWorld}; only inputs are exchanged, a few bytes per player per tick,
+ * and a tick is simulated once every player's input for it has arrived. Local inputs are scheduled
+ * {@code inputDelay} ticks ahead, which hides the network latency up to that delay.
+ * <p>
+ * Every {@link #HASH_INTERVAL} ticks each peer sends a hash of its state. A hash that differs from
+ * the local one for the same tick means the peers desynced; {@link #getDesyncTick()} then tells
+ * where it was first noticed.
+ * <p>
+ * Messages must be delivered reliably and in order (e.g. {@code Channel.RELIABLE_ORDERED}); a lost
+ * input stalls every peer. Transport-agnostic: messages leave through the {@link Sender} and arrive
+ * through {@link #receive}. Not thread-safe.
+ */
+@Slf4j
+public class LockstepSession {
+
+    /** Ticks between a local input and the tick it applies to: about 67 ms at 60 Hz. */
+    public static final int DEFAULT_INPUT_DELAY = 4;
+    /** Ticks of inputs buffered; inputs further ahead of the simulation are dropped. */
+    public static final int INPUT_WINDOW = 128;
+    /** Ticks between state hashes: twice a second at 60 Hz. */
+    public static final int HASH_INTERVAL = 30;
+
+    /** Message types, the first byte of every message. */
+    static final byte INPUT = 1, HASH = 2;
+
+    private static final int HASH_HISTORY = 16;
+
+    /** Sends a message to every other peer of the session. */
+    public interface Sender {
+        void broadcast(ByteBuffer message);
+    }
+
+    private final ServerWorld world;
+    private final int[] clients;
+    private final int localClient;
+    private final int inputDelay;
+    private final Sender sender;
+    // Per client (in client id order), per tick slot: the command and the tick it is for
+    private final PlayerCommand[][] inputs;
+    private final long[][] inputTicks;
+    private final long[] localHashTicks = new long[HASH_HISTORY];
+    private final long[] localHashes = new long[HASH_HISTORY];
+    private final ArrayDeque<long[]> pendingHashes = new ArrayDeque<>(); // {tick, hash} from peers, not yet computed here
+    private final ByteBuffer out = ByteBuffer.allocate(32);
+    private long nextLocalTick;
+    private long lastHashTick = -1;
+    private long desyncTick = -1;
+    private long bytesSent;
+
+    /**
+     * Adds a player for every client to the world, in client id order, so every peer spawns them identically.
+     * @param world A fresh deterministic world created with the seed all peers share.
+     * @param clientIds Every peer's client id, the local one included.
+     * @param localClient This peer's client id.
+     * @param inputDelay Ticks local inputs are scheduled ahead, at least 1.
+     * @param sender Broadcasts this peer's messages.
+     */
+    public LockstepSession(ServerWorld world, int[] clientIds, int localClient, int inputDelay, Sender sender) {
+        if (world == null) throw new IllegalArgumentException("ServerWorld cannot be null.");
+        if (!world.isDeterministic()) throw new IllegalArgumentException("Lockstep needs a world created with a seed.");
+        if (world.getTick() != 0 || world.getPlayerCount() != 0) {
+            throw new IllegalArgumentException("Lockstep needs a fresh world without players.");
+        }
+        if (sender == null) throw new IllegalArgumentException("Sender cannot be null.");
+        if (inputDelay < 1 || inputDelay >= INPUT_WINDOW) {
+            throw new IllegalArgumentException("Input delay must be in [1, " + INPUT_WINDOW + ").");
+        }
+        this.clients = clientIds.clone();
+        Arrays.sort(clients);
+        if (Arrays.binarySearch(clients, localClient) < 0) {
+            throw new IllegalArgumentException("Local client " + localClient + " is not in the session.");
+        }
+        this.world = world;
+        this.localClient = localClient;
+        this.inputDelay = inputDelay;
+        this.sender = sender;
+        this.inputs = new PlayerCommand[clients.length][INPUT_WINDOW];
+        this.inputTicks = new long[clients.length][INPUT_WINDOW];
+        Arrays.fill(localHashTicks, -1);
+        for (int i = 0; i < clients.length; i++) {
+            world.addPlayer(clients[i]);
+            Arrays.fill(inputTicks[i], -1);
+            // Nobody can have sent input for the first ticks
+            for (int tick = 0; tick < inputDelay; tick++) {
+                store(i, tick, PlayerCommand.NONE);
+            }
+        }
+        this.nextLocalTick = inputDelay;
+    }
+
+    /**
+     * Schedules the local player's input for {@code inputDelay} ticks from now and sends it. Call once
+     * per simulated tick; while the session waits for other peers, further inputs are refused.
+     * @return False if refused because the local input is already {@code inputDelay} ticks ahead.
+     */
+    public boolean submitLocalInput(PlayerCommand command) {
+        if (command == null) throw new IllegalArgumentException("Command cannot be null.");
+        if (nextLocalTick > world.getTick() + inputDelay) return false;
+        long tick = nextLocalTick++;
+        store(Arrays.binarySearch(clients, localClient), tick, command);
+        out.clear();
+        out.put(INPUT);
+        WireFormat.putVarLong(out, tick);
+        out.put((byte) command.toBits());
+        send();
+        return true;
+    }
+
+    /**
+     * Handles a message from another peer. Inputs for ticks already simulated or too far ahead and
+     * messages from clients outside the session are ignored.
+     */
+    public void receive(int clientId, ByteBuffer message) {
+        int index = Arrays.binarySearch(clients, clientId);
+        if (index < 0 || clientId == localClient || !message.hasRemaining()) return;
+        switch (message.get()) {
+            case INPUT -> {
+                long tick = WireFormat.getVarLong(message);
+                PlayerCommand command = PlayerCommand.fromBits(message.get());
+                if (tick < world.getTick() || tick >= world.getTick() + INPUT_WINDOW) {
+                    log.warn("Dropped input of client {} for tick {} at tick {}.", clientId, tick, world.getTick());
+                    return;
+                }
+                store(index, tick, command);
+            }
+            case HASH -> {
+                long tick = WireFormat.getVarLong(message);
+                long hash = message.getLong();
+                if (tick > lastHashTick) {
+                    pendingHashes.add(new long[]{tick, hash});
+                } else {
+                    compare(tick, hash);
+                }
+            }
+            default -> log.warn("Unknown lockstep message from client {}.", clientId);
+        }
+    }
+
+    private void store(int clientIndex, long tick, PlayerCommand command) {
+        int slot = (int) (tick % INPUT_WINDOW);
+        inputs[clientIndex][slot] = command;
+        inputTicks[clientIndex][slot] = tick;
+    }
+
+    /** True if every player's input for the next tick has arrived. */
+    public boolean canAdvance() {
+        int slot = (int) (world.getTick() % INPUT_WINDOW);
+        for (long[] ticks : inputTicks) {
+            if (ticks[slot] != world.getTick()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Simulates the next tick if every input for it is in.
+     * @return False if still waiting for a peer.
+     */
+    public boolean advance() {
+        if (!canAdvance()) return false;
+        int slot = (int) (world.getTick() % INPUT_WINDOW);
+        for (int i = 0; i < clients.length; i++) {
+            world.setCommand(clients[i], inputs[i][slot]);
+        }
+        world.tick(1f / ServerWorld.TICK_RATE);
+        if (world.getTick() % HASH_INTERVAL == 0) {
+            publishHash();
+        }
+        return true;
+    }
+
+    private void publishHash() {
+        long tick = world.getTick();
+        long hash = world.computeStateHash();
+        int slot = (int) ((tick / HASH_INTERVAL) % HASH_HISTORY);
+        localHashTicks[slot] = tick;
+        localHashes[slot] = hash;
+        lastHashTick = tick;
+        out.clear();
+        out.put(HASH);
+        WireFormat.putVarLong(out, tick);
+        out.putLong(hash);
+        send();
+
+        for (Iterator<long[]> it = pendingHashes.iterator(); it.hasNext(); ) {
+            long[] pending = it.next();
+            if (pending[0] <= tick) {
+                compare(pending[0], pending[1]);
+                it.remove();
+            }
+        }
+    }
+
+    private void compare(long tick, long remoteHash) {
+        int slot = (int) ((tick / HASH_INTERVAL) % HASH_HISTORY);
+        if (localHashTicks[slot] != tick) return; // Too old to check, or not a hash tick
+        if (localHashes[slot] != remoteHash && (desyncTick < 0 || tick < desyncTick)) {
+            desyncTick = tick;
+            log.error("Lockstep desync: state hashes differ at tick {}.", tick);
+        }
+    }
+
+    private void send() {
+        out.flip();
+        bytesSent += out.remaining();
+        sender.broadcast(out);
+    }
+
+    public ServerWorld getWorld() { return world; }
+    public long getTick() { return world.getTick(); }
+    public int getInputDelay() { return inputDelay; }
+    /** Bytes of messages broadcast so far, once per message regardless of the number of peers. */
+    public long getBytesSent() { return bytesSent; }
+    /** The earliest tick at which a peer's state hash differed from ours, or -1 while in sync. */
+    public long getDesyncTick() { return desyncTick; }
+    public boolean isDesynced() { return desyncTick >= 0; }
+}
@@ -0,0 +1,145 @@
+package com.kindred.networking.prediction;
+
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.systems.CollisionSystem;
+import com.kindred.engine.entity.systems.MovementSystem;
+import com.kindred.engine.entity.systems.PlayerInputSystem;
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.input.StampedCommand;
+import com.kindred.engine.level.Level;
+import com.kindred.engine.resource.AnimationDataRegistry;
+import com.kindred.networking.replication.EntitySnapshot;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Client-side prediction of the local player's movement. Every input is applied to the local player
+ * immediately, with the same input, collision and movement code the server runs, and then sent to the
+ * server stamped with its tick ({@link com.kindred.networking.server.ServerWorld#submitInput}).
+ * <p>
+ * Snapshots carry the stamp of the last input the server applied. {@link #reconcile} compares the
+ * server's position with what was predicted after that input; if they differ, the player is reset to
+ * the server's position and every input the server has not applied yet is replayed on top of it.
+ * In the common case nothing differs and the player never waits for a round trip.
+ * <p>
+ * Only movement is predicted. Attacks go to the server in the stamped input but are not simulated
+ * locally, since hits depend on other entities the client only knows approximately.
+ */
+@Slf4j
+public class PlayerPredictor {
+
+    /** Inputs remembered for replay: a bit over 2 s at 60 Hz, far beyond any playable latency. */
+    public static final int HISTORY = 128;
+
+    private final EntityManager entityManager;
+    private final PlayerInputSystem inputSystem;
+    private final CollisionSystem collisionSystem;
+    private final MovementSystem movementSystem;
+    private final int playerEntity;
+
+    private final PlayerCommand[] commands = new PlayerCommand[HISTORY];
+    private final int[] predictedX = new int[HISTORY];
+    private final int[] predictedY = new int[HISTORY];
+    private int nextTick;
+    private int lastAck = -1;
+    private int corrections;
+
+    /**
+     * @param entityManager The client's entity manager, holding the local player and replicated entities.
+     * @param level The level, identical to the server's.
+     * @param animationRegistry Attack animation data, as given to the server.
+     * @param playerEntity The local entity of this client's player.
+     */
+    public PlayerPredictor(EntityManager entityManager, Level level, AnimationDataRegistry animationRegistry, int playerEntity) {
+        if (entityManager == null) throw new IllegalArgumentException("EntityManager cannot be null.");
+        if (level == null) throw new IllegalArgumentException("Level cannot be null.");
+        if (!entityManager.hasComponent(playerEntity, PositionComponent.class)) {
+            throw new IllegalArgumentException("Player entity " + playerEntity + " has no position.");
+        }
+        this.entityManager = entityManager;
+        this.inputSystem = new PlayerInputSystem(entityManager, null, animationRegistry);
+        this.collisionSystem = new CollisionSystem(entityManager, level);
+        this.movementSystem = new MovementSystem(entityManager);
+        this.playerEntity = playerEntity;
+    }
+
+    /**
+     * Applies one tick of input to the local player and stamps it for the server.
+     * @return The input to send; its tick is what later snapshots acknowledge.
+     */
+    public StampedCommand predict(PlayerCommand command) {
+        return predict(command, -1);
+    }
+
+    /**
+     * Like {@link #predict(PlayerCommand)}, also telling the server which of its ticks the client is
+     * showing, so attacks are judged against what the player saw.
+     * @param viewTick Server tick of the state on screen, -1 if unknown.
+     */
+    public StampedCommand predict(PlayerCommand command, int viewTick) {
+        if (command == null) throw new IllegalArgumentException("Command cannot be null.");
+        int tick = nextTick++;
+        commands[tick % HISTORY] = command.movementOnly();
+        step(tick);
+        return new StampedCommand(tick, command, viewTick);
+    }
+
+    private void step(int tick) {
+        int slot = tick % HISTORY;
+        inputSystem.applyCommand(playerEntity, commands[slot]);
+        collisionSystem.resolveEntity(playerEntity);
+        movementSystem.move(playerEntity);
+        PositionComponent pos = entityManager.getComponent(playerEntity, PositionComponent.class);
+        predictedX[slot] = pos.x;
+        predictedY[slot] = pos.y;
+    }
+
+    /**
+     * Reconciles with the server's state of the player in a snapshot.
+     * @param snapshot A snapshot decoded by the client, carrying the input ack.
+     * @param serverPlayerEntity The player's entity id on the server.
+     * @return True if the prediction was wrong and had to be corrected.
+     */
+    public boolean reconcile(EntitySnapshot snapshot, int serverPlayerEntity) {
+        int index = snapshot.indexOf(serverPlayerEntity);
+        if (index < 0) return false;
+        return reconcile(snapshot.getInputAck(), snapshot.getX(index), snapshot.getY(index));
+    }
+
+    /**
+     * Reconciles with the server's position of the player after it applied a given input.
+     * Acks older than one already reconciled are ignored.
+     * @param inputAck The stamp of the last input the server applied, -1 if none.
+     * @return True if the prediction was wrong and had to be corrected.
+     */
+    public boolean reconcile(int inputAck, int serverX, int serverY) {
+        if (inputAck < 0 || inputAck <= lastAck || inputAck >= nextTick) return false;
+        lastAck = inputAck;
+
+        int slot = inputAck % HISTORY;
+        if (nextTick - inputAck <= HISTORY && predictedX[slot] == serverX && predictedY[slot] == serverY) {
+            return false;
+        }
+
+        corrections++;
+        PositionComponent pos = entityManager.getComponent(playerEntity, PositionComponent.class);
+        log.debug("Prediction for input {} was ({}, {}), server had ({}, {}).", inputAck, predictedX[slot], predictedY[slot], serverX, serverY);
+        pos.x = serverX;
+        pos.y = serverY;
+        if (nextTick - inputAck > HISTORY) {
+            return true; // Too far behind to replay: take the server's word for it
+        }
+        for (int tick = inputAck + 1; tick < nextTick; tick++) {
+            step(tick);
+        }
+        return true;
+    }
+
+    /** Inputs predicted but not yet acknowledged by the server. */
+    public int getPendingInputCount() {
+        return lastAck < 0 ? nextTick : nextTick - 1 - lastAck;
+    }
+
+    public int getCorrectionCount() { return corrections; }
+    public int getPlayerEntity() { return playerEntity; }
+}
@@ -0,0 +1,47 @@
+package com.kindred.networking.replication;
+
+import java.nio.ByteBuffer;
+
+/** Reads what a {@link BitWriter} wrote. Running past the end throws IllegalArgumentException. */
+public class BitReader {
+
+    private ByteBuffer in;
+    private long scratch;
+    private int scratchBits;
+
+    public BitReader reset(ByteBuffer in) {
+        this.in = in;
+        this.scratch = 0;
+        this.scratchBits = 0;
+        return this;
+    }
+
+    /** Reads an unsigned value of {@code bits} bits (0 to 32). */
+    public int read(int bits) {
+        if (bits < 0 || bits > 32) throw new IllegalArgumentException("Bit count must be 0-32, was " + bits + ".");
+        if (bits == 0) return 0;
+        while (scratchBits < bits) {
+            if (!in.hasRemaining()) throw new IllegalArgumentException("Bit stream ended early.");
+            scratch = (scratch << 8) | (in.get() & 0xFF);
+            scratchBits += 8;
+        }
+        scratchBits -= bits;
+        return (int) ((scratch >>> scratchBits) & (0xFFFFFFFFL >>> (32 - bits)));
+    }
+
+    public boolean readBoolean() {
+        return read(1) != 0;
+    }
+
+    public int readGamma() {
+        int length = 0;
+        while (read(1) == 0) {
+            if (++length > 31) throw new IllegalArgumentException("Invalid gamma code.");
+        }
+        return length == 0 ? 1 : (1 << length) | read(length);
+    }
+
+    public int readSigned(int bits) {
+        return BitWriter.unZigZag(read(bits));
+    }
+}
@@ -0,0 +1,72 @@
+package com.kindred.networking.replication;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes values of arbitrary bit width into a ByteBuffer, most significant bit first.
+ * Call {@link #flush()} when done; the last byte is zero-padded.
+ */
+public class BitWriter {
+
+    private ByteBuffer out;
+    private long scratch;
+    private int scratchBits;
+    private int bitsWritten;
+
+    /** Starts writing at the buffer's position. */
+    public BitWriter reset(ByteBuffer out) {
+        this.out = out;
+        this.scratch = 0;
+        this.scratchBits = 0;
+        this.bitsWritten = 0;
+        return this;
+    }
+
+    /** Writes the low {@code bits} bits of value (0 to 32 bits). */
+    public void write(int value, int bits) {
+        if (bits < 0 || bits > 32) throw new IllegalArgumentException("Bit count must be 0-32, was " + bits + ".");
+        if (bits == 0) return;
+        scratch = (scratch << bits) | (value & (0xFFFFFFFFL >>> (32 - bits)));
+        scratchBits += bits;
+        bitsWritten += bits;
+        while (scratchBits >= 8) {
+            scratchBits -= 8;
+            out.put((byte) (scratch >>> scratchBits));
+        }
+    }
+
+    public void writeBoolean(boolean value) {
+        write(value ? 1 : 0, 1);
+    }
+
+    /** Elias gamma code for value >= 1: 1 takes 1 bit, 2-3 take 3 bits, 4-7 take 5 bits and so on. */
+    public void writeGamma(int value) {
+        if (value < 1) throw new IllegalArgumentException("Gamma code needs a value >= 1, was " + value + ".");
+        int length = 31 - Integer.numberOfLeadingZeros(value);
+        write(0, length);
+        write(value, length + 1);
+    }
+
+    /** Writes a signed value zig-zag encoded into {@code bits} bits. */
+    public void writeSigned(int value, int bits) {
+        write(zigZag(value), bits);
+    }
+
+    /** Pads the last partial byte with zeros. */
+    public void flush() {
+        if (scratchBits > 0) {
+            out.put((byte) (scratch << (8 - scratchBits)));
+            scratchBits = 0;
+        }
+    }
+
+    public int getBitsWritten() { return bitsWritten; }
+
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
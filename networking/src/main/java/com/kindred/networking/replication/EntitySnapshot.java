@@ -0,0 +1,159 @@
+package com.kindred.networking.replication;
+
+import com.kindred.engine.entity.components.AnimationComponent;
+import com.kindred.engine.entity.components.DeadComponent;
+import com.kindred.engine.entity.components.EnemyComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.NPCComponent;
+import com.kindred.engine.entity.components.PlayerComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.core.EntityManager;
+
+import java.util.Arrays;
+
+/**
+ * Replicated state of every relevant entity at one tick, stored as parallel arrays sorted by entity id
+ * so two snapshots can be diffed with a single merge pass. Values are kept already quantized, exactly
+ * as they go over the wire, so a change too small to transmit is not a change at all.
+ * Instances are reused: {@link #clear(int)} keeps the arrays.
+ */
+public class EntitySnapshot {
+
+    public static final int ARCHETYPE_PLAYER = 0;
+    public static final int ARCHETYPE_NPC = 1;
+    public static final int ARCHETYPE_ENEMY = 2;
+    public static final int ARCHETYPE_OTHER = 3;
+
+    /** Health is sent as a fraction of max health in this many steps. */
+    static final int HEALTH_STEPS = 255;
+    static final int MAX_HEALTH_LIMIT = 0xFFFF;
+    static final int FRAME_MASK = 0xF;
+    static final int MAX_DECAY_STAGE = 14;
+
+    private int tick;
+    private int inputAck = -1;
+    private int count;
+    int[] ids = new int[64];
+    int[] archetypes = new int[64];
+    int[] x = new int[64];
+    int[] y = new int[64];
+    int[] health = new int[64];      // Quantized 0..HEALTH_STEPS
+    int[] maxHealth = new int[64];   // Rounded, 0 when the entity has no health
+    int[] animation = new int[64];   // direction << 4 | frame
+    int[] dead = new int[64];        // 0 alive, otherwise 1 + decay stage
+
+    public EntitySnapshot clear(int tick) {
+        this.tick = tick;
+        this.inputAck = -1;
+        this.count = 0;
+        return this;
+    }
+
+    /**
+     * Captures every entity with a position and either health or animation: players, NPCs and enemies,
+     * but not particles or other client-side effects.
+     */
+    public EntitySnapshot capture(EntityManager entityManager, int tick) {
+        clear(tick);
+        int[] sorted = entityManager.getEntitiesWith(PositionComponent.class).stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(sorted);
+        for (int entityId : sorted) {
+            HealthComponent healthComponent = entityManager.getComponent(entityId, HealthComponent.class);
+            AnimationComponent anim = entityManager.getComponent(entityId, AnimationComponent.class);
+            if (healthComponent == null && anim == null) continue;
+            PositionComponent pos = entityManager.getComponent(entityId, PositionComponent.class);
+            DeadComponent deadComponent = entityManager.getComponent(entityId, DeadComponent.class);
+
+            int i = append(entityId);
+            archetypes[i] = archetypeOf(entityManager, entityId);
+            x[i] = pos.x;
+            y[i] = pos.y;
+            if (healthComponent != null) {
+                maxHealth[i] = Math.max(1, Math.min(MAX_HEALTH_LIMIT, Math.round(healthComponent.maxHealth)));
+                health[i] = Math.round(Math.max(0, Math.min(1, healthComponent.getHealthPercentage())) * HEALTH_STEPS);
+            } else {
+                maxHealth[i] = 0;
+                health[i] = 0;
+            }
+            animation[i] = anim == null ? 0 : (anim.direction & 3) << 4 | (anim.frame & FRAME_MASK);
+            dead[i] = deadComponent == null ? 0 : 1 + Math.max(0, Math.min(MAX_DECAY_STAGE, deadComponent.decayStage));
+        }
+        return this;
+    }
+
+    private static int archetypeOf(EntityManager entityManager, int entityId) {
+        if (entityManager.hasComponent(entityId, PlayerComponent.class)) return ARCHETYPE_PLAYER;
+        if (entityManager.hasComponent(entityId, EnemyComponent.class)) return ARCHETYPE_ENEMY;
+        if (entityManager.hasComponent(entityId, NPCComponent.class)) return ARCHETYPE_NPC;
+        return ARCHETYPE_OTHER;
+    }
+
+    /** Appends an entity; ids must be appended in ascending order. Returns its index. */
+    int append(int entityId) {
+        if (count > 0 && ids[count - 1] >= entityId) {
+            throw new IllegalArgumentException("Entity ids must be appended in ascending order.");
+        }
+        if (count == ids.length) {
+            int capacity = count * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            archetypes = Arrays.copyOf(archetypes, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            health = Arrays.copyOf(health, capacity);
+            maxHealth = Arrays.copyOf(maxHealth, capacity);
+            animation = Arrays.copyOf(animation, capacity);
+            dead = Arrays.copyOf(dead, capacity);
+        }
+        ids[count] = entityId;
+        return count++;
+    }
+
+    /** Appends a copy of another snapshot's entry. */
+    int appendFrom(EntitySnapshot other, int index) {
+        int i = append(other.ids[index]);
+        archetypes[i] = other.archetypes[index];
+        x[i] = other.x[index];
+        y[i] = other.y[index];
+        health[i] = other.health[index];
+        maxHealth[i] = other.maxHealth[index];
+        animation[i] = other.animation[index];
+        dead[i] = other.dead[index];
+        return i;
+    }
+
+    /** Returns the index of an entity, or a negative value if it is not in the snapshot. */
+    public int indexOf(int entityId) {
+        return Arrays.binarySearch(ids, 0, count, entityId);
+    }
+
+    public int getTick() { return tick; }
+    /** Last input of the receiving client the server had applied at this tick, -1 if none; see ServerWorld#submitInput. */
+    public int getInputAck() { return inputAck; }
+    public void setInputAck(int inputAck) { this.inputAck = inputAck; }
+    public int size() { return count; }
+    public int getEntityId(int index) { return ids[index]; }
+    public int getArchetype(int index) { return archetypes[index]; }
+    public int getX(int index) { return x[index]; }
+    public int getY(int index) { return y[index]; }
+    public boolean hasHealth(int index) { return maxHealth[index] > 0; }
+    public float getMaxHealth(int index) { return maxHealth[index]; }
+    /** Current health, reconstructed from the quantized fraction (max health / 255 resolution). */
+    public float getHealth(int index) { return maxHealth[index] * health[index] / (float) HEALTH_STEPS; }
+    public int getDirection(int index) { return animation[index] >> 4; }
+    public int getFrame(int index) { return animation[index] & FRAME_MASK; }
+    public boolean isDead(int index) { return dead[index] != 0; }
+    public int getDecayStage(int index) { return Math.max(0, dead[index] - 1); }
+
+    /** True if both snapshots hold the same entities with the same quantized state. */
+    public boolean sameState(EntitySnapshot other) {
+        if (count != other.count) return false;
+        for (int i = 0; i < count; i++) {
+            if (ids[i] != other.ids[i] || archetypes[i] != other.archetypes[i] || x[i] != other.x[i] || y[i] != other.y[i]
+                    || health[i] != other.health[i] || maxHealth[i] != other.maxHealth[i]
+                    || animation[i] != other.animation[i] || dead[i] != other.dead[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,159 @@
+package com.kindred.networking.replication;
+
+import com.kindred.engine.entity.components.AnimationComponent;
+import com.kindred.engine.entity.components.DeadComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.core.EntityManager;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Client half of snapshot replication: decodes deltas from {@link ReplicationServer} against the
+ * snapshots received earlier and mirrors the newest one into a local {@link EntityManager}.
+ * The tick returned by {@link #read} must be acknowledged back to the server (unreliably is fine);
+ * that tick becomes the baseline of later deltas.
+ */
+public class ReplicationClient {
+
+    /** Creates the local entity for a replicated one, with whatever sprites its archetype needs. */
+    @FunctionalInterface
+    public interface Spawner {
+        /** @return The local entity id. */
+        int spawn(EntityManager entityManager, int archetype, int x, int y);
+    }
+
+    private final EntitySnapshot[] received = new EntitySnapshot[ReplicationServer.HISTORY];
+    private EntitySnapshot scratch = new EntitySnapshot();
+    private int latest = -1;
+    private int stored;
+    private final BitReader reader = new BitReader();
+    private final Map<Integer, Integer> localIds = new HashMap<>();
+    private int predictedEntity = -1;
+
+    public ReplicationClient() {
+        for (int i = 0; i < received.length; i++) {
+            received[i] = new EntitySnapshot();
+        }
+    }
+
+    /**
+     * Decodes one snapshot message.
+     * @return The tick to acknowledge, or -1 if the message is older than the newest snapshot or refers
+     *         to a baseline this client no longer has (the server falls back to a full snapshot).
+     * @throws IllegalArgumentException If the message is malformed.
+     */
+    public int read(ByteBuffer message) {
+        if (message.remaining() < 4) throw new IllegalArgumentException("Snapshot message too short.");
+        int tick = message.getInt(message.position());
+        if (latest >= 0 && tick - received[latest].getTick() <= 0) return -1;
+
+        EntitySnapshot decoded = SnapshotCodec.decode(reader.reset(message), this::find, scratch);
+        if (decoded == null) return -1;
+        // Keep the decoded snapshot and recycle the oldest one as the next scratch
+        latest = (latest + 1) % received.length;
+        scratch = received[latest];
+        received[latest] = decoded;
+        stored = Math.min(stored + 1, received.length);
+        return tick;
+    }
+
+    private EntitySnapshot find(int tick) {
+        for (int i = 0; i < stored; i++) {
+            if (received[i].getTick() == tick) return received[i];
+        }
+        return null;
+    }
+
+    /** The newest decoded snapshot, or null before the first one. */
+    public EntitySnapshot getLatest() {
+        return latest < 0 ? null : received[latest];
+    }
+
+    /**
+     * Mirrors the newest snapshot into the entity manager: spawns entities that appeared, destroys the
+     * ones that disappeared and overwrites position, health, facing, animation frame and death state.
+     */
+    public void applyTo(EntityManager entityManager, Spawner spawner) {
+        EntitySnapshot snapshot = getLatest();
+        if (snapshot == null) return;
+        for (int i = 0; i < snapshot.size(); i++) {
+            int serverId = snapshot.getEntityId(i);
+            Integer localId = localIds.get(serverId);
+            if (localId == null || !entityManager.isEntityActive(localId)) {
+                localId = spawner.spawn(entityManager, snapshot.getArchetype(i), snapshot.getX(i), snapshot.getY(i));
+                localIds.put(serverId, localId);
+            }
+            apply(entityManager, localId, snapshot, i);
+        }
+        Iterator<Map.Entry<Integer, Integer>> it = localIds.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Integer> entry = it.next();
+            if (snapshot.indexOf(entry.getKey()) < 0) {
+                if (entityManager.isEntityActive(entry.getValue())) {
+                    entityManager.destroyEntity(entry.getValue());
+                }
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Excludes one server entity, the locally predicted player, from position updates in {@link #applyTo};
+     * its position is corrected through prediction reconciliation instead. -1 to clear.
+     */
+    public void setPredictedEntity(int serverEntityId) {
+        this.predictedEntity = serverEntityId;
+    }
+
+    private void apply(EntityManager entityManager, int entityId, EntitySnapshot snapshot, int i) {
+        PositionComponent pos = entityManager.getComponent(entityId, PositionComponent.class);
+        if (snapshot.getEntityId(i) == predictedEntity && pos != null) {
+            // Owned by the predictor
+        } else if (pos == null) {
+            entityManager.addComponent(entityId, new PositionComponent(snapshot.getX(i), snapshot.getY(i)));
+        } else {
+            pos.x = snapshot.getX(i);
+            pos.y = snapshot.getY(i);
+        }
+
+        if (snapshot.hasHealth(i)) {
+            HealthComponent health = entityManager.getComponent(entityId, HealthComponent.class);
+            if (health == null) {
+                health = new HealthComponent(snapshot.getMaxHealth(i));
+                entityManager.addComponent(entityId, health);
+            }
+            if (health.maxHealth != snapshot.getMaxHealth(i) || health.currentHealth != snapshot.getHealth(i)) {
+                health.maxHealth = snapshot.getMaxHealth(i);
+                health.currentHealth = snapshot.getHealth(i);
+                entityManager.markChanged(health);
+            }
+        }
+
+        AnimationComponent anim = entityManager.getComponent(entityId, AnimationComponent.class);
+        if (anim != null) {
+            anim.direction = snapshot.getDirection(i);
+            anim.frame = snapshot.getFrame(i);
+        }
+
+        DeadComponent dead = entityManager.getComponent(entityId, DeadComponent.class);
+        if (snapshot.isDead(i)) {
+            if (dead == null) {
+                entityManager.addComponent(entityId, new DeadComponent(snapshot.getDecayStage(i)));
+            } else {
+                dead.decayStage = snapshot.getDecayStage(i);
+            }
+        } else if (dead != null) {
+            entityManager.removeComponent(entityId, DeadComponent.class);
+        }
+    }
+
+    /** Local entity mirroring a server entity, or -1. */
+    public int getLocalEntity(int serverEntityId) {
+        Integer localId = localIds.get(serverEntityId);
+        return localId == null ? -1 : localId;
+    }
+}
@@ -0,0 +1,152 @@
+package com.kindred.networking.replication;
+
+import com.kindred.engine.entity.core.EntityManager;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Server half of snapshot replication. Every send tick the world is captured once; each client then gets
+ * the part of it that is relevant to it (see {@link InterestFilter}) as a delta against the newest snapshot
+ * it has acknowledged, or in full if it has not acknowledged anything still in its history.
+ * <p>
+ * Because deltas are always relative to acknowledged state, deltas can travel on the unreliable channel:
+ * a lost delta is simply superseded by the next one. Entity creation and destruction are part of every
+ * delta until the client acknowledges a snapshot that contains them, which makes them reliable without
+ * a separate channel or ordering problems between the two. An entity leaving a client's interest is sent
+ * as a destroy, entering it as a create.
+ */
+public class ReplicationServer {
+
+    /** Snapshots kept per client as possible baselines. At 20 Hz this covers 1.6 s of missing acks. */
+    public static final int HISTORY = 32;
+    /** Server ticks between snapshots: 20 Hz at the 60 Hz simulation rate. */
+    public static final int DEFAULT_SEND_INTERVAL = 3;
+
+    /** Decides which entities a client is told about. */
+    @FunctionalInterface
+    public interface InterestFilter {
+        boolean isRelevant(int clientId, int entityId);
+    }
+
+    private final EntitySnapshot world = new EntitySnapshot();
+    private boolean captured;
+    private InterestFilter interestFilter;
+    private final Map<Integer, ClientView> clients = new HashMap<>();
+    private final BitWriter writer = new BitWriter();
+
+    /** What one client was sent: its own ring, since every client sees a different part of the world. */
+    private static final class ClientView {
+        final EntitySnapshot[] history = new EntitySnapshot[HISTORY];
+        int latest = -1;
+        int stored;
+        boolean hasAck;
+        int ackedTick;
+        long bytesSent;
+
+        ClientView() {
+            for (int i = 0; i < HISTORY; i++) {
+                history[i] = new EntitySnapshot();
+            }
+        }
+
+        EntitySnapshot find(int tick) {
+            for (int i = 0; i < stored; i++) {
+                if (history[i].getTick() == tick) return history[i];
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Captures the world for this tick.
+     * @throws IllegalArgumentException If the tick is not newer than the previous capture.
+     */
+    public EntitySnapshot capture(EntityManager entityManager, int tick) {
+        if (captured && tick - world.getTick() <= 0) {
+            throw new IllegalArgumentException("Tick " + tick + " is not newer than the last snapshot " + world.getTick() + ".");
+        }
+        captured = true;
+        return world.capture(entityManager, tick);
+    }
+
+    /** Limits what clients are sent; null (the default) sends everything to everyone. */
+    public void setInterestFilter(InterestFilter interestFilter) {
+        this.interestFilter = interestFilter;
+    }
+
+    public void addClient(int clientId) {
+        clients.put(clientId, new ClientView());
+    }
+
+    public void removeClient(int clientId) {
+        clients.remove(clientId);
+    }
+
+    /**
+     * Records that a client has decoded the snapshot of the given tick. Stale or unknown acks are ignored.
+     */
+    public void acknowledge(int clientId, int tick) {
+        ClientView view = clients.get(clientId);
+        if (view == null || view.find(tick) == null) return;
+        if (!view.hasAck || tick - view.ackedTick > 0) {
+            view.hasAck = true;
+            view.ackedTick = tick;
+        }
+    }
+
+    /** {@link #writeDelta(int, ByteBuffer, int)} for clients that do not predict. */
+    public int writeDelta(int clientId, ByteBuffer out) {
+        return writeDelta(clientId, out, -1);
+    }
+
+    /**
+     * Writes the latest capture for a client, filtered by interest, as a delta against its acknowledged baseline.
+     * @param inputAck The client's last applied input stamp, for prediction; -1 if none.
+     * @return The number of bytes written.
+     * @throws IllegalArgumentException If the client is unknown or nothing was captured yet.
+     */
+    public int writeDelta(int clientId, ByteBuffer out, int inputAck) {
+        ClientView view = clients.get(clientId);
+        if (view == null) throw new IllegalArgumentException("Unknown replication client " + clientId + ".");
+        if (!captured) throw new IllegalArgumentException("No snapshot captured yet.");
+
+        // Sending the same capture twice reuses its slot rather than filling the ring with copies
+        if (view.latest < 0 || view.history[view.latest].getTick() != world.getTick()) {
+            view.latest = (view.latest + 1) % HISTORY;
+            view.stored = Math.min(view.stored + 1, HISTORY);
+        }
+        if (view.hasAck && view.history[view.latest].getTick() == view.ackedTick) {
+            view.hasAck = false; // The baseline is about to be overwritten
+        }
+        EntitySnapshot current = view.history[view.latest].clear(world.getTick());
+        current.setInputAck(inputAck);
+        for (int i = 0; i < world.size(); i++) {
+            if (interestFilter == null || interestFilter.isRelevant(clientId, world.getEntityId(i))) {
+                current.appendFrom(world, i);
+            }
+        }
+
+        EntitySnapshot baseline = view.hasAck ? view.find(view.ackedTick) : null;
+        int start = out.position();
+        SnapshotCodec.encode(current, baseline, writer.reset(out));
+        int written = out.position() - start;
+        view.bytesSent += written;
+        return written;
+    }
+
+    /** The last world capture, unfiltered, or null before the first. */
+    public EntitySnapshot getLatest() {
+        return captured ? world : null;
+    }
+
+    public long getBytesSent(int clientId) {
+        ClientView view = clients.get(clientId);
+        return view == null ? 0 : view.bytesSent;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+}
@@ -0,0 +1,208 @@
+package com.kindred.networking.replication;
+
+/**
+ * Bit-packed delta encoding of one {@link EntitySnapshot} against an older one the receiver already has.
+ * Entities are walked in id order, so ids are sent as small gaps. Each record is one of
+ * <ul>
+ *   <li>CREATE: archetype and every field in full,</li>
+ *   <li>UPDATE: a 6-bit mask of changed fields, then only those fields,</li>
+ *   <li>DESTROY: nothing else.</li>
+ * </ul>
+ * Unchanged entities cost nothing. Positions move by a few pixels per tick, so a position change is
+ * sent as a 6-bit delta when it fits and as an absolute value otherwise.
+ * <p>
+ * Layout: tick u32, input ack u32, has-baseline bit [+ gamma(tick - baseline tick + 1)], then per record a 1 bit, gamma(id gap),
+ * op u2 and the payload, and finally a 0 bit.
+ */
+public final class SnapshotCodec {
+
+    static final int OP_CREATE = 0;
+    static final int OP_UPDATE = 1;
+    static final int OP_DESTROY = 2;
+
+    static final int FIELD_X = 1;
+    static final int FIELD_Y = 1 << 1;
+    static final int FIELD_HEALTH = 1 << 2;
+    static final int FIELD_MAX_HEALTH = 1 << 3;
+    static final int FIELD_ANIMATION = 1 << 4;
+    static final int FIELD_DEAD = 1 << 5;
+    static final int FIELD_BITS = 6;
+
+    static final int POSITION_BITS = 20; // Zig-zag, +-524k pixels
+    static final int SMALL_DELTA_BITS = 6; // Zig-zag, +-31 pixels
+    static final int ARCHETYPE_BITS = 3;
+    static final int HEALTH_BITS = 8;
+    static final int MAX_HEALTH_BITS = 16;
+    static final int ANIMATION_BITS = 6;
+    static final int DEAD_BITS = 4;
+
+    private SnapshotCodec() {}
+
+    /**
+     * Writes {@code current} as a delta against {@code baseline}.
+     * @param baseline A snapshot the receiver holds, or null to send everything as creates.
+     * @param writer Positioned on the destination buffer; flushed on return.
+     */
+    public static void encode(EntitySnapshot current, EntitySnapshot baseline, BitWriter writer) {
+        writer.write(current.getTick(), 32);
+        writer.write(current.getInputAck(), 32);
+        writer.writeBoolean(baseline != null);
+        if (baseline != null) {
+            int age = current.getTick() - baseline.getTick();
+            if (age < 0) throw new IllegalArgumentException("Baseline tick " + baseline.getTick() + " is newer than " + current.getTick() + ".");
+            writer.writeGamma(age + 1);
+        }
+        int baseCount = baseline == null ? 0 : baseline.size();
+        int previousId = -1;
+        int i = 0, j = 0;
+        while (i < current.size() || j < baseCount) {
+            int currentId = i < current.size() ? current.ids[i] : Integer.MAX_VALUE;
+            int baseId = j < baseCount ? baseline.ids[j] : Integer.MAX_VALUE;
+            if (currentId < baseId) {
+                previousId = writeRecordHeader(writer, previousId, currentId, OP_CREATE);
+                writeCreate(writer, current, i++);
+            } else if (baseId < currentId) {
+                previousId = writeRecordHeader(writer, previousId, baseId, OP_DESTROY);
+                j++;
+            } else {
+                int mask = changedFields(current, i, baseline, j);
+                if (mask != 0) {
+                    previousId = writeRecordHeader(writer, previousId, currentId, OP_UPDATE);
+                    writeUpdate(writer, current, i, baseline, j, mask);
+                }
+                i++;
+                j++;
+            }
+        }
+        writer.writeBoolean(false);
+        writer.flush();
+    }
+
+    /**
+     * Reads a delta into {@code target}.
+     * @param baselineLookup Finds the snapshot the delta was made against by tick, or returns null.
+     * @return The target, or null if the delta refers to a baseline the lookup no longer has.
+     * @throws IllegalArgumentException If the data is malformed.
+     */
+    public static EntitySnapshot decode(BitReader reader, BaselineLookup baselineLookup, EntitySnapshot target) {
+        int tick = reader.read(32);
+        int inputAck = reader.read(32);
+        EntitySnapshot baseline = null;
+        if (reader.readBoolean()) {
+            baseline = baselineLookup.find(tick - (reader.readGamma() - 1));
+            if (baseline == null) return null;
+        }
+        if (baseline == target) throw new IllegalArgumentException("Cannot decode a snapshot into its own baseline.");
+        target.clear(tick);
+        target.setInputAck(inputAck);
+        int baseCount = baseline == null ? 0 : baseline.size();
+        int j = 0;
+        int id = -1;
+        while (reader.readBoolean()) {
+            id += reader.readGamma();
+            int op = reader.read(2);
+            while (j < baseCount && baseline.ids[j] < id) {
+                target.appendFrom(baseline, j++);
+            }
+            boolean inBaseline = j < baseCount && baseline.ids[j] == id;
+            switch (op) {
+                case OP_CREATE -> {
+                    if (inBaseline) j++; // Recreated under the same id
+                    readCreate(reader, target, target.append(id));
+                }
+                case OP_UPDATE -> {
+                    if (!inBaseline) throw new IllegalArgumentException("Update for entity " + id + " missing from the baseline.");
+                    readUpdate(reader, target, target.appendFrom(baseline, j++));
+                }
+                case OP_DESTROY -> {
+                    if (!inBaseline) throw new IllegalArgumentException("Destroy for entity " + id + " missing from the baseline.");
+                    j++;
+                }
+                default -> throw new IllegalArgumentException("Unknown snapshot record op " + op + ".");
+            }
+        }
+        while (j < baseCount) {
+            target.appendFrom(baseline, j++);
+        }
+        return target;
+    }
+
+    /** Finds a previously decoded snapshot by tick. */
+    @FunctionalInterface
+    public interface BaselineLookup {
+        EntitySnapshot find(int tick);
+    }
+
+    private static int writeRecordHeader(BitWriter writer, int previousId, int id, int op) {
+        writer.writeBoolean(true);
+        writer.writeGamma(id - previousId);
+        writer.write(op, 2);
+        return id;
+    }
+
+    private static int changedFields(EntitySnapshot a, int i, EntitySnapshot b, int j) {
+        int mask = 0;
+        if (a.x[i] != b.x[j]) mask |= FIELD_X;
+        if (a.y[i] != b.y[j]) mask |= FIELD_Y;
+        if (a.health[i] != b.health[j]) mask |= FIELD_HEALTH;
+        if (a.maxHealth[i] != b.maxHealth[j]) mask |= FIELD_MAX_HEALTH;
+        if (a.animation[i] != b.animation[j]) mask |= FIELD_ANIMATION;
+        if (a.dead[i] != b.dead[j]) mask |= FIELD_DEAD;
+        return mask;
+    }
+
+    private static void writeCreate(BitWriter writer, EntitySnapshot s, int i) {
+        writer.write(s.archetypes[i], ARCHETYPE_BITS);
+        writer.writeSigned(s.x[i], POSITION_BITS);
+        writer.writeSigned(s.y[i], POSITION_BITS);
+        writer.write(s.maxHealth[i], MAX_HEALTH_BITS);
+        if (s.maxHealth[i] > 0) writer.write(s.health[i], HEALTH_BITS);
+        writer.write(s.animation[i], ANIMATION_BITS);
+        writer.write(s.dead[i], DEAD_BITS);
+    }
+
+    private static void readCreate(BitReader reader, EntitySnapshot s, int i) {
+        s.archetypes[i] = reader.read(ARCHETYPE_BITS);
+        s.x[i] = reader.readSigned(POSITION_BITS);
+        s.y[i] = reader.readSigned(POSITION_BITS);
+        s.maxHealth[i] = reader.read(MAX_HEALTH_BITS);
+        s.health[i] = s.maxHealth[i] > 0 ? reader.read(HEALTH_BITS) : 0;
+        s.animation[i] = reader.read(ANIMATION_BITS);
+        s.dead[i] = reader.read(DEAD_BITS);
+    }
+
+    private static void writeUpdate(BitWriter writer, EntitySnapshot s, int i, EntitySnapshot base, int j, int mask) {
+        writer.write(mask, FIELD_BITS);
+        if ((mask & FIELD_X) != 0) writePosition(writer, s.x[i], base.x[j]);
+        if ((mask & FIELD_Y) != 0) writePosition(writer, s.y[i], base.y[j]);
+        if ((mask & FIELD_HEALTH) != 0) writer.write(s.health[i], HEALTH_BITS);
+        if ((mask & FIELD_MAX_HEALTH) != 0) writer.write(s.maxHealth[i], MAX_HEALTH_BITS);
+        if ((mask & FIELD_ANIMATION) != 0) writer.write(s.animation[i], ANIMATION_BITS);
+        if ((mask & FIELD_DEAD) != 0) writer.write(s.dead[i], DEAD_BITS);
+    }
+
+    private static void readUpdate(BitReader reader, EntitySnapshot s, int i) {
+        int mask = reader.read(FIELD_BITS);
+        if ((mask & FIELD_X) != 0) s.x[i] = readPosition(reader, s.x[i]);
+        if ((mask & FIELD_Y) != 0) s.y[i] = readPosition(reader, s.y[i]);
+        if ((mask & FIELD_HEALTH) != 0) s.health[i] = reader.read(HEALTH_BITS);
+        if ((mask & FIELD_MAX_HEALTH) != 0) s.maxHealth[i] = reader.read(MAX_HEALTH_BITS);
+        if ((mask & FIELD_ANIMATION) != 0) s.animation[i] = reader.read(ANIMATION_BITS);
+        if ((mask & FIELD_DEAD) != 0) s.dead[i] = reader.read(DEAD_BITS);
+    }
+
+    private static void writePosition(BitWriter writer, int value, int baseValue) {
+        int delta = value - baseValue;
+        boolean small = delta >= -31 && delta <= 31;
+        writer.writeBoolean(small);
+        if (small) {
+            writer.writeSigned(delta, SMALL_DELTA_BITS);
+        } else {
+            writer.writeSigned(value, POSITION_BITS);
+        }
+    }
+
+    private static int readPosition(BitReader reader, int baseValue) {
+        return reader.readBoolean() ? baseValue + reader.readSigned(SMALL_DELTA_BITS) : reader.readSigned(POSITION_BITS);
+    }
+}
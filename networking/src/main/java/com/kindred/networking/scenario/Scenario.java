@@ -0,0 +1,147 @@
+package com.kindred.networking.scenario;
+
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.networking.server.HeadlessServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A reproducible workload for {@link ScenarioRunner}: a map, how many extra wolves, villagers and
+ * particles to put in it, a script of what the player does, and the budgets the run must stay within.
+ * Scenarios are properties files; every key but {@code map} and {@code ticks} is optional:
+ * <pre>
+ * map=/assets/level/forest_crisis_greybox_map.png
+ * ticks=1800            # measured ticks
+ * warmupTicks=600       # run first and not measured, so the JIT has settled
+ * seed=42
+ * wolves=12
+ * villagers=24
+ * particles=300         # kept alive around the player, replaced as they expire
+ * render=true           # also draw every tick into an offscreen Screen
+ * input=0:R 120:RD 240:LA 360:-
+ * inputPeriod=480       # the script starts over every 480 ticks
+ * budget.p99TickMicros=8000
+ * budget.allocatedBytesPerTick=200000
+ * </pre>
+ * Each input step is {@code tick:keys}, keys from {@code U D L R A I} (up, down, left, right,
+ * attack, interact) or {@code -} for none; a step holds until the next one, and without an
+ * {@code inputPeriod} the last step holds to the end. Ticks count from the first warm-up tick.
+ * A budget of 0 is not checked.
+ *
+ * @param name Shown in results, usually the file name.
+ * @param input Steps in tick order.
+ * @param inputPeriod Ticks after which the input script starts over; 0 to play it once.
+ */
+public record Scenario(
+        String name,
+        String levelPath,
+        int tileSize,
+        long seed,
+        int ticks,
+        int warmupTicks,
+        int wolves,
+        int villagers,
+        int particles,
+        boolean render,
+        List<Step> input,
+        int inputPeriod,
+        long p99TickBudgetNanos,
+        long allocatedBytesPerTickBudget) {
+
+    /** Hold {@code command} from {@code tick} of the script on. */
+    public record Step(long tick, PlayerCommand command) {}
+
+    public Scenario {
+        if (levelPath == null || levelPath.isBlank()) throw new IllegalArgumentException("Scenario needs a map.");
+        if (ticks <= 0 || warmupTicks < 0) throw new IllegalArgumentException("Scenario tick counts must be positive.");
+        if (wolves < 0 || villagers < 0 || particles < 0) throw new IllegalArgumentException("Spawn counts cannot be negative.");
+        if (inputPeriod < 0) throw new IllegalArgumentException("Input period cannot be negative.");
+        input = List.copyOf(input);
+        for (int i = 1; i < input.size(); i++) {
+            if (input.get(i).tick() <= input.get(i - 1).tick()) {
+                throw new IllegalArgumentException("Input steps must be in tick order.");
+            }
+        }
+        if (inputPeriod > 0 && !input.isEmpty() && input.get(input.size() - 1).tick() >= inputPeriod) {
+            throw new IllegalArgumentException("Input steps must fall within the input period.");
+        }
+    }
+
+    /**
+     * Loads a scenario from the classpath.
+     * @throws IOException If the resource is missing or unreadable.
+     * @throws IllegalArgumentException If the scenario is malformed.
+     */
+    public static Scenario load(String resource) throws IOException {
+        try (InputStream in = Scenario.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IOException("Scenario not found on the classpath: " + resource);
+            Properties properties = new Properties();
+            properties.load(in);
+            return fromProperties(resource.substring(resource.lastIndexOf('/') + 1), properties);
+        }
+    }
+
+    /** Parses a scenario from the text of a scenario file. */
+    public static Scenario parse(String name, String text) {
+        try (Reader reader = new StringReader(text)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return fromProperties(name, properties);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable scenario " + name + ".", e); // Cannot happen for a string
+        }
+    }
+
+    private static Scenario fromProperties(String name, Properties properties) {
+        try {
+            return new Scenario(
+                    name,
+                    properties.getProperty("map"),
+                    Integer.parseInt(properties.getProperty("tileSize", String.valueOf(HeadlessServer.DEFAULT_TILE_SIZE))),
+                    Long.parseLong(properties.getProperty("seed", "0")),
+                    Integer.parseInt(properties.getProperty("ticks", "0")),
+                    Integer.parseInt(properties.getProperty("warmupTicks", "0")),
+                    Integer.parseInt(properties.getProperty("wolves", "0")),
+                    Integer.parseInt(properties.getProperty("villagers", "0")),
+                    Integer.parseInt(properties.getProperty("particles", "0")),
+                    Boolean.parseBoolean(properties.getProperty("render", "false")),
+                    parseInput(properties.getProperty("input", "")),
+                    Integer.parseInt(properties.getProperty("inputPeriod", "0")),
+                    Long.parseLong(properties.getProperty("budget.p99TickMicros", "0")) * 1_000,
+                    Long.parseLong(properties.getProperty("budget.allocatedBytesPerTick", "0")));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Scenario " + name + " has a malformed number: " + e.getMessage(), e);
+        }
+    }
+
+    /** The command held at {@code tick} of the run; {@link PlayerCommand#NONE} before the first step. */
+    public PlayerCommand commandAt(long tick) {
+        long scriptTick = inputPeriod > 0 ? tick % inputPeriod : tick;
+        PlayerCommand command = PlayerCommand.NONE;
+        for (Step step : input) {
+            if (step.tick() > scriptTick) break;
+            command = step.command();
+        }
+        return command;
+    }
+
+    private static List<Step> parseInput(String script) {
+        List<Step> steps = new ArrayList<>();
+        for (String step : script.trim().split("\\s+")) {
+            if (step.isEmpty()) continue;
+            int colon = step.indexOf(':');
+            if (colon <= 0) throw new IllegalArgumentException("Input step must be tick:keys, not " + step + ".");
+            String keys = step.substring(colon + 1);
+            if (!keys.matches("-|[UDLRAI]+")) throw new IllegalArgumentException("Unknown keys in input step " + step + ".");
+            steps.add(new Step(Long.parseLong(step.substring(0, colon)), new PlayerCommand(keys.contains("U"),
+                    keys.contains("D"), keys.contains("L"), keys.contains("R"), keys.contains("A"), keys.contains("I"))));
+        }
+        return steps;
+    }
+}
@@ -0,0 +1,251 @@
+package com.kindred.networking.scenario;
+
+import com.kindred.engine.diagnostics.AllocationCounter;
+import com.kindred.engine.diagnostics.SystemProfiler;
+import com.kindred.engine.entity.components.LifetimeComponent;
+import com.kindred.engine.entity.components.ParticleComponent;
+import com.kindred.engine.entity.components.ParticlePhysicsComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.VelocityComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.systems.CameraSystem;
+import com.kindred.engine.entity.systems.RenderSystem;
+import com.kindred.engine.level.Level;
+import com.kindred.engine.level.SpawnPoint;
+import com.kindred.engine.render.Screen;
+import com.kindred.engine.render.TextureAtlas;
+import com.kindred.networking.server.ServerAssets;
+import com.kindred.networking.server.ServerWorld;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs a {@link Scenario} in a seeded, headless {@link ServerWorld} (the update order of GameMain
+ * without a window) and measures every tick: wall time, and bytes allocated by the tick thread as
+ * reported by {@link AllocationCounter}. A {@link SystemProfiler} breaks both down by system. With
+ * {@code render} set, each tick also draws a frame into an offscreen {@link Screen} the way GameMain
+ * does, and the frame counts towards the tick.
+ * <p>
+ * The same scenario always simulates the same ticks, so differences between runs are the code's, not
+ * the workload's. The performance tests run every scenario under {@code src/test/resources/scenarios}
+ * against its budgets with {@code ./gradlew :networking:perfTest}, which {@code check} depends on.
+ */
+@Slf4j
+public final class ScenarioRunner {
+
+    /** GameMain's window size. */
+    private static final int SCREEN_WIDTH = 900, SCREEN_HEIGHT = 500;
+    /** Extra wolves and villagers are scattered this many tiles around the player, so they stay awake. */
+    private static final int SPAWN_RADIUS_TILES = 12;
+    private static final int CLIENT = 0;
+
+    /**
+     * @param allocatedBytesPerTick Mean over the measured ticks; -1 if the JVM cannot measure it.
+     * @param stateHash {@link ServerWorld#computeStateHash()} at the end; equal for every run of a scenario.
+     * @param systems Time and allocation of each system over the measured ticks, in update order.
+     */
+    public record Result(
+            String scenario,
+            int ticks,
+            long p50TickNanos,
+            long p99TickNanos,
+            long maxTickNanos,
+            long allocatedBytesPerTick,
+            int entities,
+            long stateHash,
+            List<SystemProfiler.Sample> systems) {
+
+        public Result {
+            systems = List.copyOf(systems);
+        }
+
+        /** What went over the scenario's budgets, one line each; empty if within all of them. */
+        public List<String> overBudget(Scenario scenario) {
+            List<String> over = new ArrayList<>();
+            if (scenario.p99TickBudgetNanos() > 0 && p99TickNanos > scenario.p99TickBudgetNanos()) {
+                over.add(String.format("p99 tick time %d µs is over the budget of %d µs", p99TickNanos / 1_000,
+                        scenario.p99TickBudgetNanos() / 1_000));
+            }
+            if (scenario.allocatedBytesPerTickBudget() > 0 && allocatedBytesPerTick > scenario.allocatedBytesPerTickBudget()) {
+                over.add(String.format("%d bytes allocated per tick is over the budget of %d", allocatedBytesPerTick,
+                        scenario.allocatedBytesPerTickBudget()));
+            }
+            return over;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(
+                    "%s: %d ticks, p50 %d µs, p99 %d µs, max %d µs, %d bytes/tick, %d entities, state hash %s",
+                    scenario, ticks, p50TickNanos / 1_000, p99TickNanos / 1_000, maxTickNanos / 1_000,
+                    allocatedBytesPerTick, entities, Long.toHexString(stateHash)));
+            for (SystemProfiler.Sample system : systems) {
+                text.append(String.format("%n  %-24s %8.1f µs %8d bytes", system.name(), system.nanosPerUpdate() / 1_000.0,
+                        system.bytesPerUpdate()));
+            }
+            return text.toString();
+        }
+    }
+
+    private ScenarioRunner() {}
+
+    /** Runs a scenario on assets loaded from its map. */
+    public static Result run(Scenario scenario) {
+        return run(scenario, ServerAssets.load(scenario.levelPath(), scenario.tileSize()));
+    }
+
+    /**
+     * Runs a scenario in a fresh world built on {@code assets}, which must have been loaded from the
+     * scenario's map and tile size.
+     */
+    public static Result run(Scenario scenario, ServerAssets assets) {
+        // A rendered scenario packs its sprites like GameMain does, so the frame draws from the atlas
+        TextureAtlas atlas = scenario.render() ? new TextureAtlas(TextureAtlas.DEFAULT_PAGE_SIZE) : null;
+        ServerWorld world = assets.markAlwaysRelevant(
+                new ServerWorld(assets.level(), assets.animationRegistry(), scenario.seed(), atlas));
+        EntityManager entityManager = world.getEntityManager();
+        Random random = new Random(scenario.seed());
+        int player = world.addPlayer(CLIENT);
+        PositionComponent position = entityManager.getComponent(player, PositionComponent.class);
+        PositionComponent start = new PositionComponent(position.x, position.y);
+        spawnAround(world, SpawnPoint.SpawnType.ENEMY_DEIDARA, scenario.wolves(), start, random);
+        spawnAround(world, SpawnPoint.SpawnType.NPC_VILLAGER, scenario.villagers(), start, random);
+        int[] particles = new int[scenario.particles()];
+        Arrays.fill(particles, -1);
+
+        Frame frame = atlas != null ? new Frame(world, atlas) : null;
+        SystemProfiler profiler = new SystemProfiler(true);
+        world.setProfiler(profiler);
+        if (!AllocationCounter.isSupported()) {
+            log.warn("This JVM cannot count allocated bytes per thread; allocation budgets are not checked.");
+        }
+        float deltaTime = 1f / ServerWorld.TICK_RATE;
+        int totalTicks = scenario.warmupTicks() + scenario.ticks();
+        long[] tickNanos = new long[scenario.ticks()];
+        long allocatedBytes = 0;
+
+        for (int tick = 0; tick < totalTicks; tick++) {
+            if (!entityManager.isEntityActive(world.getPlayerEntity(CLIENT))) {
+                // Killed and the corpse has decayed: rejoin, so the fight goes on for the whole run
+                world.removePlayer(CLIENT);
+                world.addPlayer(CLIENT);
+            }
+            world.setCommand(CLIENT, scenario.commandAt(tick));
+            if (tick == scenario.warmupTicks()) profiler.reset();
+            long allocatedBefore = AllocationCounter.currentThread();
+            long before = System.nanoTime();
+
+            replaceExpiredParticles(entityManager, particles, start, random);
+            world.tick(deltaTime);
+            if (frame != null) {
+                profiler.begin("render");
+                frame.draw();
+                profiler.end();
+            }
+
+            long took = System.nanoTime() - before;
+            long allocated = AllocationCounter.currentThread() - allocatedBefore;
+            if (tick >= scenario.warmupTicks()) {
+                tickNanos[tick - scenario.warmupTicks()] = took;
+                allocatedBytes += allocated;
+            }
+        }
+
+        Arrays.sort(tickNanos);
+        return new Result(scenario.name(), scenario.ticks(), percentile(tickNanos, 0.50), percentile(tickNanos, 0.99),
+                tickNanos[tickNanos.length - 1], AllocationCounter.isSupported() ? allocatedBytes / scenario.ticks() : -1,
+                entityManager.getEntitiesWith().size(), world.computeStateHash(), profiler.samples());
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.max(0, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private static void spawnAround(ServerWorld world, SpawnPoint.SpawnType type, int count, PositionComponent center, Random random) {
+        Level level = world.getLevel();
+        int tileSize = level.getTileSize();
+        int spawned = 0;
+        for (int attempt = 0; spawned < count && attempt < count * 20; attempt++) {
+            int tileX = center.x / tileSize + random.nextInt(2 * SPAWN_RADIUS_TILES + 1) - SPAWN_RADIUS_TILES;
+            int tileY = center.y / tileSize + random.nextInt(2 * SPAWN_RADIUS_TILES + 1) - SPAWN_RADIUS_TILES;
+            if (tileX < 0 || tileY < 0 || tileX >= level.getWidth() || tileY >= level.getHeight() || level.isSolid(tileX, tileY)) {
+                continue;
+            }
+            world.spawn(type, tileX * tileSize + tileSize / 2, tileY * tileSize + tileSize / 2);
+            spawned++;
+        }
+        if (spawned < count) {
+            log.warn("Found room for only {} of {} {} spawns near the player.", spawned, count, type);
+        }
+    }
+
+    /** Keeps the scenario's particle count alive around where the fight is, as hits would. */
+    private static void replaceExpiredParticles(EntityManager entityManager, int[] particles, PositionComponent center, Random random) {
+        for (int i = 0; i < particles.length; i++) {
+            if (particles[i] >= 0 && entityManager.isEntityActive(particles[i])) continue;
+            int particle = entityManager.createEntity();
+            entityManager.addComponent(particle, new PositionComponent(center.x + random.nextInt(65) - 32, center.y + random.nextInt(65) - 32));
+            entityManager.addComponent(particle, new VelocityComponent(random.nextInt(5) - 2, random.nextInt(5) - 2));
+            entityManager.addComponent(particle, new ParticleComponent(0xFFFF2222, 1 + random.nextInt(3)));
+            entityManager.addComponent(particle, new LifetimeComponent(0.3f + random.nextFloat() * 0.7f));
+            ParticlePhysicsComponent physics = new ParticlePhysicsComponent();
+            physics.z = 2f + random.nextFloat() * 2f;
+            physics.vz = 60f;
+            entityManager.addComponent(particle, physics);
+            particles[i] = particle;
+        }
+    }
+
+    /** An offscreen copy of GameMain's render pass: camera, level, entities, upload. */
+    private static final class Frame {
+        private final Level level;
+        private final Screen screen = new Screen(SCREEN_WIDTH, SCREEN_HEIGHT);
+        private final int[] target = new int[SCREEN_WIDTH * SCREEN_HEIGHT];
+        private final CameraSystem cameraSystem;
+        private final RenderSystem renderSystem;
+
+        Frame(ServerWorld world, TextureAtlas atlas) {
+            level = world.getLevel();
+            level.packTiles(atlas);
+            cameraSystem = new CameraSystem(world.getEntityManager(), screen, level);
+            renderSystem = new RenderSystem(world.getEntityManager(), screen, atlas);
+        }
+
+        void draw() {
+            cameraSystem.update(0);
+            screen.beginFrame();
+            level.render(screen);
+            screen.beginDynamicPass();
+            renderSystem.render();
+            screen.copyDirtyTo(target);
+        }
+    }
+
+    /**
+     * Usage: {@code ScenarioRunner <scenario resource>...}, e.g. {@code /scenarios/forest_crowd.scenario}.
+     * Runs each scenario and prints its measurements; exits with 1 if any went over budget.
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length == 0) {
+            System.err.println("Usage: ScenarioRunner <scenario resource>...");
+            System.exit(2);
+        }
+        boolean overBudget = false;
+        for (String resource : args) {
+            Scenario scenario = Scenario.load(resource);
+            Result result = run(scenario);
+            log.info("{}", result);
+            for (String over : result.overBudget(scenario)) {
+                log.error("{}: {}.", scenario.name(), over);
+                overBudget = true;
+            }
+        }
+        if (overBudget) System.exit(1);
+    }
+}
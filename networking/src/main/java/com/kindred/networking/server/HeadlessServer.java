@@ -0,0 +1,138 @@
+package com.kindred.networking.server;
+
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.input.StampedCommand;
+import com.kindred.engine.loop.FixedStepLoop;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Authoritative simulation server without a window: runs a {@link ServerWorld} on the same fixed
+ * 60 Hz step as the client. Connections, disconnections and player commands may arrive on any thread;
+ * they are queued and applied at the start of the next tick (see {@link Room}). To host several
+ * worlds in one process, use {@link RoomServer}.
+ * <p>
+ * Usage: {@code HeadlessServer [--level /classpath/map.png] [--tile-size 16] [--ticks N] [--players N]}.
+ * {@code --ticks} stops after N ticks (for CI); {@code --players} connects N idle players for load tests.
+ */
+@Slf4j
+public class HeadlessServer implements Runnable {
+
+    public static final String DEFAULT_LEVEL = "/assets/level/forest_crisis_greybox_map.png";
+    public static final int DEFAULT_TILE_SIZE = 16;
+
+    private final ServerWorld world;
+    private final Room room;
+    private final FixedStepLoop loop = new FixedStepLoop(ServerWorld.TICK_RATE, 5);
+    private final long maxTicks;
+    private volatile boolean running;
+    private long tickNanosTotal, tickNanosMax;
+
+    /**
+     * @param world The world to simulate.
+     * @param maxTicks Stop after this many ticks, 0 to run until {@link #stop()}.
+     */
+    public HeadlessServer(ServerWorld world, long maxTicks) {
+        if (world == null) throw new IllegalArgumentException("ServerWorld cannot be null.");
+        if (maxTicks < 0) throw new IllegalArgumentException("maxTicks cannot be negative.");
+        this.world = world;
+        this.room = new Room(0, world, RoomServer.TICK_PERIOD_NANOS);
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Loads the level and the shared animation data in parallel and builds a world from them.
+     * @param levelPath Classpath location of the map image.
+     * @param tileSize Tile size in pixels.
+     */
+    public static ServerWorld loadWorld(String levelPath, int tileSize) {
+        return ServerAssets.load(levelPath, tileSize).createWorld();
+    }
+
+    /** Connects a client; its player spawns on the next tick. */
+    public void connect(int clientId) {
+        room.connect(clientId);
+    }
+
+    /** Disconnects a client; its player is removed on the next tick. */
+    public void disconnect(int clientId) {
+        room.disconnect(clientId);
+    }
+
+    /** Queues a client's controls for the next tick. */
+    public void submitCommand(int clientId, PlayerCommand command) {
+        room.submitCommand(clientId, command);
+    }
+
+    /** Queues a tick-stamped input from a predicting client; see {@link ServerWorld#submitInput}. */
+    public void submitInput(int clientId, StampedCommand input) {
+        room.submitInput(clientId, input);
+    }
+
+    /** Runs the tick loop on the calling thread until {@link #stop()} or the tick limit. */
+    @Override
+    public void run() {
+        running = true;
+        log.info("Headless server running at {} ticks per second.", ServerWorld.TICK_RATE);
+        loop.run(() -> running, new FixedStepLoop.Listener() {
+            @Override
+            public void update(float deltaTime) {
+                tick(deltaTime);
+            }
+
+            @Override
+            public void second(int updates, int frames) {
+                long ticks = Math.max(1, updates);
+                log.info("TPS: {}, players: {}, entities: {}, tick avg {} us, max {} us",
+                        updates, world.getPlayerCount(), world.getEntityManager().getEntitiesWith().size(),
+                        tickNanosTotal / ticks / 1_000, tickNanosMax / 1_000);
+                tickNanosTotal = 0;
+                tickNanosMax = 0;
+            }
+        });
+        log.info("Headless server stopped after {} ticks.", world.getTick());
+    }
+
+    /** Applies queued client events and advances the world one step. */
+    void tick(float deltaTime) {
+        room.tick(deltaTime);
+        long took = room.getLastTickNanos();
+        tickNanosTotal += took;
+        tickNanosMax = Math.max(tickNanosMax, took);
+        if (maxTicks > 0 && world.getTick() >= maxTicks) {
+            running = false;
+        }
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    public ServerWorld getWorld() {
+        return world;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        String levelPath = DEFAULT_LEVEL;
+        int tileSize = DEFAULT_TILE_SIZE;
+        long maxTicks = 0;
+        int idlePlayers = 0;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--level" -> { levelPath = value; i++; }
+                case "--tile-size" -> { tileSize = Integer.parseInt(value); i++; }
+                case "--ticks" -> { maxTicks = Long.parseLong(value); i++; }
+                case "--players" -> { idlePlayers = Integer.parseInt(value); i++; }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        HeadlessServer server = new HeadlessServer(loadWorld(levelPath, tileSize), maxTicks);
+        for (int clientId = 0; clientId < idlePlayers; clientId++) {
+            server.connect(clientId);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "ServerShutdown"));
+        server.run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.kindred.networking.server;
+
+import com.kindred.engine.entity.components.ColliderComponent;
+import com.kindred.engine.entity.components.DeadComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.core.EntityManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Remembers where every hittable entity (health, position and collider, not dead) was over the last
+ * {@link #HISTORY_TICKS} ticks, so an attack can be judged against the world the attacker saw.
+ * A client shows a state that is already half a round trip old when it arrives; without rewinding,
+ * a wolf walking away is out of reach on the server by the time a swing that clearly hit it arrives.
+ * <p>
+ * Requests further back than the history are clamped to its oldest tick: lag beyond about 500 ms
+ * is not compensated, so a laggy client cannot hit targets that are long gone. Not thread-safe.
+ */
+public class LagCompensator {
+
+    /** Ticks of history: 500 ms at 60 Hz. */
+    public static final int HISTORY_TICKS = 30;
+
+    /** Positions and hitboxes of one entity, indexed by tick modulo the history length. */
+    private static final class Track {
+        final long[] ticks = new long[HISTORY_TICKS];
+        final int[] x = new int[HISTORY_TICKS], y = new int[HISTORY_TICKS];
+        final int[] width = new int[HISTORY_TICKS], height = new int[HISTORY_TICKS];
+        final int[] offsetX = new int[HISTORY_TICKS], offsetY = new int[HISTORY_TICKS];
+        long lastTick;
+
+        Track() {
+            Arrays.fill(ticks, -1);
+        }
+    }
+
+    private final Map<Integer, Track> tracks = new HashMap<>();
+    private long newestTick = -1;
+
+    /** Records the state after a tick; call once per tick with increasing ticks. */
+    public void record(EntityManager entityManager, long tick) {
+        if (tick <= newestTick) throw new IllegalArgumentException("Ticks must increase: " + tick + " after " + newestTick + ".");
+        newestTick = tick;
+        int slot = (int) (tick % HISTORY_TICKS);
+        for (int entityId : entityManager.getEntitiesWith(HealthComponent.class, PositionComponent.class, ColliderComponent.class)) {
+            if (entityManager.hasComponent(entityId, DeadComponent.class)) continue;
+            PositionComponent pos = entityManager.getComponent(entityId, PositionComponent.class);
+            ColliderComponent collider = entityManager.getComponent(entityId, ColliderComponent.class);
+            Track track = tracks.computeIfAbsent(entityId, id -> new Track());
+            track.ticks[slot] = tick;
+            track.x[slot] = pos.x;
+            track.y[slot] = pos.y;
+            track.width[slot] = collider.hitboxWidth;
+            track.height[slot] = collider.hitboxHeight;
+            track.offsetX[slot] = collider.offsetX;
+            track.offsetY[slot] = collider.offsetY;
+            track.lastTick = tick;
+        }
+        // Forget entities that died, left or were destroyed a whole history ago
+        for (Iterator<Track> it = tracks.values().iterator(); it.hasNext(); ) {
+            if (it.next().lastTick <= tick - HISTORY_TICKS) it.remove();
+        }
+    }
+
+    /**
+     * Fills in where the entity was after the given tick, clamped to the recorded history.
+     * @return False if the entity was not recorded at that tick (not hittable then, or not yet recorded).
+     */
+    public boolean rewind(int entityId, long tick, PositionComponent position, ColliderComponent collider) {
+        Track track = tracks.get(entityId);
+        if (track == null || tick < 0) return false;
+        long clamped = Math.max(newestTick - HISTORY_TICKS + 1, Math.min(newestTick, tick));
+        int slot = (int) (clamped % HISTORY_TICKS);
+        if (track.ticks[slot] != clamped) return false;
+        position.x = track.x[slot];
+        position.y = track.y[slot];
+        collider.hitboxWidth = track.width[slot];
+        collider.hitboxHeight = track.height[slot];
+        collider.offsetX = track.offsetX[slot];
+        collider.offsetY = track.offsetY[slot];
+        return true;
+    }
+
+    public long getNewestTick() { return newestTick; }
+    /** Entities with recorded history. */
+    public int getTrackedCount() { return tracks.size(); }
+}
@@ -0,0 +1,89 @@
+package com.kindred.networking.server;
+
+import com.kindred.engine.input.Keyboard;
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.replay.InputFrame;
+import com.kindred.engine.replay.ReplayHeader;
+import com.kindred.engine.replay.ReplayReader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Plays recorded keys into a headless, seeded {@link ServerWorld} as fast as it will go, driving client
+ * 0's player through the same {@link Keyboard} to {@link PlayerCommand} path the windowed client uses.
+ * <p>
+ * This is a synthetic server workload, not a reproduction of the recorded session: the client records
+ * the forest crisis, which the server world does not run, and the server world has its own systems,
+ * spawns and random streams. What it does give is repeatability: the world is deterministic, so every
+ * run of the same replay with the same seed ends in the same state, which makes recordings usable as
+ * performance workloads with realistic movement.
+ */
+@Slf4j
+public class ReplayRunner {
+
+    /**
+     * @param ticks Ticks simulated.
+     * @param nanos Wall time spent in the simulation.
+     * @param stateHash {@link ServerWorld#computeStateHash()} at the end; equal for every run of a replay.
+     */
+    public record Result(long ticks, long nanos, long stateHash) {
+        public double ticksPerSecond() {
+            return nanos == 0 ? 0 : ticks * 1_000_000_000.0 / nanos;
+        }
+    }
+
+    private ReplayRunner() {}
+
+    /**
+     * Plays a whole replay into a fresh world. The world must be new, deterministic and built from
+     * the replay header's level and seed for runs to be comparable.
+     */
+    public static Result run(ReplayReader replay, ServerWorld world) {
+        Keyboard keyboard = new Keyboard();
+        InputFrame frame = new InputFrame();
+        float deltaTime = 1f / replay.getHeader().tickRate();
+        world.addPlayer(0);
+        long start = System.nanoTime();
+        while (replay.next(frame)) {
+            frame.applyTo(keyboard);
+            keyboard.update();
+            world.setCommand(0, PlayerCommand.fromKeyboard(keyboard));
+            world.tick(deltaTime);
+        }
+        long nanos = System.nanoTime() - start;
+        return new Result(world.getTick(), nanos, world.computeStateHash());
+    }
+
+    /**
+     * Usage: {@code ReplayRunner <replay file> [--repeat N]}. Plays the replay N times (default 1),
+     * each into a new world, and prints the simulation speed and the final state hash of each run.
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayRunner <replay file> [--repeat N]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        int repeat = 1;
+        for (int i = 1; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--repeat" -> { repeat = Integer.parseInt(value); i++; }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        ReplayHeader header = ReplayReader.open(file).getHeader();
+        ServerAssets assets = ServerAssets.load(header.levelPath(), header.tileSize());
+        for (int run = 1; run <= repeat; run++) {
+            ServerWorld world = assets.markAlwaysRelevant(new ServerWorld(assets.level(), assets.animationRegistry(), header.seed()));
+            Result result = run(ReplayReader.open(file), world);
+            log.info("Run {}: {} ticks in {} ms ({} ticks/s), state hash {}.", run, result.ticks(),
+                    result.nanos() / 1_000_000, String.format("%.0f", result.ticksPerSecond()),
+                    Long.toHexString(result.stateHash()));
+        }
+    }
+}
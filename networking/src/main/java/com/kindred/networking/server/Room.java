@@ -0,0 +1,126 @@
+package com.kindred.networking.server;
+
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.input.StampedCommand;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * One {@link ServerWorld} together with the events waiting for its next tick and the cost of its ticks.
+ * Connections, disconnections and player input may arrive on any thread; they are queued and applied
+ * at the start of the next tick, so the world itself stays single-threaded.
+ */
+public class Room {
+
+    /** Hooks into a room's ticks, on the room's thread. */
+    public interface TickListener {
+        /** Runs right after the world ticked, e.g. to replicate it; counted in the tick's cost. */
+        void afterTick(Room room);
+
+        /** Reports what the tick that just finished cost, including {@link #afterTick}. */
+        default void tickMeasured(Room room, long nanos) {}
+    }
+
+    /** Weight of the newest tick in the moving average: about the last 16 ticks count. */
+    private static final double AVERAGE_WEIGHT = 1.0 / 16;
+
+    private final int id;
+    private final ServerWorld world;
+    private final long tickBudgetNanos;
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private volatile long lastTickNanos;
+    private volatile double averageTickNanos;
+    private volatile long overBudgetTicks;
+    private volatile boolean closed;
+    private volatile TickListener tickListener;
+
+    /**
+     * @param id Identifies the room to clients and in logs.
+     * @param world The world this room simulates.
+     * @param tickBudgetNanos Time one tick may take; longer ticks are counted in {@link #getOverBudgetTicks()}.
+     */
+    public Room(int id, ServerWorld world, long tickBudgetNanos) {
+        if (world == null) throw new IllegalArgumentException("ServerWorld cannot be null.");
+        if (tickBudgetNanos <= 0) throw new IllegalArgumentException("Tick budget must be positive.");
+        this.id = id;
+        this.world = world;
+        this.tickBudgetNanos = tickBudgetNanos;
+    }
+
+    /** Connects a client; its player spawns on the next tick. */
+    public void connect(int clientId) {
+        pending.add(() -> world.addPlayer(clientId));
+    }
+
+    /** Disconnects a client; its player is removed on the next tick. */
+    public void disconnect(int clientId) {
+        pending.add(() -> world.removePlayer(clientId));
+    }
+
+    /** Queues a client's controls for the next tick. */
+    public void submitCommand(int clientId, PlayerCommand command) {
+        if (command == null) throw new IllegalArgumentException("Command cannot be null.");
+        pending.add(() -> world.setCommand(clientId, command));
+    }
+
+    /** Queues a tick-stamped input from a predicting client; see {@link ServerWorld#submitInput}. */
+    public void submitInput(int clientId, StampedCommand input) {
+        if (input == null) throw new IllegalArgumentException("Input cannot be null.");
+        pending.add(() -> world.submitInput(clientId, input));
+    }
+
+    /** Queues a task to run on the room's thread at the start of the next tick, in order with client events. */
+    public void execute(Runnable task) {
+        if (task == null) throw new IllegalArgumentException("Task cannot be null.");
+        pending.add(task);
+    }
+
+    public void setTickListener(TickListener tickListener) {
+        this.tickListener = tickListener;
+    }
+
+    /** Applies queued client events and advances the world one step; does nothing once the room is closed. */
+    public synchronized void tick(float deltaTime) {
+        if (closed) return;
+        long start = System.nanoTime();
+        Runnable event;
+        while ((event = pending.poll()) != null) {
+            event.run();
+        }
+        if (closed) return; // One of the events closed the room
+        world.tick(deltaTime);
+        TickListener listener = tickListener;
+        if (listener != null) {
+            listener.afterTick(this);
+        }
+        long nanos = System.nanoTime() - start;
+        recordTick(nanos);
+        if (listener != null) {
+            listener.tickMeasured(this, nanos);
+        }
+    }
+
+    void recordTick(long nanos) {
+        lastTickNanos = nanos;
+        averageTickNanos = averageTickNanos == 0 ? nanos : averageTickNanos + (nanos - averageTickNanos) * AVERAGE_WEIGHT;
+        if (nanos > tickBudgetNanos) {
+            overBudgetTicks++;
+        }
+    }
+
+    /** Stops ticking; queued events are dropped. Waits for a tick in progress, so the world no longer changes after. */
+    synchronized void close() {
+        closed = true;
+        pending.clear();
+    }
+
+    public int getId() { return id; }
+    public ServerWorld getWorld() { return world; }
+    public boolean isClosed() { return closed; }
+    public long getTickBudgetNanos() { return tickBudgetNanos; }
+    public long getLastTickNanos() { return lastTickNanos; }
+    /** Moving average of the tick cost, in nanoseconds. */
+    public double getAverageTickNanos() { return averageTickNanos; }
+    public long getOverBudgetTicks() { return overBudgetTicks; }
+}
@@ -0,0 +1,287 @@
+package com.kindred.networking.server;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts many independent {@link Room}s, each with its own world, in one process. All rooms are built
+ * from one shared {@link ServerAssets}, so the map and animation data are loaded once.
+ * <p>
+ * Rooms are ticked at 60 Hz on a fixed pool of carrier threads. A room never blocks during a tick, so
+ * a thread per room (virtual or not) would buy nothing over a pool sized to the cores the server may
+ * use, and the pool bounds how much CPU the server takes. Every room's tick cost is tracked against
+ * its budget; the summed cost relative to the pool's capacity is the server's load.
+ * <p>
+ * New rooms are refused when the projected load would pass {@link #ADMIT_LOAD}. If the load stays above
+ * {@link #SHED_LOAD} for {@link #SHED_AFTER_CHECKS} one-second checks, a room is shed (closed), empty
+ * rooms first, otherwise the most expensive one, so the remaining rooms keep their tick rate.
+ */
+@Slf4j
+public class RoomServer implements AutoCloseable {
+
+    public static final long TICK_PERIOD_NANOS = 1_000_000_000L / ServerWorld.TICK_RATE;
+    /** Rooms are admitted while the projected load stays below this share of the carrier threads. */
+    public static final double ADMIT_LOAD = 0.75;
+    /** Load above which rooms start being shed. */
+    public static final double SHED_LOAD = 0.95;
+    /** Consecutive overloaded checks, one per second, before a room is shed. */
+    public static final int SHED_AFTER_CHECKS = 3;
+
+    private static final float DELTA_TIME = 1f / ServerWorld.TICK_RATE;
+
+    /** Builds the world of a new room, e.g. to attach per-room game state to it. */
+    @FunctionalInterface
+    public interface WorldFactory {
+        ServerWorld create(int roomId, ServerAssets assets);
+    }
+
+    /** Told when a room closes, so its clients can be moved or disconnected. Called from any thread. */
+    @FunctionalInterface
+    public interface RoomListener {
+        /** @param shed True if the room was closed because the server was overloaded. */
+        void roomClosed(Room room, boolean shed);
+    }
+
+    private final ServerAssets assets;
+    private final WorldFactory worldFactory;
+    private final int maxRooms;
+    private final int carrierThreads;
+    private final long tickBudgetNanos;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<Integer, Room> rooms = new ConcurrentHashMap<>();
+    private final Map<Integer, ScheduledFuture<?>> tasks = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRoomId = new AtomicInteger();
+    private RoomListener listener;
+    private boolean started;
+    private int overloadedChecks;
+
+    /**
+     * @param assets Shared by every room.
+     * @param worldFactory Builds each room's world.
+     * @param maxRooms Rooms hosted at most, whatever the load.
+     * @param carrierThreads Threads the rooms are ticked on.
+     * @param tickBudgetNanos Time one room's tick should take; see {@link Room#getOverBudgetTicks()}.
+     */
+    public RoomServer(ServerAssets assets, WorldFactory worldFactory, int maxRooms, int carrierThreads, long tickBudgetNanos) {
+        if (assets == null) throw new IllegalArgumentException("ServerAssets cannot be null.");
+        if (worldFactory == null) throw new IllegalArgumentException("WorldFactory cannot be null.");
+        if (maxRooms <= 0) throw new IllegalArgumentException("maxRooms must be positive.");
+        if (carrierThreads <= 0) throw new IllegalArgumentException("carrierThreads must be positive.");
+        if (tickBudgetNanos <= 0) throw new IllegalArgumentException("Tick budget must be positive.");
+        this.assets = assets;
+        this.worldFactory = worldFactory;
+        this.maxRooms = maxRooms;
+        this.carrierThreads = carrierThreads;
+        this.tickBudgetNanos = tickBudgetNanos;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(carrierThreads, task -> {
+            Thread thread = new Thread(task, "Room-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /** Plain worlds, with each room budgeted an equal share of the carrier threads at full capacity. */
+    public RoomServer(ServerAssets assets, int maxRooms, int carrierThreads) {
+        this(assets, (roomId, shared) -> shared.createWorld(), maxRooms, carrierThreads,
+                TICK_PERIOD_NANOS * carrierThreads / maxRooms);
+    }
+
+    public void setRoomListener(RoomListener listener) {
+        this.listener = listener;
+    }
+
+    /** Starts ticking every room, present and future, and the once-a-second load check. */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        for (Room room : rooms.values()) {
+            schedule(room);
+        }
+        scheduler.scheduleAtFixedRate(this::checkLoad, 1, 1, TimeUnit.SECONDS);
+        log.info("Room server started: {} carrier threads, up to {} rooms.", carrierThreads, maxRooms);
+    }
+
+    /**
+     * Opens a new room if the server can take it.
+     * @return The room, or null if the server is full or too loaded.
+     */
+    public synchronized Room openRoom() {
+        if (rooms.size() >= maxRooms) {
+            log.info("Room refused: {} of {} rooms open.", rooms.size(), maxRooms);
+            return null;
+        }
+        double load = getLoad();
+        double projected = rooms.isEmpty() ? load : load + load / rooms.size();
+        if (projected > ADMIT_LOAD) {
+            log.info("Room refused: load {} would reach {}.", String.format("%.2f", load), String.format("%.2f", projected));
+            return null;
+        }
+        int roomId = nextRoomId.getAndIncrement();
+        Room room = new Room(roomId, worldFactory.create(roomId, assets), tickBudgetNanos);
+        rooms.put(roomId, room);
+        if (started) {
+            schedule(room);
+        }
+        log.info("Room {} opened ({} open).", roomId, rooms.size());
+        return room;
+    }
+
+    private void schedule(Room room) {
+        tasks.put(room.getId(), scheduler.scheduleAtFixedRate(() -> tickRoom(room), 0, TICK_PERIOD_NANOS, TimeUnit.NANOSECONDS));
+    }
+
+    private void tickRoom(Room room) {
+        try {
+            room.tick(DELTA_TIME);
+        } catch (RuntimeException e) {
+            // An exception would silently cancel the schedule; close the room visibly instead
+            log.error("Room {} failed and is closed.", room.getId(), e);
+            closeRoom(room, false);
+        }
+    }
+
+    /** Closes a room; unknown ids are ignored. */
+    public void closeRoom(int roomId) {
+        Room room = rooms.get(roomId);
+        if (room != null) {
+            closeRoom(room, false);
+        }
+    }
+
+    // Not synchronized: room.close() waits for the room's tick, and events in that tick may close rooms too
+    private void closeRoom(Room room, boolean shed) {
+        if (!removeRoom(room)) return;
+        room.close(); // Cancelling does not stop a tick in progress; this waits for it
+        log.info("Room {} {} ({} open).", room.getId(), shed ? "shed" : "closed", rooms.size());
+        if (listener != null) {
+            listener.roomClosed(room, shed);
+        }
+    }
+
+    /** Takes the room off the server and its schedule; false if it was already closed. */
+    private synchronized boolean removeRoom(Room room) {
+        if (rooms.remove(room.getId()) == null) return false;
+        ScheduledFuture<?> task = tasks.remove(room.getId());
+        if (task != null) {
+            task.cancel(false);
+        }
+        return true;
+    }
+
+    /**
+     * Sheds a room if the server has been overloaded for {@link #SHED_AFTER_CHECKS} checks in a row.
+     * Runs every second once started.
+     * @return The shed room, or null.
+     */
+    Room checkLoad() {
+        Room victim = pickRoomToShed();
+        if (victim != null) {
+            closeRoom(victim, true);
+        }
+        return victim;
+    }
+
+    private synchronized Room pickRoomToShed() {
+        double load = getLoad();
+        overloadedChecks = load > SHED_LOAD ? overloadedChecks + 1 : 0;
+        if (overloadedChecks < SHED_AFTER_CHECKS || rooms.isEmpty()) return null;
+        overloadedChecks = 0;
+
+        Room victim = null;
+        for (Room room : rooms.values()) {
+            if (victim == null || sheddingOrder(room, victim) < 0) {
+                victim = room;
+            }
+        }
+        log.warn("Load {} over {} for {} s, shedding room {}.", String.format("%.2f", load), SHED_LOAD, SHED_AFTER_CHECKS, victim.getId());
+        return victim;
+    }
+
+    /** Negative if a should be shed before b: empty rooms first, then the most expensive. */
+    private static int sheddingOrder(Room a, Room b) {
+        boolean aEmpty = a.getWorld().getPlayerCount() == 0;
+        boolean bEmpty = b.getWorld().getPlayerCount() == 0;
+        if (aEmpty != bEmpty) return aEmpty ? -1 : 1;
+        return Double.compare(b.getAverageTickNanos(), a.getAverageTickNanos());
+    }
+
+    /** Summed average tick cost of all rooms as a share of what the carrier threads can run at 60 Hz. */
+    public double getLoad() {
+        double nanos = 0;
+        for (Room room : rooms.values()) {
+            nanos += room.getAverageTickNanos();
+        }
+        return nanos / ((double) TICK_PERIOD_NANOS * carrierThreads);
+    }
+
+    /** Returns the room, or null if it is not open. */
+    public Room getRoom(int roomId) {
+        return rooms.get(roomId);
+    }
+
+    public Collection<Room> getRooms() {
+        return Collections.unmodifiableCollection(rooms.values());
+    }
+
+    public int getRoomCount() { return rooms.size(); }
+    public int getMaxRooms() { return maxRooms; }
+    public ServerAssets getAssets() { return assets; }
+
+    /** Stops every room and the carrier threads. */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (Room room : rooms.values().toArray(new Room[0])) {
+            closeRoom(room, false);
+        }
+    }
+
+    /**
+     * Usage: {@code RoomServer [--level /classpath/map.png] [--tile-size 16] [--rooms N] [--carriers N] [--players N]}.
+     * Opens N rooms (as many as admitted) with {@code --players} idle players each, for capacity tests.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        String levelPath = HeadlessServer.DEFAULT_LEVEL;
+        int tileSize = HeadlessServer.DEFAULT_TILE_SIZE;
+        int roomCount = 1;
+        int carriers = Runtime.getRuntime().availableProcessors();
+        int players = 0;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--level" -> { levelPath = value; i++; }
+                case "--tile-size" -> { tileSize = Integer.parseInt(value); i++; }
+                case "--rooms" -> { roomCount = Integer.parseInt(value); i++; }
+                case "--carriers" -> { carriers = Integer.parseInt(value); i++; }
+                case "--players" -> { players = Integer.parseInt(value); i++; }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        RoomServer server = new RoomServer(ServerAssets.load(levelPath, tileSize), Math.max(1, roomCount), carriers);
+        server.start();
+        for (int r = 0; r < roomCount; r++) {
+            Room room = server.openRoom();
+            if (room == null) break;
+            for (int clientId = 0; clientId < players; clientId++) {
+                room.connect(clientId);
+            }
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close, "RoomServerShutdown"));
+        while (!server.scheduler.isShutdown()) {
+            Thread.sleep(1000);
+            log.info("Rooms: {}, load {}", server.getRoomCount(), String.format("%.2f", server.getLoad()));
+        }
+    }
+}
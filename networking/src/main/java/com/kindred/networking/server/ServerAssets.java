@@ -0,0 +1,85 @@
+package com.kindred.networking.server;
+
+import com.kindred.engine.entity.EntityFactory;
+import com.kindred.engine.level.Level;
+import com.kindred.engine.level.MapLoader;
+import com.kindred.engine.level.Tile;
+import com.kindred.engine.level.TileSet;
+import com.kindred.engine.resource.AnimationDataRegistry;
+import com.kindred.engine.resource.AssetManager;
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * What every world on a server is built from: the level, the attack animation data and the level's
+ * always-relevant regions. All are only read once loaded, so one instance is shared by all rooms of a
+ * {@link RoomServer} instead of loading the map and sprite sheets again per room.
+ */
+@Slf4j
+public record ServerAssets(Level level, AnimationDataRegistry animationRegistry, List<Rectangle> alwaysRelevant) {
+
+    // Key: level path. Value: pixel regions every client must know about and that never go dormant.
+    // The greybox's is ForestCrisisGreybox's threat zone; the game module has no way in here, so it is repeated.
+    private static final Map<String, List<Rectangle>> LEVEL_REGIONS = Map.of(
+            HeadlessServer.DEFAULT_LEVEL, List.of(new Rectangle(320, 192, 560, 896)));
+
+    public ServerAssets {
+        if (level == null) throw new IllegalArgumentException("Level cannot be null.");
+        if (animationRegistry == null) throw new IllegalArgumentException("AnimationDataRegistry cannot be null.");
+        if (alwaysRelevant == null) throw new IllegalArgumentException("Always-relevant regions cannot be null.");
+        alwaysRelevant = alwaysRelevant.stream().map(Rectangle::new).toList(); // Rectangles are mutable
+    }
+
+    /** Assets without always-relevant regions. */
+    public ServerAssets(Level level, AnimationDataRegistry animationRegistry) {
+        this(level, animationRegistry, List.of());
+    }
+
+    /** The always-relevant regions known for a level, e.g. the greybox map's threat zone; empty for others. */
+    public static List<Rectangle> alwaysRelevantRegions(String levelPath) {
+        return LEVEL_REGIONS.getOrDefault(levelPath, List.of()).stream().map(Rectangle::new).toList();
+    }
+
+    /**
+     * Loads the level and the animation data in parallel.
+     * @param levelPath Classpath location of the map image.
+     * @param tileSize Tile size in pixels.
+     */
+    public static ServerAssets load(String levelPath, int tileSize) {
+        long start = System.nanoTime();
+        CompletableFuture<Level> levelFuture;
+        CompletableFuture<AnimationDataRegistry> registryFuture;
+        try (AssetManager assets = new AssetManager()) {
+            CompletableFuture<BufferedImage> tileSheet = assets.loadImage(Tile.SHEET_PATH);
+            CompletableFuture<BufferedImage> mapImage = assets.loadImage(levelPath);
+            assets.loadImage(EntityFactory.PLAYER_SHEET);
+            assets.loadImage(EntityFactory.VILLAGER_SHEET);
+            assets.loadImage(EntityFactory.DEIDARA_SHEET);
+            registryFuture = assets.load("animation registry", AnimationDataRegistry::new);
+            levelFuture = assets.load("level",
+                    () -> MapLoader.loadLevelFromImage(mapImage.join(), new TileSet(tileSheet.join()), tileSize), mapImage, tileSheet);
+            assets.awaitAll();
+        }
+        ServerAssets loaded = new ServerAssets(levelFuture.join(), registryFuture.join(), alwaysRelevantRegions(levelPath));
+        log.info("Server assets loaded in {} ms.", (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    /** Builds a fresh world on these assets. */
+    public ServerWorld createWorld() {
+        return markAlwaysRelevant(new ServerWorld(level, animationRegistry));
+    }
+
+    /** Marks this level's always-relevant regions on a world built from these assets, and returns it. */
+    public ServerWorld markAlwaysRelevant(ServerWorld world) {
+        for (Rectangle region : alwaysRelevant) {
+            world.markAlwaysRelevant(region.x, region.y, region.width, region.height);
+        }
+        return world;
+    }
+}
@@ -0,0 +1,393 @@
+package com.kindred.networking.server;
+
+import com.kindred.engine.diagnostics.SystemProfiler;
+import com.kindred.engine.entity.EntityFactory;
+import com.kindred.engine.entity.components.ColliderComponent;
+import com.kindred.engine.entity.components.DormantComponent;
+import com.kindred.engine.entity.components.PlayerComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.StatsComponent;
+import com.kindred.engine.entity.components.VelocityComponent;
+import com.kindred.engine.entity.components.WanderAIComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.core.System;
+import com.kindred.engine.entity.systems.*;
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.input.StampedCommand;
+import com.kindred.engine.level.Level;
+import com.kindred.engine.level.SpawnPoint;
+import com.kindred.engine.render.TextureAtlas;
+import com.kindred.engine.resource.AnimationDataRegistry;
+import com.kindred.engine.serialization.ComponentCodecRegistry;
+import com.kindred.engine.simulation.StateHasher;
+import com.kindred.engine.simulation.TickRandom;
+import com.kindred.networking.interest.InterestGrid;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One authoritative simulation: an EntityManager, its Level and every system that does not draw.
+ * Runs the same update order as GameMain minus rendering, camera and UI, so a headless server and
+ * the windowed client simulate identically. Each connected client owns one player entity, driven by
+ * the last {@link PlayerCommand} it sent. Clients that predict their own movement send tick-stamped
+ * inputs instead ({@link #submitInput}); those are applied one per tick and acknowledged through
+ * {@link #getLastProcessedInput(int)}, so the client knows which of its inputs a state already contains.
+ * Their attacks are judged against the tick the client was looking at ({@link StampedCommand#viewTick()}),
+ * rewound by a {@link LagCompensator}.
+ * <p>
+ * An {@link InterestGrid} follows every player. Wandering NPCs and enemies in cells no player is
+ * subscribed to are marked {@link DormantComponent} and skipped by AI, movement, collision and
+ * animation until someone comes near, so an empty map costs next to nothing. Regions marked with
+ * {@link #markAlwaysRelevant} never sleep; {@link ServerAssets} marks the ones its level declares.
+ * <p>
+ * A world created with a seed is deterministic: AI and combat draw from {@link TickRandom} streams
+ * reseeded every tick, and entities are visited in id order, so peers that apply the same commands
+ * in the same ticks reach the same state. {@link #computeStateHash()} lets them check that they did
+ * (see {@link com.kindred.networking.lockstep.LockstepSession}).
+ * <p>
+ * Not thread-safe: call everything from the tick thread (see {@link HeadlessServer}).
+ */
+@Slf4j
+public class ServerWorld {
+
+    public static final int TICK_RATE = 60;
+    /** Ticks between dormancy checks. Entities wake at most this late after a player's interest reaches them. */
+    public static final int DORMANCY_CHECK_INTERVAL = 15;
+    /** Stamped inputs buffered per client. A client running further ahead loses its oldest inputs. */
+    public static final int MAX_QUEUED_INPUTS = 8;
+
+    private static final int RANDOM_AI = 0, RANDOM_COMBAT = 1, RANDOM_SPAWN = 2;
+
+    private final EntityManager entityManager;
+    private final Level level;
+    private final EntityFactory entityFactory;
+    private final PlayerInputSystem playerInputSystem;
+    private final StatCalculationSystem statCalculationSystem;
+    private final List<System> systems;
+    private final InterestGrid interestGrid;
+    private final LagCompensator lagCompensator = new LagCompensator();
+    private final TickRandom tickRandom; // Null unless deterministic
+    private StateHasher stateHasher;
+    private SystemProfiler profiler = new SystemProfiler(false);
+    // Key: client id. Insertion-ordered so players are updated in join order every tick.
+    private final Map<Integer, Integer> playerEntities = new LinkedHashMap<>();
+    private final Map<Integer, PlayerCommand> commands = new LinkedHashMap<>();
+    private final Map<Integer, ArrayDeque<StampedCommand>> inputQueues = new LinkedHashMap<>();
+    private final Map<Integer, Integer> lastInputTicks = new LinkedHashMap<>();
+    private final Map<Integer, Integer> viewTicks = new LinkedHashMap<>(); // Key: player entity
+    private int playerSpawnX, playerSpawnY;
+    private long tick;
+
+    /**
+     * Creates the world and spawns the level's NPCs and enemies. Players join through {@link #addPlayer(int)}.
+     * @param level The level to simulate.
+     * @param animationRegistry Shared attack animation data.
+     */
+    public ServerWorld(Level level, AnimationDataRegistry animationRegistry) {
+        this(level, animationRegistry, null, null);
+    }
+
+    /**
+     * Creates a deterministic world: every peer that creates one from the same level and seed, adds the
+     * same players in the same order and applies the same commands every tick stays identical.
+     * @param seed Shared by every peer simulating this world.
+     */
+    public ServerWorld(Level level, AnimationDataRegistry animationRegistry, long seed) {
+        this(level, animationRegistry, new TickRandom(seed, 3), null);
+    }
+
+    /**
+     * Creates a deterministic world that is also drawn offscreen, like ScenarioRunner does: the sprites of
+     * its entities and corpses are packed into {@code atlas}, on the thread that creates them.
+     * @param atlas The atlas the offscreen RenderSystem draws from.
+     */
+    public ServerWorld(Level level, AnimationDataRegistry animationRegistry, long seed, TextureAtlas atlas) {
+        this(level, animationRegistry, new TickRandom(seed, 3), atlas);
+    }
+
+    private ServerWorld(Level level, AnimationDataRegistry animationRegistry, TickRandom tickRandom, TextureAtlas atlas) {
+        if (level == null) throw new IllegalArgumentException("Level cannot be null.");
+        if (animationRegistry == null) throw new IllegalArgumentException("AnimationDataRegistry cannot be null.");
+        this.level = level;
+        this.entityManager = new EntityManager();
+        this.entityFactory = new EntityFactory(entityManager, atlas); // Null unless the world is drawn
+        this.interestGrid = new InterestGrid(level);
+        this.tickRandom = tickRandom;
+
+        playerInputSystem = new PlayerInputSystem(entityManager, null, animationRegistry);
+        statCalculationSystem = new StatCalculationSystem(entityManager);
+        CombatSystem combatSystem = new CombatSystem(entityManager, random(RANDOM_COMBAT));
+        combatSystem.setHitRewind(this::rewindTarget);
+        // Same order as GameMain.update, without the camera and the game module's forest crisis hooks
+        systems = List.of(
+                new AISystem(entityManager, animationRegistry, random(RANDOM_AI)),
+                new InteractionSystem(entityManager),
+                combatSystem,
+                new ExperienceSystem(entityManager),
+                statCalculationSystem,
+                new ParticlePhysicsSystem(entityManager),
+                new CollisionSystem(entityManager, level),
+                new MovementSystem(entityManager),
+                new LifetimeSystem(entityManager),
+                new VisualEffectsSystem(entityManager),
+                new CorpseDecaySystem(entityManager, atlas),
+                new AnimationSystem(entityManager));
+
+        spawnFromLevel();
+        updateDormancy();
+        lagCompensator.record(entityManager, tick);
+    }
+
+    private Random random(int stream) {
+        return tickRandom != null ? tickRandom.stream(stream) : new Random();
+    }
+
+    private void spawnFromLevel() {
+        int tileSize = level.getTileSize();
+        boolean playerSpawnFound = false;
+        for (SpawnPoint sp : level.getSpawnPoints()) {
+            int spawnX = sp.getTileX() * tileSize + tileSize / 2;
+            int spawnY = sp.getTileY() * tileSize + tileSize / 2;
+            switch (sp.getType()) {
+                case PLAYER -> {
+                    if (!playerSpawnFound) {
+                        playerSpawnX = spawnX;
+                        playerSpawnY = spawnY;
+                        playerSpawnFound = true;
+                    }
+                }
+                case NPC_VILLAGER, ENEMY_DEIDARA -> spawn(sp.getType(), spawnX, spawnY);
+                default -> log.warn("Unknown spawn type encountered in map data: {}", sp.getType());
+            }
+        }
+        if (!playerSpawnFound) {
+            log.warn("No PLAYER spawn point in the level; players join at the level's center.");
+            playerSpawnX = level.getWidth() * tileSize / 2;
+            playerSpawnY = level.getHeight() * tileSize / 2;
+        }
+    }
+
+    /**
+     * Spawns an NPC or enemy as a spawn point of the level would, e.g. to populate a test scenario.
+     * It starts awake; the next dormancy check puts it to sleep if no player is near.
+     * @return The entity id.
+     * @throws IllegalArgumentException For {@link SpawnPoint.SpawnType#PLAYER}: players join through {@link #addPlayer(int)}.
+     */
+    public int spawn(SpawnPoint.SpawnType type, int x, int y) {
+        int entityId = switch (type) {
+            case NPC_VILLAGER -> entityFactory.createVillagerNPC(x, y);
+            case ENEMY_DEIDARA -> entityFactory.createEnemyDeidara(x, y);
+            case PLAYER -> throw new IllegalArgumentException("Players join through addPlayer.");
+        };
+        if (entityManager.hasComponent(entityId, StatsComponent.class)) {
+            statCalculationSystem.recalculateStats(entityId);
+        }
+        WanderAIComponent wander = entityManager.getComponent(entityId, WanderAIComponent.class);
+        if (tickRandom != null && wander != null) {
+            // The component drew its first idle time from its own generator
+            wander.resetIdleTimer(tickRandom.stream(RANDOM_SPAWN));
+        }
+        return entityId;
+    }
+
+    /**
+     * Spawns a player for a newly connected client at the level's player spawn.
+     * @return The player's entity id.
+     * @throws IllegalArgumentException If the client already has a player.
+     */
+    public int addPlayer(int clientId) {
+        if (playerEntities.containsKey(clientId)) {
+            throw new IllegalArgumentException("Client " + clientId + " already has a player.");
+        }
+        int[] spawn = freeSpawnNear(playerSpawnX, playerSpawnY);
+        int entityId = entityFactory.createPlayer(spawn[0], spawn[1]);
+        statCalculationSystem.recalculateStats(entityId);
+        playerEntities.put(clientId, entityId);
+        commands.put(clientId, PlayerCommand.NONE);
+        inputQueues.put(clientId, new ArrayDeque<>());
+        lastInputTicks.put(clientId, -1);
+        interestGrid.addClient(clientId, InterestGrid.DEFAULT_RADIUS_CELLS);
+        interestGrid.subscribeAround(clientId, spawn[0], spawn[1]);
+        updateDormancy();
+        log.info("Client {} joined as player entity {}.", clientId, entityId);
+        return entityId;
+    }
+
+    /**
+     * Players sharing the spawn would overlap and block each other in CollisionSystem,
+     * so later joiners are placed two tiles apart around it, skipping solid tiles.
+     */
+    private int[] freeSpawnNear(int x, int y) {
+        int step = level.getTileSize() * 2;
+        int slot = playerEntities.size();
+        for (int ring = 0; ring <= 8; ring++) {
+            for (int dy = -ring; dy <= ring; dy++) {
+                for (int dx = -ring; dx <= ring; dx++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != ring) continue; // Only the ring's edge
+                    int px = x + dx * step;
+                    int py = y + dy * step;
+                    if (level.isSolid(px / level.getTileSize(), py / level.getTileSize())) continue;
+                    if (slot-- == 0) return new int[]{px, py};
+                }
+            }
+        }
+        return new int[]{x, y};
+    }
+
+    /** Removes a disconnected client's player. Unknown clients are ignored. */
+    public void removePlayer(int clientId) {
+        Integer entityId = playerEntities.remove(clientId);
+        if (entityId != null) viewTicks.remove(entityId);
+        commands.remove(clientId);
+        inputQueues.remove(clientId);
+        lastInputTicks.remove(clientId);
+        interestGrid.removeClient(clientId);
+        if (entityId != null && entityManager.isEntityActive(entityId)) {
+            entityManager.destroyEntity(entityId);
+            log.info("Client {} left, removed player entity {}.", clientId, entityId);
+        }
+    }
+
+    /** Measures every system update with {@code profiler} from the next tick on; a disabled one stops measuring. */
+    public void setProfiler(SystemProfiler profiler) {
+        if (profiler == null) throw new IllegalArgumentException("Profiler cannot be null.");
+        this.profiler = profiler;
+    }
+
+    /** Sets the controls a client's player uses from the next tick on, until the client sends new ones. */
+    public void setCommand(int clientId, PlayerCommand command) {
+        if (command == null) throw new IllegalArgumentException("Command cannot be null.");
+        if (commands.containsKey(clientId)) {
+            commands.put(clientId, command);
+        }
+    }
+
+    /**
+     * Queues a tick-stamped input from a predicting client. Inputs are applied one per server tick in
+     * stamp order; duplicates and inputs older than the newest queued one are ignored, so resending
+     * recent inputs in every packet is safe.
+     */
+    public void submitInput(int clientId, StampedCommand input) {
+        if (input == null) throw new IllegalArgumentException("Input cannot be null.");
+        ArrayDeque<StampedCommand> queue = inputQueues.get(clientId);
+        if (queue == null) return;
+        int newest = queue.isEmpty() ? lastInputTicks.get(clientId) : queue.peekLast().tick();
+        if (input.tick() <= newest) return;
+        queue.addLast(input);
+        while (queue.size() > MAX_QUEUED_INPUTS) {
+            queue.pollFirst();
+        }
+    }
+
+    /** The stamp of the last input applied to the client's player, or -1 if none yet. */
+    public int getLastProcessedInput(int clientId) {
+        return lastInputTicks.getOrDefault(clientId, -1);
+    }
+
+    /** Advances the simulation by one fixed step. */
+    public void tick(float deltaTime) {
+        if (tickRandom != null) {
+            tickRandom.beginTick(tick);
+        }
+        for (Map.Entry<Integer, ArrayDeque<StampedCommand>> queue : inputQueues.entrySet()) {
+            StampedCommand input = queue.getValue().pollFirst();
+            if (input != null) {
+                commands.put(queue.getKey(), input.command());
+                lastInputTicks.put(queue.getKey(), input.tick());
+                viewTicks.put(playerEntities.get(queue.getKey()), input.viewTick());
+            } else if (lastInputTicks.get(queue.getKey()) >= 0) {
+                // Input starved: keep walking as the client last did, but never repeat an attack
+                commands.put(queue.getKey(), commands.get(queue.getKey()).movementOnly());
+            }
+        }
+        for (Map.Entry<Integer, Integer> player : playerEntities.entrySet()) {
+            int entityId = player.getValue();
+            if (entityManager.isEntityActive(entityId) && entityManager.hasComponent(entityId, PlayerComponent.class)) {
+                playerInputSystem.applyCommand(entityId, commands.get(player.getKey()));
+            }
+        }
+        for (System system : systems) {
+            profiler.update(system, deltaTime);
+        }
+        for (Map.Entry<Integer, Integer> player : playerEntities.entrySet()) {
+            PositionComponent pos = entityManager.getComponent(player.getValue(), PositionComponent.class);
+            if (pos != null) {
+                interestGrid.subscribeAround(player.getKey(), pos.x, pos.y);
+            }
+        }
+        entityManager.getEvents().endTick();
+        tick++;
+        if (tick % DORMANCY_CHECK_INTERVAL == 0) {
+            updateDormancy();
+        }
+        lagCompensator.record(entityManager, tick);
+    }
+
+    /** Rewinds targets of players that sent a view tick; NPCs and players without one hit the present. */
+    private boolean rewindTarget(int attackerId, int targetId, PositionComponent position, ColliderComponent collider) {
+        Integer viewTick = viewTicks.get(attackerId);
+        return viewTick != null && viewTick >= 0 && lagCompensator.rewind(targetId, viewTick, position, collider);
+    }
+
+    /**
+     * Marks a pixel region relevant to every client and always simulated, like a threat zone whose wolves
+     * must keep moving with nobody near. Wanderers in it wake now rather than at the next dormancy check.
+     */
+    public void markAlwaysRelevant(int x, int y, int width, int height) {
+        interestGrid.markAlwaysRelevant(x, y, width, height);
+        updateDormancy();
+    }
+
+    /** Puts wandering entities outside every active cell to sleep and wakes the ones inside. */
+    private void updateDormancy() {
+        for (int entityId : entityManager.getEntitiesWith(WanderAIComponent.class, PositionComponent.class)) {
+            PositionComponent pos = entityManager.getComponent(entityId, PositionComponent.class);
+            boolean dormant = entityManager.hasComponent(entityId, DormantComponent.class);
+            boolean active = interestGrid.isActive(pos.x, pos.y);
+            if (active && dormant) {
+                entityManager.removeComponent(entityId, DormantComponent.class);
+            } else if (!active && !dormant) {
+                entityManager.addComponent(entityId, new DormantComponent());
+                VelocityComponent vel = entityManager.getComponent(entityId, VelocityComponent.class);
+                if (vel != null) {
+                    vel.vx = 0;
+                    vel.vy = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hash of the simulated state after the last tick: every entity's serializable components, in id
+     * order, and the tick number. Deterministic peers compare these to detect desyncs.
+     */
+    public long computeStateHash() {
+        if (stateHasher == null) {
+            stateHasher = new StateHasher(ComponentCodecRegistry.withEngineComponents());
+        }
+        return stateHasher.hash(entityManager, tick);
+    }
+
+    public boolean isDeterministic() { return tickRandom != null; }
+    public EntityManager getEntityManager() { return entityManager; }
+    public Level getLevel() { return level; }
+    public InterestGrid getInterestGrid() { return interestGrid; }
+    public long getTick() { return tick; }
+    public int getPlayerCount() { return playerEntities.size(); }
+
+    /** Returns the client's player entity, or -1 if the client has none. */
+    public int getPlayerEntity(int clientId) {
+        return playerEntities.getOrDefault(clientId, -1);
+    }
+
+    /** Client id to player entity id, in join order. */
+    public Map<Integer, Integer> getPlayerEntities() {
+        return Collections.unmodifiableMap(playerEntities);
+    }
+}
@@ -0,0 +1,53 @@
+package com.kindred.networking.transport;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of equally sized direct ByteBuffers, so steady-state packet handling reuses buffers instead of
+ * allocating. Buffers are handed out cleared; release every buffer exactly once.
+ * Thread-safe; the lock is only held for the deque operation.
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private int created;
+
+    /**
+     * @param bufferSize Capacity of every buffer, usually the MTU.
+     * @param maxPooled Buffers kept for reuse; buffers released beyond that are left to the GC.
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("Buffer size must be positive.");
+        if (maxPooled < 0) throw new IllegalArgumentException("maxPooled cannot be negative.");
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    public synchronized ByteBuffer acquire() {
+        ByteBuffer buffer = free.pollFirst();
+        if (buffer == null) {
+            created++;
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        return buffer.clear();
+    }
+
+    public synchronized void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize) {
+            throw new IllegalArgumentException("Buffer does not belong to this pool.");
+        }
+        if (free.size() < maxPooled) {
+            free.addFirst(buffer);
+        }
+    }
+
+    public int getBufferSize() { return bufferSize; }
+
+    /** Number of buffers allocated so far; stays flat once the pool has warmed up. */
+    public synchronized int getCreatedCount() { return created; }
+
+    public synchronized int getFreeCount() { return free.size(); }
+}
@@ -0,0 +1,20 @@
+package com.kindred.networking.transport;
+
+/** Delivery guarantees a message can be sent with. All channels share one socket and one packet sequence. */
+public enum Channel {
+    /** Sent once; may be lost, duplicated packets are dropped. For state that is resent anyway (positions). */
+    UNRELIABLE,
+    /** Resent until acknowledged and delivered in send order. For chat, dialogue and resource events. */
+    RELIABLE_ORDERED;
+
+    private static final Channel[] VALUES = values();
+
+    /** Returns the channel with the given wire id, or null if the id is unknown. */
+    public static Channel fromId(int id) {
+        return id >= 0 && id < VALUES.length ? VALUES[id] : null;
+    }
+
+    public int id() {
+        return ordinal();
+    }
+}
@@ -0,0 +1,424 @@
+package com.kindred.networking.transport;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reliability layer for one peer, independent of how datagrams travel.
+ * Every packet carries a 16-bit sequence number plus an ack of the newest packet received and a bitfield
+ * of the 32 before it, so acks piggyback on regular traffic. Reliable-ordered fragments are kept in a
+ * send window and resent until a packet carrying them is acked; the receiver buffers out-of-order
+ * fragments and delivers messages in send order. Messages larger than one packet are split into up to
+ * {@link #MAX_FRAGMENTS} fragments. All buffers come from a {@link BufferPool}, and payloads are copied
+ * with absolute puts rather than through slices or duplicates, so steady-state traffic allocates nothing.
+ * <p>
+ * Packet layout: magic u16, type u8 (high bit: ack fields valid), sequence u16, ack u16, ack bits u32,
+ * then for DATA packets: channel u8, message id u16, fragment u8, fragment count u8, payload.
+ * <p>
+ * Not thread-safe; the owning transport serializes access.
+ */
+public class Connection {
+
+    public static final int MAGIC = 0x4B44; // "KD"
+    static final byte CONNECT = 1;
+    static final byte ACCEPT = 2;
+    static final byte DATA = 3;
+    static final byte ACK = 4;
+    static final byte DISCONNECT = 5;
+    private static final int HAS_ACK = 0x80;
+
+    static final int HEADER_BYTES = 11;
+    static final int MESSAGE_HEADER_BYTES = 5;
+    public static final int MAX_FRAGMENTS = 255;
+    static final int WINDOW = 256; // Reliable window and packet history, power of two
+    private static final int MASK = WINDOW - 1;
+    static final long MIN_RESEND_MILLIS = 30;
+    static final long ACK_DELAY_MILLIS = 20;
+    static final long KEEPALIVE_MILLIS = 250;
+    static final long TIMEOUT_MILLIS = 5000;
+
+    /** Where finished packets go. The packet is only valid during the call. */
+    interface PacketSink {
+        void send(ByteBuffer packet);
+    }
+
+    private final int id;
+    private final BufferPool pool;
+    private final PacketSink sink;
+    private final TransportStats.Counters counters;
+    private final int maxFragmentPayload;
+    private final ByteBuffer sendBuffer;
+
+    // --- Packet sequence and acks ---
+    private int localSequence;
+    private int remoteSequence = -1;
+    private int receivedBits; // Bit i set: packet remoteSequence - 1 - i was received
+    private boolean ackPending;
+    private final int[] packetSequenceAt = new int[WINDOW];
+    private final long[] packetSentAt = new long[WINDOW];
+    private final int[] packetMessage = new int[WINDOW]; // Reliable message id carried, -1 for none
+
+    // --- Reliable send window ---
+    private int sendBase; // Oldest unacked message id
+    private int sendNext;
+    private final ByteBuffer[] sendWindow = new ByteBuffer[WINDOW];
+    private final int[] sendFragment = new int[WINDOW];
+    private final int[] sendFragmentCount = new int[WINDOW];
+    private final long[] messageSentAt = new long[WINDOW];
+
+    // --- Reliable receive window ---
+    private int receiveNext;
+    private final ByteBuffer[] receiveWindow = new ByteBuffer[WINDOW];
+    private final int[] receiveFragment = new int[WINDOW];
+    private final int[] receiveFragmentCount = new int[WINDOW];
+    private ByteBuffer reliableAssembly;
+
+    // --- Unreliable ---
+    private int unreliableNext;
+    private int unreliableGroup = -1;
+    private final boolean[] unreliableSeen = new boolean[MAX_FRAGMENTS];
+    private int unreliableSeenCount, unreliableLength;
+    private ByteBuffer unreliableAssembly;
+
+    private float roundTripMillis;
+    private long lastSentAt, lastReceivedAt;
+
+    Connection(int id, BufferPool pool, PacketSink sink, TransportStats.Counters counters, long now) {
+        if (pool.getBufferSize() <= HEADER_BYTES + MESSAGE_HEADER_BYTES) {
+            throw new IllegalArgumentException("Packet size " + pool.getBufferSize() + " leaves no room for payload.");
+        }
+        this.id = id;
+        this.pool = pool;
+        this.sink = sink;
+        this.counters = counters;
+        this.maxFragmentPayload = pool.getBufferSize() - HEADER_BYTES - MESSAGE_HEADER_BYTES;
+        this.sendBuffer = pool.acquire();
+        this.lastReceivedAt = now;
+        this.lastSentAt = now;
+        Arrays.fill(packetSequenceAt, -1);
+    }
+
+    // --- Sending ---
+
+    /**
+     * Sends a message, fragmenting it if needed.
+     * @throws IllegalArgumentException If it needs more than {@link #MAX_FRAGMENTS} fragments.
+     * @throws IllegalStateException If the reliable window has no room (the peer stopped acking).
+     */
+    void send(Channel channel, ByteBuffer message, long now) {
+        int length = message.remaining();
+        int fragments = Math.max(1, (length + maxFragmentPayload - 1) / maxFragmentPayload);
+        if (fragments > MAX_FRAGMENTS) {
+            throw new IllegalArgumentException("Message of " + length + " bytes needs more than " + MAX_FRAGMENTS + " fragments.");
+        }
+        int start = message.position();
+        if (channel == Channel.UNRELIABLE) {
+            int group = unreliableNext;
+            unreliableNext = (unreliableNext + 1) & 0xFFFF;
+            for (int f = 0; f < fragments; f++) {
+                int offset = start + f * maxFragmentPayload;
+                int size = Math.min(maxFragmentPayload, length - f * maxFragmentPayload);
+                writeHeader(DATA, now);
+                sendBuffer.put((byte) channel.id()).putShort((short) group).put((byte) f).put((byte) fragments);
+                putPayload(message, offset, size);
+                flush(now);
+            }
+        } else {
+            if (((sendNext - sendBase) & 0xFFFF) + fragments > WINDOW) {
+                throw new IllegalStateException("Reliable send window of connection " + id + " is full.");
+            }
+            for (int f = 0; f < fragments; f++) {
+                int offset = start + f * maxFragmentPayload;
+                int size = Math.min(maxFragmentPayload, length - f * maxFragmentPayload);
+                int messageId = sendNext;
+                int slot = messageId & MASK;
+                ByteBuffer stored = pool.acquire();
+                stored.put(0, message, offset, size).limit(size);
+                sendWindow[slot] = stored;
+                sendFragment[slot] = f;
+                sendFragmentCount[slot] = fragments;
+                sendNext = (sendNext + 1) & 0xFFFF;
+                transmitReliable(messageId, now);
+            }
+        }
+        message.position(message.limit());
+    }
+
+    private void transmitReliable(int messageId, long now) {
+        int slot = messageId & MASK;
+        ByteBuffer stored = sendWindow[slot];
+        int packetSlot = writeHeader(DATA, now);
+        packetMessage[packetSlot] = messageId;
+        sendBuffer.put((byte) Channel.RELIABLE_ORDERED.id()).putShort((short) messageId)
+                .put((byte) sendFragment[slot]).put((byte) sendFragmentCount[slot]);
+        putPayload(stored, 0, stored.limit());
+        messageSentAt[slot] = now;
+        flush(now);
+    }
+
+    /** Appends {@code size} bytes of {@code source} from {@code offset}, leaving the source's position alone. */
+    private void putPayload(ByteBuffer source, int offset, int size) {
+        int at = sendBuffer.position();
+        sendBuffer.put(at, source, offset, size).position(at + size);
+    }
+
+    /** Sends a header-only packet (ACK or DISCONNECT). */
+    void sendControl(byte type, long now) {
+        writeHeader(type, now);
+        flush(now);
+    }
+
+    private int writeHeader(byte type, long now) {
+        int sequence = localSequence;
+        int slot = sequence & MASK;
+        packetSequenceAt[slot] = sequence;
+        packetSentAt[slot] = now;
+        packetMessage[slot] = -1;
+        localSequence = (localSequence + 1) & 0xFFFF;
+
+        sendBuffer.clear();
+        sendBuffer.putShort((short) MAGIC);
+        sendBuffer.put((byte) (remoteSequence >= 0 ? type | HAS_ACK : type));
+        sendBuffer.putShort((short) sequence);
+        sendBuffer.putShort((short) Math.max(remoteSequence, 0));
+        sendBuffer.putInt(receivedBits);
+        ackPending = false;
+        return slot;
+    }
+
+    private void flush(long now) {
+        sendBuffer.flip();
+        counters.packetsSent++;
+        counters.bytesSent += sendBuffer.remaining();
+        lastSentAt = now;
+        sink.send(sendBuffer);
+    }
+
+    // --- Receiving ---
+
+    /** Returns the packet type of a datagram, or -1 if it is not one of ours. Does not move the position. */
+    static int packetType(ByteBuffer packet) {
+        int p = packet.position();
+        if (packet.remaining() < 3 || (packet.getShort(p) & 0xFFFF) != MAGIC) return -1;
+        return packet.get(p + 2) & ~HAS_ACK & 0xFF;
+    }
+
+    /** Handles a DATA or ACK packet and delivers any messages it completes. */
+    void receive(ByteBuffer packet, long now, TransportListener listener) {
+        int length = packet.remaining();
+        if (length < HEADER_BYTES) {
+            counters.packetsDropped++;
+            return;
+        }
+        packet.getShort(); // Magic, checked by the transport
+        int typeByte = packet.get() & 0xFF;
+        int sequence = packet.getShort() & 0xFFFF;
+        int ack = packet.getShort() & 0xFFFF;
+        int ackBits = packet.getInt();
+
+        if (!recordReceived(sequence)) {
+            counters.packetsDropped++;
+            return;
+        }
+        counters.packetsReceived++;
+        counters.bytesReceived += length;
+        lastReceivedAt = now;
+        ackPending = true;
+        if ((typeByte & HAS_ACK) != 0) {
+            processAcks(ack, ackBits, now);
+        }
+        if ((typeByte & ~HAS_ACK) == DATA) {
+            readMessage(packet, listener);
+        }
+    }
+
+    /** Marks a packet sequence as received. Returns false for duplicates and packets too old to track. */
+    private boolean recordReceived(int sequence) {
+        if (remoteSequence < 0) {
+            remoteSequence = sequence;
+            return true;
+        }
+        int ahead = (sequence - remoteSequence) & 0xFFFF;
+        if (ahead == 0) return false;
+        if (ahead < 0x8000) {
+            receivedBits = ahead >= 32 ? 0 : receivedBits << ahead;
+            if (ahead <= 32) receivedBits |= 1 << (ahead - 1);
+            remoteSequence = sequence;
+            return true;
+        }
+        int behind = (remoteSequence - sequence) & 0xFFFF;
+        if (behind > 32) return false;
+        int bit = 1 << (behind - 1);
+        if ((receivedBits & bit) != 0) return false;
+        receivedBits |= bit;
+        return true;
+    }
+
+    private void processAcks(int ack, int ackBits, long now) {
+        ackPacket(ack, now);
+        for (int i = 0; i < 32; i++) {
+            if ((ackBits & (1 << i)) != 0) {
+                ackPacket((ack - 1 - i) & 0xFFFF, now);
+            }
+        }
+    }
+
+    private void ackPacket(int sequence, long now) {
+        int slot = sequence & MASK;
+        if (packetSequenceAt[slot] != sequence) return; // Unknown, already acked or overwritten
+        packetSequenceAt[slot] = -1;
+        float sample = now - packetSentAt[slot];
+        roundTripMillis = roundTripMillis == 0 ? Math.max(sample, 0.01f) : roundTripMillis + 0.1f * (sample - roundTripMillis);
+
+        int messageId = packetMessage[slot];
+        if (messageId < 0) return;
+        int messageSlot = messageId & MASK;
+        int offset = (messageId - sendBase) & 0xFFFF;
+        if (offset >= ((sendNext - sendBase) & 0xFFFF) || sendWindow[messageSlot] == null) return; // Acked via an earlier copy
+        pool.release(sendWindow[messageSlot]);
+        sendWindow[messageSlot] = null;
+        while (sendBase != sendNext && sendWindow[sendBase & MASK] == null) {
+            sendBase = (sendBase + 1) & 0xFFFF;
+        }
+    }
+
+    private void readMessage(ByteBuffer packet, TransportListener listener) {
+        if (packet.remaining() < MESSAGE_HEADER_BYTES) {
+            counters.packetsDropped++;
+            return;
+        }
+        Channel channel = Channel.fromId(packet.get() & 0xFF);
+        int messageId = packet.getShort() & 0xFFFF;
+        int fragment = packet.get() & 0xFF;
+        int fragmentCount = packet.get() & 0xFF;
+        if (channel == null || fragmentCount == 0 || fragment >= fragmentCount || packet.remaining() > maxFragmentPayload) {
+            counters.packetsDropped++;
+            return;
+        }
+        if (channel == Channel.UNRELIABLE) {
+            receiveUnreliable(packet, messageId, fragment, fragmentCount, listener);
+        } else {
+            receiveReliable(packet, messageId, fragment, fragmentCount, listener);
+        }
+    }
+
+    private void receiveUnreliable(ByteBuffer packet, int group, int fragment, int fragmentCount, TransportListener listener) {
+        if (fragmentCount == 1) {
+            listener.onMessage(id, Channel.UNRELIABLE, packet);
+            return;
+        }
+        if (unreliableGroup < 0 || ((group - unreliableGroup) & 0xFFFF) - 1 < 0x7FFF) {
+            // A newer fragmented message: drop whatever is left of the previous one
+            unreliableGroup = group;
+            Arrays.fill(unreliableSeen, false);
+            unreliableSeenCount = 0;
+            unreliableLength = 0;
+        } else if (group != unreliableGroup) {
+            return; // Fragment of an older message
+        }
+        if (unreliableSeen[fragment]) return;
+        unreliableAssembly = ensureCapacity(unreliableAssembly, fragmentCount * maxFragmentPayload);
+        int size = packet.remaining();
+        unreliableAssembly.clear().position(fragment * maxFragmentPayload);
+        unreliableAssembly.put(packet);
+        if (fragment == fragmentCount - 1) {
+            unreliableLength = fragment * maxFragmentPayload + size;
+        }
+        unreliableSeen[fragment] = true;
+        if (++unreliableSeenCount == fragmentCount) {
+            unreliableAssembly.clear().limit(unreliableLength);
+            listener.onMessage(id, Channel.UNRELIABLE, unreliableAssembly);
+        }
+    }
+
+    private void receiveReliable(ByteBuffer packet, int messageId, int fragment, int fragmentCount, TransportListener listener) {
+        int ahead = (messageId - receiveNext) & 0xFFFF;
+        if (ahead >= WINDOW) return; // Already delivered (behind) or too far ahead; the sender resends
+        int slot = messageId & MASK;
+        if (receiveWindow[slot] == null) {
+            ByteBuffer stored = pool.acquire();
+            stored.put(packet).flip();
+            receiveWindow[slot] = stored;
+            receiveFragment[slot] = fragment;
+            receiveFragmentCount[slot] = fragmentCount;
+        }
+        ByteBuffer next;
+        while ((next = receiveWindow[receiveNext & MASK]) != null) {
+            int nextSlot = receiveNext & MASK;
+            receiveWindow[nextSlot] = null;
+            receiveNext = (receiveNext + 1) & 0xFFFF;
+            try {
+                deliverReliable(next, receiveFragment[nextSlot], receiveFragmentCount[nextSlot], listener);
+            } finally {
+                pool.release(next);
+            }
+        }
+    }
+
+    private void deliverReliable(ByteBuffer fragmentData, int fragment, int fragmentCount, TransportListener listener) {
+        if (fragmentCount == 1) {
+            listener.onMessage(id, Channel.RELIABLE_ORDERED, fragmentData);
+            return;
+        }
+        // Fragments of a message have consecutive ids, so in-order delivery hands them over in order
+        if (fragment == 0) {
+            reliableAssembly = ensureCapacity(reliableAssembly, fragmentCount * maxFragmentPayload);
+            reliableAssembly.clear();
+        }
+        if (reliableAssembly == null) return; // Joined in the middle of a message
+        reliableAssembly.put(fragmentData);
+        if (fragment == fragmentCount - 1) {
+            reliableAssembly.flip();
+            listener.onMessage(id, Channel.RELIABLE_ORDERED, reliableAssembly);
+        }
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+        if (buffer != null && buffer.capacity() >= capacity) return buffer;
+        return ByteBuffer.allocate(Math.max(capacity, buffer == null ? 0 : buffer.capacity() * 2));
+    }
+
+    // --- Timers ---
+
+    /** Resends overdue reliable fragments and sends an ack or keepalive when nothing else went out. */
+    void update(long now) {
+        long resendDelay = Math.max(MIN_RESEND_MILLIS, (long) (roundTripMillis * 1.25f) + 10);
+        for (int messageId = sendBase; messageId != sendNext; messageId = (messageId + 1) & 0xFFFF) {
+            int slot = messageId & MASK;
+            if (sendWindow[slot] != null && now - messageSentAt[slot] >= resendDelay) {
+                counters.messagesResent++;
+                transmitReliable(messageId, now);
+            }
+        }
+        long idle = now - lastSentAt;
+        if ((ackPending && idle >= ACK_DELAY_MILLIS) || idle >= KEEPALIVE_MILLIS) {
+            sendControl(ACK, now);
+        }
+    }
+
+    boolean isTimedOut(long now, long timeoutMillis) {
+        return now - lastReceivedAt > timeoutMillis;
+    }
+
+    /** Returns every pooled buffer. The connection must not be used afterwards. */
+    void close() {
+        for (int i = 0; i < WINDOW; i++) {
+            if (sendWindow[i] != null) { pool.release(sendWindow[i]); sendWindow[i] = null; }
+            if (receiveWindow[i] != null) { pool.release(receiveWindow[i]); receiveWindow[i] = null; }
+        }
+        pool.release(sendBuffer);
+    }
+
+    public int getId() { return id; }
+    public float getRoundTripMillis() { return roundTripMillis; }
+    public int getMaxFragmentPayload() { return maxFragmentPayload; }
+
+    /** Reliable fragments sent but not yet acked. */
+    public int getPendingReliableCount() {
+        int pending = 0;
+        for (int messageId = sendBase; messageId != sendNext; messageId = (messageId + 1) & 0xFFFF) {
+            if (sendWindow[messageId & MASK] != null) pending++;
+        }
+        return pending;
+    }
+}
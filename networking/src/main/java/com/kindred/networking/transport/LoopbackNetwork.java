@@ -0,0 +1,192 @@
+package com.kindred.networking.transport;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * In-memory network for tests and local play: endpoints exchange packets through a queue with
+ * configurable loss and latency instead of a socket, and the same {@link Connection} reliability layer
+ * runs on top. Nothing happens until {@link #update(long)} is called, so tests control time completely.
+ * Packet loss uses a seeded Random, so runs are reproducible. Not thread-safe.
+ */
+public class LoopbackNetwork {
+
+    private final BufferPool pool;
+    private final Random random;
+    private final ArrayDeque<InFlight> inFlight = new ArrayDeque<>();
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private float lossRate;
+    private long latencyMillis;
+    private long now;
+
+    /**
+     * @param mtu Maximum packet size in bytes.
+     * @param seed Seed for simulated packet loss.
+     */
+    public LoopbackNetwork(int mtu, long seed) {
+        this.pool = new BufferPool(mtu, 1024);
+        this.random = new Random(seed);
+    }
+
+    public LoopbackNetwork(long seed) {
+        this(UdpTransport.DEFAULT_MTU, seed);
+    }
+
+    /** Fraction of packets dropped, in [0, 1). */
+    public void setLossRate(float lossRate) {
+        if (lossRate < 0 || lossRate >= 1) throw new IllegalArgumentException("Loss rate must be in [0, 1).");
+        this.lossRate = lossRate;
+    }
+
+    /** One-way delay of every packet. */
+    public void setLatencyMillis(long latencyMillis) {
+        if (latencyMillis < 0) throw new IllegalArgumentException("Latency cannot be negative.");
+        this.latencyMillis = latencyMillis;
+    }
+
+    public Transport createServer(TransportListener listener) {
+        if (listener == null) throw new IllegalArgumentException("TransportListener cannot be null.");
+        Endpoint endpoint = new Endpoint(listener);
+        endpoints.add(endpoint);
+        return endpoint;
+    }
+
+    /**
+     * Connects a new client endpoint to a server created by this network. Both sides are told right away;
+     * the loopback has no handshake to lose.
+     * @return The client's transport. Its single connection has the same id the server assigned.
+     */
+    public Transport connect(Transport server, TransportListener listener) {
+        if (!(server instanceof Endpoint serverEndpoint) || !endpoints.contains(serverEndpoint)) {
+            throw new IllegalArgumentException("Server was not created by this network.");
+        }
+        if (listener == null) throw new IllegalArgumentException("TransportListener cannot be null.");
+        Endpoint client = new Endpoint(listener);
+        endpoints.add(client);
+        int id = serverEndpoint.nextConnectionId++;
+        serverEndpoint.open(id, client, id);
+        client.open(id, serverEndpoint, id);
+        serverEndpoint.listener.onConnected(id);
+        client.listener.onConnected(id);
+        return client;
+    }
+
+    /** Advances the network clock: delivers every packet that is due, then runs resends, acks and timeouts. */
+    public void update(long nowMillis) {
+        now = nowMillis;
+        while (!inFlight.isEmpty() && inFlight.peekFirst().deliverAt <= now) {
+            InFlight packet = inFlight.pollFirst();
+            try {
+                packet.target.receive(packet.connectionId, packet.data);
+            } finally {
+                pool.release(packet.data);
+            }
+        }
+        for (Endpoint endpoint : List.copyOf(endpoints)) {
+            endpoint.update();
+        }
+    }
+
+    public BufferPool getBufferPool() { return pool; }
+
+    /** Packets sent but not delivered yet. */
+    public int getInFlightCount() { return inFlight.size(); }
+
+    private record InFlight(long deliverAt, Endpoint target, int connectionId, ByteBuffer data) {}
+
+    private record Link(Connection connection, Endpoint peer, int peerConnectionId) {}
+
+    private final class Endpoint implements Transport {
+        private final TransportListener listener;
+        private final TransportStats.Counters counters = new TransportStats.Counters();
+        private final Map<Integer, Link> links = new LinkedHashMap<>();
+        private int nextConnectionId = 1;
+
+        Endpoint(TransportListener listener) {
+            this.listener = listener;
+        }
+
+        void open(int id, Endpoint peer, int peerConnectionId) {
+            Connection connection = new Connection(id, pool, packet -> transmit(peer, peerConnectionId, packet), counters, now);
+            links.put(id, new Link(connection, peer, peerConnectionId));
+        }
+
+        private void transmit(Endpoint peer, int peerConnectionId, ByteBuffer packet) {
+            if (lossRate > 0 && random.nextFloat() < lossRate) return;
+            ByteBuffer copy = pool.acquire();
+            copy.put(packet).flip();
+            inFlight.addLast(new InFlight(now + latencyMillis, peer, peerConnectionId, copy));
+        }
+
+        void receive(int connectionId, ByteBuffer packet) {
+            Link link = links.get(connectionId);
+            if (link == null) {
+                counters.packetsDropped++;
+                return;
+            }
+            if (Connection.packetType(packet) == Connection.DISCONNECT) {
+                drop(connectionId);
+                return;
+            }
+            link.connection().receive(packet, now, listener);
+        }
+
+        void update() {
+            for (Link link : List.copyOf(links.values())) {
+                Connection connection = link.connection();
+                if (connection.isTimedOut(now, Connection.TIMEOUT_MILLIS)) {
+                    drop(connection.getId());
+                } else {
+                    connection.update(now);
+                }
+            }
+        }
+
+        private void drop(int connectionId) {
+            Link link = links.remove(connectionId);
+            if (link == null) return;
+            link.connection().close();
+            listener.onDisconnected(connectionId);
+        }
+
+        @Override
+        public void send(int connectionId, Channel channel, ByteBuffer message) {
+            Link link = links.get(connectionId);
+            if (link == null) throw new IllegalArgumentException("Unknown connection " + connectionId + ".");
+            if (channel == null) throw new IllegalArgumentException("Channel cannot be null.");
+            link.connection().send(channel, message, now);
+        }
+
+        @Override
+        public void disconnect(int connectionId) {
+            Link link = links.remove(connectionId);
+            if (link == null) return;
+            link.connection().sendControl(Connection.DISCONNECT, now);
+            link.connection().close();
+        }
+
+        @Override
+        public float getRoundTripMillis(int connectionId) {
+            Link link = links.get(connectionId);
+            return link == null ? 0 : link.connection().getRoundTripMillis();
+        }
+
+        @Override
+        public TransportStats getStats() {
+            return counters.snapshot();
+        }
+
+        @Override
+        public void close() {
+            for (int id : List.copyOf(links.keySet())) {
+                disconnect(id);
+            }
+            endpoints.remove(this);
+        }
+    }
+}
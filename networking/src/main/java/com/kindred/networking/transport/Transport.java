@@ -0,0 +1,30 @@
+package com.kindred.networking.transport;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Message transport with unreliable and reliable-ordered channels over one datagram socket (or an
+ * in-memory link for tests). Implementations: {@link UdpTransport}, {@link LoopbackNetwork}.
+ */
+public interface Transport extends AutoCloseable {
+
+    /**
+     * Sends a message. Messages larger than one packet are fragmented.
+     * @param message Bytes between position and limit. Not retained; the buffer may be reused after the call.
+     * @throws IllegalArgumentException If the connection is unknown or the message is too large.
+     */
+    void send(int connectionId, Channel channel, ByteBuffer message);
+
+    /** Closes one connection, telling the peer. */
+    void disconnect(int connectionId);
+
+    /** Smoothed round-trip time of a connection in milliseconds, 0 before the first ack or for unknown connections. */
+    float getRoundTripMillis(int connectionId);
+
+    /** Statistics summed over every connection, including closed ones. */
+    TransportStats getStats();
+
+    /** Closes every connection and releases the socket. */
+    @Override
+    void close();
+}
@@ -0,0 +1,18 @@
+package com.kindred.networking.transport;
+
+import java.nio.ByteBuffer;
+
+/** Receives transport events. Called on the transport's thread (the selector thread, or whoever pumps a loopback). */
+public interface TransportListener {
+
+    void onConnected(int connectionId);
+
+    /**
+     * A complete message arrived.
+     * @param message The message between position and limit. Only valid during the call: copy what you keep.
+     */
+    void onMessage(int connectionId, Channel channel, ByteBuffer message);
+
+    /** The peer disconnected or timed out. */
+    void onDisconnected(int connectionId);
+}
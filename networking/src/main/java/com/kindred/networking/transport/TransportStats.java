@@ -0,0 +1,24 @@
+package com.kindred.networking.transport;
+
+/**
+ * Snapshot of transport counters.
+ *
+ * @param packetsSent Datagrams sent, including acks, resends and handshakes.
+ * @param packetsReceived Datagrams accepted from known peers.
+ * @param bytesSent Bytes sent, headers included.
+ * @param bytesReceived Bytes received, headers included.
+ * @param messagesResent Reliable fragments sent again because no ack arrived in time.
+ * @param packetsDropped Duplicate, stale or malformed datagrams that were ignored.
+ */
+public record TransportStats(long packetsSent, long packetsReceived, long bytesSent, long bytesReceived,
+                             long messagesResent, long packetsDropped) {
+
+    /** Mutable counterpart, updated by connections under their transport's lock. */
+    static final class Counters {
+        long packetsSent, packetsReceived, bytesSent, bytesReceived, messagesResent, packetsDropped;
+
+        TransportStats snapshot() {
+            return new TransportStats(packetsSent, packetsReceived, bytesSent, bytesReceived, messagesResent, packetsDropped);
+        }
+    }
+}
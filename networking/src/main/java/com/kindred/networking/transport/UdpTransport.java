@@ -0,0 +1,292 @@
+package com.kindred.networking.transport;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking UDP transport: one {@link DatagramChannel} serviced by a single selector thread, with
+ * a {@link Connection} per peer for sequencing, acks, resends and fragmentation. A server
+ * ({@link #listen}) accepts any number of peers; a client ({@link #connect}) has exactly one.
+ * <p>
+ * Handshake: the client repeats CONNECT every {@value #CONNECT_RETRY_MILLIS} ms until the server answers
+ * ACCEPT with the connection id. The server answers repeated CONNECTs from a known address with the
+ * same id, so a lost ACCEPT costs one retry. Peers that stay silent for 5 s are dropped.
+ * <p>
+ * Listener callbacks run on the selector thread. {@link #send} may be called from any thread, including
+ * from inside a callback.
+ */
+@Slf4j
+public class UdpTransport implements Transport {
+
+    public static final int DEFAULT_MTU = 1200;
+    static final long CONNECT_RETRY_MILLIS = 200;
+    private static final long SELECT_TIMEOUT_MILLIS = 5;
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final TransportListener listener;
+    private final BufferPool pool;
+    private final ByteBuffer receiveBuffer;
+    private final ByteBuffer controlBuffer;
+    private final TransportStats.Counters counters = new TransportStats.Counters();
+    private final Object lock = new Object();
+    private final Map<Integer, Peer> peers = new LinkedHashMap<>();
+    private final Map<SocketAddress, Peer> peersByAddress = new HashMap<>();
+    private final SocketAddress serverAddress; // Null for servers
+    private final Thread thread;
+    private volatile boolean running = true;
+    private int nextConnectionId = 1;
+    private long lastConnectAttempt;
+
+    private record Peer(SocketAddress address, Connection connection) {}
+
+    private UdpTransport(DatagramChannel channel, SocketAddress serverAddress, TransportListener listener, int mtu) throws IOException {
+        this.channel = channel;
+        this.serverAddress = serverAddress;
+        this.listener = listener;
+        this.pool = new BufferPool(mtu, 1024);
+        this.receiveBuffer = ByteBuffer.allocateDirect(mtu);
+        this.controlBuffer = ByteBuffer.allocateDirect(Connection.HEADER_BYTES + Integer.BYTES);
+        this.lastConnectAttempt = millis() - CONNECT_RETRY_MILLIS;
+        this.selector = Selector.open();
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ);
+        this.thread = new Thread(this::run, serverAddress == null ? "udp-server" : "udp-client");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Opens a server socket on the given port (0 for any free port).
+     * @param listener Receives connections, messages and disconnections of every peer.
+     */
+    public static UdpTransport listen(int port, TransportListener listener) throws IOException {
+        if (listener == null) throw new IllegalArgumentException("TransportListener cannot be null.");
+        DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET);
+        channel.bind(new InetSocketAddress(port));
+        log.info("UDP transport listening on port {}.", port);
+        return new UdpTransport(channel, null, listener, DEFAULT_MTU);
+    }
+
+    /**
+     * Starts connecting to a server. {@link TransportListener#onConnected} fires once the server accepts.
+     */
+    public static UdpTransport connect(InetSocketAddress server, TransportListener listener) throws IOException {
+        if (server == null) throw new IllegalArgumentException("Server address cannot be null.");
+        if (listener == null) throw new IllegalArgumentException("TransportListener cannot be null.");
+        DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET);
+        channel.connect(server);
+        return new UdpTransport(channel, server, listener, DEFAULT_MTU);
+    }
+
+    public int getLocalPort() {
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("Transport is closed.", e);
+        }
+    }
+
+    // --- Selector thread ---
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+                selector.selectedKeys().clear();
+                synchronized (lock) {
+                    if (!running) break;
+                    long now = millis();
+                    receiveAll(now);
+                    updatePeers(now);
+                }
+            }
+        } catch (IOException e) {
+            if (running) log.error("UDP transport stopped.", e);
+        }
+    }
+
+    private void receiveAll(long now) throws IOException {
+        while (true) {
+            receiveBuffer.clear();
+            // DatagramChannel.receive allocates the sender's address; there is no allocation-free alternative
+            SocketAddress from = channel.receive(receiveBuffer);
+            if (from == null) return;
+            receiveBuffer.flip();
+            try {
+                handlePacket(from, receiveBuffer, now);
+            } catch (RuntimeException e) {
+                // A failing listener must not take the selector thread down with it
+                log.error("Error handling packet from {}.", from, e);
+            }
+        }
+    }
+
+    private void handlePacket(SocketAddress from, ByteBuffer packet, long now) {
+        int type = Connection.packetType(packet);
+        Peer peer = peersByAddress.get(from);
+        switch (type) {
+            case Connection.CONNECT -> {
+                if (serverAddress != null) break; // Clients do not accept connections
+                if (peer == null) {
+                    int id = nextConnectionId++;
+                    peer = openPeer(id, from, now);
+                    log.info("Connection {} from {}.", id, from);
+                    listener.onConnected(id);
+                }
+                sendHandshake(Connection.ACCEPT, peer.connection().getId(), from);
+            }
+            case Connection.ACCEPT -> {
+                if (serverAddress == null || peer != null || packet.remaining() < controlBuffer.capacity()) break;
+                int id = packet.getInt(packet.position() + Connection.HEADER_BYTES);
+                openPeer(id, from, now);
+                log.info("Connected to {} as connection {}.", from, id);
+                listener.onConnected(id);
+            }
+            case Connection.DATA, Connection.ACK -> {
+                if (peer == null) {
+                    counters.packetsDropped++;
+                    return;
+                }
+                peer.connection().receive(packet, now, listener);
+            }
+            case Connection.DISCONNECT -> {
+                if (peer != null) drop(peer, false);
+            }
+            default -> counters.packetsDropped++;
+        }
+    }
+
+    private Peer openPeer(int id, SocketAddress address, long now) {
+        Connection connection = new Connection(id, pool, packet -> sendRaw(packet, address), counters, now);
+        Peer peer = new Peer(address, connection);
+        peers.put(id, peer);
+        peersByAddress.put(address, peer);
+        return peer;
+    }
+
+    private void updatePeers(long now) {
+        if (serverAddress != null && peers.isEmpty() && now - lastConnectAttempt >= CONNECT_RETRY_MILLIS) {
+            lastConnectAttempt = now;
+            sendHandshake(Connection.CONNECT, 0, serverAddress);
+        }
+        for (Peer peer : List.copyOf(peers.values())) {
+            if (peer.connection().isTimedOut(now, Connection.TIMEOUT_MILLIS)) {
+                log.info("Connection {} timed out.", peer.connection().getId());
+                drop(peer, false);
+            } else {
+                peer.connection().update(now);
+            }
+        }
+    }
+
+    private void sendHandshake(byte type, int connectionId, SocketAddress to) {
+        controlBuffer.clear();
+        controlBuffer.putShort((short) Connection.MAGIC).put(type);
+        controlBuffer.position(Connection.HEADER_BYTES);
+        controlBuffer.putInt(connectionId).flip();
+        counters.packetsSent++;
+        counters.bytesSent += controlBuffer.remaining();
+        sendRaw(controlBuffer, to);
+    }
+
+    private void sendRaw(ByteBuffer packet, SocketAddress to) {
+        try {
+            if (channel.send(packet, to) == 0) {
+                counters.packetsDropped++; // Socket buffer full; reliable traffic is resent later
+            }
+        } catch (IOException e) {
+            log.warn("Failed to send to {}: {}", to, e.getMessage());
+        }
+    }
+
+    private void drop(Peer peer, boolean notifyPeer) {
+        Connection connection = peer.connection();
+        if (notifyPeer) connection.sendControl(Connection.DISCONNECT, millis());
+        peers.remove(connection.getId());
+        peersByAddress.remove(peer.address());
+        connection.close();
+        if (!notifyPeer) listener.onDisconnected(connection.getId());
+    }
+
+    private static long millis() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    // --- Transport ---
+
+    @Override
+    public void send(int connectionId, Channel channel, ByteBuffer message) {
+        if (channel == null) throw new IllegalArgumentException("Channel cannot be null.");
+        synchronized (lock) {
+            Peer peer = peers.get(connectionId);
+            if (peer == null) throw new IllegalArgumentException("Unknown connection " + connectionId + ".");
+            peer.connection().send(channel, message, millis());
+        }
+    }
+
+    @Override
+    public void disconnect(int connectionId) {
+        synchronized (lock) {
+            Peer peer = peers.get(connectionId);
+            if (peer != null) drop(peer, true);
+        }
+    }
+
+    @Override
+    public float getRoundTripMillis(int connectionId) {
+        synchronized (lock) {
+            Peer peer = peers.get(connectionId);
+            return peer == null ? 0 : peer.connection().getRoundTripMillis();
+        }
+    }
+
+    @Override
+    public TransportStats getStats() {
+        synchronized (lock) {
+            return counters.snapshot();
+        }
+    }
+
+    /** Connections currently open. */
+    public int getConnectionCount() {
+        synchronized (lock) {
+            return peers.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (!running) return;
+            running = false;
+            for (Peer peer : List.copyOf(peers.values())) {
+                drop(peer, true);
+            }
+        }
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            selector.close();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Error closing UDP transport: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.kindred.networking.interest;
+
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.level.Level;
+import com.kindred.networking.replication.ReplicationClient;
+import com.kindred.networking.replication.ReplicationServer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterestGridTest {
+
+    /** 64x64 tiles of 16 px with 128 px cells: an 8x8 grid. */
+    private static InterestGrid grid() {
+        return new InterestGrid(new Level(64, 64, 16));
+    }
+
+    private static int entityAt(EntityManager em, int x, int y) {
+        int id = em.createEntity();
+        em.addComponent(id, new PositionComponent(x, y));
+        return id;
+    }
+
+    private static final class Events implements InterestListener {
+        final List<String> log = new ArrayList<>();
+        @Override public void onEnter(int clientId, int entityId) { log.add("enter " + clientId + ":" + entityId); }
+        @Override public void onLeave(int clientId, int entityId) { log.add("leave " + clientId + ":" + entityId); }
+    }
+
+    @Test
+    void entitiesEnterAndLeaveAsTheSubscriptionMoves() {
+        EntityManager em = new EntityManager();
+        int near = entityAt(em, 150, 150);
+        int far = entityAt(em, 900, 900);
+        InterestGrid grid = grid();
+        Events events = new Events();
+        grid.addClient(1, 1);
+
+        grid.subscribeAround(1, 100, 100);
+        grid.update(em, events);
+        assertEquals(List.of("enter 1:" + near), events.log);
+        assertTrue(grid.isRelevant(1, near));
+        assertFalse(grid.isRelevant(1, far));
+
+        events.log.clear();
+        grid.subscribeAround(1, 880, 880);
+        grid.update(em, events);
+        assertEquals(List.of("enter 1:" + far, "leave 1:" + near), events.log);
+        assertFalse(grid.isActive(150, 150));
+        assertTrue(grid.isActive(900, 900));
+    }
+
+    @Test
+    void alwaysRelevantRegionsReachEveryClientAndStayActive() {
+        EntityManager em = new EntityManager();
+        int wolf = entityAt(em, 600, 600);
+        InterestGrid grid = grid();
+        grid.markAlwaysRelevant(520, 520, 200, 200); // Cells 4..5 in both directions
+        grid.addClient(1, 0);
+        grid.addClient(2, 0);
+        grid.subscribeAround(1, 10, 10);
+
+        grid.update(em, null);
+
+        assertTrue(grid.isRelevant(1, wolf));
+        assertTrue(grid.isRelevant(2, wolf));
+        assertTrue(grid.isActive(700, 700));
+        assertEquals(5, grid.getActiveCellCount());
+    }
+
+    @Test
+    void replicationOnlySendsRelevantEntities() {
+        EntityManager em = new EntityManager();
+        int near = entityAt(em, 150, 150);
+        int far = entityAt(em, 900, 900);
+        em.addComponent(near, new HealthComponent(10));
+        em.addComponent(far, new HealthComponent(10));
+        InterestGrid grid = grid();
+        grid.addClient(1, 1);
+        grid.subscribeAround(1, 100, 100);
+        grid.update(em, null);
+        ReplicationServer server = new ReplicationServer();
+        server.setInterestFilter(grid);
+        server.addClient(1);
+        ReplicationClient client = new ReplicationClient();
+
+        server.capture(em, 3);
+        ByteBuffer packet = ByteBuffer.allocate(1024);
+        server.writeDelta(1, packet);
+        client.read(packet.flip());
+
+        assertEquals(1, client.getLatest().size());
+        assertEquals(near, client.getLatest().getEntityId(0));
+    }
+}
@@ -0,0 +1,138 @@
+package com.kindred.networking.lockstep;
+
+import com.kindred.engine.entity.components.EnemyComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.level.Level;
+import com.kindred.engine.level.SpawnPoint;
+import com.kindred.engine.level.Tile;
+import com.kindred.engine.level.TileSet;
+import com.kindred.engine.resource.AnimationDataRegistry;
+import com.kindred.engine.resource.AssetLoader;
+import com.kindred.networking.server.ServerWorld;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LockstepSessionTest {
+
+    private static final long SEED = 42;
+    private static final int LATENCY_FRAMES = 3;
+
+    @Test
+    void peersStayInSyncWhileEnemiesWanderAndFight() {
+        Peers peers = new Peers();
+        List<String> enemySpawns = enemyPositions(peers.a.getWorld());
+
+        peers.run(600);
+
+        assertTrue(peers.a.getTick() > 10 * LockstepSession.HASH_INTERVAL, "Ran long enough to compare hashes");
+        assertFalse(peers.a.isDesynced());
+        assertFalse(peers.b.isDesynced());
+        assertEquals(peers.a.getTick(), peers.b.getTick());
+        assertEquals(peers.a.getWorld().computeStateHash(), peers.b.getWorld().computeStateHash());
+        assertTrue(!enemyPositions(peers.a.getWorld()).equals(enemySpawns), "The seeded AI moved enemies");
+        double bytesPerTick = peers.a.getBytesSent() / (double) peers.a.getTick();
+        assertTrue(bytesPerTick < 6, "Only inputs and the odd hash are sent: " + bytesPerTick);
+    }
+
+    @Test
+    void sessionWaitsForInputsAndDetectsDivergedState() {
+        Peers peers = new Peers();
+        peers.a.submitLocalInput(PlayerCommand.NONE);
+        int advanced = 0;
+        while (peers.a.advance()) advanced++;
+        assertEquals(LockstepSession.DEFAULT_INPUT_DELAY, advanced, "Only the ticks before anyone's first input");
+
+        peers.run(100);
+        assertFalse(peers.a.isDesynced());
+        long divergedAt = peers.b.getTick();
+        EntityManager em = peers.b.getWorld().getEntityManager();
+        em.getComponent(peers.b.getWorld().getPlayerEntity(2), HealthComponent.class).currentHealth -= 1;
+        peers.run(2 * LockstepSession.HASH_INTERVAL + 2 * LATENCY_FRAMES);
+
+        long expected = (divergedAt / LockstepSession.HASH_INTERVAL + 1) * LockstepSession.HASH_INTERVAL;
+        assertEquals(expected, peers.a.getDesyncTick());
+        assertEquals(expected, peers.b.getDesyncTick());
+    }
+
+    /** Two peers whose messages arrive a few frames late, each playing random inputs. */
+    private static final class Peers {
+        final List<ArrayDeque<Object[]>> links = List.of(new ArrayDeque<>(), new ArrayDeque<>());
+        final LockstepSession a, b;
+        final Random inputs = new Random(7);
+        int frame;
+
+        Peers() {
+            a = new LockstepSession(new ServerWorld(level(), new AnimationDataRegistry(), SEED), new int[]{1, 2}, 1,
+                    LockstepSession.DEFAULT_INPUT_DELAY, message -> enqueue(0, message));
+            b = new LockstepSession(new ServerWorld(level(), new AnimationDataRegistry(), SEED), new int[]{2, 1}, 2,
+                    LockstepSession.DEFAULT_INPUT_DELAY, message -> enqueue(1, message));
+        }
+
+        void enqueue(int from, ByteBuffer message) {
+            byte[] copy = new byte[message.remaining()];
+            message.get(copy);
+            links.get(from).add(new Object[]{frame + LATENCY_FRAMES, copy});
+        }
+
+        void run(int frames) {
+            for (int i = 0; i < frames; i++, frame++) {
+                a.submitLocalInput(randomCommand());
+                b.submitLocalInput(randomCommand());
+                deliver(links.get(0), b, 1);
+                deliver(links.get(1), a, 2);
+                while (a.advance()) { }
+                while (b.advance()) { }
+            }
+        }
+
+        void deliver(ArrayDeque<Object[]> link, LockstepSession to, int fromClient) {
+            while (!link.isEmpty() && (int) link.peekFirst()[0] <= frame) {
+                to.receive(fromClient, ByteBuffer.wrap((byte[]) link.pollFirst()[1]));
+            }
+        }
+
+        PlayerCommand randomCommand() {
+            int direction = inputs.nextInt(5);
+            return new PlayerCommand(direction == 0, direction == 1, direction == 2, direction == 3,
+                    inputs.nextInt(10) == 0, false);
+        }
+    }
+
+    private static List<String> enemyPositions(ServerWorld world) {
+        List<String> positions = new ArrayList<>();
+        EntityManager em = world.getEntityManager();
+        for (int enemy : em.getEntitiesWith(EnemyComponent.class, PositionComponent.class)) {
+            PositionComponent pos = em.getComponent(enemy, PositionComponent.class);
+            positions.add(pos.x + "," + pos.y);
+        }
+        return positions;
+    }
+
+    private static Level level() {
+        Tile grass = new TileSet(AssetLoader.loadImage(Tile.SHEET_PATH)).grass;
+        Level level = new Level(30, 30, 16);
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 30; x++) {
+                level.setTile(x, y, grass);
+            }
+        }
+        level.addSpawnPoint(new SpawnPoint(10, 10, SpawnPoint.SpawnType.PLAYER));
+        level.addSpawnPoint(new SpawnPoint(14, 10, SpawnPoint.SpawnType.ENEMY_DEIDARA));
+        level.addSpawnPoint(new SpawnPoint(10, 15, SpawnPoint.SpawnType.ENEMY_DEIDARA));
+        level.addSpawnPoint(new SpawnPoint(6, 6, SpawnPoint.SpawnType.ENEMY_DEIDARA));
+        level.addSpawnPoint(new SpawnPoint(16, 16, SpawnPoint.SpawnType.NPC_VILLAGER));
+        return level;
+    }
+}
@@ -0,0 +1,147 @@
+package com.kindred.networking.prediction;
+
+import com.kindred.engine.entity.EntityFactory;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.input.StampedCommand;
+import com.kindred.engine.level.Level;
+import com.kindred.engine.level.SpawnPoint;
+import com.kindred.engine.level.Tile;
+import com.kindred.engine.level.TileSet;
+import com.kindred.engine.resource.AnimationDataRegistry;
+import com.kindred.engine.resource.AssetLoader;
+import com.kindred.networking.replication.EntitySnapshot;
+import com.kindred.networking.replication.ReplicationClient;
+import com.kindred.networking.replication.ReplicationServer;
+import com.kindred.networking.server.ServerWorld;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerPredictorTest {
+
+    private static final float DT = 1f / ServerWorld.TICK_RATE;
+    private static final int CLIENT = 1;
+    /** 75 ms each way at 60 Hz: a 150 ms round trip. */
+    private static final int LATENCY_TICKS = 5;
+    private static final PlayerCommand RIGHT = new PlayerCommand(false, false, false, true, false, false);
+    private static final PlayerCommand DOWN = new PlayerCommand(false, true, false, false, false, false);
+
+    /** A server and one predicting client joined by fixed-latency pipes, stepped one tick at a time. */
+    private static final class Session {
+        final ServerWorld world;
+        final ReplicationServer replicationServer = new ReplicationServer();
+        final ReplicationClient replicationClient = new ReplicationClient();
+        final EntityManager clientEntities = new EntityManager();
+        final PlayerPredictor predictor;
+        final int serverPlayer;
+        final ArrayDeque<Delayed<StampedCommand>> upstream = new ArrayDeque<>();
+        final ArrayDeque<Delayed<ByteBuffer>> downstream = new ArrayDeque<>();
+        int now;
+
+        record Delayed<T>(int arrival, T payload) {}
+
+        Session() {
+            Level level = openLevel();
+            AnimationDataRegistry registry = new AnimationDataRegistry();
+            world = new ServerWorld(level, registry);
+            serverPlayer = world.addPlayer(CLIENT);
+            replicationServer.addClient(CLIENT);
+            replicationClient.setPredictedEntity(serverPlayer);
+
+            PositionComponent spawn = serverPosition();
+            int localPlayer = new EntityFactory(clientEntities, null).createPlayer(spawn.x, spawn.y);
+            predictor = new PlayerPredictor(clientEntities, level, registry, localPlayer);
+        }
+
+        void step(PlayerCommand command) {
+            upstream.add(new Delayed<>(now + LATENCY_TICKS, predictor.predict(command)));
+            while (!upstream.isEmpty() && upstream.peek().arrival() <= now) {
+                world.submitInput(CLIENT, upstream.poll().payload());
+            }
+            world.tick(DT);
+            if (world.getTick() % ReplicationServer.DEFAULT_SEND_INTERVAL == 0) {
+                replicationServer.capture(world.getEntityManager(), (int) world.getTick());
+                ByteBuffer packet = ByteBuffer.allocate(4096);
+                replicationServer.writeDelta(CLIENT, packet, world.getLastProcessedInput(CLIENT));
+                downstream.add(new Delayed<>(now + LATENCY_TICKS, packet.flip()));
+            }
+            while (!downstream.isEmpty() && downstream.peek().arrival() <= now) {
+                int tick = replicationClient.read(downstream.poll().payload());
+                if (tick >= 0) {
+                    replicationServer.acknowledge(CLIENT, tick); // Acks travel instantly; only baselines depend on them
+                    predictor.reconcile(replicationClient.getLatest(), serverPlayer);
+                }
+            }
+            now++;
+        }
+
+        PositionComponent serverPosition() {
+            return world.getEntityManager().getComponent(serverPlayer, PositionComponent.class);
+        }
+
+        PositionComponent clientPosition() {
+            return clientEntities.getComponent(predictor.getPlayerEntity(), PositionComponent.class);
+        }
+    }
+
+    @Test
+    void localPlayerMovesOnTheTickOfTheInput() {
+        Session session = new Session();
+        int startX = session.clientPosition().x;
+
+        session.step(RIGHT);
+
+        assertEquals(startX + 2, session.clientPosition().x);
+        assertEquals(startX, session.serverPosition().x, "The server has not seen the input yet");
+    }
+
+    @Test
+    void deterministicMovementNeedsNoCorrectionAndConverges() {
+        Session session = new Session();
+        for (int i = 0; i < 40; i++) session.step(RIGHT);
+        for (int i = 0; i < 20; i++) session.step(DOWN);
+        for (int i = 0; i < 30; i++) session.step(PlayerCommand.NONE);
+
+        assertEquals(0, session.predictor.getCorrectionCount());
+        assertEquals(session.serverPosition().x, session.clientPosition().x);
+        assertEquals(session.serverPosition().y, session.clientPosition().y);
+        assertTrue(session.predictor.getPendingInputCount() <= 2 * LATENCY_TICKS + ReplicationServer.DEFAULT_SEND_INTERVAL);
+    }
+
+    @Test
+    void serverSideDisplacementIsCorrectedAndUnackedInputsReplayed() {
+        Session session = new Session();
+        for (int i = 0; i < 20; i++) session.step(RIGHT);
+        session.serverPosition().y += 48; // Knocked away by something the client did not simulate
+        for (int i = 0; i < 20; i++) session.step(RIGHT);
+
+        assertTrue(session.predictor.getCorrectionCount() >= 1);
+        // Still walking: the client is ahead of the last snapshot by exactly the inputs not yet acknowledged
+        EntitySnapshot snapshot = session.replicationClient.getLatest();
+        int index = snapshot.indexOf(session.serverPlayer);
+        int pending = session.predictor.getPendingInputCount();
+        assertEquals(snapshot.getX(index) + 2 * pending, session.clientPosition().x);
+        assertEquals(snapshot.getY(index), session.clientPosition().y);
+
+        for (int i = 0; i < 30; i++) session.step(PlayerCommand.NONE);
+        assertEquals(session.serverPosition().x, session.clientPosition().x);
+    }
+
+    private static Level openLevel() {
+        Tile grass = new TileSet(AssetLoader.loadImage(Tile.SHEET_PATH)).grass;
+        Level level = new Level(40, 40, 16);
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                level.setTile(x, y, grass);
+            }
+        }
+        level.addSpawnPoint(new SpawnPoint(5, 5, SpawnPoint.SpawnType.PLAYER));
+        return level;
+    }
+}
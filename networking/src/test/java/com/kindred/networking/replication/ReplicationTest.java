@@ -0,0 +1,137 @@
+package com.kindred.networking.replication;
+
+import com.kindred.engine.entity.components.AnimationComponent;
+import com.kindred.engine.entity.components.DeadComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.NPCComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationTest {
+
+    private static final int CLIENT = 1;
+
+    private static int spawnNpc(EntityManager em, int x, int y) {
+        int id = em.createEntity();
+        em.addComponent(id, new PositionComponent(x, y));
+        em.addComponent(id, new HealthComponent(40));
+        em.addComponent(id, new AnimationComponent(new BufferedImage[4][3], 5f));
+        em.addComponent(id, new NPCComponent());
+        return id;
+    }
+
+    private static final ReplicationClient.Spawner SPAWNER = (em, archetype, x, y) -> {
+        int id = em.createEntity();
+        em.addComponent(id, new AnimationComponent(new BufferedImage[4][3], 5f));
+        return id;
+    };
+
+    /** Sends one delta and returns the tick the client acknowledges, or -1 if the packet was "lost". */
+    private static int transfer(ReplicationServer server, ReplicationClient client, boolean lost) {
+        ByteBuffer packet = ByteBuffer.allocate(16 * 1024);
+        server.writeDelta(CLIENT, packet);
+        if (lost) return -1;
+        return client.read(packet.flip());
+    }
+
+    @Test
+    void deltasReproduceTheServerState() {
+        EntityManager world = new EntityManager();
+        List<Integer> npcs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) npcs.add(spawnNpc(world, i * 40, 100));
+        ReplicationServer server = new ReplicationServer();
+        ReplicationClient client = new ReplicationClient();
+        server.addClient(CLIENT);
+
+        server.capture(world, 3);
+        server.acknowledge(CLIENT, transfer(server, client, false));
+        assertTrue(client.getLatest().sameState(server.getLatest()));
+
+        world.getComponent(npcs.get(2), PositionComponent.class).x += 3;
+        world.getComponent(npcs.get(4), PositionComponent.class).y -= 200;
+        world.getComponent(npcs.get(5), HealthComponent.class).takeDamage(13);
+        world.getComponent(npcs.get(6), AnimationComponent.class).direction = AnimationComponent.LEFT;
+        world.addComponent(npcs.get(7), new DeadComponent(2));
+        server.capture(world, 6);
+        int acked = transfer(server, client, false);
+
+        assertEquals(6, acked);
+        EntitySnapshot mirrored = client.getLatest();
+        assertTrue(mirrored.sameState(server.getLatest()));
+        int damaged = mirrored.indexOf(npcs.get(5));
+        assertEquals(27f, mirrored.getHealth(damaged), 40f / 255, "Health is quantized to max/255");
+        assertTrue(mirrored.isDead(mirrored.indexOf(npcs.get(7))));
+    }
+
+    @Test
+    void createAndDestroySurviveLostPackets() {
+        EntityManager world = new EntityManager();
+        int first = spawnNpc(world, 10, 10);
+        ReplicationServer server = new ReplicationServer();
+        ReplicationClient client = new ReplicationClient();
+        EntityManager mirror = new EntityManager();
+        server.addClient(CLIENT);
+
+        server.capture(world, 1);
+        transfer(server, client, true); // The create is lost...
+        server.capture(world, 2);
+        server.acknowledge(CLIENT, transfer(server, client, false)); // ...and repeated
+        client.applyTo(mirror, SPAWNER);
+        int local = client.getLocalEntity(first);
+        assertEquals(10, mirror.getComponent(local, PositionComponent.class).x);
+
+        int second = spawnNpc(world, 50, 50);
+        world.destroyEntity(first);
+        server.capture(world, 3);
+        transfer(server, client, true);
+        server.capture(world, 4);
+        server.acknowledge(CLIENT, transfer(server, client, false));
+        client.applyTo(mirror, SPAWNER);
+
+        assertFalse(mirror.isEntityActive(local));
+        assertEquals(-1, client.getLocalEntity(first));
+        assertEquals(50, mirror.getComponent(client.getLocalEntity(second), PositionComponent.class).y);
+    }
+
+    @Test
+    void hundredEntitySceneStaysWithinAFewKilobytesPerSecond() {
+        EntityManager world = new EntityManager();
+        List<Integer> entities = new ArrayList<>();
+        for (int i = 0; i < 120; i++) entities.add(spawnNpc(world, (i % 12) * 48, (i / 12) * 48));
+        ReplicationServer server = new ReplicationServer();
+        ReplicationClient client = new ReplicationClient();
+        server.addClient(CLIENT);
+
+        // 10 s at 60 Hz: a quarter of the scene walks, snapshots go out at 20 Hz and acks come back 100 ms later
+        int ackLatencyTicks = 6;
+        int[] pendingAcks = new int[600];
+        Arrays.fill(pendingAcks, -1);
+        for (int tick = 1; tick <= 600; tick++) {
+            for (int i = 0; i < 30; i++) {
+                int id = entities.get(i);
+                world.getComponent(id, PositionComponent.class).x += (tick / 120) % 2 == 0 ? 1 : -1;
+                world.getComponent(id, AnimationComponent.class).frame = (tick / 12) % 3;
+            }
+            if (tick - ackLatencyTicks >= 1 && pendingAcks[tick - ackLatencyTicks - 1] >= 0) {
+                server.acknowledge(CLIENT, pendingAcks[tick - ackLatencyTicks - 1]);
+            }
+            if (tick % ReplicationServer.DEFAULT_SEND_INTERVAL == 0) {
+                server.capture(world, tick);
+                pendingAcks[tick - 1] = transfer(server, client, tick % 30 == 0); // And one packet in ten is lost
+            }
+        }
+
+        assertEquals(597, client.getLatest().getTick()); // The snapshot of tick 600 was lost
+        long bytesPerSecond = server.getBytesSent(CLIENT) / 10;
+        assertTrue(bytesPerSecond < 3 * 1024, "Replication used " + bytesPerSecond + " B/s");
+    }
+}
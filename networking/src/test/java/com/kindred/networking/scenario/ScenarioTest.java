@@ -0,0 +1,75 @@
+package com.kindred.networking.scenario;
+
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.networking.server.ServerAssets;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScenarioTest {
+
+    /** Every scenario file under src/test/resources/scenarios. */
+    private static final List<String> SCENARIOS = List.of(
+            "/scenarios/forest_crowd.scenario",
+            "/scenarios/idle_village.scenario");
+
+    private static final String SMALL = """
+            map=/assets/level/forest_crisis_greybox_map.png
+            seed=3
+            ticks=120
+            wolves=3
+            villagers=3
+            particles=20
+            render=true
+            input=0:R 30:DA 60:-
+            inputPeriod=90
+            """;
+
+    @Test
+    void inputScriptHoldsEachStepAndStartsOver() {
+        Scenario scenario = Scenario.parse("small", SMALL);
+
+        assertEquals(new PlayerCommand(false, false, false, true, false, false), scenario.commandAt(29));
+        assertEquals(new PlayerCommand(false, true, false, false, true, false), scenario.commandAt(30));
+        assertEquals(PlayerCommand.NONE, scenario.commandAt(89));
+        assertEquals(scenario.commandAt(0), scenario.commandAt(90));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parse("bad", SMALL + "input=0:X\n"));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parse("bad", SMALL + "inputPeriod=60\n"));
+    }
+
+    @Test
+    void sameScenarioSimulatesTheSameTicksEveryRun() {
+        Scenario scenario = Scenario.parse("small", SMALL);
+        ServerAssets assets = ServerAssets.load(scenario.levelPath(), scenario.tileSize());
+
+        ScenarioRunner.Result first = ScenarioRunner.run(scenario, assets);
+        ScenarioRunner.Result second = ScenarioRunner.run(scenario, assets);
+
+        assertEquals(first.stateHash(), second.stateHash());
+        assertEquals(120, first.ticks());
+        assertTrue(first.p99TickNanos() >= first.p50TickNanos());
+    }
+
+    /** Run by {@code perfTest} in a JVM of its own, not by {@code test}. */
+    @Test
+    @Tag("performance")
+    void everyScenarioStaysWithinItsBudgets() throws IOException {
+        List<String> over = new ArrayList<>();
+        for (String resource : SCENARIOS) {
+            Scenario scenario = Scenario.load(resource);
+            ScenarioRunner.Result result = ScenarioRunner.run(scenario);
+            System.out.println(result);
+            for (String line : result.overBudget(scenario)) {
+                over.add(scenario.name() + ": " + line);
+            }
+        }
+        assertTrue(over.isEmpty(), String.join("\n", over));
+    }
+}
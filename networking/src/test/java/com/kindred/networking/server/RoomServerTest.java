@@ -0,0 +1,140 @@
+package com.kindred.networking.server;
+
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.level.Level;
+import com.kindred.engine.level.SpawnPoint;
+import com.kindred.engine.level.Tile;
+import com.kindred.engine.level.TileSet;
+import com.kindred.engine.resource.AnimationDataRegistry;
+import com.kindred.engine.resource.AssetLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomServerTest {
+
+    private static final PlayerCommand RIGHT = new PlayerCommand(false, false, false, true, false, false);
+
+    @Test
+    void roomsShareAssetsButSimulateIndependently() throws InterruptedException {
+        try (RoomServer server = new RoomServer(assets(), 4, 2)) {
+            server.start();
+            Room first = server.openRoom();
+            Room second = server.openRoom();
+            first.connect(1);
+            first.submitCommand(1, RIGHT);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((first.getWorld().getTick() < 10 || second.getWorld().getTick() < 10) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertTrue(first.getWorld().getTick() >= 10 && second.getWorld().getTick() >= 10, "Both rooms tick");
+            assertNotSame(first.getWorld().getEntityManager(), second.getWorld().getEntityManager());
+            assertSame(first.getWorld().getLevel(), second.getWorld().getLevel());
+            int player = first.getWorld().getPlayerEntity(1);
+            assertTrue(first.getWorld().getEntityManager().getComponent(player, PositionComponent.class).x > 5 * 16 + 8);
+            assertEquals(0, second.getWorld().getPlayerCount());
+            assertTrue(server.getLoad() > 0);
+        }
+    }
+
+    @Test
+    void roomsAreRefusedAtCapacityAndUnderLoad() {
+        try (RoomServer server = new RoomServer(assets(), 3, 1)) {
+            Room a = server.openRoom();
+            server.openRoom();
+            server.openRoom();
+            assertNull(server.openRoom(), "Full");
+
+            server.closeRoom(a.getId());
+            for (Room room : server.getRooms()) {
+                room.recordTick(RoomServer.TICK_PERIOD_NANOS * 4 / 10); // Two rooms at 40% each
+            }
+            assertNull(server.openRoom(), "A third room would push the load to 120%");
+            assertEquals(2, server.getRoomCount());
+        }
+    }
+
+    @Test
+    void sustainedOverloadShedsEmptyRoomsFirst() {
+        try (RoomServer server = new RoomServer(assets(), 4, 1)) {
+            List<Room> shed = new ArrayList<>();
+            server.setRoomListener((room, wasShed) -> { if (wasShed) shed.add(room); });
+            Room busy = server.openRoom();
+            Room empty = server.openRoom();
+            busy.getWorld().addPlayer(1);
+            busy.recordTick(RoomServer.TICK_PERIOD_NANOS);
+            empty.recordTick(RoomServer.TICK_PERIOD_NANOS / 4);
+
+            for (int i = 1; i < RoomServer.SHED_AFTER_CHECKS; i++) {
+                assertNull(server.checkLoad());
+            }
+            assertSame(empty, server.checkLoad());
+
+            assertEquals(List.of(empty), shed);
+            assertTrue(empty.isClosed());
+            assertNotNull(server.getRoom(busy.getId()));
+            assertTrue(empty.getOverBudgetTicks() == 0 && busy.getOverBudgetTicks() > 0);
+        }
+    }
+
+    @Test
+    void closingARoomWaitsForTheTickInProgress() throws InterruptedException {
+        try (RoomServer server = new RoomServer(assets(), 4, 1)) {
+            AtomicBoolean inTick = new AtomicBoolean();
+            AtomicBoolean closedDuringTick = new AtomicBoolean(true);
+            AtomicLong tickAtClose = new AtomicLong(-1);
+            CountDownLatch ticking = new CountDownLatch(1);
+            server.setRoomListener((room, shed) -> {
+                closedDuringTick.set(inTick.get());
+                tickAtClose.set(room.getWorld().getTick());
+            });
+            Room room = server.openRoom();
+            room.setTickListener(r -> {
+                inTick.set(true);
+                ticking.countDown();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inTick.set(false);
+            });
+            server.start();
+            assertTrue(ticking.await(5, TimeUnit.SECONDS), "The room ticks");
+
+            server.closeRoom(room.getId());
+
+            assertFalse(closedDuringTick.get(), "The listener runs after the tick finished");
+            Thread.sleep(50);
+            assertEquals(tickAtClose.get(), room.getWorld().getTick());
+        }
+    }
+
+    private static ServerAssets assets() {
+        Tile grass = new TileSet(AssetLoader.loadImage(Tile.SHEET_PATH)).grass;
+        Level level = new Level(20, 20, 16);
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 20; x++) {
+                level.setTile(x, y, grass);
+            }
+        }
+        level.addSpawnPoint(new SpawnPoint(5, 5, SpawnPoint.SpawnType.PLAYER));
+        return new ServerAssets(level, new AnimationDataRegistry());
+    }
+}
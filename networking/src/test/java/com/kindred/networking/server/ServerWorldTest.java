@@ -0,0 +1,199 @@
+package com.kindred.networking.server;
+
+import com.kindred.engine.entity.components.DormantComponent;
+import com.kindred.engine.entity.components.EnemyComponent;
+import com.kindred.engine.entity.components.HealthComponent;
+import com.kindred.engine.entity.components.NPCComponent;
+import com.kindred.engine.entity.components.PositionComponent;
+import com.kindred.engine.entity.components.WanderAIComponent;
+import com.kindred.engine.entity.core.EntityManager;
+import com.kindred.engine.entity.events.AttackEvent;
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.input.StampedCommand;
+import com.kindred.engine.level.Level;
+import com.kindred.engine.level.SpawnPoint;
+import com.kindred.engine.level.Tile;
+import com.kindred.engine.level.TileSet;
+import com.kindred.engine.replay.InputFrame;
+import com.kindred.engine.replay.ReplayHeader;
+import com.kindred.engine.replay.ReplayReader;
+import com.kindred.engine.replay.ReplayWriter;
+import com.kindred.engine.resource.AnimationDataRegistry;
+import com.kindred.engine.resource.AssetLoader;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.event.KeyEvent;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerWorldTest {
+
+    private static final float DT = 1f / ServerWorld.TICK_RATE;
+    private static final PlayerCommand RIGHT = new PlayerCommand(false, false, false, true, false, false);
+
+    @Test
+    void eachClientMovesItsOwnPlayer() {
+        ServerWorld world = new ServerWorld(openLevel(), new AnimationDataRegistry());
+        int first = world.addPlayer(1);
+        int second = world.addPlayer(2);
+        int firstX = position(world, first).x;
+        int secondX = position(world, second).x;
+
+        world.setCommand(1, RIGHT);
+        for (int i = 0; i < 10; i++) world.tick(DT);
+
+        assertNotEquals(first, second);
+        assertTrue(position(world, first).x > firstX);
+        assertEquals(secondX, position(world, second).x);
+        assertEquals(10, world.getTick());
+    }
+
+    @Test
+    void leavingClientsPlayerIsDestroyed() {
+        ServerWorld world = new ServerWorld(openLevel(), new AnimationDataRegistry());
+        int player = world.addPlayer(7);
+
+        world.removePlayer(7);
+
+        assertFalse(world.getEntityManager().isEntityActive(player));
+        assertEquals(-1, world.getPlayerEntity(7));
+        assertEquals(0, world.getPlayerCount());
+    }
+
+    @Test
+    void serverAppliesQueuedConnectsAndStopsAtTheTickLimit() {
+        HeadlessServer server = new HeadlessServer(new ServerWorld(openLevel(), new AnimationDataRegistry()), 3);
+        server.connect(1);
+        server.submitCommand(1, RIGHT);
+
+        server.run();
+
+        assertEquals(3, server.getWorld().getTick());
+        assertEquals(1, server.getWorld().getPlayerCount());
+    }
+
+    @Test
+    void npcsFarFromEveryPlayerSleepUntilSomeoneComesNear() {
+        Level level = openLevel(80);
+        level.addSpawnPoint(new SpawnPoint(75, 75, SpawnPoint.SpawnType.NPC_VILLAGER));
+        ServerWorld world = new ServerWorld(level, new AnimationDataRegistry());
+        int npc = world.getEntityManager().getFirstEntityWith(NPCComponent.class);
+
+        world.addPlayer(1);
+        assertTrue(world.getEntityManager().hasComponent(npc, DormantComponent.class));
+
+        // A second player spawning next to the villager wakes it at the next dormancy check
+        PositionComponent npcPos = position(world, npc);
+        int visitor = world.addPlayer(2);
+        position(world, visitor).x = npcPos.x - 32;
+        position(world, visitor).y = npcPos.y;
+        for (int i = 0; i < ServerWorld.DORMANCY_CHECK_INTERVAL; i++) world.tick(DT);
+
+        assertFalse(world.getEntityManager().hasComponent(npc, DormantComponent.class));
+    }
+
+    @Test
+    void wanderersInAnAlwaysRelevantRegionNeverSleep() {
+        Level level = openLevel(80);
+        level.addSpawnPoint(new SpawnPoint(75, 75, SpawnPoint.SpawnType.NPC_VILLAGER));
+        ServerAssets assets = new ServerAssets(level, new AnimationDataRegistry(),
+                List.of(new Rectangle(70 * 16, 70 * 16, 10 * 16, 10 * 16)));
+        ServerWorld world = assets.createWorld();
+        int npc = world.getEntityManager().getFirstEntityWith(NPCComponent.class);
+
+        world.addPlayer(1);
+        for (int i = 0; i < ServerWorld.DORMANCY_CHECK_INTERVAL; i++) world.tick(DT);
+
+        assertFalse(world.getEntityManager().hasComponent(npc, DormantComponent.class));
+        assertTrue(world.getInterestGrid().isActive(75 * 16, 75 * 16));
+    }
+
+    @Test
+    void attacksAreJudgedWhereTheClientSawTheTarget() {
+        Level level = openLevel(40);
+        level.addSpawnPoint(new SpawnPoint(8, 5, SpawnPoint.SpawnType.ENEMY_DEIDARA));
+        ServerWorld world = new ServerWorld(level, new AnimationDataRegistry());
+        EntityManager em = world.getEntityManager();
+        int player = world.addPlayer(1);
+        int wolf = em.getFirstEntityWith(EnemyComponent.class);
+        em.removeComponent(wolf, WanderAIComponent.class); // Holds still unless moved here
+        HealthComponent health = em.getComponent(wolf, HealthComponent.class);
+
+        // The client saw the wolf within reach at this tick; by the time its swing arrives the wolf is gone
+        position(world, wolf).x = position(world, player).x + 20;
+        position(world, wolf).y = position(world, player).y;
+        world.tick(DT);
+        int seen = (int) world.getTick();
+        position(world, wolf).x += 200;
+        for (int i = 0; i < 6; i++) world.tick(DT);
+
+        float before = health.currentHealth;
+        attack(world, player, new StampedCommand(0, PlayerCommand.NONE));
+        assertEquals(before, health.currentHealth, "Judged against the present: a miss");
+
+        attack(world, player, new StampedCommand(1, PlayerCommand.NONE, seen));
+        assertTrue(health.currentHealth < before, "Judged against what the client saw: a hit");
+
+        // Beyond the history the swing is judged at its oldest tick, long after the wolf left
+        before = health.currentHealth;
+        for (int i = 0; i < LagCompensator.HISTORY_TICKS; i++) world.tick(DT);
+        attack(world, player, new StampedCommand(2, PlayerCommand.NONE, seen));
+        assertEquals(before, health.currentHealth);
+    }
+
+    @Test
+    void replayingARecordingEndsInTheSameStateEveryTime() throws IOException {
+        ByteArrayOutputStream recording = new ByteArrayOutputStream();
+        try (ReplayWriter writer = new ReplayWriter(recording, new ReplayHeader(ServerWorld.TICK_RATE, 7, "test", 16))) {
+            InputFrame frame = new InputFrame();
+            for (int tick = 0; tick < 300; tick++) {
+                frame.tick = tick;
+                frame.keys[1] = tick >= 30 && tick < 90 ? 1L << (KeyEvent.VK_D - 64) : 0;
+                writer.write(frame);
+            }
+        }
+
+        ReplayRunner.Result first = ReplayRunner.run(new ReplayReader(ByteBuffer.wrap(recording.toByteArray())),
+                new ServerWorld(openLevel(), new AnimationDataRegistry(), 7));
+        ServerWorld world = new ServerWorld(openLevel(), new AnimationDataRegistry(), 7);
+        ReplayRunner.Result second = ReplayRunner.run(new ReplayReader(ByteBuffer.wrap(recording.toByteArray())), world);
+
+        assertEquals(300, first.ticks());
+        assertEquals(first.stateHash(), second.stateHash());
+        assertTrue(position(world, world.getPlayerEntity(0)).x > 5 * 16, "The recorded keys moved the player");
+    }
+
+    private static void attack(ServerWorld world, int player, StampedCommand input) {
+        world.submitInput(1, input);
+        world.getEntityManager().getEvents().channel(AttackEvent.class).publish(new AttackEvent(player));
+        world.tick(DT);
+    }
+
+    private static PositionComponent position(ServerWorld world, int entity) {
+        return world.getEntityManager().getComponent(entity, PositionComponent.class);
+    }
+
+    private static Level openLevel() {
+        return openLevel(20);
+    }
+
+    private static Level openLevel(int size) {
+        Tile grass = new TileSet(AssetLoader.loadImage(Tile.SHEET_PATH)).grass;
+        Level level = new Level(size, size, 16);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                level.setTile(x, y, grass);
+            }
+        }
+        level.addSpawnPoint(new SpawnPoint(5, 5, SpawnPoint.SpawnType.PLAYER));
+        return level;
+    }
+}
@@ -0,0 +1,64 @@
+package com.kindred.networking.transport;
+
+import com.kindred.engine.diagnostics.ZeroAllocationExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Steady-state packet handling must not allocate. Two connections are wired straight to each other:
+ * LoopbackNetwork queues every packet in a new record, which would hide what Connection itself does.
+ */
+class ConnectionAllocationTest {
+
+    private static final int MTU = 256;
+
+    @RegisterExtension
+    final ZeroAllocationExtension allocations = new ZeroAllocationExtension();
+
+    private final BufferPool pool = new BufferPool(MTU, 1024);
+    private final TransportStats.Counters counters = new TransportStats.Counters();
+    private final Counting listener = new Counting();
+    private Connection client, server;
+    private long now;
+    private int packets;
+
+    /** Counts what arrives without copying it out. */
+    private static final class Counting implements TransportListener {
+        long bytes;
+
+        @Override public void onConnected(int connectionId) {}
+        @Override public void onDisconnected(int connectionId) {}
+
+        @Override
+        public void onMessage(int connectionId, Channel channel, ByteBuffer message) {
+            bytes += message.remaining();
+        }
+    }
+
+    @Test
+    void sendingReceivingAckingAndResendingDoNotAllocate() {
+        // Every seventh packet to the server is lost, so reliable fragments are also resent
+        client = new Connection(1, pool, packet -> {
+            if (++packets % 7 != 0) server.receive(packet, now, listener);
+        }, counters, now);
+        server = new Connection(1, pool, packet -> client.receive(packet, now, listener), counters, now);
+        ByteBuffer small = ByteBuffer.allocate(40);
+        ByteBuffer fragmented = ByteBuffer.allocate(MTU * 2); // Three fragments
+
+        allocations.assertNoAllocation("Connection", () -> {
+            now += 10;
+            client.send(Channel.UNRELIABLE, small.clear(), now);
+            client.send(Channel.RELIABLE_ORDERED, small.clear(), now);
+            client.send(Channel.UNRELIABLE, fragmented.clear(), now);
+            client.send(Channel.RELIABLE_ORDERED, fragmented.clear(), now);
+            client.update(now);
+            server.update(now);
+        });
+        assertTrue(listener.bytes > 0);
+        assertTrue(counters.messagesResent > 0, "Lost fragments were resent");
+    }
+}
@@ -0,0 +1,144 @@
+package com.kindred.networking.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoopbackNetworkTest {
+
+    /** Copies every message out, since buffers are only valid during the callback. */
+    private static final class Recorder implements TransportListener {
+        final List<Integer> connected = new ArrayList<>();
+        final List<Integer> disconnected = new ArrayList<>();
+        final List<byte[]> reliable = new ArrayList<>();
+        final List<byte[]> unreliable = new ArrayList<>();
+
+        @Override public void onConnected(int connectionId) { connected.add(connectionId); }
+        @Override public void onDisconnected(int connectionId) { disconnected.add(connectionId); }
+
+        @Override
+        public void onMessage(int connectionId, Channel channel, ByteBuffer message) {
+            byte[] bytes = new byte[message.remaining()];
+            message.get(bytes);
+            (channel == Channel.RELIABLE_ORDERED ? reliable : unreliable).add(bytes);
+        }
+    }
+
+    private static ByteBuffer intMessage(int value) {
+        return ByteBuffer.allocate(4).putInt(value).flip();
+    }
+
+    private static void run(LoopbackNetwork network, long fromMillis, long toMillis) {
+        for (long t = fromMillis; t <= toMillis; t += 5) {
+            network.update(t);
+        }
+    }
+
+    @Test
+    void reliableMessagesArriveInOrderDespiteLoss() {
+        LoopbackNetwork network = new LoopbackNetwork(42);
+        network.setLossRate(0.3f);
+        network.setLatencyMillis(20);
+        Recorder serverEvents = new Recorder();
+        Transport server = network.createServer(serverEvents);
+        Transport client = network.connect(server, new Recorder());
+        int id = serverEvents.connected.get(0);
+
+        for (int i = 0; i < 200; i++) {
+            client.send(id, Channel.RELIABLE_ORDERED, intMessage(i));
+            network.update(i * 5L);
+        }
+        run(network, 1000, 6000);
+
+        assertEquals(200, serverEvents.reliable.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, ByteBuffer.wrap(serverEvents.reliable.get(i)).getInt());
+        }
+        assertTrue(client.getStats().messagesResent() > 0, "30% loss should force resends");
+        assertTrue(client.getRoundTripMillis(id) >= 40, "RTT should reflect two 20 ms hops");
+    }
+
+    @Test
+    void largeMessagesAreFragmentedAndReassembled() {
+        LoopbackNetwork network = new LoopbackNetwork(7);
+        network.setLossRate(0.2f);
+        Recorder serverEvents = new Recorder();
+        Transport server = network.createServer(serverEvents);
+        Transport client = network.connect(server, new Recorder());
+        int id = serverEvents.connected.get(0);
+
+        byte[] payload = new byte[20_000];
+        for (int i = 0; i < payload.length; i++) payload[i] = (byte) (i * 31);
+        client.send(id, Channel.RELIABLE_ORDERED, ByteBuffer.wrap(payload));
+        run(network, 0, 3000);
+
+        assertEquals(1, serverEvents.reliable.size());
+        assertArrayEquals(payload, serverEvents.reliable.get(0));
+    }
+
+    @Test
+    void unreliableMessagesAreNeverDuplicated() {
+        LoopbackNetwork network = new LoopbackNetwork(3);
+        network.setLossRate(0.25f);
+        Recorder serverEvents = new Recorder();
+        Transport server = network.createServer(serverEvents);
+        Transport client = network.connect(server, new Recorder());
+        int id = serverEvents.connected.get(0);
+
+        for (int i = 0; i < 400; i++) {
+            client.send(id, Channel.UNRELIABLE, intMessage(i));
+            network.update(i * 5L);
+        }
+        run(network, 2000, 2100);
+
+        int received = serverEvents.unreliable.size();
+        assertTrue(received > 200 && received < 400, "About a quarter should be lost, got " + received);
+        assertEquals(received, serverEvents.unreliable.stream().map(b -> ByteBuffer.wrap(b).getInt()).distinct().count());
+    }
+
+    @Test
+    void bufferPoolStopsGrowingInSteadyState() {
+        LoopbackNetwork network = new LoopbackNetwork(11);
+        network.setLatencyMillis(10);
+        Recorder serverEvents = new Recorder();
+        Transport server = network.createServer(serverEvents);
+        Transport client = network.connect(server, new Recorder());
+        int id = serverEvents.connected.get(0);
+
+        long t = 0;
+        for (; t < 2000; t += 5) {
+            client.send(id, Channel.RELIABLE_ORDERED, intMessage((int) t));
+            server.send(id, Channel.UNRELIABLE, intMessage((int) t));
+            network.update(t);
+        }
+        int warmedUp = network.getBufferPool().getCreatedCount();
+        for (; t < 6000; t += 5) {
+            client.send(id, Channel.RELIABLE_ORDERED, intMessage((int) t));
+            server.send(id, Channel.UNRELIABLE, intMessage((int) t));
+            network.update(t);
+        }
+        run(network, t, t + 100);
+
+        assertEquals(warmedUp, network.getBufferPool().getCreatedCount());
+        assertEquals(1200, serverEvents.reliable.size());
+    }
+
+    @Test
+    void disconnectIsReportedToThePeer() {
+        LoopbackNetwork network = new LoopbackNetwork(1);
+        Recorder serverEvents = new Recorder();
+        Transport server = network.createServer(serverEvents);
+        Transport client = network.connect(server, new Recorder());
+        int id = serverEvents.connected.get(0);
+
+        client.disconnect(id);
+        network.update(0);
+
+        assertEquals(List.of(id), serverEvents.disconnected);
+        assertThrows(IllegalArgumentException.class, () -> server.send(id, Channel.UNRELIABLE, intMessage(1)));
+    }
+}
@@ -0,0 +1,58 @@
+package com.kindred.networking.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UdpTransportTest {
+
+    private record Events(BlockingQueue<Integer> connected, BlockingQueue<String> messages, TransportListener listener) {}
+
+    private static Events events(AtomicReference<UdpTransport> echoThrough) {
+        BlockingQueue<Integer> connected = new ArrayBlockingQueue<>(8);
+        BlockingQueue<String> messages = new ArrayBlockingQueue<>(8);
+        TransportListener listener = new TransportListener() {
+            @Override public void onConnected(int connectionId) { connected.add(connectionId); }
+            @Override public void onDisconnected(int connectionId) {}
+
+            @Override
+            public void onMessage(int connectionId, Channel channel, ByteBuffer message) {
+                if (echoThrough != null) {
+                    echoThrough.get().send(connectionId, Channel.RELIABLE_ORDERED, message.duplicate());
+                }
+                messages.add(StandardCharsets.UTF_8.decode(message).toString());
+            }
+        };
+        return new Events(connected, messages, listener);
+    }
+
+    @Test
+    void clientAndServerExchangeMessagesOverLocalhost() throws Exception {
+        AtomicReference<UdpTransport> serverRef = new AtomicReference<>();
+        Events serverEvents = events(serverRef);
+        Events clientEvents = events(null);
+
+        try (UdpTransport server = UdpTransport.listen(0, serverEvents.listener())) {
+            serverRef.set(server);
+            try (UdpTransport client = UdpTransport.connect(new InetSocketAddress("127.0.0.1", server.getLocalPort()), clientEvents.listener())) {
+                Integer clientId = clientEvents.connected().poll(5, TimeUnit.SECONDS);
+                Integer serverId = serverEvents.connected().poll(5, TimeUnit.SECONDS);
+                assertNotNull(clientId);
+                assertEquals(clientId, serverId);
+
+                client.send(clientId, Channel.RELIABLE_ORDERED, StandardCharsets.UTF_8.encode("hello"));
+                assertEquals("hello", serverEvents.messages().poll(5, TimeUnit.SECONDS));
+                assertEquals("hello", clientEvents.messages().poll(5, TimeUnit.SECONDS));
+                assertEquals(1, server.getConnectionCount());
+            }
+        }
+    }
+}
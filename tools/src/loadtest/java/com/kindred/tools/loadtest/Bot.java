@@ -0,0 +1,167 @@
+package com.kindred.tools.loadtest;
+
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.input.StampedCommand;
+import com.kindred.engine.serialization.WireFormat;
+import com.kindred.networking.replication.EntitySnapshot;
+import com.kindred.networking.replication.ReplicationClient;
+import com.kindred.networking.transport.Channel;
+import com.kindred.networking.transport.Transport;
+import com.kindred.networking.transport.TransportListener;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * A scripted client. It wanders in random directions, walks to the nearest living enemy in view and
+ * attacks it, now and then uses an item (the interact button) and chats. It decodes and acknowledges
+ * every snapshot like a real client, so the server's delta compression sees realistic acks.
+ * <p>
+ * {@link #tick()} runs on the load generator's thread; transport callbacks may run on another, so
+ * what the two share is volatile.
+ */
+class Bot implements TransportListener {
+
+    /** Enemies further than this are ignored; about the distance a player sees on screen. */
+    private static final int SIGHT_PIXELS = 200;
+    private static final int ATTACK_PIXELS = 24;
+    private static final String[] CHAT_LINES = {
+            "wolves by the river", "need bandages", "anyone got food?", "follow me", "on my way", "gg"};
+
+    private final Random random;
+    private final ReplicationClient replication = new ReplicationClient();
+    private final ByteBuffer out = ByteBuffer.allocate(256);
+    private volatile Transport transport;
+    private volatile int connectionId = -1;
+    private volatile boolean disconnected;
+    private volatile int playerEntity = -1;
+    // Offset to the nearest enemy from the last snapshot, valid while hasTarget
+    private volatile boolean hasTarget;
+    private volatile int targetDx, targetDy;
+    private volatile long snapshotsReceived, chatsReceived;
+    private volatile int viewTick = -1; // Newest snapshot, what the bot "sees"
+
+    private int inputTick;
+    private int wanderDirection = -1;
+    private int wanderTicksLeft;
+    private int ticksToItemUse;
+    private int ticksToChat;
+
+    Bot(long seed) {
+        this.random = new Random(seed);
+        this.ticksToItemUse = 300 + random.nextInt(600);
+        this.ticksToChat = 600 + random.nextInt(1200);
+    }
+
+    void setTransport(Transport transport) {
+        this.transport = transport;
+    }
+
+    /** Plays one client tick: decides the controls and sends them stamped. */
+    void tick() {
+        if (connectionId < 0 || disconnected) return;
+        PlayerCommand command = decide();
+        out.clear();
+        BotProtocol.writeInput(out, new StampedCommand(inputTick++, command, viewTick));
+        send(Channel.UNRELIABLE, out.flip());
+
+        if (--ticksToChat <= 0) {
+            ticksToChat = 600 + random.nextInt(1200);
+            out.clear();
+            out.put(BotProtocol.CHAT);
+            WireFormat.putString(out, CHAT_LINES[random.nextInt(CHAT_LINES.length)]);
+            send(Channel.RELIABLE_ORDERED, out.flip());
+        }
+    }
+
+    private void send(Channel channel, ByteBuffer message) {
+        try {
+            transport.send(connectionId, channel, message);
+        } catch (IllegalArgumentException e) {
+            disconnected = true; // The server dropped us before we heard about it
+        }
+    }
+
+    private PlayerCommand decide() {
+        boolean useItem = --ticksToItemUse <= 0;
+        if (useItem) ticksToItemUse = 300 + random.nextInt(600);
+
+        if (hasTarget) {
+            int dx = targetDx, dy = targetDy;
+            boolean inReach = Math.abs(dx) <= ATTACK_PIXELS && Math.abs(dy) <= ATTACK_PIXELS;
+            return new PlayerCommand(!inReach && dy < -2, !inReach && dy > 2, !inReach && dx < -2, !inReach && dx > 2,
+                    inReach, useItem);
+        }
+        if (--wanderTicksLeft <= 0) {
+            wanderDirection = random.nextInt(6) - 1; // -1 and 4 stand still
+            wanderTicksLeft = 30 + random.nextInt(90);
+        }
+        return new PlayerCommand(wanderDirection == 0, wanderDirection == 1, wanderDirection == 2, wanderDirection == 3,
+                false, useItem);
+    }
+
+    @Override
+    public void onConnected(int connectionId) {
+        this.connectionId = connectionId;
+    }
+
+    @Override
+    public void onMessage(int connectionId, Channel channel, ByteBuffer message) {
+        if (!message.hasRemaining()) return;
+        switch (message.get()) {
+            case BotProtocol.WELCOME -> playerEntity = WireFormat.getVarInt(message);
+            case BotProtocol.SNAPSHOT -> {
+                int tick = replication.read(message);
+                if (tick < 0) return;
+                snapshotsReceived++;
+                viewTick = Math.max(viewTick, tick);
+                ByteBuffer ack = ByteBuffer.allocate(8);
+                ack.put(BotProtocol.SNAPSHOT_ACK);
+                WireFormat.putVarInt(ack, tick);
+                send(Channel.UNRELIABLE, ack.flip());
+                findTarget(replication.getLatest());
+            }
+            case BotProtocol.CHAT_RELAY -> chatsReceived++;
+            default -> { }
+        }
+    }
+
+    private void findTarget(EntitySnapshot snapshot) {
+        int self = snapshot.indexOf(playerEntity);
+        if (self < 0) {
+            hasTarget = false;
+            return;
+        }
+        int best = -1;
+        long bestDistance = (long) SIGHT_PIXELS * SIGHT_PIXELS;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.getArchetype(i) != EntitySnapshot.ARCHETYPE_ENEMY || snapshot.isDead(i)) continue;
+            long dx = snapshot.getX(i) - snapshot.getX(self);
+            long dy = snapshot.getY(i) - snapshot.getY(self);
+            if (dx * dx + dy * dy < bestDistance) {
+                bestDistance = dx * dx + dy * dy;
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            targetDx = snapshot.getX(best) - snapshot.getX(self);
+            targetDy = snapshot.getY(best) - snapshot.getY(self);
+        }
+        hasTarget = best >= 0;
+    }
+
+    @Override
+    public void onDisconnected(int connectionId) {
+        disconnected = true;
+    }
+
+    /** Closes the bot's own transport; only needed for UDP, loopback endpoints go with their network. */
+    void close() {
+        if (transport != null) transport.close();
+    }
+
+    boolean isConnected() { return connectionId >= 0 && !disconnected; }
+    boolean isDisconnected() { return disconnected; }
+    long getSnapshotsReceived() { return snapshotsReceived; }
+    long getChatsReceived() { return chatsReceived; }
+}
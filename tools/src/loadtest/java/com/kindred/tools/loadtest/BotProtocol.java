@@ -0,0 +1,44 @@
+package com.kindred.tools.loadtest;
+
+import com.kindred.engine.input.PlayerCommand;
+import com.kindred.engine.input.StampedCommand;
+import com.kindred.engine.serialization.WireFormat;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The messages bots and the load-test server exchange: a type byte followed by the fields below,
+ * encoded with {@link WireFormat}. Just enough of a game protocol to load the server realistically:
+ * stamped inputs every tick, snapshot deltas and their acks, and chat on the reliable channel.
+ */
+final class BotProtocol {
+
+    /** Client to server: varint input tick, button bits, varint view tick + 1. Unreliable, one per client tick. */
+    static final byte INPUT = 1;
+    /** Client to server: varint snapshot tick. Unreliable. */
+    static final byte SNAPSHOT_ACK = 2;
+    /** Client to server: string. Reliable; relayed to everyone in the room. */
+    static final byte CHAT = 3;
+    /** Server to client: a ReplicationServer delta. Unreliable. */
+    static final byte SNAPSHOT = 4;
+    /** Server to client: varint sender client id, string. Reliable. */
+    static final byte CHAT_RELAY = 5;
+    /** Server to client: varint player entity id on the server. Reliable, once after joining. */
+    static final byte WELCOME = 6;
+
+    private BotProtocol() {}
+
+    static void writeInput(ByteBuffer out, StampedCommand input) {
+        out.put(INPUT);
+        WireFormat.putVarInt(out, input.tick());
+        out.put((byte) input.command().toBits());
+        WireFormat.putVarInt(out, input.viewTick() + 1);
+    }
+
+    /** Reads the fields of an INPUT message, after its type byte. */
+    static StampedCommand readInput(ByteBuffer in) {
+        int tick = WireFormat.getVarInt(in);
+        PlayerCommand command = PlayerCommand.fromBits(in.get());
+        return new StampedCommand(tick, command, WireFormat.getVarInt(in) - 1);
+    }
+}
@@ -0,0 +1,236 @@
+package com.kindred.tools.loadtest;
+
+import com.kindred.engine.serialization.WireFormat;
+import com.kindred.networking.replication.ReplicationServer;
+import com.kindred.networking.server.Room;
+import com.kindred.networking.server.RoomServer;
+import com.kindred.networking.server.ServerWorld;
+import com.kindred.networking.transport.Channel;
+import com.kindred.networking.transport.Transport;
+import com.kindred.networking.transport.TransportListener;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Puts a {@link RoomServer} behind a transport: fills rooms with arriving connections, feeds their
+ * messages to the rooms and replicates every room to its clients after its ticks.
+ * <p>
+ * Transport callbacks may come from any thread; everything touching a room's state is queued onto
+ * the room with {@link Room#execute}. Sends happen on the room threads. Transports that are not
+ * thread-safe (the loopback) get {@code directSend = false}: messages are then queued and sent by
+ * {@link #flush()} on the thread that owns the transport.
+ */
+class BotServer implements TransportListener {
+
+    private static final int MAX_MESSAGE_BYTES = 64 * 1024;
+
+    private final RoomServer rooms;
+    private final int clientsPerRoom;
+    private final boolean directSend;
+    private final Map<Integer, RoomState> roomStates = new LinkedHashMap<>();       // Guarded by itself
+    private final Map<Integer, RoomState> byConnection = new ConcurrentHashMap<>();
+    private final Queue<Outgoing> outbox = new ConcurrentLinkedQueue<>();
+    private final TickHistogram tickTimes;
+    private volatile Transport transport;
+    private volatile long rejected;
+
+    private record Outgoing(int connectionId, Channel channel, byte[] message) {}
+
+    /** Replication and membership of one room, only touched on the room's thread (except {@code joined}). */
+    private final class RoomState implements Room.TickListener {
+        final Room room;
+        final ReplicationServer replication = new ReplicationServer();
+        final List<Integer> clients = new ArrayList<>();
+        final ByteBuffer scratch = ByteBuffer.allocate(MAX_MESSAGE_BYTES);
+        int joined; // Guarded by roomStates; counts queued joins too
+
+        RoomState(Room room) {
+            this.room = room;
+            replication.setInterestFilter(room.getWorld().getInterestGrid());
+        }
+
+        @Override
+        public void afterTick(Room room) {
+            ServerWorld world = room.getWorld();
+            if (clients.isEmpty() || world.getTick() % ReplicationServer.DEFAULT_SEND_INTERVAL != 0) return;
+            world.getInterestGrid().update(world.getEntityManager(), null);
+            replication.capture(world.getEntityManager(), (int) world.getTick());
+            for (int client : clients) {
+                scratch.clear();
+                scratch.put(BotProtocol.SNAPSHOT);
+                replication.writeDelta(client, scratch, world.getLastProcessedInput(client));
+                send(client, Channel.UNRELIABLE, scratch.flip());
+            }
+        }
+
+        @Override
+        public void tickMeasured(Room room, long nanos) {
+            tickTimes.record(nanos);
+        }
+
+        void join(int connectionId) {
+            clients.add(connectionId);
+            replication.addClient(connectionId);
+            scratch.clear();
+            scratch.put(BotProtocol.WELCOME);
+            WireFormat.putVarInt(scratch, room.getWorld().getPlayerEntity(connectionId));
+            send(connectionId, Channel.RELIABLE_ORDERED, scratch.flip());
+        }
+
+        void leave(int connectionId) {
+            clients.remove(Integer.valueOf(connectionId));
+            replication.removeClient(connectionId);
+        }
+
+        void relayChat(int sender, String text) {
+            for (int client : clients) {
+                scratch.clear();
+                scratch.put(BotProtocol.CHAT_RELAY);
+                WireFormat.putVarInt(scratch, sender);
+                WireFormat.putString(scratch, text);
+                send(client, Channel.RELIABLE_ORDERED, scratch.flip());
+            }
+        }
+    }
+
+    /**
+     * @param rooms The server to fill; rooms are opened on demand.
+     * @param clientsPerRoom Connections put in one room before the next is opened.
+     * @param directSend True if the transport may be used from the room threads.
+     * @param tickTimes Receives the duration of every room tick.
+     */
+    BotServer(RoomServer rooms, int clientsPerRoom, boolean directSend, TickHistogram tickTimes) {
+        this.rooms = rooms;
+        this.clientsPerRoom = clientsPerRoom;
+        this.directSend = directSend;
+        this.tickTimes = tickTimes;
+        rooms.setRoomListener((room, shed) -> {
+            RoomState state;
+            synchronized (roomStates) {
+                state = roomStates.remove(room.getId());
+            }
+            if (state == null || transport == null) return;
+            for (Map.Entry<Integer, RoomState> entry : byConnection.entrySet()) {
+                if (entry.getValue() == state) {
+                    byConnection.remove(entry.getKey());
+                    disconnect(entry.getKey());
+                }
+            }
+        });
+    }
+
+    /** Must be set before the first connection arrives. */
+    void setTransport(Transport transport) {
+        this.transport = transport;
+    }
+
+    @Override
+    public void onConnected(int connectionId) {
+        RoomState state = admit();
+        if (state == null) {
+            rejected++;
+            disconnect(connectionId);
+            return;
+        }
+        byConnection.put(connectionId, state);
+        state.room.connect(connectionId);
+        state.room.execute(() -> state.join(connectionId));
+    }
+
+    private RoomState admit() {
+        synchronized (roomStates) {
+            for (RoomState state : roomStates.values()) {
+                if (state.joined < clientsPerRoom) {
+                    state.joined++;
+                    return state;
+                }
+            }
+        }
+        // Outside the lock: the room listener is called with the RoomServer's lock held and takes ours
+        Room room = rooms.openRoom();
+        if (room == null) return null;
+        RoomState state = new RoomState(room);
+        room.setTickListener(state);
+        synchronized (roomStates) {
+            roomStates.put(room.getId(), state);
+            state.joined++;
+        }
+        return state;
+    }
+
+    @Override
+    public void onMessage(int connectionId, Channel channel, ByteBuffer message) {
+        RoomState state = byConnection.get(connectionId);
+        if (state == null || !message.hasRemaining()) return;
+        switch (message.get()) {
+            case BotProtocol.INPUT -> state.room.submitInput(connectionId, BotProtocol.readInput(message));
+            case BotProtocol.SNAPSHOT_ACK -> {
+                int tick = WireFormat.getVarInt(message);
+                state.room.execute(() -> state.replication.acknowledge(connectionId, tick));
+            }
+            case BotProtocol.CHAT -> {
+                String text = WireFormat.getString(message);
+                state.room.execute(() -> state.relayChat(connectionId, text));
+            }
+            default -> { } // Unknown messages are ignored, like a real server would
+        }
+    }
+
+    @Override
+    public void onDisconnected(int connectionId) {
+        RoomState state = byConnection.remove(connectionId);
+        if (state == null) return;
+        synchronized (roomStates) {
+            state.joined--;
+        }
+        state.room.disconnect(connectionId);
+        state.room.execute(() -> state.leave(connectionId));
+    }
+
+    private void send(int connectionId, Channel channel, ByteBuffer message) {
+        if (directSend) {
+            try {
+                transport.send(connectionId, channel, message);
+            } catch (IllegalArgumentException e) {
+                // The connection closed since the room last heard of it
+            }
+        } else {
+            byte[] copy = new byte[message.remaining()];
+            message.get(copy);
+            outbox.add(new Outgoing(connectionId, channel, copy));
+        }
+    }
+
+    private void disconnect(int connectionId) {
+        if (directSend) {
+            transport.disconnect(connectionId);
+        } else {
+            outbox.add(new Outgoing(connectionId, null, null));
+        }
+    }
+
+    /** Sends queued messages; call from the transport's thread when {@code directSend} is false. */
+    void flush() {
+        Outgoing out;
+        while ((out = outbox.poll()) != null) {
+            if (out.channel() == null) {
+                transport.disconnect(out.connectionId());
+                continue;
+            }
+            try {
+                transport.send(out.connectionId(), out.channel(), ByteBuffer.wrap(out.message()));
+            } catch (IllegalArgumentException e) {
+                // Closed meanwhile
+            }
+        }
+    }
+
+    long getRejectedCount() { return rejected; }
+}
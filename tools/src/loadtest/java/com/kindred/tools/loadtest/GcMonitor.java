@@ -0,0 +1,69 @@
+package com.kindred.tools.loadtest;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects garbage collection pauses as the JVM reports them. Collectors whose notifications describe
+ * concurrent cycles rather than pauses (G1's "Concurrent GC", ZGC's "Cycles") are ignored, so what is
+ * counted is time the application threads, and with them the room ticks, were stopped.
+ */
+class GcMonitor implements NotificationListener, AutoCloseable {
+
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private long pauses;
+    private long pauseMillis;
+    private long maxPauseMillis;
+
+    GcMonitor() {
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            String name = bean.getName();
+            if (name.contains("Concurrent") || name.contains("Cycles")) continue;
+            if (bean instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(this, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        long duration = info.getGcInfo().getDuration();
+        synchronized (this) {
+            pauses++;
+            pauseMillis += duration;
+            maxPauseMillis = Math.max(maxPauseMillis, duration);
+        }
+    }
+
+    /** Pauses since the last call: count, total ms and longest ms. Resets the counters. */
+    synchronized long[] drain() {
+        long[] result = {pauses, pauseMillis, maxPauseMillis};
+        pauses = 0;
+        pauseMillis = 0;
+        maxPauseMillis = 0;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException ignored) {
+                // Never registered
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.kindred.tools.loadtest;
+
+import com.kindred.engine.loop.FixedStepLoop;
+import com.kindred.networking.server.HeadlessServer;
+import com.kindred.networking.server.RoomServer;
+import com.kindred.networking.server.ServerAssets;
+import com.kindred.networking.server.ServerWorld;
+import com.kindred.networking.transport.LoopbackNetwork;
+import com.kindred.networking.transport.Transport;
+import com.kindred.networking.transport.TransportStats;
+import com.kindred.networking.transport.UdpTransport;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Soak test for the room server: connects scripted {@link Bot}s at a steady rate, fills rooms with
+ * them and reports once per second how long room ticks take (p50, p99, max and ticks over the 16.67 ms
+ * budget), the server's bandwidth, GC pauses and whether the generator itself keeps up.
+ * <p>
+ * Bots connect over the in-memory {@link LoopbackNetwork} by default, which measures the server
+ * alone; {@code --udp} puts the real transport and the OS network stack in between, at the cost of a
+ * socket and a thread per bot.
+ */
+public class LoadTest {
+
+    /**
+     * @param bots Bots connected in total.
+     * @param botsPerRoom Bots put in one room before the next is opened.
+     * @param rampPerSecond Bots connected per second until all are in.
+     * @param seconds Length of the run, ramp included.
+     * @param carriers Threads running room ticks.
+     * @param udp True to connect over UDP sockets instead of the loopback.
+     * @param port UDP port of the server, 0 for any free port.
+     * @param latencyMillis One-way delay of the loopback.
+     */
+    record Options(int bots, int botsPerRoom, int rampPerSecond, int seconds, int carriers, boolean udp, int port,
+                   long latencyMillis) {
+
+        Options {
+            if (bots <= 0 || botsPerRoom <= 0 || rampPerSecond <= 0 || seconds <= 0 || carriers <= 0) {
+                throw new IllegalArgumentException("Counts and durations must be positive.");
+            }
+        }
+    }
+
+    /**
+     * @param ticks Room ticks measured.
+     * @param p99Nanos 99th percentile room tick.
+     * @param missedTicks Room ticks longer than one tick period.
+     * @param snapshotsReceived Snapshots the bots decoded.
+     * @param rejected Connections refused because no room could be opened.
+     * @param peakRooms Most rooms open at once.
+     */
+    record Summary(long ticks, long p99Nanos, long missedTicks, long snapshotsReceived, long rejected, int peakRooms) {}
+
+    private LoadTest() {}
+
+    /** Runs the test with rooms built from {@code assets}, printing progress to {@code out}. */
+    static Summary run(Options options, ServerAssets assets, PrintStream out) {
+        int maxRooms = (options.bots() + options.botsPerRoom() - 1) / options.botsPerRoom();
+        TickHistogram secondTicks = new TickHistogram();
+        TickHistogram allTicks = new TickHistogram();
+        List<Bot> bots = new ArrayList<>(options.bots());
+
+        try (RoomServer server = new RoomServer(assets, maxRooms, options.carriers());
+             GcMonitor gc = new GcMonitor()) {
+            BotServer botServer = new BotServer(server, options.botsPerRoom(), options.udp(), secondTicks);
+            LoopbackNetwork network = options.udp() ? null : new LoopbackNetwork(1);
+            Transport serverTransport;
+            if (network != null) {
+                network.setLatencyMillis(options.latencyMillis());
+                serverTransport = network.createServer(botServer);
+            } else {
+                serverTransport = listen(options.port(), botServer);
+            }
+            botServer.setTransport(serverTransport);
+            server.start();
+
+            long startNanos = System.nanoTime();
+            long endNanos = startNanos + options.seconds() * 1_000_000_000L;
+            double botsPerTick = options.rampPerSecond() / (double) ServerWorld.TICK_RATE;
+            double[] toConnect = {0};
+            int[] peakRooms = {0};
+            TransportStats[] lastStats = {serverTransport.getStats()};
+
+            FixedStepLoop loop = new FixedStepLoop(ServerWorld.TICK_RATE, 5);
+            loop.run(() -> System.nanoTime() < endNanos, new FixedStepLoop.Listener() {
+                @Override
+                public void update(float deltaTime) {
+                    toConnect[0] += botsPerTick;
+                    while (toConnect[0] >= 1 && bots.size() < options.bots()) {
+                        toConnect[0]--;
+                        Bot bot = new Bot(bots.size());
+                        bot.setTransport(network != null
+                                ? network.connect(serverTransport, bot)
+                                : connect(((UdpTransport) serverTransport).getLocalPort(), bot));
+                        bots.add(bot);
+                    }
+                    for (Bot bot : bots) {
+                        bot.tick();
+                    }
+                    if (network != null) {
+                        botServer.flush();
+                        network.update((System.nanoTime() - startNanos) / 1_000_000);
+                    }
+                }
+
+                @Override
+                public void second(int updates, int frames) {
+                    peakRooms[0] = Math.max(peakRooms[0], server.getRoomCount());
+                    TransportStats stats = serverTransport.getStats();
+                    long[] pauses = gc.drain();
+                    int connected = 0, dropped = 0;
+                    for (Bot bot : bots) {
+                        if (bot.isConnected()) connected++;
+                        else if (bot.isDisconnected()) dropped++;
+                    }
+                    out.printf("%4ds bots %d/%d (%d dropped) rooms %d load %.2f | tick p50 %.2f p99 %.2f max %.2f ms, %d missed"
+                                    + " | out %.1f kB/s in %.1f kB/s | gc %d pauses %d ms (max %d) | generator %d tps%n",
+                            (System.nanoTime() - startNanos) / 1_000_000_000L, connected, options.bots(), dropped,
+                            server.getRoomCount(), server.getLoad(),
+                            millis(secondTicks.percentileNanos(0.5)), millis(secondTicks.percentileNanos(0.99)),
+                            millis(secondTicks.getMaxNanos()), secondTicks.countAbove(RoomServer.TICK_PERIOD_NANOS),
+                            (stats.bytesSent() - lastStats[0].bytesSent()) / 1024.0,
+                            (stats.bytesReceived() - lastStats[0].bytesReceived()) / 1024.0,
+                            pauses[0], pauses[1], pauses[2], updates);
+                    lastStats[0] = stats;
+                    allTicks.addAll(secondTicks);
+                    secondTicks.reset();
+                }
+            });
+            allTicks.addAll(secondTicks);
+
+            long snapshots = 0;
+            for (Bot bot : bots) {
+                snapshots += bot.getSnapshotsReceived();
+                if (options.udp()) bot.close();
+            }
+            serverTransport.close();
+            Summary summary = new Summary(allTicks.getCount(), allTicks.percentileNanos(0.99),
+                    allTicks.countAbove(RoomServer.TICK_PERIOD_NANOS), snapshots, botServer.getRejectedCount(),
+                    Math.max(peakRooms[0], server.getRoomCount()));
+            out.printf("Done: %d room ticks, p99 %.2f ms, max %.2f ms, %d over %.2f ms; %d snapshots received,"
+                            + " %d connections rejected, peak %d rooms%n",
+                    summary.ticks(), millis(summary.p99Nanos()), millis(allTicks.getMaxNanos()), summary.missedTicks(),
+                    millis(RoomServer.TICK_PERIOD_NANOS), summary.snapshotsReceived(), summary.rejected(),
+                    summary.peakRooms());
+            return summary;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Transport listen(int port, BotServer botServer) {
+        try {
+            return UdpTransport.listen(port, botServer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the server socket", e);
+        }
+    }
+
+    private static Transport connect(int port, Bot bot) {
+        try {
+            return UdpTransport.connect(new InetSocketAddress("127.0.0.1", port), bot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open a bot socket", e);
+        }
+    }
+
+    /**
+     * Usage: {@code LoadTest [--bots 200] [--bots-per-room 8] [--ramp 100] [--seconds 60] [--carriers N]
+     * [--udp] [--port 0] [--latency 0] [--level /classpath/map.png] [--tile-size 16]}.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int bots = 200, botsPerRoom = 8, ramp = 100, seconds = 60, port = 0;
+        int carriers = Runtime.getRuntime().availableProcessors();
+        long latency = 0;
+        boolean udp = false;
+        String levelPath = HeadlessServer.DEFAULT_LEVEL;
+        int tileSize = HeadlessServer.DEFAULT_TILE_SIZE;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--bots" -> { bots = Integer.parseInt(value); i++; }
+                case "--bots-per-room" -> { botsPerRoom = Integer.parseInt(value); i++; }
+                case "--ramp" -> { ramp = Integer.parseInt(value); i++; }
+                case "--seconds" -> { seconds = Integer.parseInt(value); i++; }
+                case "--carriers" -> { carriers = Integer.parseInt(value); i++; }
+                case "--udp" -> udp = true;
+                case "--port" -> { port = Integer.parseInt(value); i++; }
+                case "--latency" -> { latency = Long.parseLong(value); i++; }
+                case "--level" -> { levelPath = value; i++; }
+                case "--tile-size" -> { tileSize = Integer.parseInt(value); i++; }
+                default -> {
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        Options options = new Options(bots, botsPerRoom, ramp, seconds, carriers, udp, port, latency);
+        run(options, ServerAssets.load(levelPath, tileSize), System.out);
+    }
+}
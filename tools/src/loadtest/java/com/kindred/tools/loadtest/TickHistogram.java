@@ -0,0 +1,76 @@
+package com.kindred.tools.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of tick durations in 10 µs buckets up to 100 ms (slower ticks land in the last bucket),
+ * so percentiles cost nothing to record and stay exact to 10 µs. Thread-safe: rooms record from
+ * every carrier thread.
+ */
+class TickHistogram {
+
+    static final long BUCKET_NANOS = 10_000;
+    private static final int BUCKETS = 10_000;
+
+    private final long[] counts = new long[BUCKETS + 1];
+    private long total;
+    private long maxNanos;
+
+    synchronized void record(long nanos) {
+        counts[(int) Math.min(BUCKETS, Math.max(0, nanos / BUCKET_NANOS))]++;
+        total++;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /** Adds every sample of another histogram. */
+    synchronized void addAll(TickHistogram other) {
+        long[] otherCounts;
+        long otherTotal, otherMax;
+        synchronized (other) {
+            otherCounts = other.counts.clone();
+            otherTotal = other.total;
+            otherMax = other.maxNanos;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += otherCounts[i];
+        }
+        total += otherTotal;
+        maxNanos = Math.max(maxNanos, otherMax);
+    }
+
+    /**
+     * The duration below which the given fraction of ticks fell, at bucket resolution.
+     * @param fraction In [0, 1], e.g. 0.99.
+     * @return Nanoseconds, 0 if empty.
+     */
+    synchronized long percentileNanos(double fraction) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(maxNanos, (i + 1) * BUCKET_NANOS);
+            }
+        }
+        return maxNanos;
+    }
+
+    /** Ticks that took longer than the threshold, at bucket resolution. */
+    synchronized long countAbove(long nanos) {
+        long above = 0;
+        for (int i = (int) Math.min(BUCKETS, nanos / BUCKET_NANOS); i < counts.length; i++) {
+            above += counts[i];
+        }
+        return above;
+    }
+
+    synchronized long getCount() { return total; }
+    synchronized long getMaxNanos() { return maxNanos; }
+
+    synchronized void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        maxNanos = 0;
+    }
+}
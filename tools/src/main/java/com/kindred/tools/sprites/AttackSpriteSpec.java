@@ -0,0 +1,51 @@
+package com.kindred.tools.sprites;
+
+import java.awt.Rectangle;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source description of one directional attack effect.
+ *
+ * @param key Animation key used by the runtime (e.g. GENERIC_SLASH).
+ * @param sheetPath Sheet path relative to the resources root, frames stacked vertically.
+ * @param frameWidth Width of one frame on the sheet.
+ * @param frameHeight Height of one frame on the sheet.
+ * @param frameCount Number of frames on the sheet.
+ * @param frameDuration Seconds each frame is shown.
+ * @param directionTransforms Transform from the sheet's orientation to each direction, keyed by direction constant.
+ * @param hitboxes Hitboxes per frame index, relative to the entity origin and in the sheet's orientation.
+ */
+public record AttackSpriteSpec(String key,
+                               String sheetPath,
+                               int frameWidth,
+                               int frameHeight,
+                               int frameCount,
+                               float frameDuration,
+                               Map<Integer, SpriteTransform> directionTransforms,
+                               Map<Integer, List<Rectangle>> hitboxes) {
+
+    // Direction constants, same values as AnimationComponent in the engine
+    public static final int DOWN = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int UP = 3;
+
+    /** The attack sheets are drawn facing down; the other directions are quarter turns of it. */
+    public static final Map<Integer, SpriteTransform> ROTATED_FROM_DOWN = Map.of(
+            DOWN, SpriteTransform.NONE,
+            LEFT, SpriteTransform.ROTATE_90,
+            UP, SpriteTransform.ROTATE_180,
+            RIGHT, SpriteTransform.ROTATE_270);
+
+    public AttackSpriteSpec {
+        if (key == null || key.isBlank()) throw new IllegalArgumentException("Animation key cannot be empty.");
+        if (frameWidth <= 0 || frameHeight <= 0 || frameCount <= 0) {
+            throw new IllegalArgumentException("Frame size and count must be positive for " + key + ".");
+        }
+        if (directionTransforms == null || directionTransforms.isEmpty()) {
+            throw new IllegalArgumentException("No directions defined for " + key + ".");
+        }
+        if (hitboxes == null) hitboxes = Map.of();
+    }
+}
@@ -0,0 +1,225 @@
+package com.kindred.tools.sprites;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Build-time sprite preprocessing. For every attack effect it cuts the frames out of the source sheet,
+ * turns them to face each direction, trims the transparent borders, computes the hitboxes for every
+ * direction and packs everything into one bundle image plus a text manifest.
+ * The engine loads the result with {@code SpriteBundle} instead of rotating frames at startup.
+ * <p>
+ * Run by the {@code processSprites} Gradle task: {@code SpritePipeline <resourcesRoot> <outputRoot>}.
+ * <p>
+ * Manifest lines (whitespace separated, {@code #} starts a comment):
+ * <pre>
+ * bundle    &lt;version&gt; &lt;image file, relative to the manifest&gt;
+ * animation &lt;key&gt; &lt;frameCount&gt; &lt;frameDuration&gt;
+ * frame     &lt;key&gt; &lt;direction&gt; &lt;frame&gt; &lt;x&gt; &lt;y&gt; &lt;w&gt; &lt;h&gt; &lt;offsetX&gt; &lt;offsetY&gt; &lt;sourceW&gt; &lt;sourceH&gt;
+ * hitbox    &lt;key&gt; &lt;direction&gt; &lt;frame&gt; &lt;x&gt; &lt;y&gt; &lt;w&gt; &lt;h&gt;
+ * </pre>
+ * x/y/w/h of a frame locate the trimmed pixels in the bundle image; offsetX/offsetY is where they sat
+ * in the untrimmed frame of sourceW x sourceH.
+ */
+public class SpritePipeline {
+
+    public static final int BUNDLE_VERSION = 1;
+    public static final String ATTACK_BUNDLE = "assets/bundles/attacks";
+    /** Screen's colour key; such pixels are never drawn, so they count as transparent when trimming. */
+    public static final int COLOR_KEY = 0xFFFF00FF;
+    private static final int BUNDLE_WIDTH = 256;
+
+    /** Attack effects shipped with the game. */
+    public static final List<AttackSpriteSpec> ATTACKS = List.of(
+            new AttackSpriteSpec("GENERIC_SLASH", "assets/sprites/attack_spritesheet.png",
+                    40, 30, 4, 0.1f,
+                    AttackSpriteSpec.ROTATED_FROM_DOWN,
+                    Map.of(
+                            // Frame 0 is the wind-up and frame 3 the follow-through, neither hits
+                            1, List.of(new Rectangle(-15, 5, 30, 20)),
+                            2, List.of(new Rectangle(-20, 5, 40, 25)))));
+
+    /** One processed frame. x/y are assigned when the bundle is packed. */
+    public static final class Frame {
+        public final String key;
+        public final int direction;
+        public final int index;
+        public final int[] pixels;
+        public final int width, height;
+        public final int offsetX, offsetY;
+        public final int sourceWidth, sourceHeight;
+        public int x, y;
+
+        Frame(String key, int direction, int index, int[] pixels, int width, int height,
+              int offsetX, int offsetY, int sourceWidth, int sourceHeight) {
+            this.key = key;
+            this.direction = direction;
+            this.index = index;
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: SpritePipeline <resourcesRoot> <outputRoot>");
+            System.exit(2);
+        }
+        Path resources = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+
+        List<Frame> frames = new ArrayList<>();
+        for (AttackSpriteSpec spec : ATTACKS) {
+            BufferedImage sheet = ImageIO.read(resources.resolve(spec.sheetPath()).toFile());
+            if (sheet == null) throw new IOException("Could not decode " + spec.sheetPath());
+            frames.addAll(processFrames(spec, sheet));
+        }
+        writeBundle(output.resolve(ATTACK_BUNDLE), ATTACKS, frames);
+
+        int trimmed = frames.stream().mapToInt(f -> f.sourceWidth * f.sourceHeight - f.width * f.height).sum();
+        System.out.println("Packed " + frames.size() + " attack frames into " + ATTACK_BUNDLE
+                + " (" + trimmed + " transparent pixels trimmed).");
+    }
+
+    /** Cuts, turns and trims every frame of an attack for every direction of the spec. */
+    public static List<Frame> processFrames(AttackSpriteSpec spec, BufferedImage sheet) {
+        int fw = spec.frameWidth();
+        int fh = spec.frameHeight();
+        if (sheet.getWidth() < fw || sheet.getHeight() < fh * spec.frameCount()) {
+            throw new IllegalArgumentException("Sheet " + spec.sheetPath() + " is smaller than "
+                    + spec.frameCount() + " frames of " + fw + "x" + fh + ".");
+        }
+        List<Frame> frames = new ArrayList<>();
+        for (int i = 0; i < spec.frameCount(); i++) {
+            int[] source = sheet.getRGB(0, i * fh, fw, fh, null, 0, fw);
+            for (Map.Entry<Integer, SpriteTransform> dir : new TreeMap<>(spec.directionTransforms()).entrySet()) {
+                SpriteTransform transform = dir.getValue();
+                int w = transform.width(fw, fh);
+                int h = transform.height(fw, fh);
+                int[] turned = transform.apply(source, fw, fh);
+                Rectangle bounds = opaqueBounds(turned, w, h);
+                frames.add(new Frame(spec.key(), dir.getKey(), i, crop(turned, w, bounds), bounds.width, bounds.height,
+                        bounds.x, bounds.y, w, h));
+            }
+        }
+        return frames;
+    }
+
+    /** Hitboxes of the spec turned to face the given direction. */
+    public static Map<Integer, List<Rectangle>> hitboxesFor(AttackSpriteSpec spec, int direction) {
+        SpriteTransform transform = spec.directionTransforms().get(direction);
+        Map<Integer, List<Rectangle>> result = new TreeMap<>();
+        if (transform == null) return result;
+        spec.hitboxes().forEach((frame, boxes) ->
+                result.put(frame, boxes.stream().map(transform::apply).toList()));
+        return result;
+    }
+
+    /**
+     * Smallest rectangle holding every visible pixel (neither fully transparent nor the colour key).
+     * A frame with nothing visible keeps a single pixel so it still has a place in the bundle.
+     */
+    public static Rectangle opaqueBounds(int[] pixels, int w, int h) {
+        int minX = w, minY = h, maxX = -1, maxY = -1;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int p = pixels[y * w + x];
+                if ((p >>> 24) == 0 || p == COLOR_KEY) continue;
+                if (x < minX) minX = x;
+                if (x > maxX) maxX = x;
+                if (y < minY) minY = y;
+                if (y > maxY) maxY = y;
+            }
+        }
+        if (maxX < 0) return new Rectangle(0, 0, 1, 1);
+        return new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    }
+
+    private static int[] crop(int[] pixels, int w, Rectangle r) {
+        int[] out = new int[r.width * r.height];
+        for (int y = 0; y < r.height; y++) {
+            System.arraycopy(pixels, (r.y + y) * w + r.x, out, y * r.width, r.width);
+        }
+        return out;
+    }
+
+    /**
+     * Places the frames on shelves, tallest first, and returns the height the bundle needs.
+     * The bundle is small and packed once per build, so a shelf packer is good enough here.
+     */
+    public static int pack(List<Frame> frames, int bundleWidth) {
+        List<Frame> order = new ArrayList<>(frames);
+        order.sort(Comparator.comparingInt((Frame f) -> f.height).reversed().thenComparingInt(f -> -f.width));
+        int x = 0, y = 0, shelfHeight = 0;
+        for (Frame f : order) {
+            if (f.width > bundleWidth) {
+                throw new IllegalArgumentException("Frame " + f.key + "/" + f.direction + "/" + f.index
+                        + " is wider than the bundle (" + bundleWidth + ").");
+            }
+            if (x + f.width > bundleWidth) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+            f.x = x;
+            f.y = y;
+            x += f.width;
+            shelfHeight = Math.max(shelfHeight, f.height);
+        }
+        return Math.max(1, y + shelfHeight);
+    }
+
+    /** Packs the frames and writes {@code <base>.png} and {@code <base>.manifest}. */
+    public static void writeBundle(Path base, List<AttackSpriteSpec> specs, List<Frame> frames) throws IOException {
+        int height = pack(frames, BUNDLE_WIDTH);
+        BufferedImage bundle = new BufferedImage(BUNDLE_WIDTH, height, BufferedImage.TYPE_INT_ARGB);
+        for (Frame f : frames) {
+            bundle.setRGB(f.x, f.y, f.width, f.height, f.pixels, 0, f.width);
+        }
+
+        Files.createDirectories(base.getParent());
+        Path image = base.resolveSibling(base.getFileName() + ".png");
+        ImageIO.write(bundle, "png", image.toFile());
+        try (Writer out = Files.newBufferedWriter(base.resolveSibling(base.getFileName() + ".manifest"), StandardCharsets.UTF_8)) {
+            writeManifest(out, image.getFileName().toString(), specs, frames);
+        }
+    }
+
+    public static void writeManifest(Writer out, String imageName, List<AttackSpriteSpec> specs, List<Frame> frames) throws IOException {
+        out.write("# Generated by " + SpritePipeline.class.getName() + ", do not edit.\n");
+        out.write("bundle " + BUNDLE_VERSION + " " + imageName + "\n");
+        for (AttackSpriteSpec spec : specs) {
+            out.write(String.format(Locale.ROOT, "animation %s %d %s%n", spec.key(), spec.frameCount(), spec.frameDuration()));
+            for (Frame f : frames) {
+                if (!f.key.equals(spec.key())) continue;
+                out.write(String.format(Locale.ROOT, "frame %s %d %d %d %d %d %d %d %d %d %d%n", f.key, f.direction, f.index,
+                        f.x, f.y, f.width, f.height, f.offsetX, f.offsetY, f.sourceWidth, f.sourceHeight));
+            }
+            for (int direction : new TreeMap<>(spec.directionTransforms()).keySet()) {
+                for (Map.Entry<Integer, List<Rectangle>> entry : hitboxesFor(spec, direction).entrySet()) {
+                    for (Rectangle r : entry.getValue()) {
+                        out.write(String.format(Locale.ROOT, "hitbox %s %d %d %d %d %d %d%n", spec.key(), direction,
+                                entry.getKey(), r.x, r.y, r.width, r.height));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.kindred.tools.sprites;
+
+import java.awt.Rectangle;
+
+/**
+ * Lossless quarter-turn rotations and mirror flips for sprite frames and their hitboxes.
+ * Pixels are remapped one to one (no resampling, unlike an AffineTransform draw), so colour-keyed
+ * pixels stay exactly on the key colour. Rotations are clockwise on screen (y points down).
+ * Hitboxes are transformed around the entity origin (0, 0); a quarter turn of an axis-aligned
+ * rectangle is still axis-aligned, so the result is exact.
+ */
+public enum SpriteTransform {
+    NONE,
+    ROTATE_90,
+    ROTATE_180,
+    ROTATE_270,
+    FLIP_HORIZONTAL,
+    FLIP_VERTICAL;
+
+    /** True if the transform swaps width and height. */
+    public boolean swapsAxes() {
+        return this == ROTATE_90 || this == ROTATE_270;
+    }
+
+    public int width(int srcWidth, int srcHeight) {
+        return swapsAxes() ? srcHeight : srcWidth;
+    }
+
+    public int height(int srcWidth, int srcHeight) {
+        return swapsAxes() ? srcWidth : srcHeight;
+    }
+
+    /**
+     * Transforms a row-major ARGB pixel array.
+     * @return A new array of {@code width(w, h) * height(w, h)} pixels.
+     */
+    public int[] apply(int[] pixels, int w, int h) {
+        if (pixels == null || pixels.length != w * h) {
+            throw new IllegalArgumentException("Pixel array does not match " + w + "x" + h + ".");
+        }
+        int dstW = width(w, h);
+        int[] out = new int[pixels.length];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int dx, dy;
+                switch (this) {
+                    case ROTATE_90 -> { dx = h - 1 - y; dy = x; }
+                    case ROTATE_180 -> { dx = w - 1 - x; dy = h - 1 - y; }
+                    case ROTATE_270 -> { dx = y; dy = w - 1 - x; }
+                    case FLIP_HORIZONTAL -> { dx = w - 1 - x; dy = y; }
+                    case FLIP_VERTICAL -> { dx = x; dy = h - 1 - y; }
+                    default -> { dx = x; dy = y; }
+                }
+                out[dy * dstW + dx] = pixels[y * w + x];
+            }
+        }
+        return out;
+    }
+
+    /** Transforms a hitbox given relative to the entity origin. */
+    public Rectangle apply(Rectangle r) {
+        return switch (this) {
+            case ROTATE_90 -> new Rectangle(-(r.y + r.height), r.x, r.height, r.width);
+            case ROTATE_180 -> new Rectangle(-(r.x + r.width), -(r.y + r.height), r.width, r.height);
+            case ROTATE_270 -> new Rectangle(r.y, -(r.x + r.width), r.height, r.width);
+            case FLIP_HORIZONTAL -> new Rectangle(-(r.x + r.width), r.y, r.width, r.height);
+            case FLIP_VERTICAL -> new Rectangle(r.x, -(r.y + r.height), r.width, r.height);
+            default -> new Rectangle(r);
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.kindred.tools.loadtest;
+
+import com.kindred.engine.level.Level;
+import com.kindred.engine.level.SpawnPoint;
+import com.kindred.engine.level.Tile;
+import com.kindred.engine.level.TileSet;
+import com.kindred.engine.resource.AnimationDataRegistry;
+import com.kindred.engine.resource.AssetLoader;
+import com.kindred.networking.server.ServerAssets;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadTestTest {
+
+    @Test
+    void histogramReportsPercentilesAtBucketResolution() {
+        TickHistogram histogram = new TickHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 100_000L); // 0.1 ms .. 10 ms
+        }
+        histogram.record(50_000_000_000L); // Far past the last bucket
+
+        assertEquals(101, histogram.getCount());
+        assertEquals(5_110_000, histogram.percentileNanos(0.5)); // The 51st of 101 samples
+        assertEquals(10_010_000, histogram.percentileNanos(0.99));
+        assertEquals(50_000_000_000L, histogram.getMaxNanos());
+        assertEquals(51, histogram.countAbove(5_010_000));
+
+        TickHistogram total = new TickHistogram();
+        total.addAll(histogram);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(101, total.getCount());
+    }
+
+    @Test
+    void botsFillRoomsAndReceiveSnapshotsOverTheLoopback() {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        LoadTest.Options options = new LoadTest.Options(12, 4, 120, 2, 2, false, 0, 0);
+
+        LoadTest.Summary summary = LoadTest.run(options, assets(), new PrintStream(report, true));
+
+        assertEquals(3, summary.peakRooms());
+        assertEquals(0, summary.rejected());
+        assertTrue(summary.ticks() > 0, "Room ticks were measured");
+        assertTrue(summary.snapshotsReceived() > 12, "Every bot gets snapshots");
+        assertTrue(report.toString().contains("Done:"), report.toString());
+    }
+
+    private static ServerAssets assets() {
+        Tile grass = new TileSet(AssetLoader.loadImage(Tile.SHEET_PATH)).grass;
+        Level level = new Level(30, 30, 16);
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 30; x++) {
+                level.setTile(x, y, grass);
+            }
+        }
+        level.addSpawnPoint(new SpawnPoint(10, 10, SpawnPoint.SpawnType.PLAYER));
+        level.addSpawnPoint(new SpawnPoint(14, 10, SpawnPoint.SpawnType.ENEMY_DEIDARA));
+        return new ServerAssets(level, new AnimationDataRegistry());
+    }
+}
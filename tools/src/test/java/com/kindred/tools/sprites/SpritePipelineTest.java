@@ -0,0 +1,87 @@
+package com.kindred.tools.sprites;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpritePipelineTest {
+
+    @Test
+    void quarterTurnsAndFlipsRemapPixelsExactly() {
+        // 3x2:  a b c
+        //       d e f
+        int[] px = {1, 2, 3, 4, 5, 6};
+
+        assertArrayEquals(new int[]{4, 1, 5, 2, 6, 3}, SpriteTransform.ROTATE_90.apply(px, 3, 2));
+        assertArrayEquals(new int[]{6, 5, 4, 3, 2, 1}, SpriteTransform.ROTATE_180.apply(px, 3, 2));
+        assertArrayEquals(new int[]{3, 6, 2, 5, 1, 4}, SpriteTransform.ROTATE_270.apply(px, 3, 2));
+        assertArrayEquals(new int[]{3, 2, 1, 6, 5, 4}, SpriteTransform.FLIP_HORIZONTAL.apply(px, 3, 2));
+        assertArrayEquals(new int[]{4, 5, 6, 1, 2, 3}, SpriteTransform.FLIP_VERTICAL.apply(px, 3, 2));
+    }
+
+    @Test
+    void hitboxesTurnAroundTheEntityOrigin() {
+        Rectangle down = new Rectangle(-15, 5, 30, 20); // Below the entity
+
+        assertEquals(new Rectangle(-25, -15, 20, 30), SpriteTransform.ROTATE_90.apply(down)); // Left of it
+        assertEquals(new Rectangle(-15, -25, 30, 20), SpriteTransform.ROTATE_180.apply(down)); // Above it
+        assertEquals(new Rectangle(5, -15, 20, 30), SpriteTransform.ROTATE_270.apply(down)); // Right of it
+    }
+
+    @Test
+    void everyDirectionGetsTrimmedFramesAndHitboxes() {
+        AttackSpriteSpec spec = new AttackSpriteSpec("TEST", "test.png", 4, 3, 1, 0.1f,
+                AttackSpriteSpec.ROTATED_FROM_DOWN, Map.of(0, List.of(new Rectangle(0, 2, 4, 1))));
+        BufferedImage sheet = new BufferedImage(4, 3, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 3; y++) for (int x = 0; x < 4; x++) sheet.setRGB(x, y, SpritePipeline.COLOR_KEY);
+        sheet.setRGB(1, 1, 0xFF00FF00);
+        sheet.setRGB(2, 1, 0xFF00FF00);
+
+        List<SpritePipeline.Frame> frames = SpritePipeline.processFrames(spec, sheet);
+
+        assertEquals(4, frames.size());
+        SpritePipeline.Frame down = frames.stream().filter(f -> f.direction == AttackSpriteSpec.DOWN).findFirst().orElseThrow();
+        assertEquals(2, down.width);
+        assertEquals(1, down.height);
+        assertEquals(1, down.offsetX);
+        assertEquals(1, down.offsetY);
+        SpritePipeline.Frame left = frames.stream().filter(f -> f.direction == AttackSpriteSpec.LEFT).findFirst().orElseThrow();
+        assertEquals(3, left.sourceWidth);
+        assertEquals(4, left.sourceHeight);
+        for (int dir = 0; dir < 4; dir++) {
+            assertFalse(SpritePipeline.hitboxesFor(spec, dir).isEmpty(), "no hitboxes for direction " + dir);
+        }
+    }
+
+    @Test
+    void manifestListsEveryPackedFrameWithoutOverlap() throws Exception {
+        AttackSpriteSpec spec = SpritePipeline.ATTACKS.get(0);
+        BufferedImage sheet = new BufferedImage(spec.frameWidth(), spec.frameHeight() * spec.frameCount(), BufferedImage.TYPE_INT_ARGB);
+        sheet.setRGB(0, 0, 0xFFFFFFFF);
+        List<SpritePipeline.Frame> frames = SpritePipeline.processFrames(spec, sheet);
+
+        int height = SpritePipeline.pack(frames, 64);
+        StringWriter manifest = new StringWriter();
+        SpritePipeline.writeManifest(manifest, "attacks.png", List.of(spec), frames);
+
+        for (SpritePipeline.Frame a : frames) {
+            Rectangle ra = new Rectangle(a.x, a.y, a.width, a.height);
+            assertTrue(new Rectangle(0, 0, 64, height).contains(ra));
+            for (SpritePipeline.Frame b : frames) {
+                if (a != b) assertFalse(ra.intersects(new Rectangle(b.x, b.y, b.width, b.height)));
+            }
+        }
+        long frameLines = manifest.toString().lines().filter(l -> l.startsWith("frame ")).count();
+        assertEquals(4L * spec.frameCount(), frameLines);
+        assertTrue(manifest.toString().contains("bundle 1 attacks.png"));
+    }
+}